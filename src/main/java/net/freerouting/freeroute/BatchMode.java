@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.freerouting.freeroute.autoroute.BatchProgressListener;
+import net.freerouting.freeroute.autoroute.BatchRouter;
+import net.freerouting.freeroute.board.BoardObserverAdaptor;
+import net.freerouting.freeroute.board.ItemIdNoGenerator;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.board.TestLevel;
+import net.freerouting.freeroute.designformats.specctra.DsnFile;
+import net.freerouting.freeroute.designformats.specctra.DsnFileException;
+import net.freerouting.freeroute.designformats.specctra.SessionFile;
+import net.freerouting.freeroute.interactive.AutorouteSettings;
+import net.freerouting.freeroute.interactive.BoardHandling;
+
+/**
+ * Routes a design from the command line without starting the graphical user
+ * interface. Reads a Specctra dsn file, runs the batch fanout, autoroute and
+ * optimize passes and writes the result to a Specctra session file.
+ *
+ * The exit status is the number of incomplete connections left on the board,
+ * limited to MAX_INCOMPLETE_EXIT_STATUS, or EXIT_ERROR if the design could not
+ * be read or the session file could not be written.
+ *
+ * @author agent
+ */
+final class BatchMode {
+
+    static final int EXIT_ERROR = 255;
+    static final int MAX_INCOMPLETE_EXIT_STATUS = 254;
+    private static final Logger LOGGER = Logger.getLogger(BatchMode.class.getName());
+
+    private String design_file_name = null;
+    private String session_file_name = null;
+    private int fanout_passes = -1;
+    private int autoroute_passes = -1;
+    private int optimize_passes = -1;
+    private int thread_count = 1;
+    private TestLevel test_level = TestLevel.RELEASE_VERSION;
+
+    private BatchMode() {
+    }
+
+    /**
+     * Returns true, if p_args request the command line batch mode.
+     */
+    static boolean is_requested(String[] p_args) {
+        return Arrays.stream(p_args).anyMatch("-batch"::equals);
+    }
+
+    /**
+     * Routes the design given in p_args and returns the exit status.
+     */
+    static int run(String[] p_args) {
+        System.setProperty("java.awt.headless", "true");
+        BatchMode batch_mode = new BatchMode();
+        try {
+            batch_mode.parse_arguments(p_args);
+        } catch (IllegalArgumentException exc) {
+            System.err.println(exc.getMessage());
+            return EXIT_ERROR;
+        }
+        return batch_mode.route();
+    }
+
+    private void parse_arguments(String[] p_args) {
+        Iterator<String> iterator = Arrays.asList(p_args).iterator();
+        while (iterator.hasNext()) {
+            String string = iterator.next();
+            switch (string) {
+                case "-batch":
+                    break;
+                case "-de":
+                    design_file_name = next_argument(iterator, string, "design_file");
+                    break;
+                case "-do":
+                    session_file_name = next_argument(iterator, string, "session_file");
+                    break;
+                case "-fp":
+                    fanout_passes = next_count(iterator, string, "pass_count", 0);
+                    break;
+                case "-mp":
+                    autoroute_passes = next_count(iterator, string, "pass_count", 0);
+                    break;
+                case "-op":
+                    optimize_passes = next_count(iterator, string, "pass_count", 0);
+                    break;
+                case "-mt":
+                    thread_count = next_count(iterator, string, "thread_count", 1);
+                    break;
+                case "-test":
+                    test_level = TestLevel.CRITICAL_DEBUGGING_OUTPUT;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argument: " + string + " [not recognized in batch mode]");
+            }
+        }
+        if (design_file_name == null) {
+            throw new IllegalArgumentException("Argument: -batch [missing -de design_file]");
+        }
+        if (session_file_name == null) {
+            String base_name = design_file_name;
+            if (base_name.toLowerCase().endsWith(".dsn")) {
+                base_name = base_name.substring(0, base_name.length() - 4);
+            }
+            session_file_name = base_name + ".ses";
+        }
+    }
+
+    private static String next_argument(Iterator<String> p_iterator, String p_option, String p_name) {
+        if (!p_iterator.hasNext()) {
+            throw new IllegalArgumentException("Argument: " + p_option + " [missing " + p_name + "]");
+        }
+        return p_iterator.next();
+    }
+
+    /**
+     * Reads the count following p_option, which must be at least p_min_value.
+     */
+    private static int next_count(Iterator<String> p_iterator, String p_option, String p_name, int p_min_value) {
+        String value = next_argument(p_iterator, p_option, p_name);
+        int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException exc) {
+            throw new IllegalArgumentException("Argument: " + p_option + " [illegal " + p_name + " " + value + "]", exc);
+        }
+        if (result < p_min_value) {
+            throw new IllegalArgumentException("Argument: " + p_option + " [" + p_name + " " + value
+                    + " less than " + p_min_value + "]");
+        }
+        return result;
+    }
+
+    private int route() {
+        long start_time = System.currentTimeMillis();
+        BoardHandling board_handling = BoardHandling.get_headless_instance();
+        File design_file = new File(design_file_name);
+        try {
+            DsnFile.read(design_file, board_handling, new BoardObserverAdaptor(), new ItemIdNoGenerator(), test_level);
+        } catch (DsnFileException exc) {
+            LOGGER.log(Level.SEVERE, "unable to read design file " + design_file_name, exc);
+            return EXIT_ERROR;
+        }
+        RoutingBoard routing_board = board_handling.get_routing_board();
+        if (routing_board == null) {
+            LOGGER.log(Level.SEVERE, "unable to read design file {0}", design_file_name);
+            return EXIT_ERROR;
+        }
+        routing_board.reduce_nets_of_route_items();
+
+        AutorouteSettings autoroute_settings = board_handling.settings.autoroute_settings;
+        if (fanout_passes >= 0) {
+            autoroute_settings.set_with_fanout(fanout_passes > 0);
+        }
+        if (autoroute_passes >= 0) {
+            autoroute_settings.set_with_autoroute(autoroute_passes > 0);
+        }
+        if (optimize_passes >= 0) {
+            autoroute_settings.set_with_postroute(optimize_passes > 0);
+        }
+        BatchRouter batch_router = new BatchRouter(routing_board, board_handling.settings, null, BatchProgressListener.NONE);
+        batch_router.set_max_pass_counts(fanout_passes > 0 ? fanout_passes : BatchRouter.DEFAULT_MAX_FANOUT_PASSES,
+                autoroute_passes > 0 ? autoroute_passes : Integer.MAX_VALUE,
+                optimize_passes > 0 ? optimize_passes : Integer.MAX_VALUE);
+        batch_router.set_thread_count(thread_count);
+        BatchRouter.Result result = batch_router.route();
+
+        String design_name = design_file.getName();
+        if (design_name.toLowerCase().endsWith(".dsn")) {
+            design_name = design_name.substring(0, design_name.length() - 4);
+        }
+        try (OutputStream output_stream = new FileOutputStream(session_file_name)) {
+            if (!SessionFile.write(routing_board, output_stream, design_name)) {
+                LOGGER.log(Level.SEVERE, "unable to write session file {0}", session_file_name);
+                return EXIT_ERROR;
+            }
+        } catch (IOException exc) {
+            LOGGER.log(Level.SEVERE, "unable to write session file " + session_file_name, exc);
+            return EXIT_ERROR;
+        }
+        System.out.println(design_file_name + ": " + result.incomplete_count + " incomplete, "
+                + result.via_count + " vias, " + (System.currentTimeMillis() - start_time) + " ms");
+        return Math.min(result.incomplete_count, MAX_INCOMPLETE_EXIT_STATUS);
+    }
+}
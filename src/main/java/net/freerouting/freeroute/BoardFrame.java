@@ -22,6 +22,8 @@ import java.awt.desktop.QuitResponse;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.geom.Rectangle2D;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -44,6 +46,7 @@ import javax.swing.JOptionPane;
 import static net.freerouting.freeroute.DesignFile.read_rules_file;
 import static net.freerouting.freeroute.Filename.GUI_DEFAULTS_FILE_NAME;
 import static net.freerouting.freeroute.Filename.LOG_FILE_EXTENSIONS;
+import net.freerouting.freeroute.board.BinaryBoardFile;
 import net.freerouting.freeroute.board.BoardObserverAdaptor;
 import net.freerouting.freeroute.board.BoardObservers;
 import net.freerouting.freeroute.board.ItemIdNoGenerator;
@@ -262,22 +265,21 @@ public final class BoardFrame extends javax.swing.JFrame {
                     test_level);
             viewport_position = new java.awt.Point(0, 0);
             initialize_windows();
+        } else if (BinaryBoardFile.is_binary_board_file(design_file.get_input_file())) {
+            BinaryBoardFile binary_file = BinaryBoardFile.open(design_file.get_input_file());
+            try {
+                board_panel.board_handling.read_design(binary_file, test_level);
+                try (ObjectInputStream object_stream = binary_file.open_object_section(BinaryBoardFile.WINDOW_SECTION)) {
+                    viewport_position = read_window_state(object_stream);
+                }
+            } catch (ClassNotFoundException ex) {
+                throw new BoardFrameException("the file is invalid", ex);
+            }
         } else {
+            // binary file of an older version containing the serialized board
             try (ObjectInputStream object_stream = new ObjectInputStream(design_file.get_input_stream())) {
                 board_panel.board_handling.read_design(object_stream, test_level);
-                java.awt.Point frame_location;
-                Rectangle2D frame_bounds;
-
-                viewport_position = (java.awt.Point) object_stream.readObject();
-                frame_location = (java.awt.Point) object_stream.readObject();
-                frame_bounds = (Rectangle2D) object_stream.readObject();
-
-                setLocation(frame_location);
-                setBounds(frame_bounds.getBounds());
-
-                allocate_permanent_subwindows();
-
-                savable_subwindows.read_all(object_stream);
+                viewport_position = read_window_state(object_stream);
             } catch (ClassNotFoundException ex) {
                 throw new BoardFrameException("the file is invalid", ex);
             }
@@ -312,6 +314,24 @@ public final class BoardFrame extends javax.swing.JFrame {
         zoom_all();
     }
 
+    /**
+     * Reads the position of the viewport and the frame and the state of the
+     * sub windows. Returns the viewport position.
+     */
+    private java.awt.Point read_window_state(ObjectInputStream p_object_stream) throws IOException, ClassNotFoundException {
+        java.awt.Point viewport_position = (java.awt.Point) p_object_stream.readObject();
+        java.awt.Point frame_location = (java.awt.Point) p_object_stream.readObject();
+        Rectangle2D frame_bounds = (Rectangle2D) p_object_stream.readObject();
+
+        setLocation(frame_location);
+        setBounds(frame_bounds.getBounds());
+
+        allocate_permanent_subwindows();
+
+        savable_subwindows.read_all(p_object_stream);
+        return viewport_position;
+    }
+
     /**
      * Saves the interactive settings and the design file to disk. Returns
      * false, if the save failed.
@@ -320,16 +340,21 @@ public final class BoardFrame extends javax.swing.JFrame {
         if (design_file == null) {
             return false;
         }
-        try (OutputStream output_stream = new FileOutputStream(design_file.get_output_file());
-                ObjectOutputStream object_stream = new ObjectOutputStream(output_stream);) {
-            boolean save_ok = board_panel.board_handling.save_design_file(object_stream);
-            if (!save_ok) {
-                return false;
+        BinaryBoardFile.Writer binary_file = new BinaryBoardFile.Writer();
+        boolean save_ok = board_panel.board_handling.save_design_file(binary_file);
+        if (!save_ok) {
+            return false;
+        }
+        try (OutputStream output_stream = new FileOutputStream(design_file.get_output_file())) {
+            ByteArrayOutputStream window_bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream object_stream = new ObjectOutputStream(window_bytes)) {
+                object_stream.writeObject(board_panel.get_viewport_position());
+                object_stream.writeObject(getLocation());
+                object_stream.writeObject(getBounds());
+                savable_subwindows.save_all(object_stream);
             }
-            object_stream.writeObject(board_panel.get_viewport_position());
-            object_stream.writeObject(getLocation());
-            object_stream.writeObject(getBounds());
-            savable_subwindows.save_all(object_stream);
+            binary_file.add_section(BinaryBoardFile.WINDOW_SECTION, window_bytes.toByteArray());
+            binary_file.write(new BufferedOutputStream(output_stream));
             return true;
         } catch (IOException e) {
             Logger.getLogger(BoardFrame.class.getName()).log(Level.SEVERE, null, e);
@@ -36,6 +36,10 @@ public class FreeRouting {
             show_usage();
             System.exit(0);
         }
+        // -batch: routes the design without graphical user interface
+        if (BatchMode.is_requested(args)) {
+            System.exit(BatchMode.run(args));
+        }
         // Enable OpenGL pipeline
         System.setProperty("sun.java2d.opengl", "true");
         // System look & feel
@@ -64,6 +68,14 @@ public class FreeRouting {
         System.out.println("\t-s             enable session mode");
         System.out.println("\t-test          enable test mode");
         System.out.println("\t-h             shows this help");
+        System.out.println("Batch mode options:");
+        System.out.println("\t-batch         routes DSN_FILE without user interface");
+        System.out.println("\t-do SES_FILE   session file to write [default: DSN_FILE with .ses]");
+        System.out.println("\t-fp PASSES     maximum fanout passes, 0 disables the fanout");
+        System.out.println("\t-mp PASSES     maximum autoroute passes, 0 disables the autorouter");
+        System.out.println("\t-op PASSES     maximum optimizer passes, 0 disables the optimizer");
+        System.out.println("\t-mt THREADS    number of threads used by the autorouter and the optimizer, at least 1");
+        System.out.println("\tThe exit status is the number of incomplete connections.");
         System.out.println("Support: https://github.com/rbuj/FreeRouting/issues");
     }
 }
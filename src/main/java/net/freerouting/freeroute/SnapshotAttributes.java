@@ -22,7 +22,8 @@ import java.util.EnumMap;
  *
  * @author Robert Buj
  */
-public final class SnapshotAttributes {
+@SuppressWarnings("serial")
+public final class SnapshotAttributes implements java.io.Serializable {
 
     EnumMap<SnapshotAttributeKey, Boolean> snapshot_attributes_map;
 
@@ -56,7 +56,7 @@ public final class WindowClearanceViolations extends WindowObjectListWithFilter
         net.freerouting.freeroute.interactive.BoardHandling board_handling = this.board_frame.board_panel.board_handling;
 
         ClearanceViolations clearance_violations
-                = new ClearanceViolations(board_handling.get_routing_board().get_items());
+                = new ClearanceViolations(board_handling.get_routing_board());
         java.util.SortedSet<ViolationInfo> sorted_set = new java.util.TreeSet<>();
         for (ClearanceViolation curr_violation : clearance_violations) {
             sorted_set.add(new ViolationInfo(curr_violation));
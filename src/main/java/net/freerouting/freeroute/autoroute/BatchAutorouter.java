@@ -17,7 +17,6 @@ package net.freerouting.freeroute.autoroute;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Locale;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -25,12 +24,12 @@ import net.freerouting.freeroute.board.Connectable;
 import net.freerouting.freeroute.board.DrillItem;
 import net.freerouting.freeroute.board.Item;
 import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.datastructures.Stoppable;
 import net.freerouting.freeroute.datastructures.TimeLimit;
 import net.freerouting.freeroute.datastructures.UndoableObjects;
 import net.freerouting.freeroute.geometry.planar.FloatLine;
 import net.freerouting.freeroute.geometry.planar.FloatPoint;
-import net.freerouting.freeroute.interactive.BoardHandling;
-import net.freerouting.freeroute.interactive.InteractiveActionThread;
+import net.freerouting.freeroute.interactive.Settings;
 
 /**
  * Handles the sequencing of the batch autoroute passes.
@@ -48,18 +47,19 @@ public class BatchAutorouter {
      * complete the board or p_max_pass_count + 1, if the board is not
      * completed.
      */
-    public static int autoroute_passes_for_optimizing_item(InteractiveActionThread p_thread,
+    public static int autoroute_passes_for_optimizing_item(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable,
             int p_max_pass_count, int p_ripup_costs, boolean p_with_prefered_directions) {
-        BatchAutorouter router_instance = new BatchAutorouter(p_thread, true, p_with_prefered_directions, p_ripup_costs);
+        BatchAutorouter router_instance = new BatchAutorouter(p_board, p_settings, p_stoppable, BatchProgressListener.NONE,
+                true, p_with_prefered_directions, p_ripup_costs);
         boolean still_unrouted_items = true;
         int curr_pass_no = 1;
         while (still_unrouted_items && !router_instance.is_interrupted && curr_pass_no <= p_max_pass_count) {
-            if (p_thread.is_stop_requested()) {
+            if (p_stoppable.is_stop_requested()) {
                 router_instance.is_interrupted = true;
             }
-            still_unrouted_items = router_instance.autoroute_pass(curr_pass_no, false);
+            still_unrouted_items = router_instance.autoroute_pass(curr_pass_no);
             if (still_unrouted_items && !router_instance.is_interrupted) {
-                p_thread.hdlg.settings.autoroute_settings.increment_pass_no();
+                p_settings.autoroute_settings.increment_pass_no();
             }
             ++curr_pass_no;
         }
@@ -70,14 +70,15 @@ public class BatchAutorouter {
         return curr_pass_no;
     }
 
-    private final InteractiveActionThread thread;
-    private final BoardHandling hdlg;
+    private final Stoppable stoppable;
+    private final Settings settings;
+    private final BatchProgressListener listener;
     private final RoutingBoard routing_board;
     private boolean is_interrupted = false;
     private final boolean remove_unconnected_vias;
     private final AutorouteControl.ExpansionCostFactor[] trace_cost_arr;
-    private final boolean retain_autoroute_database;
     private final int start_ripup_costs;
+    private int thread_count = 1;
 
     /**
      * Used to draw the airline of the current routed incomplete.
@@ -87,46 +88,70 @@ public class BatchAutorouter {
     /**
      * Creates a new batch autorouter.
      */
-    public BatchAutorouter(InteractiveActionThread p_thread, boolean p_remove_unconnected_vias, boolean p_with_preferred_directions,
-            int p_start_ripup_costs) {
-        this.thread = p_thread;
-        this.hdlg = p_thread.hdlg;
-        this.routing_board = this.hdlg.get_routing_board();
+    public BatchAutorouter(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable, BatchProgressListener p_listener,
+            boolean p_remove_unconnected_vias, boolean p_with_preferred_directions, int p_start_ripup_costs) {
+        this.stoppable = p_stoppable;
+        this.settings = p_settings;
+        this.listener = p_listener;
+        this.routing_board = p_board;
         this.remove_unconnected_vias = p_remove_unconnected_vias;
         if (p_with_preferred_directions) {
-            this.trace_cost_arr = this.hdlg.settings.autoroute_settings.get_trace_cost_arr();
+            this.trace_cost_arr = this.settings.autoroute_settings.get_trace_cost_arr();
         } else {
             // remove prefered direction
             this.trace_cost_arr = new AutorouteControl.ExpansionCostFactor[this.routing_board.get_layer_count()];
             for (int i = 0; i < this.trace_cost_arr.length; ++i) {
-                double curr_min_cost = this.hdlg.settings.autoroute_settings.get_preferred_direction_trace_costs(i);
+                double curr_min_cost = this.settings.autoroute_settings.get_preferred_direction_trace_costs(i);
                 this.trace_cost_arr[i] = new AutorouteControl.ExpansionCostFactor(curr_min_cost, curr_min_cost);
             }
         }
 
         this.start_ripup_costs = p_start_ripup_costs;
-        this.retain_autoroute_database = false;
+    }
+
+    /**
+     * Creates a batch autorouter for p_board with the same settings as
+     * p_template, which reports no progress.
+     */
+    BatchAutorouter(BatchAutorouter p_template, RoutingBoard p_board) {
+        this.stoppable = p_template.stoppable;
+        this.settings = p_template.settings;
+        this.listener = BatchProgressListener.NONE;
+        this.routing_board = p_board;
+        this.remove_unconnected_vias = p_template.remove_unconnected_vias;
+        this.trace_cost_arr = p_template.trace_cost_arr;
+        this.start_ripup_costs = p_template.start_ripup_costs;
+    }
+
+    /**
+     * Sets the number of threads used to route the connections of a pass. If
+     * p_thread_count {@literal >} 1, connections in separate areas of the board
+     * are routed in parallel.
+     */
+    public void set_thread_count(int p_thread_count) {
+        this.thread_count = Math.max(p_thread_count, 1);
     }
 
     /**
      * Autoroutes ripup passes until the board is completed or the autorouter is
-     * stopped by the user. Returns true if the board is completed.
+     * stopped by the user, or if p_max_pass_count passes are done. Returns
+     * false, if the autorouter was stopped.
      */
-    public boolean autoroute_passes() {
-        java.util.ResourceBundle resources
-                = java.util.ResourceBundle.getBundle("net.freerouting.freeroute.interactive.resources.InteractiveState", Locale.getDefault());
+    public boolean autoroute_passes(int p_max_pass_count) {
         boolean still_unrouted_items = true;
-        while (still_unrouted_items && !this.is_interrupted) {
-            if (thread.is_stop_requested()) {
+        int pass_count = 0;
+        while (still_unrouted_items && !this.is_interrupted && pass_count < p_max_pass_count) {
+            ++pass_count;
+            if (stoppable.is_stop_requested()) {
                 this.is_interrupted = true;
             }
-            Integer curr_pass_no = hdlg.settings.autoroute_settings.get_pass_no();
-            String start_message = resources.getString("batch_autorouter") + " " + resources.getString("stop_message") + "        " + resources.getString("pass") + " " + curr_pass_no.toString() + ": ";
-            hdlg.screen_messages.set_status_message(start_message);
-            still_unrouted_items = autoroute_pass(curr_pass_no, true);
+            int curr_pass_no = settings.autoroute_settings.get_pass_no();
+            listener.autoroute_pass_started(curr_pass_no);
+            still_unrouted_items = autoroute_pass(curr_pass_no);
             if (still_unrouted_items && !is_interrupted) {
-                hdlg.settings.autoroute_settings.increment_pass_no();
+                settings.autoroute_settings.increment_pass_no();
             }
+            routing_board.search_tree_manager.rebalance_trees();
         }
         if (!(this.remove_unconnected_vias || still_unrouted_items || this.is_interrupted)) {
             // clean up the route if the board is completed and if fanout is used.
@@ -139,7 +164,7 @@ public class BatchAutorouter {
      * Autoroutes one ripup pass of all items of the board. Returns false, if
      * the board is already completely routed.
      */
-    private boolean autoroute_pass(int p_pass_no, boolean p_with_screen_message) {
+    private boolean autoroute_pass(int p_pass_no) {
         Collection<Item> autoroute_item_list = new java.util.LinkedList<>();
         Set<Item> handeled_items = new TreeSet<>();
         Iterator<UndoableObjects.UndoableObjectNode> it = routing_board.item_list.start_read_object();
@@ -175,30 +200,36 @@ public class BatchAutorouter {
         int ripped_item_count = 0;
         int not_found = 0;
         int routed = 0;
-        if (p_with_screen_message) {
-            hdlg.screen_messages.set_batch_autoroute_info(items_to_go_count, routed, ripped_item_count, not_found);
+        listener.autoroute_progress(items_to_go_count, routed, ripped_item_count, not_found);
+        ParallelBatchAutorouter parallel_router = null;
+        if (this.thread_count > 1) {
+            parallel_router = ParallelBatchAutorouter.create(this, this.routing_board, this.stoppable, this.thread_count);
         }
-        for (Item curr_item : autoroute_item_list) {
-            if (this.is_interrupted) {
-                break;
+        if (parallel_router != null) {
+            if (!parallel_router.autoroute_items(autoroute_item_list, p_pass_no, this.listener)) {
+                this.is_interrupted = true;
             }
-            for (int i = 0; i < curr_item.net_count(); ++i) {
-                if (this.thread.is_stop_requested()) {
-                    this.is_interrupted = true;
+        } else {
+            for (Item curr_item : autoroute_item_list) {
+                if (this.is_interrupted) {
                     break;
                 }
-                routing_board.start_marking_changed_area();
-                SortedSet<Item> ripped_item_list = new TreeSet<>();
-                if (autoroute_item(curr_item, curr_item.get_net_no(i), ripped_item_list, p_pass_no)) {
-                    ++routed;
-                    hdlg.repaint();
-                } else {
-                    ++not_found;
-                }
-                --items_to_go_count;
-                ripped_item_count += ripped_item_list.size();
-                if (p_with_screen_message) {
-                    hdlg.screen_messages.set_batch_autoroute_info(items_to_go_count, routed, ripped_item_count, not_found);
+                for (int i = 0; i < curr_item.net_count(); ++i) {
+                    if (this.stoppable.is_stop_requested()) {
+                        this.is_interrupted = true;
+                        break;
+                    }
+                    routing_board.start_marking_changed_area();
+                    SortedSet<Item> ripped_item_list = new TreeSet<>();
+                    if (autoroute_item(curr_item, curr_item.get_net_no(i), ripped_item_list, p_pass_no)) {
+                        ++routed;
+                        listener.board_changed();
+                    } else {
+                        ++not_found;
+                    }
+                    --items_to_go_count;
+                    ripped_item_count += ripped_item_list.size();
+                    listener.autoroute_progress(items_to_go_count, routed, ripped_item_count, not_found);
                 }
             }
         }
@@ -218,11 +249,11 @@ public class BatchAutorouter {
     private void remove_tails(Item.StopConnectionOption p_stop_connection_option) {
         routing_board.start_marking_changed_area();
         routing_board.remove_trace_tails(-1, p_stop_connection_option);
-        routing_board.opt_changed_area(new int[0], null, this.hdlg.settings.get_trace_pull_tight_accuracy(),
-                this.trace_cost_arr, this.thread, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
+        routing_board.opt_changed_area(new int[0], null, this.settings.get_trace_pull_tight_accuracy(),
+                this.trace_cost_arr, this.stoppable, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
     }
 
-    private boolean autoroute_item(Item p_item, int p_route_net_no, SortedSet<Item> p_ripped_item_list, int p_ripup_pass_no) {
+    boolean autoroute_item(Item p_item, int p_route_net_no, SortedSet<Item> p_ripped_item_list, int p_ripup_pass_no) {
         boolean contains_plane = false;
         net.freerouting.freeroute.rules.Net route_net = routing_board.rules.nets.get(p_route_net_no);
         if (route_net != null) {
@@ -231,11 +262,11 @@ public class BatchAutorouter {
         int curr_via_costs;
 
         if (contains_plane) {
-            curr_via_costs = hdlg.settings.autoroute_settings.get_plane_via_costs();
+            curr_via_costs = settings.autoroute_settings.get_plane_via_costs();
         } else {
-            curr_via_costs = hdlg.settings.autoroute_settings.get_via_costs();
+            curr_via_costs = settings.autoroute_settings.get_via_costs();
         }
-        AutorouteControl autoroute_control = new AutorouteControl(this.routing_board, p_route_net_no, hdlg.settings, curr_via_costs, this.trace_cost_arr);
+        AutorouteControl autoroute_control = new AutorouteControl(this.routing_board, p_route_net_no, this.settings, curr_via_costs, this.trace_cost_arr);
         autoroute_control.ripup_allowed = true;
         autoroute_control.ripup_costs = this.start_ripup_costs * p_ripup_pass_no;
         autoroute_control.remove_unconnected_vias = this.remove_unconnected_vias;
@@ -269,11 +300,11 @@ public class BatchAutorouter {
         max_milliseconds = Math.min(max_milliseconds, Integer.MAX_VALUE);
         TimeLimit time_limit = new TimeLimit((int) max_milliseconds);
         AutorouteEngine autoroute_engine = routing_board.init_autoroute(p_route_net_no,
-                autoroute_control.trace_clearance_class_no, this.thread, time_limit, this.retain_autoroute_database);
+                autoroute_control.trace_clearance_class_no, this.stoppable, time_limit, false);
         AutorouteEngine.AutorouteResult autoroute_result = autoroute_engine.autoroute_connection(route_start_set, route_dest_set, autoroute_control,
                 p_ripped_item_list);
         if (autoroute_result == AutorouteEngine.AutorouteResult.ROUTED) {
-            routing_board.opt_changed_area(new int[0], null, this.hdlg.settings.get_trace_pull_tight_accuracy(), autoroute_control.trace_costs, this.thread, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
+            routing_board.opt_changed_area(new int[0], null, this.settings.get_trace_pull_tight_accuracy(), autoroute_control.trace_costs, this.stoppable, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
         }
         boolean result = autoroute_result == AutorouteEngine.AutorouteResult.ROUTED || autoroute_result == AutorouteEngine.AutorouteResult.ALREADY_CONNECTED;
         return result;
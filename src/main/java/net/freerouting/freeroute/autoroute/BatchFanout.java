@@ -18,9 +18,10 @@ package net.freerouting.freeroute.autoroute;
 import java.util.Collection;
 import java.util.SortedSet;
 import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.datastructures.Stoppable;
 import net.freerouting.freeroute.datastructures.TimeLimit;
 import net.freerouting.freeroute.geometry.planar.FloatPoint;
-import net.freerouting.freeroute.interactive.InteractiveActionThread;
+import net.freerouting.freeroute.interactive.Settings;
 
 /**
  * Handles the sequencing of the fanout inside the batch autorouter.
@@ -29,10 +30,13 @@ import net.freerouting.freeroute.interactive.InteractiveActionThread;
  */
 public class BatchFanout {
 
-    public static void fanout_board(InteractiveActionThread p_thread) {
-        BatchFanout fanout_instance = new BatchFanout(p_thread);
-        final int MAX_PASS_COUNT = 20;
-        for (int i = 0; i < MAX_PASS_COUNT; ++i) {
+    /**
+     * Fanouts the SMD pins of the board in at most p_max_pass_count passes.
+     */
+    public static void fanout_board(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable,
+            BatchProgressListener p_listener, int p_max_pass_count) {
+        BatchFanout fanout_instance = new BatchFanout(p_board, p_settings, p_stoppable, p_listener);
+        for (int i = 0; i < p_max_pass_count; ++i) {
             int routed_count = fanout_instance.fanout_pass(i);
             if (routed_count == 0) {
                 break;
@@ -40,13 +44,17 @@ public class BatchFanout {
         }
     }
 
-    private final InteractiveActionThread thread;
+    private final Stoppable stoppable;
+    private final Settings settings;
+    private final BatchProgressListener listener;
     private final RoutingBoard routing_board;
     private final SortedSet<Component> sorted_components;
 
-    private BatchFanout(InteractiveActionThread p_thread) {
-        this.thread = p_thread;
-        this.routing_board = p_thread.hdlg.get_routing_board();
+    private BatchFanout(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable, BatchProgressListener p_listener) {
+        this.stoppable = p_stoppable;
+        this.settings = p_settings;
+        this.listener = p_listener;
+        this.routing_board = p_board;
         Collection<net.freerouting.freeroute.board.Pin> board_smd_pin_list = routing_board.get_smd_pins();
         this.sorted_components = new java.util.TreeSet<>();
         for (int i = 1; i <= routing_board.components.count(); ++i) {
@@ -67,15 +75,15 @@ public class BatchFanout {
         int routed_count = 0;
         int not_routed_count = 0;
         int insert_error_count = 0;
-        int ripup_costs = this.thread.hdlg.settings.autoroute_settings.get_start_ripup_costs() * (p_pass_no + 1);
+        int ripup_costs = this.settings.autoroute_settings.get_start_ripup_costs() * (p_pass_no + 1);
         for (Component curr_component : this.sorted_components) {
-            this.thread.hdlg.screen_messages.set_batch_fanout_info(p_pass_no + 1, components_to_go);
+            this.listener.fanout_progress(p_pass_no + 1, components_to_go);
             for (Component.Pin curr_pin : curr_component.smd_pins) {
                 double max_milliseconds = 10_000 * (p_pass_no + 1);
                 TimeLimit time_limit = new TimeLimit((int) max_milliseconds);
                 this.routing_board.start_marking_changed_area();
                 AutorouteEngine.AutorouteResult curr_result
-                        = this.routing_board.fanout(curr_pin.board_pin, this.thread.hdlg.settings, ripup_costs, this.thread, time_limit);
+                        = this.routing_board.fanout(curr_pin.board_pin, this.settings, ripup_costs, this.stoppable, time_limit);
                 if (null != curr_result) {
                     switch (curr_result) {
                         case ROUTED:
@@ -92,9 +100,9 @@ public class BatchFanout {
                     }
                 }
                 if (curr_result != AutorouteEngine.AutorouteResult.NOT_ROUTED) {
-                    this.thread.hdlg.repaint();
+                    this.listener.board_changed();
                 }
-                if (this.thread.is_stop_requested()) {
+                if (this.stoppable.is_stop_requested()) {
                     return routed_count;
                 }
             }
@@ -17,19 +17,20 @@ package net.freerouting.freeroute.autoroute;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Locale;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import net.freerouting.freeroute.board.FixedState;
 import net.freerouting.freeroute.board.Item;
 import net.freerouting.freeroute.board.RoutingBoard;
 import net.freerouting.freeroute.board.TestLevel;
 import net.freerouting.freeroute.board.Trace;
 import net.freerouting.freeroute.board.Via;
+import net.freerouting.freeroute.datastructures.IdNoGenerator;
+import net.freerouting.freeroute.datastructures.Stoppable;
 import net.freerouting.freeroute.datastructures.UndoableObjects;
 import net.freerouting.freeroute.geometry.planar.FloatPoint;
-import net.freerouting.freeroute.interactive.InteractiveActionThread;
+import net.freerouting.freeroute.interactive.RatsNest;
+import net.freerouting.freeroute.interactive.Settings;
 
 /**
  * To optimize the vias and traces after the batch autorouter has completed the
@@ -51,68 +52,73 @@ public class BatchOptRoute {
         return true;
     }
 
-    /**
-     * Calculates the cumulative trace lengths multiplied by the trace radius of
-     * all traces on the board, which are not shove_fixed.
-     */
-    private static double calc_weighted_trace_length(RoutingBoard p_board) {
-        double result = 0;
-        int default_clearance_class = net.freerouting.freeroute.rules.BoardRules.default_clearance_class();
-        Iterator<UndoableObjects.UndoableObjectNode> it = p_board.item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = p_board.item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Trace) {
-                Trace curr_trace = (Trace) curr_item;
-                FixedState fixed_state = curr_trace.get_fixed_state();
-                if (fixed_state == FixedState.UNFIXED || fixed_state == FixedState.SHOVE_FIXED) {
-                    double weighted_trace_length = curr_trace.get_length() * (curr_trace.get_half_width() + p_board.clearance_value(curr_trace.clearance_class_no(), default_clearance_class, curr_trace.get_layer()));
-                    if (fixed_state == FixedState.SHOVE_FIXED) {
-                        // to produce less violations with pin exit directions.
-                        weighted_trace_length /= 2;
-                    }
-                    result += weighted_trace_length;
-                }
-            }
-        }
-        return result;
-    }
-
-    private final InteractiveActionThread thread;
+    private final Stoppable stoppable;
+    private final Settings settings;
+    private final BatchProgressListener listener;
     private final RoutingBoard routing_board;
     private ReadSortedRouteItems sorted_route_items;
     private boolean use_increased_ripup_costs; // in the first passes the ripup costs are icreased for better performance.
     private double min_cumulative_trace_length_before = 0;
+    /**
+     * The incomplete connections of the board, updated only for the nets
+     * changed by the last rerouted item.
+     */
+    private RatsNest ratsnest = null;
+    private int thread_count = 1;
 
     /**
      * To optimize the route on the board after the autoroute task is finished.
      */
-    public BatchOptRoute(InteractiveActionThread p_thread) {
-        this.thread = p_thread;
-        this.routing_board = p_thread.hdlg.get_routing_board();
+    public BatchOptRoute(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable, BatchProgressListener p_listener) {
+        this.stoppable = p_stoppable;
+        this.settings = p_settings;
+        this.listener = p_listener;
+        this.routing_board = p_board;
         this.sorted_route_items = null;
     }
 
     /**
-     * Optimize the route on the board.
+     * Creates an optimizer for p_board with the settings p_settings and the
+     * ripup costs of p_template, which reports no progress.
      */
-    public void optimize_board() {
+    BatchOptRoute(BatchOptRoute p_template, RoutingBoard p_board, Settings p_settings) {
+        this.stoppable = p_template.stoppable;
+        this.settings = p_settings;
+        this.listener = BatchProgressListener.NONE;
+        this.routing_board = p_board;
+        this.sorted_route_items = null;
+        this.use_increased_ripup_costs = p_template.use_increased_ripup_costs;
+    }
+
+    /**
+     * Sets the number of threads used by the optimize passes. If
+     * p_thread_count {@literal >} 1, items in separate areas of the board are
+     * rerouted in parallel on copies of the board, and only the improvements
+     * are transfered to the board.
+     */
+    public void set_thread_count(int p_thread_count) {
+        this.thread_count = Math.max(p_thread_count, 1);
+    }
+
+    /**
+     * Optimize the route on the board in at most p_max_pass_count passes.
+     */
+    public void optimize_board(int p_max_pass_count) {
         if (routing_board.get_test_level() != TestLevel.RELEASE_VERSION) {
             Logger.getLogger(BatchOptRoute.class.getName()).log(Level.INFO, "Before optimize: Via count: {0}, trace length: {1}",
                     new Object[]{
-                        Integer.toString(routing_board.get_vias().size()),
+                        Integer.toString(routing_board.via_count()),
                         Long.toString(Math.round(routing_board.cumulative_trace_length()))});
         }
         boolean route_improved = true;
         int curr_pass_no = 0;
         use_increased_ripup_costs = true;
 
-        while (route_improved) {
+        while (route_improved && curr_pass_no < p_max_pass_count) {
             ++curr_pass_no;
             boolean with_prefered_directions = (curr_pass_no % 2 != 0); // to create more variations
             route_improved = opt_route_pass(curr_pass_no, with_prefered_directions);
+            routing_board.search_tree_manager.rebalance_trees();
         }
     }
 
@@ -122,21 +128,33 @@ public class BatchOptRoute {
      */
     private boolean opt_route_pass(int p_pass_no, boolean p_with_prefered_directions) {
         boolean route_improved = false;
-        int via_count_before = this.routing_board.get_vias().size();
-        double trace_length_before = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
-        this.thread.hdlg.screen_messages.set_post_route_info(via_count_before, trace_length_before);
+        int via_count_before = this.routing_board.via_count();
+        this.listener.optimize_pass_started(p_pass_no);
+        this.listener.optimize_progress(via_count_before, this.routing_board.cumulative_trace_length());
         this.sorted_route_items = new ReadSortedRouteItems();
-        this.min_cumulative_trace_length_before = calc_weighted_trace_length(routing_board);
-        for (;;) {
-            if (this.thread.is_stop_requested()) {
+        this.min_cumulative_trace_length_before = routing_board.weighted_trace_length();
+        ParallelBatchOptRoute parallel_optimizer = null;
+        if (this.thread_count > 1) {
+            parallel_optimizer = ParallelBatchOptRoute.create(this, this.routing_board, this.settings, this.stoppable,
+                    this.thread_count);
+        }
+        if (parallel_optimizer != null) {
+            route_improved = parallel_optimizer.opt_route_items(this.sorted_route_items, p_with_prefered_directions, this.listener);
+            if (this.stoppable.is_stop_requested()) {
                 return route_improved;
             }
-            Item curr_item = sorted_route_items.next();
-            if (curr_item == null) {
-                break;
-            }
-            if (opt_route_item(curr_item, p_pass_no, p_with_prefered_directions)) {
-                route_improved = true;
+        } else {
+            for (;;) {
+                if (this.stoppable.is_stop_requested()) {
+                    return route_improved;
+                }
+                Item curr_item = sorted_route_items.next();
+                if (curr_item == null) {
+                    break;
+                }
+                if (opt_route_item(curr_item, p_with_prefered_directions)) {
+                    route_improved = true;
+                }
             }
         }
         this.sorted_route_items = null;
@@ -150,14 +168,51 @@ public class BatchOptRoute {
     /**
      * Trie to improve the route by retouting the connections containing p_item.
      */
-    private boolean opt_route_item(Item p_item, int p_pass_no, boolean p_with_prefered_directions) {
-        java.util.ResourceBundle resources
-                = java.util.ResourceBundle.getBundle("net.freerouting.freeroute.interactive.resources.InteractiveState", Locale.getDefault());
-        String start_message = resources.getString("batch_optimizer") + " " + resources.getString("stop_message") + "        " + resources.getString("pass") + " " + Integer.toString(p_pass_no) + ": ";
-        this.thread.hdlg.screen_messages.set_status_message(start_message);
-        this.thread.hdlg.remove_ratsnest();
-        int incomplete_count_before = this.thread.hdlg.get_ratsnest().incomplete_count();
-        int via_count_before = this.routing_board.get_vias().size();
+    private boolean opt_route_item(Item p_item, boolean p_with_prefered_directions) {
+        int incomplete_count_before = update_ratsnest().incomplete_count();
+        int via_count_before = this.routing_board.via_count();
+        Set<Item> ripped_connections = get_ripped_connections(p_item);
+        if (ripped_connections == null) {
+            return false;
+        }
+        IdNoGenerator id_no_generator = routing_board.communication.id_no_generator;
+        int max_id_no_before = id_no_generator.max_generated_no();
+        routing_board.generate_snapshot();
+        reroute(p_item, ripped_connections, p_with_prefered_directions);
+        int incomplete_count_after = update_ratsnest().incomplete_count();
+        int via_count_after = this.routing_board.via_count();
+        double trace_length_after = routing_board.weighted_trace_length();
+        boolean route_improved = !this.stoppable.is_stop_requested() && (incomplete_count_after < incomplete_count_before
+                || incomplete_count_after == incomplete_count_before
+                && (via_count_after < via_count_before
+                || via_count_after == via_count_before
+                && this.min_cumulative_trace_length_before > trace_length_after));
+        if (route_improved) {
+            if (incomplete_count_after < incomplete_count_before
+                    || incomplete_count_after == incomplete_count_before && via_count_after < via_count_before) {
+                this.min_cumulative_trace_length_before = trace_length_after;
+            } else {
+                // Only cumulative trace length shortened.
+                // Catch unexpected increase of cumulative trace length somewhere for examole by removing acid trapsw.
+                this.min_cumulative_trace_length_before = Math.min(this.min_cumulative_trace_length_before, trace_length_after);
+            }
+            routing_board.pop_snapshot();
+            this.listener.optimize_progress(via_count_after, this.routing_board.cumulative_trace_length());
+            this.listener.board_changed();
+        } else {
+            routing_board.undo(null);
+            // Failed attempts do not use up id numbers, so that the items get the same
+            // id numbers as in the parallel optimizer.
+            id_no_generator.reset(max_id_no_before);
+        }
+        return route_improved;
+    }
+
+    /**
+     * Returns the connections to rip up for rerouting p_item, or null, if they
+     * contain a user fixed item.
+     */
+    static Set<Item> get_ripped_connections(Item p_item) {
         Set<Item> ripped_items = new java.util.TreeSet<>();
         ripped_items.add(p_item);
         if (p_item instanceof Trace) {
@@ -178,15 +233,22 @@ public class BatchOptRoute {
         });
         for (Item curr_item : ripped_connections) {
             if (curr_item.is_user_fixed()) {
-                return false;
+                return null;
             }
         }
-        routing_board.generate_snapshot();
-        this.routing_board.remove_items(ripped_connections, false);
+        return ripped_connections;
+    }
+
+    /**
+     * Removes p_ripped_connections containing p_item from the board and
+     * autoroutes the nets of p_item again.
+     */
+    void reroute(Item p_item, Set<Item> p_ripped_connections, boolean p_with_prefered_directions) {
+        this.routing_board.remove_items(p_ripped_connections, false);
         for (int i = 0; i < p_item.net_count(); ++i) {
             this.routing_board.combine_traces(p_item.get_net_no(i));
         }
-        int ripup_costs = this.thread.hdlg.settings.autoroute_settings.get_start_ripup_costs();
+        int ripup_costs = this.settings.autoroute_settings.get_start_ripup_costs();
         if (this.use_increased_ripup_costs) {
             ripup_costs *= ADDITIONAL_RIPUP_COST_FACTOR_AT_START;
         }
@@ -194,33 +256,17 @@ public class BatchOptRoute {
             // taking less ripup costs seems to produce better results
             ripup_costs = (int) Math.round(0.6 * ripup_costs);
         }
-        BatchAutorouter.autoroute_passes_for_optimizing_item(this.thread, MAX_AUTOROUTE_PASSES,
-                ripup_costs, p_with_prefered_directions);
-        this.thread.hdlg.remove_ratsnest();
-        int incomplete_count_after = this.thread.hdlg.get_ratsnest().incomplete_count();
-        int via_count_after = this.routing_board.get_vias().size();
-        double trace_length_after = calc_weighted_trace_length(routing_board);
-        boolean route_improved = !this.thread.is_stop_requested() && (incomplete_count_after < incomplete_count_before
-                || incomplete_count_after == incomplete_count_before
-                && (via_count_after < via_count_before
-                || via_count_after == via_count_before
-                && this.min_cumulative_trace_length_before > trace_length_after));
-        if (route_improved) {
-            if (incomplete_count_after < incomplete_count_before
-                    || incomplete_count_after == incomplete_count_before && via_count_after < via_count_before) {
-                this.min_cumulative_trace_length_before = trace_length_after;
-            } else {
-                // Only cumulative trace length shortened.
-                // Catch unexpected increase of cumulative trace length somewhere for examole by removing acid trapsw.
-                this.min_cumulative_trace_length_before = Math.min(this.min_cumulative_trace_length_before, trace_length_after);
-            }
-            routing_board.pop_snapshot();
-            double new_trace_length = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
-            this.thread.hdlg.screen_messages.set_post_route_info(via_count_after, new_trace_length);
+        BatchAutorouter.autoroute_passes_for_optimizing_item(this.routing_board, this.settings, this.stoppable,
+                MAX_AUTOROUTE_PASSES, ripup_costs, p_with_prefered_directions);
+    }
+
+    RatsNest update_ratsnest() {
+        if (this.ratsnest == null) {
+            this.ratsnest = new RatsNest(this.routing_board);
         } else {
-            routing_board.undo(null);
+            this.ratsnest.update();
         }
-        return route_improved;
+        return this.ratsnest;
     }
 
     /**
@@ -231,7 +277,7 @@ public class BatchOptRoute {
         return (sorted_route_items == null) ? null : sorted_route_items.get_current_position();
     }
 
-    private class ReadSortedRouteItems {
+    class ReadSortedRouteItems {
 
         private FloatPoint min_item_coor;
         private int min_item_layer;
@@ -318,5 +364,18 @@ public class BatchOptRoute {
         FloatPoint get_current_position() {
             return min_item_coor;
         }
+
+        int get_current_layer() {
+            return min_item_layer;
+        }
+
+        /**
+         * Continues reading after the position p_coor on the layer p_layer,
+         * where next() has returned an item before.
+         */
+        void continue_after(FloatPoint p_coor, int p_layer) {
+            min_item_coor = p_coor;
+            min_item_layer = p_layer;
+        }
     }
 }
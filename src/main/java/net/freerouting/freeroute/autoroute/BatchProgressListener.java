@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+/**
+ * Receives the progress of the batch fanout, autoroute and optimize passes. All
+ * methods do nothing by default, so that a headless caller pays nothing for
+ * progress reporting.
+ *
+ * @author agent
+ */
+public interface BatchProgressListener {
+
+    /**
+     * Listener ignoring all progress information.
+     */
+    BatchProgressListener NONE = new BatchProgressListener() {
+    };
+
+    /**
+     * Called before each component of fanout pass p_pass_no is processed.
+     */
+    default void fanout_progress(int p_pass_no, int p_components_to_go) {
+    }
+
+    /**
+     * Called at the start of the autoroute pass p_pass_no.
+     */
+    default void autoroute_pass_started(int p_pass_no) {
+    }
+
+    /**
+     * Called after each connection routed in the current autoroute pass.
+     */
+    default void autoroute_progress(int p_items_to_go, int p_routed, int p_ripped, int p_not_found) {
+    }
+
+    /**
+     * Called at the start of the post route optimizer pass p_pass_no.
+     */
+    default void optimize_pass_started(int p_pass_no) {
+    }
+
+    /**
+     * Called after the post route optimizer has improved the board. The trace
+     * length is in board coordinates.
+     */
+    default void optimize_progress(int p_via_count, double p_trace_length) {
+    }
+
+    /**
+     * Called after new items were inserted into the board.
+     */
+    default void board_changed() {
+    }
+}
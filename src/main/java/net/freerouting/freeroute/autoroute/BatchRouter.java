@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.datastructures.Stoppable;
+import net.freerouting.freeroute.geometry.planar.FloatLine;
+import net.freerouting.freeroute.geometry.planar.FloatPoint;
+import net.freerouting.freeroute.interactive.AutorouteSettings;
+import net.freerouting.freeroute.interactive.RatsNest;
+import net.freerouting.freeroute.interactive.Settings;
+
+/**
+ * Runs the batch fanout, autoroute and post route optimize passes on a routing
+ * board without any graphical user interface. Progress is reported to a
+ * BatchProgressListener.
+ *
+ * @author agent
+ */
+public class BatchRouter implements Stoppable {
+
+    public static final int DEFAULT_MAX_FANOUT_PASSES = 20;
+
+    private final RoutingBoard routing_board;
+    private final Settings settings;
+    private final Stoppable outer_stoppable;
+    private final BatchProgressListener listener;
+    private final BatchAutorouter batch_autorouter;
+    private final BatchOptRoute batch_opt_route;
+    private boolean stop_requested = false;
+    private int max_fanout_passes = DEFAULT_MAX_FANOUT_PASSES;
+    private int max_autoroute_passes = Integer.MAX_VALUE;
+    private int max_optimize_passes = Integer.MAX_VALUE;
+
+    /**
+     * Creates a batch router for p_board with default interactive settings and
+     * the input autoroute settings, which reports no progress.
+     */
+    public BatchRouter(RoutingBoard p_board, AutorouteSettings p_autoroute_settings) {
+        this(p_board, create_settings(p_board, p_autoroute_settings), null, BatchProgressListener.NONE);
+    }
+
+    /**
+     * Creates a batch router for p_board. If p_stoppable != null, the router
+     * stops also, when p_stoppable is requested to stop.
+     */
+    public BatchRouter(RoutingBoard p_board, Settings p_settings, Stoppable p_stoppable, BatchProgressListener p_listener) {
+        this.routing_board = p_board;
+        this.settings = p_settings;
+        this.outer_stoppable = p_stoppable;
+        this.listener = p_listener;
+        AutorouteSettings autoroute_settings = p_settings.autoroute_settings;
+        this.batch_autorouter = new BatchAutorouter(p_board, p_settings, this, p_listener,
+                !autoroute_settings.get_with_fanout(), true, autoroute_settings.get_start_ripup_costs());
+        this.batch_opt_route = new BatchOptRoute(p_board, p_settings, this, p_listener);
+    }
+
+    private static Settings create_settings(RoutingBoard p_board, AutorouteSettings p_autoroute_settings) {
+        Settings result = new Settings(p_board);
+        result.autoroute_settings = p_autoroute_settings;
+        return result;
+    }
+
+    /**
+     * Limits the number of fanout, autoroute and post route optimize passes.
+     * By default the fanout stops after 20 passes, while the autoroute and
+     * optimize passes continue until nothing more can be improved.
+     */
+    public void set_max_pass_counts(int p_fanout_passes, int p_autoroute_passes, int p_optimize_passes) {
+        this.max_fanout_passes = p_fanout_passes;
+        this.max_autoroute_passes = p_autoroute_passes;
+        this.max_optimize_passes = p_optimize_passes;
+    }
+
+    /**
+     * Sets the number of threads used by the autoroute and optimize passes.
+     */
+    public void set_thread_count(int p_thread_count) {
+        this.batch_autorouter.set_thread_count(p_thread_count);
+        this.batch_opt_route.set_thread_count(p_thread_count);
+    }
+
+    /**
+     * Runs the fanout, autoroute and post route passes selected in the
+     * autoroute settings and returns the state of the board afterwards.
+     */
+    public Result route() {
+        AutorouteSettings autoroute_settings = this.settings.autoroute_settings;
+        boolean fanout_first = autoroute_settings.get_with_fanout() && autoroute_settings.get_pass_no() <= 1;
+        if (fanout_first) {
+            BatchFanout.fanout_board(this.routing_board, this.settings, this, this.listener, this.max_fanout_passes);
+        }
+        if (autoroute_settings.get_with_autoroute() && !this.is_stop_requested()) {
+            this.batch_autorouter.autoroute_passes(this.max_autoroute_passes);
+        }
+        this.routing_board.finish_autoroute();
+        if (autoroute_settings.get_with_postroute() && !this.is_stop_requested()) {
+            this.batch_opt_route.optimize_board(this.max_optimize_passes);
+        }
+        return new Result(new RatsNest(this.routing_board).incomplete_count(), this.routing_board.via_count(),
+                this.routing_board.cumulative_trace_length(), this.is_stop_requested());
+    }
+
+    /**
+     * Returns the airline of the connection currently autorouted or null, if
+     * no such airline exists.
+     */
+    public FloatLine get_air_line() {
+        return this.batch_autorouter.get_air_line();
+    }
+
+    /**
+     * Returns the position of the item currently optimized or null, if the
+     * optimizer is not active.
+     */
+    public FloatPoint get_current_opt_position() {
+        return this.batch_opt_route.get_current_position();
+    }
+
+    @Override
+    public synchronized void request_stop() {
+        this.stop_requested = true;
+    }
+
+    @Override
+    public synchronized boolean is_stop_requested() {
+        return this.stop_requested || this.outer_stoppable != null && this.outer_stoppable.is_stop_requested();
+    }
+
+    /**
+     * The state of the board after a batch route.
+     */
+    public static class Result {
+
+        /**
+         * The number of connections, which could not be routed.
+         */
+        public final int incomplete_count;
+        public final int via_count;
+        /**
+         * The cumulative trace length in board coordinates.
+         */
+        public final double trace_length;
+        /**
+         * True, if the router was requested to stop before it was finished.
+         */
+        public final boolean interrupted;
+
+        Result(int p_incomplete_count, int p_via_count, double p_trace_length, boolean p_interrupted) {
+            this.incomplete_count = p_incomplete_count;
+            this.via_count = p_via_count;
+            this.trace_length = p_trace_length;
+            this.interrupted = p_interrupted;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.PolylineTrace;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.board.Via;
+import net.freerouting.freeroute.datastructures.IdNoGenerator;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+
+/**
+ * The items removed from and inserted into a board by routing on a copy of
+ * the board in a separate thread. The change is transfered to the original
+ * board with commit() and to the other copies with replay().
+ *
+ * @author agent
+ */
+class BoardChange {
+
+    /**
+     * Creates p_count copies of p_board for routing in separate threads.
+     * Returns null, if the board could not be copied.
+     */
+    static RoutingBoard[] copy_board(RoutingBoard p_board, int p_count) {
+        try {
+            ByteArrayOutputStream byte_stream = new ByteArrayOutputStream();
+            try (ObjectOutputStream object_stream = new ObjectOutputStream(byte_stream)) {
+                object_stream.writeObject(p_board);
+            }
+            byte[] board_bytes = byte_stream.toByteArray();
+            RoutingBoard[] result = new RoutingBoard[p_count];
+            for (int i = 0; i < result.length; ++i) {
+                try (ObjectInputStream object_stream = new ObjectInputStream(new ByteArrayInputStream(board_bytes))) {
+                    result[i] = (RoutingBoard) object_stream.readObject();
+                    result[i].set_test_level(p_board.get_test_level());
+                }
+            }
+            return result;
+        } catch (IOException | ClassNotFoundException e) {
+            Logger.getLogger(BoardChange.class.getName()).log(Level.WARNING, "BoardChange: unable to copy the board", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the distance, which the areas of changes on different board
+     * copies must keep to each other, so that they can be transfered to
+     * p_board together.
+     */
+    static int min_change_distance(RoutingBoard p_board) {
+        int max_clearance = 0;
+        for (int i = 0; i < p_board.get_layer_count(); ++i) {
+            max_clearance = Math.max(max_clearance, p_board.rules.clearance_matrix.max_value(i));
+        }
+        return max_clearance + 2 * p_board.get_max_trace_half_width();
+    }
+
+    /**
+     * Returns true, if a box in p_boxes intersects a box in p_other_boxes.
+     */
+    static boolean intersects(Collection<IntBox> p_boxes, Collection<IntBox> p_other_boxes) {
+        for (IntBox curr_box : p_boxes) {
+            for (IntBox curr_other_box : p_other_boxes) {
+                if (curr_box.intersects(curr_other_box)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes sure, that the items created on the board copy p_board do not get
+     * the id numbers already used on p_routing_board.
+     */
+    static void skip_used_id_nos(RoutingBoard p_board, RoutingBoard p_routing_board) {
+        IdNoGenerator id_no_generator = p_board.communication.id_no_generator;
+        int max_id_no = p_routing_board.communication.id_no_generator.max_generated_no();
+        while (id_no_generator.max_generated_no() < max_id_no) {
+            id_no_generator.new_no();
+        }
+    }
+
+    final Collection<Item> removed_items;
+    final Collection<Item> inserted_items;
+
+    BoardChange(Collection<Item> p_removed_items, Collection<Item> p_inserted_items) {
+        this.removed_items = p_removed_items;
+        this.inserted_items = p_inserted_items;
+    }
+
+    /**
+     * Returns the bounding boxes of the removed and inserted items enlarged
+     * by p_offset.
+     */
+    Collection<IntBox> changed_boxes(int p_offset) {
+        Collection<IntBox> result = new LinkedList<>();
+        for (Item curr_item : this.removed_items) {
+            result.add(curr_item.bounding_box().offset(p_offset));
+        }
+        for (Item curr_item : this.inserted_items) {
+            result.add(curr_item.bounding_box().offset(p_offset));
+        }
+        return result;
+    }
+
+    /**
+     * Returns true, if only traces and vias are inserted, because only these
+     * items can be transfered between the boards.
+     */
+    boolean changes_route_items_only() {
+        for (Item curr_item : this.inserted_items) {
+            if (!(curr_item instanceof PolylineTrace || curr_item instanceof Via)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Transfers this change from a board copy to p_board. The inserted items
+     * get new id numbers, if p_keep_id_nos is false. Returns the change with
+     * the items of p_board.
+     */
+    BoardChange commit(RoutingBoard p_board, boolean p_keep_id_nos) {
+        Collection<Item> board_removed_items = new LinkedList<>();
+        for (Item curr_item : this.removed_items) {
+            Item board_item = (Item) p_board.item_list.find(curr_item);
+            if (board_item != null) {
+                p_board.remove_item(board_item);
+                board_removed_items.add(board_item);
+            }
+        }
+        Collection<Item> board_inserted_items = new LinkedList<>();
+        for (Item curr_item : this.inserted_items) {
+            int id_no = p_keep_id_nos ? curr_item.get_id_no() : 0;
+            board_inserted_items.add(p_board.insert_route_item_copy(curr_item, id_no));
+        }
+        return new BoardChange(board_removed_items, board_inserted_items);
+    }
+
+    /**
+     * Applies this change committed to another board to the board copy
+     * p_board. The inserted items keep their id numbers.
+     */
+    void replay(RoutingBoard p_board) {
+        for (Item curr_item : this.removed_items) {
+            Item board_item = (Item) p_board.item_list.find(curr_item);
+            if (board_item != null) {
+                p_board.remove_item(board_item);
+            }
+        }
+        for (Item curr_item : this.inserted_items) {
+            p_board.insert_route_item_copy(curr_item, curr_item.get_id_no());
+        }
+    }
+}
@@ -19,6 +19,9 @@
  */
 package net.freerouting.freeroute.autoroute;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import net.freerouting.freeroute.autoroute.AutorouteControl.ExpansionCostFactor;
 import net.freerouting.freeroute.geometry.planar.FloatPoint;
 import net.freerouting.freeroute.geometry.planar.IntBox;
@@ -51,14 +54,23 @@ public class DestinationDistance {
     double min_component_solder_inner_trace_cost;
     // minimum of min_component_inner_trace_cost and
     // min_solder_inner_trace_cost
-    private IntBox component_side_box = IntBox.EMPTY;
-    private IntBox solder_side_box = IntBox.EMPTY;
-    private IntBox inner_side_box = IntBox.EMPTY;
+    /**
+     * The bounding boxes of the destination shapes on the component side, on
+     * the solder side and on the inner layers. If there are more than
+     * MAX_BOX_COUNT boxes on a side, neighbouring boxes are joined, so that
+     * the time for calculating a distance remains bounded.
+     */
+    private final List<IntBox> component_side_boxes = new ArrayList<>();
+    private final List<IntBox> solder_side_boxes = new ArrayList<>();
+    private final List<IntBox> inner_side_boxes = new ArrayList<>();
+
+    private IntBox[] component_side_box_arr = null;
+    private IntBox[] solder_side_box_arr = null;
+    private IntBox[] inner_side_box_arr = null;
 
     private boolean box_is_empty = true;
-    private boolean component_side_box_is_empty = true;
-    private boolean solder_side_box_is_empty = true;
-    private boolean inner_side_box_is_empty = true;
+
+    private static final int MAX_BOX_COUNT = 16;
 
     /**
      * Creates a new instance of DestinationDistance. p_trace_costs and
@@ -118,15 +130,13 @@ public class DestinationDistance {
 
     public void join(IntBox p_box, int p_layer) {
         if (p_layer == 0) {
-            component_side_box = component_side_box.union(p_box);
-            component_side_box_is_empty = false;
+            component_side_boxes.add(p_box);
         } else if (p_layer == layer_count - 1) {
-            solder_side_box = solder_side_box.union(p_box);
-            solder_side_box_is_empty = false;
+            solder_side_boxes.add(p_box);
         } else {
-            inner_side_box = inner_side_box.union(p_box);
-            inner_side_box_is_empty = false;
+            inner_side_boxes.add(p_box);
         }
+        component_side_box_arr = null;
         box_is_empty = false;
     }
 
@@ -134,265 +144,232 @@ public class DestinationDistance {
         return calculate(p_point.bounding_box(), p_layer);
     }
 
+    /**
+     * Calculates a lower bound for the costs of a route from p_box on p_layer
+     * to the destination. Each route ends at a destination box, so the
+     * minimum of the lower bounds to the single destination boxes is also a
+     * lower bound. It is much bigger than the lower bound to the union of
+     * all destination boxes, if the destinations are spread over the board.
+     */
     public double calculate(IntBox p_box, int p_layer) {
         if (box_is_empty) {
             return Integer.MAX_VALUE;
         }
-
-        double component_side_delta_x;
-        double component_side_delta_y;
-
-        if (p_box.ll.x > component_side_box.ur.x) {
-            component_side_delta_x = p_box.ll.x - component_side_box.ur.x;
-        } else if (p_box.ur.x < component_side_box.ll.x) {
-            component_side_delta_x = component_side_box.ll.x - p_box.ur.x;
-        } else {
-            component_side_delta_x = 0;
-        }
-
-        if (p_box.ll.y > component_side_box.ur.y) {
-            component_side_delta_y = p_box.ll.y - component_side_box.ur.y;
-        } else if (p_box.ur.y < component_side_box.ll.y) {
-            component_side_delta_y = component_side_box.ll.y - p_box.ur.y;
-        } else {
-            component_side_delta_y = 0;
-        }
-
-        double solder_side_delta_x;
-        double solder_side_delta_y;
-
-        if (p_box.ll.x > solder_side_box.ur.x) {
-            solder_side_delta_x = p_box.ll.x - solder_side_box.ur.x;
-        } else if (p_box.ur.x < solder_side_box.ll.x) {
-            solder_side_delta_x = solder_side_box.ll.x - p_box.ur.x;
-        } else {
-            solder_side_delta_x = 0;
-        }
-
-        if (p_box.ll.y > solder_side_box.ur.y) {
-            solder_side_delta_y = p_box.ll.y - solder_side_box.ur.y;
-        } else if (p_box.ur.y < solder_side_box.ll.y) {
-            solder_side_delta_y = solder_side_box.ll.y - p_box.ur.y;
-        } else {
-            solder_side_delta_y = 0;
+        if (component_side_box_arr == null) {
+            component_side_box_arr = pack(component_side_boxes);
+            solder_side_box_arr = pack(solder_side_boxes);
+            inner_side_box_arr = pack(inner_side_boxes);
         }
-
-        double inner_side_delta_x;
-        double inner_side_delta_y;
-
-        if (p_box.ll.x > inner_side_box.ur.x) {
-            inner_side_delta_x = p_box.ll.x - inner_side_box.ur.x;
-        } else if (p_box.ur.x < inner_side_box.ll.x) {
-            inner_side_delta_x = inner_side_box.ll.x - p_box.ur.x;
-        } else {
-            inner_side_delta_x = 0;
+        double result = Integer.MAX_VALUE;
+        for (IntBox curr_box : component_side_box_arr) {
+            result = Math.min(result, component_side_distance(p_box, p_layer, curr_box));
         }
-
-        if (p_box.ll.y > inner_side_box.ur.y) {
-            inner_side_delta_y = p_box.ll.y - inner_side_box.ur.y;
-        } else if (p_box.ur.y < inner_side_box.ll.y) {
-            inner_side_delta_y = inner_side_box.ll.y - p_box.ur.y;
-        } else {
-            inner_side_delta_y = 0;
+        for (IntBox curr_box : solder_side_box_arr) {
+            result = Math.min(result, solder_side_distance(p_box, p_layer, curr_box));
         }
-
-        double component_side_max_delta;
-        double component_side_min_delta;
-
-        if (component_side_delta_x > component_side_delta_y) {
-            component_side_max_delta = component_side_delta_x;
-            component_side_min_delta = component_side_delta_y;
-        } else {
-            component_side_max_delta = component_side_delta_y;
-            component_side_min_delta = component_side_delta_x;
+        for (IntBox curr_box : inner_side_box_arr) {
+            result = Math.min(result, inner_side_distance(p_box, p_layer, curr_box));
         }
+        return result;
+    }
 
-        double solder_side_max_delta;
-        double solder_side_min_delta;
-
-        if (solder_side_delta_x > solder_side_delta_y) {
-            solder_side_max_delta = solder_side_delta_x;
-            solder_side_min_delta = solder_side_delta_y;
-        } else {
-            solder_side_max_delta = solder_side_delta_y;
-            solder_side_min_delta = solder_side_delta_x;
+    /**
+     * Lower bound for the costs of a route from p_box on p_layer to
+     * p_dest_box on the component side.
+     */
+    private double component_side_distance(IntBox p_box, int p_layer, IntBox p_dest_box) {
+        double delta_x = delta_x(p_box, p_dest_box);
+        double delta_y = delta_y(p_box, p_dest_box);
+        double max_delta = Math.max(delta_x, delta_y);
+        double min_delta = Math.min(delta_x, delta_y);
+        double result = Integer.MAX_VALUE;
+        if (p_layer == 0) {
+            // one layer distance
+            result = p_box.weighted_distance(p_dest_box, trace_costs[0].horizontal, trace_costs[0].vertical);
+            if (active_layer_count <= 1) {
+                return result;
+            }
+            // two layer distance on component and solder side with two vias
+            result = Math.min(result, max_delta + min_delta * min_component_inner_trace_cost + 2 * min_normal_via_cost);
+            if (active_layer_count <= 2) {
+                return result;
+            }
+            // three layer distance
+            result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
+            return result;
         }
-
-        double inner_side_max_delta;
-        double inner_side_min_delta;
-
-        if (inner_side_delta_x > inner_side_delta_y) {
-            inner_side_max_delta = inner_side_delta_x;
-            inner_side_min_delta = inner_side_delta_y;
-        } else {
-            inner_side_max_delta = inner_side_delta_y;
-            inner_side_min_delta = inner_side_delta_x;
+        if (p_layer == layer_count - 1) {
+            // two layer distance
+            double tmp_distance;
+            if (min_component_side_trace_cost < min_solder_side_trace_cost) {
+                tmp_distance = min_component_side_trace_cost * max_delta
+                        + min_solder_side_trace_cost * min_delta + min_normal_via_cost;
+            } else {
+                tmp_distance = min_solder_side_trace_cost * max_delta
+                        + min_component_side_trace_cost * min_delta + min_normal_via_cost;
+            }
+            result = tmp_distance;
+            if (active_layer_count <= 2) {
+                return result;
+            }
+            // three layer distance
+            result = Math.min(result, max_delta + min_component_solder_inner_trace_cost * min_delta + 2 * min_normal_via_cost);
+            if (active_layer_count <= 3) {
+                return result;
+            }
+            // four layer distance
+            result = Math.min(result, max_delta + min_delta + 3 * min_normal_via_cost);
+            return result;
         }
+        // two layer distance
+        result = max_delta + min_delta * min_component_inner_trace_cost + min_normal_via_cost;
+        // three layer distance
+        result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
+        return result;
+    }
 
+    /**
+     * Lower bound for the costs of a route from p_box on p_layer to
+     * p_dest_box on the solder side.
+     */
+    private double solder_side_distance(IntBox p_box, int p_layer, IntBox p_dest_box) {
+        double delta_x = delta_x(p_box, p_dest_box);
+        double delta_y = delta_y(p_box, p_dest_box);
+        double max_delta = Math.max(delta_x, delta_y);
+        double min_delta = Math.min(delta_x, delta_y);
         double result = Integer.MAX_VALUE;
-
-        if (p_layer == 0) // calculate shortest distance to component side box
-        {
-            // calculate one layer distance
-
-            if (!component_side_box_is_empty) {
-                result
-                        = p_box.weighted_distance(component_side_box,
-                                trace_costs[0].horizontal, trace_costs[0].vertical);
-            }
-
+        if (p_layer == 0) {
             if (active_layer_count <= 1) {
                 return result;
             }
-
-            // calculate two layer distance on component and solder side
-            double tmp_distance;
+            // two layer distance on component and solder side
             if (min_solder_side_trace_cost < min_component_side_trace_cost) {
-                tmp_distance
-                        = min_solder_side_trace_cost * solder_side_max_delta
-                        + min_component_side_trace_cost * solder_side_min_delta
-                        + min_normal_via_cost;
+                result = min_solder_side_trace_cost * max_delta
+                        + min_component_side_trace_cost * min_delta + min_normal_via_cost;
             } else {
-                tmp_distance
-                        = min_component_side_trace_cost * solder_side_max_delta
-                        + min_solder_side_trace_cost * solder_side_min_delta
-                        + min_normal_via_cost;
+                result = min_component_side_trace_cost * max_delta
+                        + min_solder_side_trace_cost * min_delta + min_normal_via_cost;
             }
-
-            result = Math.min(result, tmp_distance);
-
-            // calculate two layer distance on component and solde side
-            // with two vias
-            tmp_distance = component_side_max_delta
-                    + component_side_min_delta * min_component_inner_trace_cost
-                    + 2 * min_normal_via_cost;
-
-            result = Math.min(result, tmp_distance);
-
             if (active_layer_count <= 2) {
                 return result;
             }
-
-            // calculate two layer distance on component side and an inner side
-            tmp_distance = inner_side_max_delta
-                    + inner_side_min_delta * min_component_inner_trace_cost
-                    + min_normal_via_cost;
-
-            result = Math.min(result, tmp_distance);
-
-            // calculate three layer distance
-            tmp_distance = solder_side_max_delta
-                    + +min_component_solder_inner_trace_cost * solder_side_min_delta
-                    + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
-
-            tmp_distance = component_side_max_delta
-                    + component_side_min_delta + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
-
+            // three layer distance
+            result = Math.min(result, max_delta + min_component_solder_inner_trace_cost * min_delta + 2 * min_normal_via_cost);
             if (active_layer_count <= 3) {
                 return result;
             }
-
-            tmp_distance = inner_side_max_delta + inner_side_min_delta
-                    + 2 * min_normal_via_cost;
-
-            result = Math.min(result, tmp_distance);
-
-            // calculate four layer distance
-            tmp_distance = solder_side_max_delta + solder_side_min_delta
-                    + 3 * min_normal_via_cost;
-
-            result = Math.min(result, tmp_distance);
-
+            // four layer distance
+            result = Math.min(result, max_delta + min_delta + 3 * min_normal_via_cost);
             return result;
         }
-        if (p_layer == layer_count - 1) // calculate shortest distance to solder side box
-        {
-            // calculate one layer distance
-
-            if (!solder_side_box_is_empty) {
-                result
-                        = p_box.weighted_distance(solder_side_box,
-                                trace_costs[p_layer].horizontal, trace_costs[p_layer].vertical);
+        if (p_layer == layer_count - 1) {
+            // one layer distance
+            result = p_box.weighted_distance(p_dest_box, trace_costs[p_layer].horizontal, trace_costs[p_layer].vertical);
+            // two layer distance
+            result = Math.min(result, max_delta + min_delta * min_solder_inner_trace_cost + 2 * min_normal_via_cost);
+            if (active_layer_count <= 2) {
+                return result;
             }
+            // three layer distance
+            result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
+            return result;
+        }
+        // two layer distance
+        result = max_delta + min_delta * min_solder_inner_trace_cost + min_normal_via_cost;
+        // three layer distance
+        result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
+        return result;
+    }
 
-            // calculate two layer distance
-            double tmp_distance;
-            if (min_component_side_trace_cost < min_solder_side_trace_cost) {
-                tmp_distance
-                        = min_component_side_trace_cost * component_side_max_delta
-                        + min_solder_side_trace_cost * component_side_min_delta
-                        + min_normal_via_cost;
-            } else {
-                tmp_distance
-                        = min_solder_side_trace_cost * component_side_max_delta
-                        + min_component_side_trace_cost * component_side_min_delta
-                        + min_normal_via_cost;
+    /**
+     * Lower bound for the costs of a route from p_box on p_layer to
+     * p_dest_box on an inner layer.
+     */
+    private double inner_side_distance(IntBox p_box, int p_layer, IntBox p_dest_box) {
+        double delta_x = delta_x(p_box, p_dest_box);
+        double delta_y = delta_y(p_box, p_dest_box);
+        double max_delta = Math.max(delta_x, delta_y);
+        double min_delta = Math.min(delta_x, delta_y);
+        double result = Integer.MAX_VALUE;
+        if (p_layer == 0) {
+            if (active_layer_count <= 2) {
+                return result;
             }
-            result = Math.min(result, tmp_distance);
-            tmp_distance = solder_side_max_delta
-                    + solder_side_min_delta * min_solder_inner_trace_cost
-                    + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
+            // two layer distance on component side and an inner side
+            result = max_delta + min_delta * min_component_inner_trace_cost + min_normal_via_cost;
+            if (active_layer_count <= 3) {
+                return result;
+            }
+            result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
+            return result;
+        }
+        if (p_layer == layer_count - 1) {
             if (active_layer_count <= 2) {
                 return result;
             }
-            tmp_distance = inner_side_min_delta * min_solder_inner_trace_cost
-                    + inner_side_max_delta + min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
-
-            // calculate three layer distance
-            tmp_distance = component_side_max_delta
-                    + min_component_solder_inner_trace_cost * component_side_min_delta
-                    + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
-            tmp_distance = solder_side_max_delta + solder_side_min_delta
-                    + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
+            // two layer distance
+            result = min_delta * min_solder_inner_trace_cost + max_delta + min_normal_via_cost;
             if (active_layer_count <= 3) {
                 return result;
             }
-            tmp_distance = inner_side_max_delta + inner_side_min_delta
-                    + 2 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
-
-            // calculate four layer distance
-            tmp_distance = component_side_max_delta + component_side_min_delta
-                    + 3 * min_normal_via_cost;
-            result = Math.min(result, tmp_distance);
+            // three layer distance
+            result = Math.min(result, max_delta + min_delta + 2 * min_normal_via_cost);
             return result;
         }
+        // one layer distance
+        result = p_box.weighted_distance(p_dest_box, trace_costs[p_layer].horizontal, trace_costs[p_layer].vertical);
+        // two layer distance
+        result = Math.min(result, max_delta + min_delta + min_normal_via_cost);
+        return result;
+    }
 
-        // calculate distance to inner layer box
-        // calculate one layer distance
-        if (!inner_side_box_is_empty) {
-            result
-                    = p_box.weighted_distance(inner_side_box,
-                            trace_costs[p_layer].horizontal, trace_costs[p_layer].vertical);
+    private static double delta_x(IntBox p_box, IntBox p_dest_box) {
+        if (p_box.ll.x > p_dest_box.ur.x) {
+            return (double) p_box.ll.x - p_dest_box.ur.x;
+        } else if (p_box.ur.x < p_dest_box.ll.x) {
+            return (double) p_dest_box.ll.x - p_box.ur.x;
         }
+        return 0;
+    }
 
-        // calculate two layer distance
-        double tmp_distance = inner_side_max_delta + inner_side_min_delta + min_normal_via_cost;
-
-        result = Math.min(result, tmp_distance);
-        tmp_distance = component_side_max_delta
-                + component_side_min_delta * min_component_inner_trace_cost
-                + min_normal_via_cost;
-        result = Math.min(result, tmp_distance);
-        tmp_distance = solder_side_max_delta
-                + solder_side_min_delta * min_solder_inner_trace_cost
-                + min_normal_via_cost;
-        result = Math.min(result, tmp_distance);
-
-        // calculate three layer distance
-        tmp_distance = component_side_max_delta + component_side_min_delta
-                + 2 * min_normal_via_cost;
-        result = Math.min(result, tmp_distance);
-        tmp_distance = solder_side_max_delta + solder_side_min_delta
-                + 2 * min_normal_via_cost;
-        result = Math.min(result, tmp_distance);
+    private static double delta_y(IntBox p_box, IntBox p_dest_box) {
+        if (p_box.ll.y > p_dest_box.ur.y) {
+            return (double) p_box.ll.y - p_dest_box.ur.y;
+        } else if (p_box.ur.y < p_dest_box.ll.y) {
+            return (double) p_dest_box.ll.y - p_box.ur.y;
+        }
+        return 0;
+    }
 
+    /**
+     * Returns the boxes in p_boxes, where neighbouring boxes are joined, if
+     * there are more than MAX_BOX_COUNT boxes. The boxes are sorted along
+     * the wider extent of their union and divided into MAX_BOX_COUNT groups.
+     */
+    private static IntBox[] pack(List<IntBox> p_boxes) {
+        if (p_boxes.size() <= MAX_BOX_COUNT) {
+            return p_boxes.toArray(new IntBox[0]);
+        }
+        IntBox union_box = IntBox.EMPTY;
+        for (IntBox curr_box : p_boxes) {
+            union_box = union_box.union(curr_box);
+        }
+        List<IntBox> sorted_boxes = new ArrayList<>(p_boxes);
+        if (union_box.width() >= union_box.height()) {
+            sorted_boxes.sort(Comparator.comparingDouble(p_box -> (double) p_box.ll.x + p_box.ur.x));
+        } else {
+            sorted_boxes.sort(Comparator.comparingDouble(p_box -> (double) p_box.ll.y + p_box.ur.y));
+        }
+        IntBox[] result = new IntBox[MAX_BOX_COUNT];
+        for (int i = 0; i < MAX_BOX_COUNT; ++i) {
+            int from = i * sorted_boxes.size() / MAX_BOX_COUNT;
+            int to = (i + 1) * sorted_boxes.size() / MAX_BOX_COUNT;
+            IntBox curr_union = IntBox.EMPTY;
+            for (int j = from; j < to; ++j) {
+                curr_union = curr_union.union(sorted_boxes.get(j));
+            }
+            result[i] = curr_union;
+        }
         return result;
     }
 }
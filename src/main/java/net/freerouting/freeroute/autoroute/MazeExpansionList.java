@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.Arrays;
+
+/**
+ * The queue of the maze search algorithm. A binary heap of MazeListElements
+ * sorted by their sorting value, where elements with equal sorting value are
+ * removed in the order of insertion, which is the order of the sorted set used
+ * before. Several elements for the same door section are all kept, because the
+ * search continues with the next one, if the expansion of an element does not
+ * occupy the section, for example if a ripup is delayed.
+ *
+ * @author agent
+ */
+class MazeExpansionList {
+
+    private MazeListElement[] heap = new MazeListElement[64];
+    private int size = 0;
+    private long insert_count = 0;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds p_element to the queue.
+     */
+    void add(MazeListElement p_element) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * size);
+        }
+        p_element.insert_no = ++insert_count;
+        heap[size] = p_element;
+        ++size;
+        sift_up(size - 1);
+    }
+
+    /**
+     * Removes and returns the element with the smallest sorting value, or null,
+     * if the queue is empty.
+     */
+    MazeListElement poll() {
+        if (size == 0) {
+            return null;
+        }
+        MazeListElement result = heap[0];
+        --size;
+        if (size > 0) {
+            heap[0] = heap[size];
+            heap[size] = null;
+            sift_down(0);
+        } else {
+            heap[0] = null;
+        }
+        return result;
+    }
+
+    private void sift_up(int p_index) {
+        MazeListElement curr_element = heap[p_index];
+        int index = p_index;
+        while (index > 0) {
+            int parent_index = (index - 1) >>> 1;
+            MazeListElement parent = heap[parent_index];
+            if (!is_before(curr_element, parent)) {
+                break;
+            }
+            heap[index] = parent;
+            index = parent_index;
+        }
+        heap[index] = curr_element;
+    }
+
+    private void sift_down(int p_index) {
+        MazeListElement curr_element = heap[p_index];
+        int index = p_index;
+        int half_size = size >>> 1;
+        while (index < half_size) {
+            int child_index = 2 * index + 1;
+            MazeListElement child = heap[child_index];
+            int right_index = child_index + 1;
+            if (right_index < size && is_before(heap[right_index], child)) {
+                child_index = right_index;
+                child = heap[right_index];
+            }
+            if (!is_before(child, curr_element)) {
+                break;
+            }
+            heap[index] = child;
+            index = child_index;
+        }
+        heap[index] = curr_element;
+    }
+
+    private static boolean is_before(MazeListElement p_1, MazeListElement p_2) {
+        if (p_1.sorting_value != p_2.sorting_value) {
+            return p_1.sorting_value < p_2.sorting_value;
+        }
+        return p_1.insert_no < p_2.insert_no;
+    }
+}
@@ -27,7 +27,7 @@ import net.freerouting.freeroute.geometry.planar.FloatLine;
  *
  * @author Alfons Wirtz
  */
-public class MazeListElement implements Comparable<MazeListElement> {
+public class MazeListElement {
 
     /**
      * The door or drill belonging to this MazeListElement
@@ -77,6 +77,12 @@ public class MazeListElement implements Comparable<MazeListElement> {
 
     final boolean already_checked;
 
+    /**
+     * Orders elements with equal sorting value in the MazeExpansionList by the
+     * time of their insertion.
+     */
+    long insert_no = 0;
+
     /**
      * Creates a new instance of ExpansionInfo
      */
@@ -97,18 +103,4 @@ public class MazeListElement implements Comparable<MazeListElement> {
         adjustment = p_adjustment;
         already_checked = p_already_checked;
     }
-
-    @Override
-    public int compareTo(MazeListElement p_other) {
-        double compare_value = (this.sorting_value - p_other.sorting_value);
-        // make shure, that the result cannot be 0, so that no element in the set is
-        // skipped because of equal size.
-        int result;
-        if (compare_value >= 0) {
-            result = 1;
-        } else {
-            result = -1;
-        }
-        return result;
-    }
 }
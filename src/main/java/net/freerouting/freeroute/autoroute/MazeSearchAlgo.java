@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
 import net.freerouting.freeroute.board.AngleRestriction;
 import net.freerouting.freeroute.board.Connectable;
 import net.freerouting.freeroute.board.ForcedViaAlgo;
@@ -52,6 +53,15 @@ public class MazeSearchAlgo {
 
     private static final int ALREADY_RIPPED_COSTS = 1;
     private static final java.util.Random RANDOM_GENERATOR = new java.util.Random();
+    /**
+     * The number of elements expanded by all maze searches, used for
+     * measuring the performance of the search.
+     */
+    private static final LongAdder EXPANSION_COUNTER = new LongAdder();
+    /**
+     * The number of maze searches started so far.
+     */
+    private static final LongAdder SEARCH_COUNTER = new LongAdder();
 
     /**
      * Initializes a new instance of MazeSearchAlgo for secrching a connection
@@ -176,7 +186,7 @@ public class MazeSearchAlgo {
     /**
      * The queue of of expanded elements used in this search algorithm.
      */
-    final java.util.SortedSet<MazeListElement> maze_expansion_list;
+    final MazeExpansionList maze_expansion_list;
     /**
      * Used for calculating of a good lower bound for the distance between a new
      * MazeExpansionElement and the destination set of the expansion.
@@ -196,12 +206,26 @@ public class MazeSearchAlgo {
         ctrl = p_ctrl;
         RANDOM_GENERATOR.setSeed(p_ctrl.ripup_costs); // To get reproducable random numbers in the ripup algorithm.
         this.search_tree = p_autoroute_engine.autoroute_search_tree;
-        maze_expansion_list = new TreeSet<>();
+        maze_expansion_list = new MazeExpansionList();
         destination_distance
                 = new DestinationDistance(ctrl.trace_costs, ctrl.layer_active,
                         ctrl.min_normal_via_cost);
     }
 
+    /**
+     * Returns the number of elements expanded by all maze searches so far.
+     */
+    public static long get_expansion_count() {
+        return EXPANSION_COUNTER.sum();
+    }
+
+    /**
+     * Returns the number of maze searches started so far.
+     */
+    public static long get_search_count() {
+        return SEARCH_COUNTER.sum();
+    }
+
     /**
      * Does a maze search to find a connection route between the start and the
      * destination items. If the algorithm succeeds, the ExpansionDoor and its
@@ -210,6 +234,7 @@ public class MazeSearchAlgo {
      * null.
      */
     public Result find_connection() {
+        SEARCH_COUNTER.increment();
         while (occupy_next_element()) {
         }
         if (this.destination_door == null) {
@@ -234,11 +259,9 @@ public class MazeSearchAlgo {
             if (this.autoroute_engine.is_stop_requested()) {
                 return false;
             }
-            Iterator<MazeListElement> it = maze_expansion_list.iterator();
-            list_element = it.next();
+            list_element = maze_expansion_list.poll();
             int curr_section_no = list_element.section_no_of_door;
             curr_door_section = list_element.door.get_maze_search_element(curr_section_no);
-            it.remove();
             if (!curr_door_section.is_occupied) {
                 next_element_found = true;
                 break;
@@ -247,6 +270,7 @@ public class MazeSearchAlgo {
         if (!next_element_found) {
             return false;
         }
+        EXPANSION_COUNTER.increment();
         curr_door_section.backtrack_door = list_element.backtrack_door;
         curr_door_section.section_no_of_backtrack_door = list_element.section_no_of_backtrack_door;
         curr_door_section.room_ripped = list_element.room_ripped;
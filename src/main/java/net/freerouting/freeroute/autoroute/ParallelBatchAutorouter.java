@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.datastructures.Stoppable;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+
+/**
+ * Routes the connections of a batch autoroute pass on several threads. Each
+ * thread routes on its own copy of the board with its own autoroute engine.
+ *
+ * The connections are routed in rounds. In a round each thread routes 1
+ * connection of a different net with a separate bounding box, starting from the
+ * same board state. Afterwards the changes are committed to the board in the
+ * order of the connections. A change overlapping a change committed before in
+ * the same round is discarded, and its connection is routed again in the next
+ * round. So the result depends only on the board and the thread count, but not
+ * on the timing of the threads.
+ *
+ * @author agent
+ */
+class ParallelBatchAutorouter {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelBatchAutorouter.class.getName());
+
+    /**
+     * Creates a parallel autorouter with p_thread_count copies of p_board,
+     * which route with the settings of p_template. Returns null, if the board
+     * could not be copied.
+     */
+    static ParallelBatchAutorouter create(BatchAutorouter p_template, RoutingBoard p_board, Stoppable p_stoppable,
+            int p_thread_count) {
+        RoutingBoard[] board_copies = BoardChange.copy_board(p_board, p_thread_count);
+        if (board_copies == null) {
+            return null;
+        }
+        Worker[] workers = new Worker[p_thread_count];
+        for (int i = 0; i < workers.length; ++i) {
+            workers[i] = new Worker(board_copies[i], new BatchAutorouter(p_template, board_copies[i]));
+        }
+        return new ParallelBatchAutorouter(p_board, p_stoppable, workers);
+    }
+
+    private final RoutingBoard routing_board;
+    private final Stoppable stoppable;
+    private final Worker[] workers;
+    /**
+     * Distance, which the areas of changes routed in the same round must keep
+     * to each other.
+     */
+    private final int min_change_distance;
+
+    private ParallelBatchAutorouter(RoutingBoard p_board, Stoppable p_stoppable, Worker[] p_workers) {
+        this.routing_board = p_board;
+        this.stoppable = p_stoppable;
+        this.workers = p_workers;
+        this.min_change_distance = BoardChange.min_change_distance(p_board);
+    }
+
+    /**
+     * Autoroutes the connections of all nets of the items in p_item_list and
+     * reports the progress to p_listener. Returns false, if the autorouter was
+     * stopped.
+     */
+    boolean autoroute_items(Collection<Item> p_item_list, int p_pass_no, BatchProgressListener p_listener) {
+        LinkedList<Connection> pending_connections = new LinkedList<>();
+        for (Item curr_item : p_item_list) {
+            for (int i = 0; i < curr_item.net_count(); ++i) {
+                pending_connections.add(new Connection(curr_item, curr_item.get_net_no(i)));
+            }
+        }
+        int items_to_go_count = pending_connections.size();
+        int ripped_item_count = 0;
+        int not_found = 0;
+        int routed = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(this.workers.length);
+        try {
+            while (!pending_connections.isEmpty()) {
+                if (this.stoppable.is_stop_requested()) {
+                    return false;
+                }
+                List<Connection> round = select_round(pending_connections);
+                List<Future<RouteResult>> futures = new ArrayList<>(round.size());
+                for (int i = 0; i < round.size(); ++i) {
+                    Worker curr_worker = this.workers[i];
+                    Connection curr_connection = round.get(i);
+                    futures.add(executor.submit(() -> curr_worker.route(curr_connection, p_pass_no)));
+                }
+                List<BoardChange> committed_changes = new ArrayList<>(round.size());
+                List<IntBox> committed_boxes = new ArrayList<>();
+                LinkedList<Connection> deferred_connections = new LinkedList<>();
+                for (Future<RouteResult> curr_future : futures) {
+                    RouteResult curr_result = curr_future.get();
+                    Collection<IntBox> curr_boxes = curr_result.change.changed_boxes(this.min_change_distance);
+                    if (BoardChange.intersects(curr_boxes, committed_boxes)) {
+                        deferred_connections.add(curr_result.connection);
+                        continue;
+                    }
+                    if (!curr_result.change.changes_route_items_only()) {
+                        ++not_found;
+                    } else {
+                        committed_changes.add(curr_result.change.commit(this.routing_board, false));
+                        committed_boxes.addAll(curr_boxes);
+                        if (curr_result.routed) {
+                            ++routed;
+                            p_listener.board_changed();
+                        } else {
+                            ++not_found;
+                        }
+                        ripped_item_count += curr_result.ripped_item_count;
+                    }
+                    --items_to_go_count;
+                    p_listener.autoroute_progress(items_to_go_count, routed, ripped_item_count, not_found);
+                }
+                pending_connections.addAll(0, deferred_connections);
+                List<Future<?>> replay_futures = new ArrayList<>(this.workers.length);
+                for (Worker curr_worker : this.workers) {
+                    replay_futures.add(executor.submit(() -> curr_worker.replay(committed_changes, this.routing_board)));
+                }
+                for (Future<?> curr_future : replay_futures) {
+                    curr_future.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "ParallelBatchAutorouter.autoroute_items: routing thread failed", e.getCause());
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the connections for the next round from p_pending_connections.
+     * The connections of a round belong to different nets with disjoint
+     * bounding boxes.
+     */
+    private List<Connection> select_round(LinkedList<Connection> p_pending_connections) {
+        List<Connection> result = new ArrayList<>(this.workers.length);
+        Set<Integer> round_nets = new TreeSet<>();
+        List<IntBox> round_boxes = new ArrayList<>();
+        Iterator<Connection> it = p_pending_connections.iterator();
+        while (it.hasNext() && result.size() < this.workers.length) {
+            Connection curr_connection = it.next();
+            if (round_nets.contains(curr_connection.net_no)) {
+                continue;
+            }
+            IntBox net_box = IntBox.EMPTY;
+            for (Item curr_item : this.routing_board.get_connectable_items(curr_connection.net_no)) {
+                net_box = net_box.union(curr_item.bounding_box());
+            }
+            net_box = net_box.offset(this.min_change_distance);
+            if (!result.isEmpty() && BoardChange.intersects(Collections.singleton(net_box), round_boxes)) {
+                continue;
+            }
+            result.add(curr_connection);
+            round_nets.add(curr_connection.net_no);
+            round_boxes.add(net_box);
+            it.remove();
+        }
+        return result;
+    }
+
+    /**
+     * The net p_net_no of an item to autoroute.
+     */
+    private static class Connection {
+
+        final Item item;
+        final int net_no;
+
+        Connection(Item p_item, int p_net_no) {
+            this.item = p_item;
+            this.net_no = p_net_no;
+        }
+    }
+
+    /**
+     * The result of routing a connection on the board of a worker.
+     */
+    private static class RouteResult {
+
+        final Connection connection;
+        final boolean routed;
+        final int ripped_item_count;
+        final BoardChange change;
+
+        RouteResult(Connection p_connection, boolean p_routed, int p_ripped_item_count, BoardChange p_change) {
+            this.connection = p_connection;
+            this.routed = p_routed;
+            this.ripped_item_count = p_ripped_item_count;
+            this.change = p_change;
+        }
+    }
+
+    /**
+     * A copy of the board with its own autorouter.
+     */
+    private static class Worker {
+
+        private final RoutingBoard board;
+        private final BatchAutorouter autorouter;
+
+        Worker(RoutingBoard p_board, BatchAutorouter p_autorouter) {
+            this.board = p_board;
+            this.autorouter = p_autorouter;
+        }
+
+        /**
+         * Routes p_connection and restores the previous board state
+         * afterwards.
+         */
+        RouteResult route(Connection p_connection, int p_pass_no) {
+            Collection<Item> removed_items = new LinkedList<>();
+            Collection<Item> inserted_items = new LinkedList<>();
+            Item board_item = (Item) this.board.item_list.find(p_connection.item);
+            if (board_item == null) {
+                return new RouteResult(p_connection, false, 0, new BoardChange(removed_items, inserted_items));
+            }
+            this.board.generate_snapshot();
+            this.board.start_marking_changed_area();
+            SortedSet<Item> ripped_item_list = new TreeSet<>();
+            boolean routed = this.autorouter.autoroute_item(board_item, p_connection.net_no, ripped_item_list, p_pass_no);
+            this.board.undo(null, inserted_items, removed_items);
+            return new RouteResult(p_connection, routed, ripped_item_list.size(), new BoardChange(removed_items, inserted_items));
+        }
+
+        /**
+         * Applies the changes committed to p_routing_board to the board of this
+         * worker.
+         */
+        void replay(Collection<BoardChange> p_changes, RoutingBoard p_routing_board) {
+            for (BoardChange curr_change : p_changes) {
+                curr_change.replay(this.board);
+            }
+            BoardChange.skip_used_id_nos(this.board, p_routing_board);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.datastructures.IdNoGenerator;
+import net.freerouting.freeroute.datastructures.Stoppable;
+import net.freerouting.freeroute.geometry.planar.FloatPoint;
+import net.freerouting.freeroute.interactive.Settings;
+
+/**
+ * Reroutes the items of a post route optimizer pass on several threads. Each
+ * thread tries to improve the route on its own copy of the board with its own
+ * optimizer.
+ *
+ * The items are processed in rounds. In a round each thread reroutes 1 of the
+ * next items in the order of the sequential optimizer, starting from the same
+ * board state. Most attempts do not improve the route and are undone on the
+ * copy. The first improvement in the order of the items is committed to the
+ * board, and the items behind it are read again from the changed board,
+ * because the sequential optimizer reroutes them after the improvement. So the
+ * items are rerouted in the same order and on the same board state as in the
+ * sequential optimizer independent of the thread count and of the timing of
+ * the threads, and the optimizer is faster, as long as most attempts fail.
+ *
+ * The result may still differ slightly from the result of the sequential
+ * optimizer, because the search trees of the board copies are built in a
+ * different order, so that the autorouter may find another route of the same
+ * cost for an item. Improvements inserting other items than traces and vias
+ * are not transfered to the board.
+ *
+ * @author agent
+ */
+class ParallelBatchOptRoute {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelBatchOptRoute.class.getName());
+
+    /**
+     * Creates a parallel optimizer with p_thread_count copies of p_board,
+     * which reroute with the settings p_settings and the ripup costs of
+     * p_template. Returns null, if the board could not be copied.
+     */
+    static ParallelBatchOptRoute create(BatchOptRoute p_template, RoutingBoard p_board, Settings p_settings,
+            Stoppable p_stoppable, int p_thread_count) {
+        RoutingBoard[] board_copies = BoardChange.copy_board(p_board, p_thread_count);
+        if (board_copies == null) {
+            return null;
+        }
+        Worker[] workers = new Worker[p_thread_count];
+        for (int i = 0; i < workers.length; ++i) {
+            // The autorouter counts its passes in the settings.
+            Settings worker_settings = new Settings(p_settings);
+            workers[i] = new Worker(board_copies[i], new BatchOptRoute(p_template, board_copies[i], worker_settings));
+        }
+        return new ParallelBatchOptRoute(p_board, p_stoppable, workers);
+    }
+
+    private final RoutingBoard routing_board;
+    private final Stoppable stoppable;
+    private final Worker[] workers;
+
+    private ParallelBatchOptRoute(RoutingBoard p_board, Stoppable p_stoppable, Worker[] p_workers) {
+        this.routing_board = p_board;
+        this.stoppable = p_stoppable;
+        this.workers = p_workers;
+    }
+
+    /**
+     * Tries to improve the route by rerouting the items returned by
+     * p_sorted_items until it returns null, and reports the improvements to
+     * p_listener. Returns true, if the route was improved.
+     */
+    boolean opt_route_items(BatchOptRoute.ReadSortedRouteItems p_sorted_items, boolean p_with_prefered_directions,
+            BatchProgressListener p_listener) {
+        boolean route_improved = false;
+        ExecutorService executor = Executors.newFixedThreadPool(this.workers.length);
+        try {
+            for (;;) {
+                if (this.stoppable.is_stop_requested()) {
+                    return route_improved;
+                }
+                List<RoundItem> round = read_round(p_sorted_items);
+                if (round.isEmpty()) {
+                    break;
+                }
+                List<Future<OptResult>> futures = new ArrayList<>(round.size());
+                for (int i = 0; i < round.size(); ++i) {
+                    Worker curr_worker = this.workers[i];
+                    Item curr_item = round.get(i).item;
+                    futures.add(executor.submit(() -> curr_worker.opt_route_item(curr_item, p_with_prefered_directions)));
+                }
+                BoardChange committed_change = null;
+                RoundItem improved_item = null;
+                for (int i = 0; i < round.size(); ++i) {
+                    OptResult curr_result = futures.get(i).get();
+                    if (committed_change != null) {
+                        // rerouted on the board before the improvement
+                        continue;
+                    }
+                    RoundItem curr_round_item = round.get(i);
+                    if (!curr_result.route_improved || this.stoppable.is_stop_requested()
+                            || !curr_result.change.changes_route_items_only()) {
+                        continue;
+                    }
+                    // The items keep the id numbers created by the sequential optimizer.
+                    committed_change = curr_result.change.commit(this.routing_board, true);
+                    this.routing_board.communication.id_no_generator.reset(curr_result.max_id_no);
+                    improved_item = curr_round_item;
+                    route_improved = true;
+                    p_listener.optimize_progress(this.routing_board.via_count(), this.routing_board.cumulative_trace_length());
+                    p_listener.board_changed();
+                }
+                if (committed_change == null) {
+                    continue;
+                }
+                p_sorted_items.continue_after(improved_item.position, improved_item.layer);
+                List<BoardChange> committed_changes = Collections.singletonList(committed_change);
+                List<Future<?>> replay_futures = new ArrayList<>(this.workers.length);
+                for (Worker curr_worker : this.workers) {
+                    replay_futures.add(executor.submit(() -> curr_worker.replay(committed_changes, this.routing_board)));
+                }
+                for (Future<?> curr_future : replay_futures) {
+                    curr_future.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "ParallelBatchOptRoute.opt_route_items: optimizing thread failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return route_improved;
+    }
+
+    /**
+     * Reads the items for the next round from p_sorted_items. Items containing
+     * user fixed items in their connections are skipped like in the sequential
+     * optimizer.
+     */
+    private List<RoundItem> read_round(BatchOptRoute.ReadSortedRouteItems p_sorted_items) {
+        List<RoundItem> result = new ArrayList<>(this.workers.length);
+        while (result.size() < this.workers.length) {
+            Item curr_item = p_sorted_items.next();
+            if (curr_item == null) {
+                break;
+            }
+            if (BatchOptRoute.get_ripped_connections(curr_item) == null) {
+                continue;
+            }
+            result.add(new RoundItem(curr_item, p_sorted_items.get_current_position(), p_sorted_items.get_current_layer()));
+        }
+        return result;
+    }
+
+    /**
+     * An item of a round together with the position, where it was read.
+     */
+    private static class RoundItem {
+
+        final Item item;
+        final FloatPoint position;
+        final int layer;
+
+        RoundItem(Item p_item, FloatPoint p_position, int p_layer) {
+            this.item = p_item;
+            this.position = p_position;
+            this.layer = p_layer;
+        }
+    }
+
+    /**
+     * The result of rerouting an item on the board of a worker.
+     */
+    private static class OptResult {
+
+        final boolean route_improved;
+        final BoardChange change;
+        /**
+         * The maximum id number generated on the board of the worker, when
+         * the item was rerouted.
+         */
+        final int max_id_no;
+
+        OptResult(boolean p_route_improved, BoardChange p_change, int p_max_id_no) {
+            this.route_improved = p_route_improved;
+            this.change = p_change;
+            this.max_id_no = p_max_id_no;
+        }
+    }
+
+    /**
+     * A copy of the board with its own optimizer.
+     */
+    private static class Worker {
+
+        private final RoutingBoard board;
+        private final BatchOptRoute optimizer;
+
+        Worker(RoutingBoard p_board, BatchOptRoute p_optimizer) {
+            this.board = p_board;
+            this.optimizer = p_optimizer;
+        }
+
+        /**
+         * Reroutes the connections containing p_item and restores the
+         * previous board state afterwards. The route is improved, if the
+         * number of incomplete connections, or with equal incompletes the
+         * number of vias, or with equal vias the weighted trace length
+         * decreases.
+         */
+        OptResult opt_route_item(Item p_item, boolean p_with_prefered_directions) {
+            Collection<Item> removed_items = new LinkedList<>();
+            Collection<Item> inserted_items = new LinkedList<>();
+            IdNoGenerator id_no_generator = this.board.communication.id_no_generator;
+            int max_id_no_before = id_no_generator.max_generated_no();
+            Item board_item = (Item) this.board.item_list.find(p_item);
+            Set<Item> ripped_connections = board_item == null ? null : BatchOptRoute.get_ripped_connections(board_item);
+            if (ripped_connections == null) {
+                return new OptResult(false, new BoardChange(removed_items, inserted_items), max_id_no_before);
+            }
+            int incomplete_count_before = this.optimizer.update_ratsnest().incomplete_count();
+            int via_count_before = this.board.via_count();
+            double trace_length_before = this.board.weighted_trace_length();
+            this.board.generate_snapshot();
+            this.optimizer.reroute(board_item, ripped_connections, p_with_prefered_directions);
+            int incomplete_count_after = this.optimizer.update_ratsnest().incomplete_count();
+            int via_count_after = this.board.via_count();
+            double trace_length_after = this.board.weighted_trace_length();
+            boolean route_improved = incomplete_count_after < incomplete_count_before
+                    || incomplete_count_after == incomplete_count_before
+                    && (via_count_after < via_count_before
+                    || via_count_after == via_count_before && trace_length_after < trace_length_before);
+            int max_id_no_after = id_no_generator.max_generated_no();
+            this.board.undo(null, inserted_items, removed_items);
+            id_no_generator.reset(max_id_no_before);
+            return new OptResult(route_improved, new BoardChange(removed_items, inserted_items), max_id_no_after);
+        }
+
+        /**
+         * Applies the changes committed to p_routing_board to the board of this
+         * worker, which creates the same id numbers as p_routing_board
+         * afterwards.
+         */
+        void replay(Collection<BoardChange> p_changes, RoutingBoard p_routing_board) {
+            for (BoardChange curr_change : p_changes) {
+                curr_change.replay(this.board);
+            }
+            this.board.communication.id_no_generator.reset(p_routing_board.communication.id_no_generator.max_generated_no());
+        }
+    }
+}
@@ -77,6 +77,20 @@ public class BasicBoard implements java.io.Serializable {
      * Handels the search trees pointing into the items of this board
      */
     public transient SearchTreeManager search_tree_manager;
+    /**
+     * Index from the net numbers to the connectable items of this board.
+     */
+    transient ConnectableItemIndex connectable_item_index;
+    /**
+     * The vias, traces, pins and conduction areas of this board with their
+     * aggregates.
+     */
+    transient ItemTypeRegistry item_type_registry;
+    /**
+     * Keeps the clearance violations of this board up to date. Created, when
+     * the violations are requested the first time.
+     */
+    transient private ClearanceViolationTracker clearance_violation_tracker = null;
     /**
      * For communication with a host system or host design file formats.
      */
@@ -118,17 +132,29 @@ public class BasicBoard implements java.io.Serializable {
      */
     BasicBoard(IntBox p_bounding_box, LayerStructure p_layer_structure, PolylineShape[] p_outline_shapes,
             int p_outline_cl_class_no, BoardRules p_rules, Communication p_communication, TestLevel p_test_level) {
+        this(p_bounding_box, p_layer_structure, new BoardLibrary(), new Components(), p_rules, p_communication, p_test_level);
+        insert_outline(p_outline_shapes, p_outline_cl_class_no);
+    }
+
+    /**
+     * Creates a new board with the input library and components, but without
+     * any items, not even an outline. Used when reading a board from a binary
+     * board file, which contains the items including the outline.
+     */
+    BasicBoard(IntBox p_bounding_box, LayerStructure p_layer_structure, BoardLibrary p_library,
+            Components p_components, BoardRules p_rules, Communication p_communication, TestLevel p_test_level) {
         layer_structure = p_layer_structure;
         rules = p_rules;
-        library = new BoardLibrary();
+        library = p_library;
         item_list = new UndoableObjects();
-        components = new Components();
+        components = p_components;
         communication = p_communication;
         bounding_box = p_bounding_box;
         this.test_level = p_test_level;
         search_tree_manager = new SearchTreeManager(this);
+        connectable_item_index = new ConnectableItemIndex();
+        item_type_registry = new ItemTypeRegistry();
         p_rules.nets.set_board(this);
-        insert_outline(p_outline_shapes, p_outline_cl_class_no);
     }
 
     /**
@@ -393,7 +419,10 @@ public class BasicBoard implements java.io.Serializable {
         }
         additional_update_after_change(p_item); // must be called before p_item is deleted.
         search_tree_manager.remove(p_item);
-        item_list.delete(p_item);
+        if (item_list.delete(p_item)) {
+            connectable_item_index.remove(p_item);
+            item_type_registry.remove(p_item);
+        }
 
         // let the observers syncronize the deletion
         communication.observers.notify_deleted(p_item);
@@ -416,39 +445,36 @@ public class BasicBoard implements java.io.Serializable {
     }
 
     /**
-     * Returns all connectable items on the board containing p_net_no
+     * Returns all connectable items on the board containing p_net_no in the
+     * order of the item list, which is sorted by Item.compareTo.
      */
     public Collection<Item> get_connectable_items(int p_net_no) {
-        Collection<Item> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Connectable && curr_item.contains_net(p_net_no)) {
-                result.add(curr_item);
-            }
-        }
-        return result;
+        return connectable_item_index.get_items(p_net_no);
     }
 
     /**
      * Returns the count of connectable items of the net with number p_net_no
      */
     public int connectable_item_count(int p_net_no) {
-        int result = 0;
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Connectable && curr_item.contains_net(p_net_no)) {
-                ++result;
-            }
-        }
-        return result;
+        return connectable_item_index.item_count(p_net_no);
+    }
+
+    /**
+     * Returns a number, which is increased, whenever a connectable item of the
+     * net with number p_net_no is inserted, removed or changed, so that data
+     * depending on the items of the net can be recalculated only, if it has
+     * changed.
+     */
+    public long get_net_change_count(int p_net_no) {
+        return connectable_item_index.get_change_count(p_net_no);
+    }
+
+    /**
+     * Returns a number, which is increased, whenever a connectable item of any
+     * net is inserted, removed or changed.
+     */
+    public long get_net_change_count() {
+        return connectable_item_index.get_change_count();
     }
 
     /**
@@ -530,111 +556,115 @@ public class BasicBoard implements java.io.Serializable {
      * Returns the list of all conduction areas on the board
      */
     public Collection<ConductionArea> get_conduction_areas() {
-        Collection<ConductionArea> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof ConductionArea) {
-                result.add((ConductionArea) curr_item);
-            }
-        }
-        return result;
+        return item_type_registry.get_conduction_areas();
     }
 
     /**
      * Returns the list of all pins on the board
      */
     public Collection<Pin> get_pins() {
-        Collection<Pin> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Pin) {
-                result.add((Pin) curr_item);
-            }
-        }
-        return result;
+        return item_type_registry.get_pins();
     }
 
     /**
      * Returns the list of all pins on the board with only 1 layer
      */
     public Collection<Pin> get_smd_pins() {
-        Collection<Pin> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Pin) {
-                Pin curr_pin = (Pin) curr_item;
-                if (curr_pin.first_layer() == curr_pin.last_layer()) {
-                    result.add(curr_pin);
-                }
-            }
-        }
-        return result;
+        return item_type_registry.get_smd_pins();
     }
 
     /**
-     * Returns the list of all vias on the board
+     * Returns the list of all vias on the board in the order of the item
+     * list, which is sorted by Item.compareTo.
      */
     public Collection<Via> get_vias() {
-        Collection<Via> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Via) {
-                result.add((Via) curr_item);
-            }
-        }
-        return result;
+        return item_type_registry.get_vias();
     }
 
     /**
-     * Returns the list of all traces on the board
+     * Returns the list of all traces on the board in the order of the item
+     * list, which is sorted by Item.compareTo.
      */
     public Collection<Trace> get_traces() {
-        Collection<Trace> result = new LinkedList<>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Trace) {
-                result.add((Trace) curr_item);
-            }
-        }
-        return result;
+        return item_type_registry.get_traces();
     }
 
     /**
      * Returns the cumulative length of all traces on the board
      */
     public double cumulative_trace_length() {
-        double result = 0;
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;) {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            if (curr_item instanceof Trace) {
-                result += ((Trace) curr_item).get_length();
-            }
+        return item_type_registry.cumulative_trace_length(-1);
+    }
+
+    /**
+     * Returns the cumulative length of the traces on layer p_layer
+     */
+    public double cumulative_trace_length(int p_layer) {
+        return item_type_registry.cumulative_trace_length(p_layer);
+    }
+
+    /**
+     * Returns the number of vias on the board
+     */
+    public int via_count() {
+        return item_type_registry.via_count();
+    }
+
+    /**
+     * Calculates the cumulative trace lengths multiplied by the trace radius
+     * plus clearance of all traces on the board, which are not fixed. The
+     * lengths of shove_fixed traces are counted half.
+     */
+    public double weighted_trace_length() {
+        return item_type_registry.weighted_trace_length(this);
+    }
+
+    /**
+     * Returns the clearance violations of all items on the board. Each
+     * violation between two items is contained only once. After the first
+     * call only the items changed in the meantime and their neighbours are
+     * checked again.
+     */
+    public Collection<ClearanceViolation> get_clearance_violations() {
+        return get_clearance_violation_tracker().get_violations();
+    }
+
+    /**
+     * Returns the number of clearance violations between two items on the
+     * board.
+     */
+    public int clearance_violation_count() {
+        return get_clearance_violation_tracker().violation_count();
+    }
+
+    private synchronized ClearanceViolationTracker get_clearance_violation_tracker() {
+        if (clearance_violation_tracker == null) {
+            clearance_violation_tracker = new ClearanceViolationTracker(this);
+        }
+        return clearance_violation_tracker;
+    }
+
+    /**
+     * To be called, when p_item was inserted or removed, or when its shape,
+     * nets or clearance class was changed.
+     */
+    void item_changed(Item p_item) {
+        connectable_item_index.item_changed(p_item);
+        ClearanceViolationTracker curr_tracker = clearance_violation_tracker;
+        if (curr_tracker != null) {
+            curr_tracker.item_changed(p_item);
+        }
+    }
+
+    /**
+     * To be called, when the clearance rules were changed, so that the
+     * clearance violations of all items have to be checked again.
+     */
+    void clearance_rules_changed() {
+        ClearanceViolationTracker curr_tracker = clearance_violation_tracker;
+        if (curr_tracker != null) {
+            curr_tracker.invalidate();
         }
-        return result;
     }
 
     /**
@@ -671,21 +701,13 @@ public class BasicBoard implements java.io.Serializable {
     public boolean normalize_traces(int p_net_no) {
         boolean result = false;
         boolean something_changed = true;
-        Item curr_item;
         while (something_changed) {
             something_changed = false;
-            Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-            for (;;) {
-                try {
-                    curr_item = (Item) item_list.read_object(it);
-                } catch (java.util.ConcurrentModificationException e) {
-                    something_changed = true;
-                    break;
-                }
-                if (curr_item == null) {
-                    break;
-                }
-                if (curr_item.contains_net(p_net_no) && curr_item instanceof PolylineTrace && curr_item.is_on_the_board()) {
+            // The items of the net are taken from the index sorted by Item.compareTo, which is also
+            // the order of the item list, and the search restarts after each change like an
+            // iteration of the item list.
+            for (Item curr_item : connectable_item_index.get_items(p_net_no)) {
+                if (curr_item instanceof PolylineTrace && curr_item.is_on_the_board()) {
                     PolylineTrace curr_trace = (PolylineTrace) curr_item;
                     if (curr_trace.normalize(null)) {
                         something_changed = true;
@@ -694,6 +716,9 @@ public class BasicBoard implements java.io.Serializable {
                         something_changed = true;
                         result = true;
                     }
+                    if (something_changed) {
+                        break;
+                    }
                 }
             }
         }
@@ -968,6 +993,15 @@ public class BasicBoard implements java.io.Serializable {
         return min_trace_half_width;
     }
 
+    /**
+     * Restores the biggest and smallest half width of the traces on the board,
+     * which are not recalculated when items are inserted with insert_item.
+     */
+    void set_trace_half_width_range(int p_max_half_width, int p_min_half_width) {
+        this.max_trace_half_width = p_max_half_width;
+        this.min_trace_half_width = p_min_half_width;
+    }
+
     /**
      * Returns a surrounding box of the geometry of this board
      */
@@ -1079,10 +1113,37 @@ public class BasicBoard implements java.io.Serializable {
         p_item.board = this;
         item_list.insert(p_item);
         search_tree_manager.insert(p_item);
+        connectable_item_index.insert(p_item);
+        item_type_registry.insert(p_item);
         communication.observers.notify_new(p_item);
         additional_update_after_change(p_item);
     }
 
+    /**
+     * Inserts a copy of the trace or via p_item of another board with the same
+     * library into this board and returns the copy. The copy gets the id number
+     * p_id_no, or a new one, if p_id_no {@literal <=} 0. Returns null, if p_item
+     * is neither a polyline trace nor a via.
+     */
+    public Item insert_route_item_copy(Item p_item, int p_id_no) {
+        Item new_item;
+        if (p_item instanceof PolylineTrace) {
+            PolylineTrace curr_trace = (PolylineTrace) p_item;
+            new_item = new PolylineTrace(curr_trace.polyline(), curr_trace.get_layer(), curr_trace.get_half_width(),
+                    curr_trace.net_no_arr, curr_trace.clearance_class_no(), p_id_no, curr_trace.get_component_no(),
+                    curr_trace.get_fixed_state(), this);
+        } else if (p_item instanceof Via) {
+            Via curr_via = (Via) p_item;
+            Padstack curr_padstack = this.library.padstacks.get(curr_via.get_padstack().no);
+            new_item = new Via(curr_padstack, curr_via.get_center(), curr_via.net_no_arr, curr_via.clearance_class_no(),
+                    p_id_no, curr_via.get_component_no(), curr_via.get_fixed_state(), curr_via.attach_allowed, this);
+        } else {
+            return null;
+        }
+        insert_item(new_item);
+        return new_item;
+    }
+
     /**
      * Stub function overwritten in class RoutingBoard to maintain the
      * autorouter database if necessesary.
@@ -1096,6 +1157,15 @@ public class BasicBoard implements java.io.Serializable {
      * p_changed_nets, if p_changed_nets != null
      */
     public boolean undo(Set<Integer> p_changed_nets) {
+        return undo(p_changed_nets, null, null);
+    }
+
+    /**
+     * Restores the sitiation at the previous snapshot like undo(Set) and puts
+     * the items removed from the board into p_cancelled_items and the items
+     * put back onto the board into p_restored_items, if they are != null.
+     */
+    public boolean undo(Set<Integer> p_changed_nets, Collection<Item> p_cancelled_items, Collection<Item> p_restored_items) {
         this.components.undo(this.communication.observers);
         Collection<UndoableObjects.Storable> cancelled_objects = new LinkedList<>();
         Collection<UndoableObjects.Storable> restored_objects = new LinkedList<>();
@@ -1105,6 +1175,11 @@ public class BasicBoard implements java.io.Serializable {
         while (it.hasNext()) {
             Item curr_item = (Item) it.next();
             search_tree_manager.remove(curr_item);
+            connectable_item_index.remove(curr_item);
+            item_type_registry.remove(curr_item);
+            if (p_cancelled_items != null) {
+                p_cancelled_items.add(curr_item);
+            }
 
             // let the observers syncronize the deletion
             communication.observers.notify_deleted(curr_item);
@@ -1119,6 +1194,11 @@ public class BasicBoard implements java.io.Serializable {
             Item curr_item = (Item) it.next();
             curr_item.board = this;
             search_tree_manager.insert(curr_item);
+            connectable_item_index.insert(curr_item);
+            item_type_registry.insert(curr_item);
+            if (p_restored_items != null) {
+                p_restored_items.add(curr_item);
+            }
             curr_item.clear_autoroute_info();
             // let the observers know the insertion
             communication.observers.notify_new(curr_item);
@@ -1146,6 +1226,8 @@ public class BasicBoard implements java.io.Serializable {
         while (it.hasNext()) {
             Item curr_item = (Item) it.next();
             search_tree_manager.remove(curr_item);
+            connectable_item_index.remove(curr_item);
+            item_type_registry.remove(curr_item);
             // let the observers syncronize the deletion
             communication.observers.notify_deleted(curr_item);
             if (p_changed_nets != null) {
@@ -1159,6 +1241,8 @@ public class BasicBoard implements java.io.Serializable {
             Item curr_item = (Item) it.next();
             curr_item.board = this;
             search_tree_manager.insert(curr_item);
+            connectable_item_index.insert(curr_item);
+            item_type_registry.insert(curr_item);
             curr_item.clear_autoroute_info();
             // let the observers know the insertion
             communication.observers.notify_new(curr_item);
@@ -1279,12 +1363,15 @@ public class BasicBoard implements java.io.Serializable {
         p_stream.defaultReadObject();
         // insert the items on the board into the search trees
         search_tree_manager = new SearchTreeManager(this);
-        Iterator<Item> it = this.get_items().iterator();
-        while (it.hasNext()) {
-            Item curr_item = it.next();
+        connectable_item_index = new ConnectableItemIndex();
+        item_type_registry = new ItemTypeRegistry();
+        Collection<Item> board_items = this.get_items();
+        for (Item curr_item : board_items) {
             curr_item.board = this;
-            search_tree_manager.insert(curr_item);
+            connectable_item_index.insert(curr_item);
+            item_type_registry.insert(curr_item);
         }
+        search_tree_manager.insert_all(board_items);
     }
 
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binary file format for saving a routing board together with the interactive
+ * settings. The file starts with a magic number, the format version and a
+ * table of contents with the tag, offset and length of each section. The
+ * items of the board are stored in columns per item type, so that they can be
+ * read in bulk, the undo history of the board is not saved. Only the rules,
+ * the library and the components, which are small compared to the items, are
+ * still stored with java serialization.
+ * <p>
+ * A file is read completely into a buffer on the heap, so that the file is
+ * closed, when open returns, and can be overwritten at once. The table of
+ * contents is parsed when the file is opened, the sections are views into the
+ * buffer. The item sections are decoded together, when the board is read, the
+ * serialized sections, when they are opened.
+ *
+ * @author agent
+ */
+public final class BinaryBoardFile {
+
+    /**
+     * The characters "FRBF" at the start of each binary board file.
+     */
+    static final int MAGIC = 0x46524246;
+    /**
+     * Has to be increased on any change of the layout of a section. Files
+     * with a bigger version are rejected.
+     */
+    public static final int FORMAT_VERSION = 1;
+    /**
+     * The rules, library and components of the board.
+     */
+    static final int BOARD_SECTION = 1;
+    /**
+     * The order of the items in the item list of the board.
+     */
+    static final int ITEM_ORDER_SECTION = 2;
+    static final int PIN_SECTION = 3;
+    static final int VIA_SECTION = 4;
+    static final int TRACE_SECTION = 5;
+    /**
+     * Obstacle areas, conduction areas, component outlines and the board
+     * outline.
+     */
+    static final int AREA_SECTION = 6;
+    /**
+     * Items, which do not fit into the columns of the other item sections,
+     * for example traces with rational corners.
+     */
+    static final int OTHER_ITEM_SECTION = 7;
+    /**
+     * The interactive settings, the coordinate transform and the graphics
+     * context of the board handling.
+     */
+    public static final int SETTINGS_SECTION = 16;
+    /**
+     * The state of the board frame and its sub windows.
+     */
+    public static final int WINDOW_SECTION = 17;
+
+    private final int format_version;
+    private final Map<Integer, ByteBuffer> sections = new TreeMap<>();
+
+    private BinaryBoardFile(ByteBuffer p_buffer) throws IOException {
+        if (p_buffer.remaining() < 12 || p_buffer.getInt() != MAGIC) {
+            throw new StreamCorruptedException("BinaryBoardFile: not a binary board file");
+        }
+        this.format_version = p_buffer.getInt();
+        if (this.format_version < 1 || this.format_version > FORMAT_VERSION) {
+            throw new StreamCorruptedException("BinaryBoardFile: unsupported format version " + this.format_version);
+        }
+        int section_count = p_buffer.getInt();
+        for (int i = 0; i < section_count; ++i) {
+            int tag = p_buffer.getInt();
+            int offset = p_buffer.getInt();
+            int length = p_buffer.getInt();
+            if (offset < 0 || length < 0 || offset > p_buffer.limit() - length) {
+                throw new StreamCorruptedException("BinaryBoardFile: section " + tag + " out of range");
+            }
+            ByteBuffer section = p_buffer.duplicate();
+            section.position(offset);
+            section.limit(offset + length);
+            this.sections.put(tag, section.slice());
+        }
+    }
+
+    /**
+     * Opens p_file by reading it into memory. The file is closed again, when
+     * this function returns.
+     */
+    public static BinaryBoardFile open(File p_file) throws IOException {
+        return new BinaryBoardFile(ByteBuffer.wrap(Files.readAllBytes(p_file.toPath())));
+    }
+
+    /**
+     * Reads a binary board file from p_buffer, which is positioned at the
+     * start of the file.
+     */
+    public static BinaryBoardFile read(ByteBuffer p_buffer) throws IOException {
+        return new BinaryBoardFile(p_buffer.duplicate());
+    }
+
+    /**
+     * Returns true, if p_file starts with the magic number of a binary board
+     * file. Older binary files containing a serialized board return false.
+     */
+    public static boolean is_binary_board_file(File p_file) {
+        if (p_file == null || p_file.length() < 4) {
+            return false;
+        }
+        try (DataInputStream input_stream = new DataInputStream(new FileInputStream(p_file))) {
+            return input_stream.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public int get_format_version() {
+        return this.format_version;
+    }
+
+    public boolean contains_section(int p_tag) {
+        return this.sections.containsKey(p_tag);
+    }
+
+    /**
+     * Reads the routing board stored in this file.
+     */
+    public RoutingBoard read_board(TestLevel p_test_level) throws IOException {
+        return BinaryBoardReader.read(this, p_test_level);
+    }
+
+    /**
+     * Returns a stream for reading the serialized objects in the section with
+     * tag p_tag.
+     */
+    public ObjectInputStream open_object_section(int p_tag) throws IOException {
+        return new ObjectInputStream(new SectionInputStream(get_section(p_tag)));
+    }
+
+    /**
+     * Returns a new view into the section with tag p_tag positioned at its
+     * start.
+     */
+    ByteBuffer get_section(int p_tag) throws IOException {
+        ByteBuffer result = this.sections.get(p_tag);
+        if (result == null) {
+            throw new StreamCorruptedException("BinaryBoardFile: section " + p_tag + " missing");
+        }
+        return result.duplicate();
+    }
+
+    /**
+     * Collects the sections of a binary board file and writes them together
+     * with the table of contents.
+     */
+    public static final class Writer {
+
+        private final Map<Integer, byte[]> sections = new TreeMap<>();
+
+        /**
+         * Adds the sections describing p_board.
+         */
+        public void add_board(BasicBoard p_board) throws IOException {
+            BinaryBoardWriter.write(p_board, this);
+        }
+
+        /**
+         * Adds or replaces the section with tag p_tag.
+         */
+        public void add_section(int p_tag, byte[] p_data) {
+            this.sections.put(p_tag, p_data);
+        }
+
+        public void write(OutputStream p_output_stream) throws IOException {
+            DataOutputStream data_stream = new DataOutputStream(p_output_stream);
+            data_stream.writeInt(MAGIC);
+            data_stream.writeInt(FORMAT_VERSION);
+            data_stream.writeInt(this.sections.size());
+            int offset = 12 + 12 * this.sections.size();
+            for (Map.Entry<Integer, byte[]> curr_section : this.sections.entrySet()) {
+                data_stream.writeInt(curr_section.getKey());
+                data_stream.writeInt(offset);
+                data_stream.writeInt(curr_section.getValue().length);
+                offset += curr_section.getValue().length;
+            }
+            for (byte[] curr_data : this.sections.values()) {
+                data_stream.write(curr_data);
+            }
+            data_stream.flush();
+        }
+    }
+
+    /**
+     * Reads the bytes of a section as input stream.
+     */
+    static class SectionInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        SectionInputStream(ByteBuffer p_buffer) {
+            this.buffer = p_buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            return this.buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] p_bytes, int p_offset, int p_length) {
+            if (p_length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int length = Math.min(p_length, this.buffer.remaining());
+            this.buffer.get(p_bytes, p_offset, length);
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import net.freerouting.freeroute.geometry.planar.Area;
+import net.freerouting.freeroute.geometry.planar.Circle;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+import net.freerouting.freeroute.geometry.planar.IntOctagon;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.geometry.planar.IntVector;
+import net.freerouting.freeroute.geometry.planar.Line;
+import net.freerouting.freeroute.geometry.planar.Point;
+import net.freerouting.freeroute.geometry.planar.PolygonShape;
+import net.freerouting.freeroute.geometry.planar.Polyline;
+import net.freerouting.freeroute.geometry.planar.PolylineArea;
+import net.freerouting.freeroute.geometry.planar.PolylineShape;
+import net.freerouting.freeroute.geometry.planar.Simplex;
+import net.freerouting.freeroute.geometry.planar.Vector;
+import net.freerouting.freeroute.library.BoardLibrary;
+import net.freerouting.freeroute.library.Padstack;
+import net.freerouting.freeroute.rules.BoardRules;
+
+/**
+ * Creates a routing board from the sections of a binary board file written
+ * by BinaryBoardWriter.
+ *
+ * @author agent
+ */
+final class BinaryBoardReader {
+
+    private final BinaryBoardFile file;
+    private RoutingBoard board = null;
+    private boolean outline_keepout_outside = false;
+
+    private BinaryBoardReader(BinaryBoardFile p_file) {
+        this.file = p_file;
+    }
+
+    static RoutingBoard read(BinaryBoardFile p_file, TestLevel p_test_level) throws IOException {
+        BinaryBoardReader reader = new BinaryBoardReader(p_file);
+        try {
+            reader.read_board_section(p_test_level);
+            reader.read_items();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException
+                | IllegalArgumentException | ClassNotFoundException e) {
+            StreamCorruptedException exc = new StreamCorruptedException("BinaryBoardReader: invalid board data");
+            exc.initCause(e);
+            throw exc;
+        }
+        return reader.board;
+    }
+
+    private void read_board_section(TestLevel p_test_level) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream object_stream = new BoardObjectInputStream(this.file.get_section(BinaryBoardFile.BOARD_SECTION))) {
+            IntBox bounding_box = (IntBox) object_stream.readObject();
+            LayerStructure layer_structure = (LayerStructure) object_stream.readObject();
+            BoardLibrary library = (BoardLibrary) object_stream.readObject();
+            Components components = (Components) object_stream.readObject();
+            BoardRules rules = (BoardRules) object_stream.readObject();
+            Communication communication = (Communication) object_stream.readObject();
+            int max_trace_half_width = object_stream.readInt();
+            int min_trace_half_width = object_stream.readInt();
+            this.board = new RoutingBoard(bounding_box, layer_structure, library, components, rules, communication, p_test_level);
+            this.board.set_trace_half_width_range(max_trace_half_width, min_trace_half_width);
+        }
+    }
+
+    /**
+     * Inserts the items of the item sections into the board in the order of
+     * the item list of the saved board. The search trees are built at the end
+     * from all items.
+     */
+    private void read_items() throws IOException, ClassNotFoundException {
+        ByteBuffer item_order = this.file.get_section(BinaryBoardFile.ITEM_ORDER_SECTION);
+        Iterator<Item> pins = read_pins().iterator();
+        Iterator<Item> vias = read_vias().iterator();
+        Iterator<Item> traces = read_traces().iterator();
+        Iterator<Item> areas = read_areas().iterator();
+        Iterator<Item> other_items = read_other_items().iterator();
+        this.board.search_tree_manager.start_deferred_insert();
+        try {
+            while (item_order.hasRemaining()) {
+                Iterator<Item> curr_items;
+                switch (item_order.get()) {
+                    case BinaryBoardFile.PIN_SECTION:
+                        curr_items = pins;
+                        break;
+                    case BinaryBoardFile.VIA_SECTION:
+                        curr_items = vias;
+                        break;
+                    case BinaryBoardFile.TRACE_SECTION:
+                        curr_items = traces;
+                        break;
+                    case BinaryBoardFile.AREA_SECTION:
+                        curr_items = areas;
+                        break;
+                    case BinaryBoardFile.OTHER_ITEM_SECTION:
+                        curr_items = other_items;
+                        break;
+                    default:
+                        throw new StreamCorruptedException("BinaryBoardReader: unknown item section");
+                }
+                this.board.insert_item(curr_items.next());
+            }
+        } finally {
+            this.board.search_tree_manager.end_deferred_insert();
+        }
+        BoardOutline outline = this.board.get_outline();
+        if (outline != null) {
+            // reinserts the outline into the search trees, if the value changes
+            outline.generate_keepout_outside(this.outline_keepout_outside);
+        }
+    }
+
+    private List<Item> read_pins() throws IOException {
+        ItemColumns columns = new ItemColumns(this.file.get_section(BinaryBoardFile.PIN_SECTION));
+        int[] pin_no = columns.extra[0];
+        List<Item> result = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); ++i) {
+            result.add(new Pin(columns.component_no[i], pin_no[i], columns.next_net_no_arr(i), columns.clearance_class[i],
+                    columns.id_no[i], columns.fixed_state(i), this.board));
+        }
+        return result;
+    }
+
+    private List<Item> read_vias() throws IOException {
+        ItemColumns columns = new ItemColumns(this.file.get_section(BinaryBoardFile.VIA_SECTION));
+        int[] padstack_no = columns.extra[0];
+        int[] x = columns.extra[1];
+        int[] y = columns.extra[2];
+        int[] attach_allowed = columns.extra[3];
+        List<Item> result = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); ++i) {
+            Padstack curr_padstack = this.board.library.padstacks.get(padstack_no[i]);
+            if (curr_padstack == null) {
+                throw new StreamCorruptedException("BinaryBoardReader: padstack " + padstack_no[i] + " not found");
+            }
+            result.add(new Via(curr_padstack, new IntPoint(x[i], y[i]), columns.next_net_no_arr(i), columns.clearance_class[i],
+                    columns.id_no[i], columns.component_no[i], columns.fixed_state(i), attach_allowed[i] != 0, this.board));
+        }
+        return result;
+    }
+
+    private List<Item> read_traces() throws IOException {
+        ItemColumns columns = new ItemColumns(this.file.get_section(BinaryBoardFile.TRACE_SECTION));
+        int[] layer = columns.extra[0];
+        int[] half_width = columns.extra[1];
+        int[] line_count = columns.extra[2];
+        int[] coordinates = columns.extra[3];
+        List<Item> result = new ArrayList<>(columns.size());
+        int coordinate_no = 0;
+        for (int i = 0; i < columns.size(); ++i) {
+            Line[] lines = new Line[line_count[i]];
+            for (int j = 0; j < lines.length; ++j) {
+                IntPoint a = new IntPoint(coordinates[coordinate_no], coordinates[coordinate_no + 1]);
+                IntPoint b = new IntPoint(coordinates[coordinate_no + 2], coordinates[coordinate_no + 3]);
+                lines[j] = new Line(a, b);
+                coordinate_no += 4;
+            }
+            result.add(new PolylineTrace(new Polyline(lines), layer[i], half_width[i], columns.next_net_no_arr(i),
+                    columns.clearance_class[i], columns.id_no[i], columns.component_no[i], columns.fixed_state(i), this.board));
+        }
+        return result;
+    }
+
+    private List<Item> read_areas() throws IOException, ClassNotFoundException {
+        ByteBuffer buffer = this.file.get_section(BinaryBoardFile.AREA_SECTION);
+        int area_count = buffer.getInt();
+        List<Item> result = new ArrayList<>(area_count);
+        for (int i = 0; i < area_count; ++i) {
+            result.add(read_area_item(buffer));
+        }
+        return result;
+    }
+
+    private Item read_area_item(ByteBuffer p_buffer) throws IOException, ClassNotFoundException {
+        byte kind = p_buffer.get();
+        int id_no = p_buffer.getInt();
+        int clearance_class = p_buffer.getInt();
+        int component_no = p_buffer.getInt();
+        FixedState fixed_state = FixedState.values()[p_buffer.get()];
+        int[] net_no_arr = new int[p_buffer.getInt()];
+        for (int i = 0; i < net_no_arr.length; ++i) {
+            net_no_arr[i] = p_buffer.getInt();
+        }
+        switch (kind) {
+            case BinaryBoardWriter.OBSTACLE_AREA:
+            case BinaryBoardWriter.VIA_OBSTACLE_AREA:
+            case BinaryBoardWriter.COMPONENT_OBSTACLE_AREA:
+            case BinaryBoardWriter.CONDUCTION_AREA: {
+                int layer = p_buffer.getInt();
+                String name = read_string(p_buffer);
+                Vector translation = read_vector(p_buffer);
+                double rotation = p_buffer.getDouble();
+                boolean side_changed = p_buffer.get() != 0;
+                Area area = read_area(p_buffer);
+                if (kind == BinaryBoardWriter.CONDUCTION_AREA) {
+                    boolean is_obstacle = p_buffer.get() != 0;
+                    return new ConductionArea(area, layer, translation, rotation, side_changed, net_no_arr, clearance_class,
+                            id_no, component_no, name, is_obstacle, fixed_state, this.board);
+                } else if (kind == BinaryBoardWriter.VIA_OBSTACLE_AREA) {
+                    return new ViaObstacleArea(area, layer, translation, rotation, side_changed, net_no_arr, clearance_class,
+                            id_no, component_no, name, fixed_state, this.board);
+                } else if (kind == BinaryBoardWriter.COMPONENT_OBSTACLE_AREA) {
+                    return new ComponentObstacleArea(area, layer, translation, rotation, side_changed, clearance_class,
+                            id_no, component_no, name, fixed_state, this.board);
+                }
+                return new ObstacleArea(area, layer, translation, rotation, side_changed, net_no_arr, clearance_class,
+                        id_no, component_no, name, fixed_state, this.board);
+            }
+            case BinaryBoardWriter.COMPONENT_OUTLINE: {
+                boolean is_front = p_buffer.get() != 0;
+                Vector translation = read_vector(p_buffer);
+                double rotation = p_buffer.getDouble();
+                Area area = read_area(p_buffer);
+                return new ComponentOutline(area, is_front, translation, rotation, component_no, fixed_state, this.board);
+            }
+            case BinaryBoardWriter.BOARD_OUTLINE: {
+                PolylineShape[] shapes = new PolylineShape[p_buffer.getInt()];
+                for (int i = 0; i < shapes.length; ++i) {
+                    shapes[i] = (PolylineShape) read_area(p_buffer);
+                }
+                this.outline_keepout_outside = p_buffer.get() != 0;
+                return new BoardOutline(shapes, clearance_class, id_no, this.board);
+            }
+            default:
+                throw new StreamCorruptedException("BinaryBoardReader: unknown area kind " + kind);
+        }
+    }
+
+    private Area read_area(ByteBuffer p_buffer) throws IOException, ClassNotFoundException {
+        byte type = p_buffer.get();
+        switch (type) {
+            case BinaryBoardWriter.INT_BOX:
+                return new IntBox(p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt());
+            case BinaryBoardWriter.INT_OCTAGON:
+                return new IntOctagon(p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt(),
+                        p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt(), p_buffer.getInt());
+            case BinaryBoardWriter.CIRCLE:
+                return new Circle(new IntPoint(p_buffer.getInt(), p_buffer.getInt()), p_buffer.getInt());
+            case BinaryBoardWriter.POLYGON_SHAPE: {
+                Point[] corners = new Point[p_buffer.getInt()];
+                for (int i = 0; i < corners.length; ++i) {
+                    corners[i] = new IntPoint(p_buffer.getInt(), p_buffer.getInt());
+                }
+                return new PolygonShape(corners);
+            }
+            case BinaryBoardWriter.SIMPLEX: {
+                Line[] lines = new Line[p_buffer.getInt()];
+                for (int i = 0; i < lines.length; ++i) {
+                    IntPoint a = new IntPoint(p_buffer.getInt(), p_buffer.getInt());
+                    IntPoint b = new IntPoint(p_buffer.getInt(), p_buffer.getInt());
+                    lines[i] = new Line(a, b);
+                }
+                return new Simplex(lines);
+            }
+            case BinaryBoardWriter.POLYLINE_AREA: {
+                PolylineShape border = (PolylineShape) read_area(p_buffer);
+                PolylineShape[] holes = new PolylineShape[p_buffer.getInt()];
+                for (int i = 0; i < holes.length; ++i) {
+                    holes[i] = (PolylineShape) read_area(p_buffer);
+                }
+                return new PolylineArea(border, holes);
+            }
+            case BinaryBoardWriter.SERIALIZED_OBJECT:
+                return (Area) read_object(p_buffer);
+            default:
+                throw new StreamCorruptedException("BinaryBoardReader: unknown shape type " + type);
+        }
+    }
+
+    private Vector read_vector(ByteBuffer p_buffer) throws IOException, ClassNotFoundException {
+        byte type = p_buffer.get();
+        if (type == BinaryBoardWriter.INT_VECTOR) {
+            return new IntVector(p_buffer.getInt(), p_buffer.getInt());
+        }
+        if (type != BinaryBoardWriter.SERIALIZED_OBJECT) {
+            throw new StreamCorruptedException("BinaryBoardReader: unknown vector type " + type);
+        }
+        return (Vector) read_object(p_buffer);
+    }
+
+    private Object read_object(ByteBuffer p_buffer) throws IOException, ClassNotFoundException {
+        int length = p_buffer.getInt();
+        ByteBuffer object_buffer = p_buffer.slice();
+        object_buffer.limit(length);
+        p_buffer.position(p_buffer.position() + length);
+        try (ObjectInputStream object_stream = new BoardObjectInputStream(object_buffer)) {
+            return object_stream.readObject();
+        }
+    }
+
+    private List<Item> read_other_items() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream object_stream = new BoardObjectInputStream(this.file.get_section(BinaryBoardFile.OTHER_ITEM_SECTION))) {
+            List<Item> result = new ArrayList<>();
+            for (Object curr_object : (List<?>) object_stream.readObject()) {
+                Item curr_item = (Item) curr_object;
+                curr_item.board = this.board;
+                curr_item.set_on_the_board(false);
+                result.add(curr_item);
+            }
+            return result;
+        }
+    }
+
+    private static String read_string(ByteBuffer p_buffer) {
+        int length = p_buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        p_buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The columns of an item section as described in BinaryBoardWriter.
+     */
+    private static class ItemColumns {
+
+        final int[] id_no;
+        final int[] clearance_class;
+        final int[] component_no;
+        private final int[] fixed_state;
+        private final int[] net_count;
+        private final int[] net_no;
+        final int[][] extra = new int[4][];
+        private int net_offset = 0;
+
+        ItemColumns(ByteBuffer p_buffer) throws StreamCorruptedException {
+            id_no = read_column(p_buffer);
+            clearance_class = read_column(p_buffer);
+            component_no = read_column(p_buffer);
+            fixed_state = read_column(p_buffer);
+            net_count = read_column(p_buffer);
+            net_no = read_column(p_buffer);
+            for (int i = 0; i < extra.length; ++i) {
+                extra[i] = read_column(p_buffer);
+            }
+        }
+
+        int size() {
+            return id_no.length;
+        }
+
+        FixedState fixed_state(int p_index) {
+            return FixedState.values()[fixed_state[p_index]];
+        }
+
+        /**
+         * Returns the net numbers of the item with index p_index. Has to be
+         * called for the items in ascending order.
+         */
+        int[] next_net_no_arr(int p_index) {
+            int[] result = Arrays.copyOfRange(net_no, net_offset, net_offset + net_count[p_index]);
+            net_offset += result.length;
+            return result;
+        }
+
+        private static int[] read_column(ByteBuffer p_buffer) throws StreamCorruptedException {
+            int size = p_buffer.getInt();
+            if (size < 0 || 4L * size > p_buffer.remaining()) {
+                throw new StreamCorruptedException("BinaryBoardReader: column size out of range");
+            }
+            int[] result = new int[size];
+            p_buffer.asIntBuffer().get(result);
+            p_buffer.position(p_buffer.position() + 4 * size);
+            return result;
+        }
+    }
+
+    /**
+     * Resolves the references replaced by BinaryBoardWriter. The board is
+     * resolved to null, because it does not yet exist, when the board section
+     * is read, and is set afterwards.
+     */
+    private class BoardObjectInputStream extends ObjectInputStream {
+
+        BoardObjectInputStream(ByteBuffer p_buffer) throws IOException {
+            super(new BinaryBoardFile.SectionInputStream(p_buffer));
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object p_object) throws IOException {
+            if (p_object == BinaryBoardWriter.BoardReference.INSTANCE) {
+                return null;
+            }
+            if (p_object instanceof BinaryBoardWriter.PadstackReference) {
+                Padstack result = board.library.padstacks.get(((BinaryBoardWriter.PadstackReference) p_object).no);
+                if (result == null) {
+                    throw new InvalidObjectException("BinaryBoardReader: padstack not found");
+                }
+                return result;
+            }
+            return p_object;
+        }
+    }
+}
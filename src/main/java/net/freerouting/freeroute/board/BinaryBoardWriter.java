@@ -0,0 +1,483 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import net.freerouting.freeroute.geometry.planar.Area;
+import net.freerouting.freeroute.geometry.planar.Circle;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+import net.freerouting.freeroute.geometry.planar.IntOctagon;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.geometry.planar.IntVector;
+import net.freerouting.freeroute.geometry.planar.Line;
+import net.freerouting.freeroute.geometry.planar.Point;
+import net.freerouting.freeroute.geometry.planar.PolygonShape;
+import net.freerouting.freeroute.geometry.planar.Polyline;
+import net.freerouting.freeroute.geometry.planar.PolylineArea;
+import net.freerouting.freeroute.geometry.planar.PolylineShape;
+import net.freerouting.freeroute.geometry.planar.Simplex;
+import net.freerouting.freeroute.geometry.planar.Vector;
+import net.freerouting.freeroute.library.Padstack;
+
+/**
+ * Writes the sections of a binary board file describing a board. The layout
+ * of the sections is documented at the corresponding write functions, the
+ * counterpart is BinaryBoardReader.
+ *
+ * @author agent
+ */
+final class BinaryBoardWriter {
+
+    static final byte OBSTACLE_AREA = 0;
+    static final byte VIA_OBSTACLE_AREA = 1;
+    static final byte COMPONENT_OBSTACLE_AREA = 2;
+    static final byte CONDUCTION_AREA = 3;
+    static final byte COMPONENT_OUTLINE = 4;
+    static final byte BOARD_OUTLINE = 5;
+
+    static final byte SERIALIZED_OBJECT = 0;
+    static final byte INT_BOX = 1;
+    static final byte INT_OCTAGON = 2;
+    static final byte CIRCLE = 3;
+    static final byte POLYGON_SHAPE = 4;
+    static final byte SIMPLEX = 5;
+    static final byte POLYLINE_AREA = 6;
+    static final byte INT_VECTOR = 7;
+
+    private final BasicBoard board;
+    private final List<Item> other_items = new ArrayList<>();
+
+    private BinaryBoardWriter(BasicBoard p_board) {
+        this.board = p_board;
+    }
+
+    static void write(BasicBoard p_board, BinaryBoardFile.Writer p_file) throws IOException {
+        BinaryBoardWriter writer = new BinaryBoardWriter(p_board);
+        Collection<Item> board_items = p_board.get_items();
+        p_file.add_section(BinaryBoardFile.BOARD_SECTION, writer.write_board_section());
+        ItemColumns pins = new ItemColumns();
+        ItemColumns vias = new ItemColumns();
+        ItemColumns traces = new ItemColumns();
+        ByteArrayOutputStream area_bytes = new ByteArrayOutputStream();
+        DataOutputStream area_stream = new DataOutputStream(area_bytes);
+        int area_count = 0;
+        byte[] item_order = new byte[board_items.size()];
+        int item_no = 0;
+        for (Item curr_item : board_items) {
+            int section;
+            if (curr_item instanceof Pin) {
+                pins.add(curr_item);
+                pins.extra[0].add(((Pin) curr_item).pin_no);
+                section = BinaryBoardFile.PIN_SECTION;
+            } else if (curr_item instanceof Via && ((Via) curr_item).get_center() instanceof IntPoint) {
+                writer.add_via((Via) curr_item, vias);
+                section = BinaryBoardFile.VIA_SECTION;
+            } else if (curr_item instanceof PolylineTrace && has_int_lines(((PolylineTrace) curr_item).polyline())) {
+                writer.add_trace((PolylineTrace) curr_item, traces);
+                section = BinaryBoardFile.TRACE_SECTION;
+            } else if (writer.write_area(curr_item, area_stream)) {
+                ++area_count;
+                section = BinaryBoardFile.AREA_SECTION;
+            } else {
+                writer.other_items.add(curr_item);
+                section = BinaryBoardFile.OTHER_ITEM_SECTION;
+            }
+            item_order[item_no] = (byte) section;
+            ++item_no;
+        }
+        p_file.add_section(BinaryBoardFile.ITEM_ORDER_SECTION, item_order);
+        p_file.add_section(BinaryBoardFile.PIN_SECTION, pins.to_bytes());
+        p_file.add_section(BinaryBoardFile.VIA_SECTION, vias.to_bytes());
+        p_file.add_section(BinaryBoardFile.TRACE_SECTION, traces.to_bytes());
+        ByteArrayOutputStream area_section = new ByteArrayOutputStream(area_bytes.size() + 4);
+        new DataOutputStream(area_section).writeInt(area_count);
+        area_bytes.writeTo(area_section);
+        p_file.add_section(BinaryBoardFile.AREA_SECTION, area_section.toByteArray());
+        p_file.add_section(BinaryBoardFile.OTHER_ITEM_SECTION, writer.write_other_item_section());
+    }
+
+    /**
+     * The bounding box, layer structure, library, components, rules and
+     * communication of the board as serialized objects, followed by the
+     * biggest and smallest trace half width.
+     */
+    private byte[] write_board_section() throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ObjectOutputStream object_stream = new BoardObjectOutputStream(result, false)) {
+            object_stream.writeObject(this.board.bounding_box);
+            object_stream.writeObject(this.board.layer_structure);
+            object_stream.writeObject(this.board.library);
+            object_stream.writeObject(this.board.components);
+            object_stream.writeObject(this.board.rules);
+            object_stream.writeObject(this.board.communication);
+            object_stream.writeInt(this.board.get_max_trace_half_width());
+            object_stream.writeInt(this.board.get_min_trace_half_width());
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * The items, which could not be written into the other item sections, as
+     * serialized list.
+     */
+    private byte[] write_other_item_section() throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ObjectOutputStream object_stream = new BoardObjectOutputStream(result, true)) {
+            object_stream.writeObject(new ArrayList<>(this.other_items));
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Via columns: padstack number, x and y of the center and attach_allowed.
+     */
+    private void add_via(Via p_via, ItemColumns p_columns) {
+        IntPoint center = (IntPoint) p_via.get_center();
+        p_columns.add(p_via);
+        p_columns.extra[0].add(p_via.get_padstack().no);
+        p_columns.extra[1].add(center.x);
+        p_columns.extra[2].add(center.y);
+        p_columns.extra[3].add(p_via.attach_allowed ? 1 : 0);
+    }
+
+    /**
+     * Trace columns: layer, half width, line count and the coordinates of the
+     * 2 points defining each line.
+     */
+    private void add_trace(PolylineTrace p_trace, ItemColumns p_columns) {
+        Line[] lines = p_trace.polyline().arr;
+        p_columns.add(p_trace);
+        p_columns.extra[0].add(p_trace.get_layer());
+        p_columns.extra[1].add(p_trace.get_half_width());
+        p_columns.extra[2].add(lines.length);
+        IntColumn coordinates = p_columns.extra[3];
+        for (Line curr_line : lines) {
+            IntPoint a = (IntPoint) curr_line.a;
+            IntPoint b = (IntPoint) curr_line.b;
+            coordinates.add(a.x);
+            coordinates.add(a.y);
+            coordinates.add(b.x);
+            coordinates.add(b.y);
+        }
+    }
+
+    private static boolean has_int_lines(Polyline p_polyline) {
+        for (Line curr_line : p_polyline.arr) {
+            if (!(curr_line.a instanceof IntPoint) || !(curr_line.b instanceof IntPoint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes an area item as record starting with its kind followed by the
+     * common item fields. Returns false, if p_item is no area item.
+     */
+    private boolean write_area(Item p_item, DataOutputStream p_stream) throws IOException {
+        byte kind;
+        if (p_item instanceof ConductionArea) {
+            kind = CONDUCTION_AREA;
+        } else if (p_item instanceof ViaObstacleArea) {
+            kind = VIA_OBSTACLE_AREA;
+        } else if (p_item instanceof ComponentObstacleArea) {
+            kind = COMPONENT_OBSTACLE_AREA;
+        } else if (p_item instanceof ComponentOutline) {
+            kind = COMPONENT_OUTLINE;
+        } else if (p_item instanceof BoardOutline) {
+            kind = BOARD_OUTLINE;
+        } else if (p_item.getClass() == ObstacleArea.class) {
+            kind = OBSTACLE_AREA;
+        } else {
+            return false;
+        }
+        p_stream.writeByte(kind);
+        p_stream.writeInt(p_item.get_id_no());
+        p_stream.writeInt(p_item.clearance_class_no());
+        p_stream.writeInt(p_item.get_component_no());
+        p_stream.writeByte(p_item.get_fixed_state().ordinal());
+        p_stream.writeInt(p_item.net_no_arr.length);
+        for (int curr_net_no : p_item.net_no_arr) {
+            p_stream.writeInt(curr_net_no);
+        }
+        if (p_item instanceof ObstacleArea) {
+            ObstacleArea curr_area = (ObstacleArea) p_item;
+            p_stream.writeInt(curr_area.get_layer_no());
+            write_string(curr_area.name, p_stream);
+            write_vector(curr_area.get_translation(), p_stream);
+            p_stream.writeDouble(curr_area.get_rotation_in_degree());
+            p_stream.writeBoolean(curr_area.get_side_changed());
+            write_area(curr_area.get_relative_area(), p_stream);
+            if (kind == CONDUCTION_AREA) {
+                p_stream.writeBoolean(((ConductionArea) curr_area).get_is_obstacle());
+            }
+        } else if (p_item instanceof ComponentOutline) {
+            ComponentOutline curr_outline = (ComponentOutline) p_item;
+            p_stream.writeBoolean(curr_outline.is_front());
+            write_vector(curr_outline.get_translation(), p_stream);
+            p_stream.writeDouble(curr_outline.get_rotation_in_degree());
+            write_area(curr_outline.get_relative_area(), p_stream);
+        } else {
+            BoardOutline curr_outline = (BoardOutline) p_item;
+            p_stream.writeInt(curr_outline.shape_count());
+            for (int i = 0; i < curr_outline.shape_count(); ++i) {
+                write_area(curr_outline.get_shape(i), p_stream);
+            }
+            p_stream.writeBoolean(curr_outline.keepout_outside_outline_generated());
+        }
+        return true;
+    }
+
+    /**
+     * Writes the shapes used in areas with integer coordinates as type byte
+     * followed by their coordinates. Other shapes are serialized.
+     */
+    private void write_area(Area p_area, DataOutputStream p_stream) throws IOException {
+        if (p_area instanceof IntBox) {
+            IntBox curr_box = (IntBox) p_area;
+            p_stream.writeByte(INT_BOX);
+            p_stream.writeInt(curr_box.ll.x);
+            p_stream.writeInt(curr_box.ll.y);
+            p_stream.writeInt(curr_box.ur.x);
+            p_stream.writeInt(curr_box.ur.y);
+        } else if (p_area instanceof IntOctagon) {
+            IntOctagon curr_octagon = (IntOctagon) p_area;
+            p_stream.writeByte(INT_OCTAGON);
+            p_stream.writeInt(curr_octagon.lx);
+            p_stream.writeInt(curr_octagon.ly);
+            p_stream.writeInt(curr_octagon.rx);
+            p_stream.writeInt(curr_octagon.uy);
+            p_stream.writeInt(curr_octagon.ulx);
+            p_stream.writeInt(curr_octagon.lrx);
+            p_stream.writeInt(curr_octagon.llx);
+            p_stream.writeInt(curr_octagon.urx);
+        } else if (p_area instanceof Circle) {
+            Circle curr_circle = (Circle) p_area;
+            p_stream.writeByte(CIRCLE);
+            p_stream.writeInt(curr_circle.center.x);
+            p_stream.writeInt(curr_circle.center.y);
+            p_stream.writeInt(curr_circle.radius);
+        } else if (p_area instanceof PolygonShape && has_int_corners(((PolygonShape) p_area).corners)) {
+            Point[] corners = ((PolygonShape) p_area).corners;
+            p_stream.writeByte(POLYGON_SHAPE);
+            p_stream.writeInt(corners.length);
+            for (Point curr_corner : corners) {
+                p_stream.writeInt(((IntPoint) curr_corner).x);
+                p_stream.writeInt(((IntPoint) curr_corner).y);
+            }
+        } else if (p_area instanceof Simplex && has_int_lines((Simplex) p_area)) {
+            Simplex curr_simplex = (Simplex) p_area;
+            p_stream.writeByte(SIMPLEX);
+            p_stream.writeInt(curr_simplex.border_line_count());
+            for (int i = 0; i < curr_simplex.border_line_count(); ++i) {
+                Line curr_line = curr_simplex.border_line(i);
+                p_stream.writeInt(((IntPoint) curr_line.a).x);
+                p_stream.writeInt(((IntPoint) curr_line.a).y);
+                p_stream.writeInt(((IntPoint) curr_line.b).x);
+                p_stream.writeInt(((IntPoint) curr_line.b).y);
+            }
+        } else if (p_area instanceof PolylineArea) {
+            PolylineArea curr_area = (PolylineArea) p_area;
+            PolylineShape[] holes = curr_area.get_holes();
+            p_stream.writeByte(POLYLINE_AREA);
+            write_area(curr_area.get_border(), p_stream);
+            p_stream.writeInt(holes.length);
+            for (PolylineShape curr_hole : holes) {
+                write_area(curr_hole, p_stream);
+            }
+        } else {
+            write_object(p_area, p_stream);
+        }
+    }
+
+    private void write_vector(Vector p_vector, DataOutputStream p_stream) throws IOException {
+        if (p_vector instanceof IntVector) {
+            p_stream.writeByte(INT_VECTOR);
+            p_stream.writeInt(((IntVector) p_vector).x);
+            p_stream.writeInt(((IntVector) p_vector).y);
+        } else {
+            write_object(p_vector, p_stream);
+        }
+    }
+
+    private void write_object(Object p_object, DataOutputStream p_stream) throws IOException {
+        ByteArrayOutputStream object_bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream object_stream = new BoardObjectOutputStream(object_bytes, false)) {
+            object_stream.writeObject(p_object);
+        }
+        p_stream.writeByte(SERIALIZED_OBJECT);
+        p_stream.writeInt(object_bytes.size());
+        object_bytes.writeTo(p_stream);
+    }
+
+    private static void write_string(String p_string, DataOutputStream p_stream) throws IOException {
+        if (p_string == null) {
+            p_stream.writeInt(-1);
+            return;
+        }
+        byte[] bytes = p_string.getBytes(StandardCharsets.UTF_8);
+        p_stream.writeInt(bytes.length);
+        p_stream.write(bytes);
+    }
+
+    private static boolean has_int_corners(Point[] p_corners) {
+        for (Point curr_corner : p_corners) {
+            if (!(curr_corner instanceof IntPoint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean has_int_lines(Simplex p_simplex) {
+        for (int i = 0; i < p_simplex.border_line_count(); ++i) {
+            Line curr_line = p_simplex.border_line(i);
+            if (!(curr_line.a instanceof IntPoint) || !(curr_line.b instanceof IntPoint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The columns common to all items of an item section: id number,
+     * clearance class, component number, fixed state, net count and the net
+     * numbers of all items one after the other, followed by 4 columns
+     * depending on the item type.
+     */
+    private static class ItemColumns {
+
+        final IntColumn id_no = new IntColumn();
+        final IntColumn clearance_class = new IntColumn();
+        final IntColumn component_no = new IntColumn();
+        final IntColumn fixed_state = new IntColumn();
+        final IntColumn net_count = new IntColumn();
+        final IntColumn net_no = new IntColumn();
+        final IntColumn[] extra = {new IntColumn(), new IntColumn(), new IntColumn(), new IntColumn()};
+
+        void add(Item p_item) {
+            id_no.add(p_item.get_id_no());
+            clearance_class.add(p_item.clearance_class_no());
+            component_no.add(p_item.get_component_no());
+            fixed_state.add(p_item.get_fixed_state().ordinal());
+            net_count.add(p_item.net_no_arr.length);
+            for (int curr_net_no : p_item.net_no_arr) {
+                net_no.add(curr_net_no);
+            }
+        }
+
+        byte[] to_bytes() throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            IntColumn[] columns = {id_no, clearance_class, component_no, fixed_state, net_count, net_no};
+            for (IntColumn curr_column : columns) {
+                curr_column.write(result);
+            }
+            for (IntColumn curr_column : extra) {
+                curr_column.write(result);
+            }
+            return result.toByteArray();
+        }
+    }
+
+    /**
+     * Growable array of integers, which is written as its length followed by
+     * the elements.
+     */
+    private static class IntColumn {
+
+        private int[] arr = new int[64];
+        private int size = 0;
+
+        void add(int p_value) {
+            if (size == arr.length) {
+                arr = Arrays.copyOf(arr, 2 * size);
+            }
+            arr[size] = p_value;
+            ++size;
+        }
+
+        void write(OutputStream p_stream) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * (size + 1));
+            buffer.putInt(size);
+            buffer.asIntBuffer().put(arr, 0, size);
+            p_stream.write(buffer.array());
+        }
+    }
+
+    /**
+     * Replaces references to the board by BoardReference and to padstacks of
+     * the library by PadstackReference, so that the serialized objects do not
+     * pull the whole board or copies of the library into the stream. Items
+     * are only accepted, if p_items_allowed.
+     */
+    private class BoardObjectOutputStream extends ObjectOutputStream {
+
+        private final boolean items_allowed;
+
+        BoardObjectOutputStream(OutputStream p_stream, boolean p_items_allowed) throws IOException {
+            super(p_stream);
+            this.items_allowed = p_items_allowed;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object p_object) throws IOException {
+            if (p_object == board) {
+                return BoardReference.INSTANCE;
+            }
+            if (p_object instanceof Item && !this.items_allowed) {
+                throw new NotSerializableException("BinaryBoardWriter: item outside of the item sections");
+            }
+            if (this.items_allowed && p_object instanceof Padstack) {
+                return new PadstackReference(((Padstack) p_object).no);
+            }
+            return p_object;
+        }
+    }
+
+    /**
+     * Stands for the board in serialized objects.
+     */
+    enum BoardReference {
+        INSTANCE
+    }
+
+    /**
+     * Stands for a padstack of the board library in serialized items.
+     */
+    @SuppressWarnings("serial")
+    static class PadstackReference implements Serializable {
+
+        final int no;
+
+        PadstackReference(int p_no) {
+            this.no = p_no;
+        }
+    }
+}
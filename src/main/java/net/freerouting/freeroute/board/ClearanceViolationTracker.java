@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.freerouting.freeroute.datastructures.ShapeTree.TreeEntry;
+import net.freerouting.freeroute.geometry.planar.TileShape;
+
+/**
+ * Keeps the clearance violations of the board up to date, so that they have
+ * not to be recalculated from all board items after each change. The board
+ * reports each item, whose shape, nets or clearance class has changed. When
+ * the violations are requested next time, only the changed items and the
+ * items, which had or may have got a violation with a changed item, are
+ * checked again. If all items have to be checked, they are checked in parallel.
+ *
+ * @author agent
+ */
+class ClearanceViolationTracker {
+
+    /**
+     * If more items are changed between two requests, for example by the
+     * autorouter, all items are checked again instead of collecting the
+     * changed items.
+     */
+    private static final int MAX_CHANGED_ITEM_COUNT = 4096;
+    /**
+     * Smaller boards are checked in the calling thread.
+     */
+    static final int MIN_PARALLEL_ITEM_COUNT = 256;
+
+    private final BasicBoard board;
+    /**
+     * The items on the board with clearance violations together with their
+     * violations as calculated by Item.clearance_violations.
+     */
+    private final Map<Item, Collection<ClearanceViolation>> violations = new HashMap<>();
+    /**
+     * Maps an item to the items, which have it as second item in one of their
+     * violations.
+     */
+    private final Map<Item, Set<Item>> violating_items = new HashMap<>();
+    /**
+     * The items changed since the last update.
+     */
+    private final Set<Item> changed_items = new HashSet<>();
+    /**
+     * If true, all items of the board have to be checked again in the next
+     * update.
+     */
+    private boolean check_all = true;
+    /**
+     * The violations of all items sorted by the first item with each
+     * violation between two items contained only once, null if not yet
+     * calculated after the last update.
+     */
+    private List<ClearanceViolation> sorted_violations = null;
+
+    ClearanceViolationTracker(BasicBoard p_board) {
+        this.board = p_board;
+    }
+
+    /**
+     * Notes, that the shape, the nets or the clearance class of p_item was
+     * changed, or that p_item was inserted into or removed from the board.
+     */
+    synchronized void item_changed(Item p_item) {
+        if (this.check_all) {
+            return;
+        }
+        this.changed_items.add(p_item);
+        if (this.changed_items.size() > MAX_CHANGED_ITEM_COUNT) {
+            invalidate();
+        }
+    }
+
+    /**
+     * All items have to be checked again, for example after a value in the
+     * clearance matrix was changed.
+     */
+    synchronized void invalidate() {
+        this.check_all = true;
+        this.changed_items.clear();
+    }
+
+    /**
+     * Returns the clearance violations of all board items sorted by the first
+     * item of the violation. Item.clearance_violations reports a violation
+     * between two items for both items, here it is contained only once, from
+     * the item with the smaller id number, if this item reports it.
+     */
+    synchronized Collection<ClearanceViolation> get_violations() {
+        update();
+        if (this.sorted_violations == null) {
+            List<Item> sorted_items = new ArrayList<>(this.violations.keySet());
+            Collections.sort(sorted_items);
+            List<ClearanceViolation> new_list = new ArrayList<>();
+            for (Item curr_item : sorted_items) {
+                Set<Item> curr_violating_items = this.violating_items.get(curr_item);
+                for (ClearanceViolation curr_violation : this.violations.get(curr_item)) {
+                    Item other_item = curr_violation.second_item;
+                    if (curr_item.get_id_no() < other_item.get_id_no() || curr_violating_items == null
+                            || !curr_violating_items.contains(other_item)) {
+                        new_list.add(curr_violation);
+                    }
+                }
+            }
+            this.sorted_violations = Collections.unmodifiableList(new_list);
+        }
+        return this.sorted_violations;
+    }
+
+    /**
+     * Returns the number of clearance violations between two items.
+     */
+    synchronized int violation_count() {
+        return get_violations().size();
+    }
+
+    private void update() {
+        if (this.check_all) {
+            check_all_items();
+            this.check_all = false;
+            return;
+        }
+        if (this.changed_items.isEmpty()) {
+            return;
+        }
+        this.sorted_violations = null;
+        Set<Item> check_items = new LinkedHashSet<>();
+        for (Item curr_item : this.changed_items) {
+            check_items.add(curr_item);
+            // the items, which had a violation with curr_item before the change
+            Collection<ClearanceViolation> curr_violations = this.violations.get(curr_item);
+            if (curr_violations != null) {
+                for (ClearanceViolation curr_violation : curr_violations) {
+                    check_items.add(curr_violation.second_item);
+                }
+            }
+            Set<Item> curr_violating_items = this.violating_items.get(curr_item);
+            if (curr_violating_items != null) {
+                check_items.addAll(curr_violating_items);
+            }
+            // the items, which may have a violation with curr_item after the change
+            if (curr_item.board == this.board && curr_item.is_on_the_board()) {
+                add_overlapping_items(curr_item, check_items);
+            }
+        }
+        this.changed_items.clear();
+        for (Item curr_item : check_items) {
+            check(curr_item);
+        }
+    }
+
+    /**
+     * Checks all items on the board. The items are checked in parallel,
+     * because the check only reads the search tree and the other items.
+     */
+    private void check_all_items() {
+        this.violations.clear();
+        this.violating_items.clear();
+        this.sorted_violations = null;
+        // insert deferred items before the tree is read by several threads
+        this.board.search_tree_manager.get_default_tree();
+        List<Item> board_items = new ArrayList<>(this.board.get_items());
+        long start_time = System.nanoTime();
+        Stream<Item> item_stream = board_items.size() < MIN_PARALLEL_ITEM_COUNT ? board_items.stream() : board_items.parallelStream();
+        List<Collection<ClearanceViolation>> item_violations
+                = item_stream.map(Item::clearance_violations).collect(Collectors.toList());
+        for (int i = 0; i < board_items.size(); ++i) {
+            store(board_items.get(i), item_violations.get(i));
+        }
+        if (this.board.get_test_level() != TestLevel.RELEASE_VERSION) {
+            double seconds = Math.max(System.nanoTime() - start_time, 1) / 1e9;
+            Logger.getLogger(ClearanceViolationTracker.class.getName()).log(Level.INFO,
+                    "Clearance check of {0} items in {1} ms, {2} items per second",
+                    new Object[]{board_items.size(), Math.round(1000 * seconds), Math.round(board_items.size() / seconds)});
+        }
+    }
+
+    /**
+     * Replaces the stored violations of p_item by its current violations.
+     */
+    private void check(Item p_item) {
+        Collection<ClearanceViolation> old_violations = this.violations.remove(p_item);
+        if (old_violations != null) {
+            for (ClearanceViolation curr_violation : old_violations) {
+                Set<Item> curr_violating_items = this.violating_items.get(curr_violation.second_item);
+                if (curr_violating_items != null) {
+                    curr_violating_items.remove(p_item);
+                    if (curr_violating_items.isEmpty()) {
+                        this.violating_items.remove(curr_violation.second_item);
+                    }
+                }
+            }
+        }
+        if (p_item.board != this.board || !p_item.is_on_the_board()) {
+            return;
+        }
+        store(p_item, p_item.clearance_violations());
+    }
+
+    /**
+     * Stores p_violations as the violations of p_item.
+     */
+    private void store(Item p_item, Collection<ClearanceViolation> p_violations) {
+        if (p_violations.isEmpty()) {
+            return;
+        }
+        this.violations.put(p_item, p_violations);
+        for (ClearanceViolation curr_violation : p_violations) {
+            this.violating_items.computeIfAbsent(curr_violation.second_item, k -> new HashSet<>()).add(p_item);
+        }
+    }
+
+    /**
+     * Adds the items, whose shapes overlap the shapes of p_item enlarged by
+     * the clearance, to p_result.
+     */
+    private void add_overlapping_items(Item p_item, Collection<Item> p_result) {
+        ShapeSearchTree default_tree = this.board.search_tree_manager.get_default_tree();
+        for (int i = 0; i < p_item.tile_shape_count(); ++i) {
+            TileShape curr_tile_shape = p_item.get_tile_shape(i);
+            Collection<TreeEntry> curr_overlapping_entries
+                    = default_tree.overlapping_tree_entries_with_clearance(curr_tile_shape, p_item.shape_layer(i), new int[0], p_item.clearance_class_no());
+            for (TreeEntry curr_entry : curr_overlapping_entries) {
+                if (curr_entry.object instanceof Item && curr_entry.object != p_item) {
+                    p_result.add((Item) curr_entry.object);
+                }
+            }
+        }
+    }
+}
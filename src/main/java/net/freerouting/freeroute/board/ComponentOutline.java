@@ -223,6 +223,22 @@ public class ComponentOutline extends Item {
         return this.precalculated_absolute_area;
     }
 
+    Area get_relative_area() {
+        return this.relative_area;
+    }
+
+    Vector get_translation() {
+        return this.translation;
+    }
+
+    double get_rotation_in_degree() {
+        return this.rotation_in_degree;
+    }
+
+    boolean is_front() {
+        return this.is_front;
+    }
+
     @Override
     public void clear_derived_data() {
         precalculated_absolute_area = null;
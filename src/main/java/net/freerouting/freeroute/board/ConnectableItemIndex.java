@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index from the net numbers to the connectable items of the board, so that
+ * the items of a net can be found without reading the whole item list. Must be
+ * updated whenever an item is inserted into or removed from the board, and
+ * when the nets of an item on the board are changed. Counts also the changes of
+ * the items of each net, so that data depending on the items of a net can be
+ * recalculated only for the changed nets.
+ *
+ * @author agent
+ */
+class ConnectableItemIndex {
+
+    /**
+     * The items of each net sorted by Item.compareTo. The item list of the
+     * board is a map sorted by the same order, so that the items of a net
+     * are returned in the same order as by scanning the item list.
+     */
+    private final ConcurrentMap<Integer, Collection<Item>> net_items = new ConcurrentHashMap<>();
+    /**
+     * The number of insertions, removals and changes of the items of each
+     * net.
+     */
+    private final ConcurrentMap<Integer, AtomicLong> net_change_counts = new ConcurrentHashMap<>();
+    /**
+     * The sum of the change counts of all nets.
+     */
+    private final AtomicLong change_count = new AtomicLong();
+
+    /**
+     * Adds p_item to the item lists of its nets, if it is connectable.
+     */
+    void insert(Item p_item) {
+        if (!(p_item instanceof Connectable)) {
+            return;
+        }
+        for (int i = 0; i < p_item.net_count(); ++i) {
+            net_items.computeIfAbsent(p_item.get_net_no(i), k -> new ConcurrentSkipListSet<>()).add(p_item);
+            count_change(p_item.get_net_no(i));
+        }
+    }
+
+    /**
+     * Removes p_item from the item lists of its nets.
+     */
+    void remove(Item p_item) {
+        if (!(p_item instanceof Connectable)) {
+            return;
+        }
+        for (int i = 0; i < p_item.net_count(); ++i) {
+            Collection<Item> curr_items = net_items.get(p_item.get_net_no(i));
+            if (curr_items != null) {
+                curr_items.remove(p_item);
+            }
+            count_change(p_item.get_net_no(i));
+        }
+    }
+
+    /**
+     * Counts a change of the nets of p_item, if it is connectable, after its
+     * shape was changed.
+     */
+    void item_changed(Item p_item) {
+        if (!(p_item instanceof Connectable)) {
+            return;
+        }
+        for (int i = 0; i < p_item.net_count(); ++i) {
+            count_change(p_item.get_net_no(i));
+        }
+    }
+
+    private void count_change(int p_net_no) {
+        net_change_counts.computeIfAbsent(p_net_no, k -> new AtomicLong()).incrementAndGet();
+        change_count.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of insertions, removals and changes of the items of
+     * the net p_net_no.
+     */
+    long get_change_count(int p_net_no) {
+        AtomicLong curr_count = net_change_counts.get(p_net_no);
+        if (curr_count == null) {
+            return 0;
+        }
+        return curr_count.get();
+    }
+
+    /**
+     * Returns the number of insertions, removals and changes of the items of
+     * all nets.
+     */
+    long get_change_count() {
+        return change_count.get();
+    }
+
+    /**
+     * Returns a new list of the connectable items containing p_net_no sorted
+     * by Item.compareTo.
+     */
+    Collection<Item> get_items(int p_net_no) {
+        Collection<Item> curr_items = net_items.get(p_net_no);
+        if (curr_items == null) {
+            return new LinkedList<>();
+        }
+        return new LinkedList<>(curr_items);
+    }
+
+    /**
+     * Returns the number of connectable items containing p_net_no.
+     */
+    int item_count(int p_net_no) {
+        Collection<Item> curr_items = net_items.get(p_net_no);
+        if (curr_items == null) {
+            return 0;
+        }
+        return curr_items.size();
+    }
+}
@@ -825,6 +825,7 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
      */
     public void set_fixed_state(FixedState p_fixed_state) {
         fixed_state = p_fixed_state;
+        this.update_board_aggregates();
     }
 
     /**
@@ -833,8 +834,8 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
     public void unfix() {
         if (fixed_state != FixedState.SYSTEM_FIXED) {
             fixed_state = FixedState.UNFIXED;
+            this.update_board_aggregates();
         }
-
     }
 
     /**
@@ -883,6 +884,10 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         if (index == -1) { // if no such index exists
             return false;
         } else {
+            boolean indexed = this.board != null && this.is_on_the_board();
+            if (indexed) {
+                this.board.connectable_item_index.remove(this);
+            }
             int[] new_net_no_arr = new int[this.net_no_arr.length - 1];
             if (new_net_no_arr.length > 0) {
                 if (index != 0) {
@@ -893,6 +898,10 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
                 }
             }
             this.net_no_arr = new_net_no_arr;
+            if (indexed) {
+                this.board.connectable_item_index.insert(this);
+                this.board.item_changed(this);
+            }
             return true;
         }
     }
@@ -915,6 +924,19 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             return;
         }
         clearance_class = p_index;
+        this.update_board_aggregates();
+    }
+
+    /**
+     * Updates the item type aggregates and the clearance violations of the
+     * board, after the geometry, layer, fixed state or clearance class of this
+     * item was changed.
+     */
+    void update_board_aggregates() {
+        if (this.board != null && this.is_on_the_board()) {
+            this.board.item_type_registry.update(this);
+            this.board.item_changed(this);
+        }
     }
 
     /**
@@ -927,6 +949,7 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         }
         clearance_class = p_index;
         this.clear_derived_data();
+        this.update_board_aggregates();
         if (this.board != null && this.board.search_tree_manager.is_clearance_compensation_used()) {
             // reinsert the item into the search tree, because the compensated shape has changed.
             this.board.search_tree_manager.remove(this);
@@ -955,6 +978,10 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             return;
         }
         board.item_list.save_for_undo(this);
+        boolean indexed = this.is_on_the_board();
+        if (indexed) {
+            board.connectable_item_index.remove(this);
+        }
         if (p_net_no <= 0) {
             net_no_arr = new int[0];
         } else {
@@ -965,6 +992,10 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             }
             net_no_arr[0] = p_net_no;
         }
+        if (indexed) {
+            board.connectable_item_index.insert(this);
+            board.item_changed(this);
+        }
     }
 
     /**
@@ -57,4 +57,12 @@ public class ItemIdNoGenerator implements net.freerouting.freeroute.datastructur
         return last_generated_id_no;
     }
 
+    /**
+     * Continues creating numbers after p_max_generated_no.
+     */
+    @Override
+    public void reset(int p_max_generated_no) {
+        last_generated_id_no = p_max_generated_no;
+    }
+
 }
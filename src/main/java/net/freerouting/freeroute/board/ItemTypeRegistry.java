@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the vias, traces, pins and conduction areas of the board in separate
+ * sets together with the via count and the cumulative trace length, so that
+ * they can be read without scanning the whole item list. The sets are sorted
+ * by Item.compareTo like the item list of the board, so that the items are
+ * returned in the same order as by scanning the item list. Must be updated
+ * whenever an item is inserted into or removed from the board, and when the
+ * layer, geometry, fixed state or clearance class of a trace on the board is
+ * changed.
+ * <p>
+ * The trace lengths are summed up exactly, so that removing a trace and
+ * inserting it again restores the previous cumulative length exactly. The
+ * optimizer compares the trace length before and after rerouting an item
+ * strictly, so that rounding errors accumulated in the sums would count an
+ * unchanged route as improvement.
+ *
+ * @author agent
+ */
+class ItemTypeRegistry {
+
+    private final SortedSet<Via> vias = new TreeSet<>();
+    private final SortedSet<Pin> pins = new TreeSet<>();
+    private final SortedSet<ConductionArea> conduction_areas = new TreeSet<>();
+    /**
+     * The traces of the board with the properties they had, when they were
+     * added.
+     */
+    private final SortedMap<Trace, TraceRecord> traces = new TreeMap<>();
+    /**
+     * The count and cumulative length of the traces with the same layer,
+     * width, clearance class and fixed state.
+     */
+    private final Map<TraceClass, TraceSum> trace_sums = new HashMap<>();
+
+    /**
+     * Adds p_item to the set of its type.
+     */
+    synchronized void insert(Item p_item) {
+        if (p_item instanceof Via) {
+            vias.add((Via) p_item);
+        } else if (p_item instanceof Trace) {
+            Trace curr_trace = (Trace) p_item;
+            TraceRecord new_record = new TraceRecord(new TraceClass(curr_trace), curr_trace.get_length());
+            TraceRecord old_record = traces.put(curr_trace, new_record);
+            if (old_record != null) {
+                subtract(old_record);
+            }
+            trace_sums.computeIfAbsent(new_record.trace_class, k -> new TraceSum()).add(new_record.length);
+        } else if (p_item instanceof Pin) {
+            pins.add((Pin) p_item);
+        } else if (p_item instanceof ConductionArea) {
+            conduction_areas.add((ConductionArea) p_item);
+        }
+    }
+
+    /**
+     * Removes p_item from the set of its type.
+     */
+    synchronized void remove(Item p_item) {
+        if (p_item instanceof Via) {
+            vias.remove(p_item);
+        } else if (p_item instanceof Trace) {
+            TraceRecord old_record = traces.remove(p_item);
+            if (old_record != null) {
+                subtract(old_record);
+            }
+        } else if (p_item instanceof Pin) {
+            pins.remove(p_item);
+        } else if (p_item instanceof ConductionArea) {
+            conduction_areas.remove(p_item);
+        }
+    }
+
+    /**
+     * Recalculates the aggregates after p_item was changed on the board.
+     */
+    void update(Item p_item) {
+        if (p_item instanceof Trace) {
+            insert(p_item);
+        }
+    }
+
+    private void subtract(TraceRecord p_record) {
+        TraceSum curr_sum = trace_sums.get(p_record.trace_class);
+        if (curr_sum != null && curr_sum.subtract(p_record.length)) {
+            trace_sums.remove(p_record.trace_class);
+        }
+    }
+
+    synchronized Collection<Via> get_vias() {
+        return new LinkedList<>(vias);
+    }
+
+    synchronized Collection<Trace> get_traces() {
+        return new LinkedList<>(traces.keySet());
+    }
+
+    synchronized Collection<Pin> get_pins() {
+        return new LinkedList<>(pins);
+    }
+
+    /**
+     * Returns the pins with only 1 layer.
+     */
+    synchronized Collection<Pin> get_smd_pins() {
+        Collection<Pin> result = new LinkedList<>();
+        for (Pin curr_pin : pins) {
+            if (curr_pin.first_layer() == curr_pin.last_layer()) {
+                result.add(curr_pin);
+            }
+        }
+        return result;
+    }
+
+    synchronized Collection<ConductionArea> get_conduction_areas() {
+        return new LinkedList<>(conduction_areas);
+    }
+
+    synchronized int via_count() {
+        return vias.size();
+    }
+
+    /**
+     * Returns the cumulative length of the traces on p_layer, or of all traces,
+     * if p_layer {@literal <} 0.
+     */
+    synchronized double cumulative_trace_length(int p_layer) {
+        BigDecimal result = BigDecimal.ZERO;
+        for (Map.Entry<TraceClass, TraceSum> curr_entry : trace_sums.entrySet()) {
+            if (p_layer < 0 || curr_entry.getKey().layer == p_layer) {
+                result = result.add(curr_entry.getValue().length);
+            }
+        }
+        return result.doubleValue();
+    }
+
+    /**
+     * Returns the cumulative length of the traces, which are not shove_fixed,
+     * multiplied by the trace half width enlarged by the clearance to the
+     * default clearance class. Shove_fixed traces count half.
+     */
+    synchronized double weighted_trace_length(BasicBoard p_board) {
+        BigDecimal result = BigDecimal.ZERO;
+        int default_clearance_class = net.freerouting.freeroute.rules.BoardRules.default_clearance_class();
+        for (Map.Entry<TraceClass, TraceSum> curr_entry : trace_sums.entrySet()) {
+            TraceClass curr_class = curr_entry.getKey();
+            if (curr_class.fixed_state != FixedState.UNFIXED && curr_class.fixed_state != FixedState.SHOVE_FIXED) {
+                continue;
+            }
+            double weight = curr_class.half_width
+                    + p_board.clearance_value(curr_class.clearance_class, default_clearance_class, curr_class.layer);
+            if (curr_class.fixed_state == FixedState.SHOVE_FIXED) {
+                // to produce less violations with pin exit directions.
+                weight /= 2;
+            }
+            result = result.add(curr_entry.getValue().length.multiply(new BigDecimal(weight)));
+        }
+        return result.doubleValue();
+    }
+
+    /**
+     * The properties of a trace, which are relevant for the aggregates.
+     */
+    private static final class TraceClass {
+
+        final int layer;
+        final int half_width;
+        final int clearance_class;
+        final FixedState fixed_state;
+
+        TraceClass(Trace p_trace) {
+            this.layer = p_trace.get_layer();
+            this.half_width = p_trace.get_half_width();
+            this.clearance_class = p_trace.clearance_class_no();
+            this.fixed_state = p_trace.get_fixed_state();
+        }
+
+        @Override
+        public boolean equals(Object p_other) {
+            if (!(p_other instanceof TraceClass)) {
+                return false;
+            }
+            TraceClass other = (TraceClass) p_other;
+            return this.layer == other.layer && this.half_width == other.half_width
+                    && this.clearance_class == other.clearance_class && this.fixed_state == other.fixed_state;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((this.layer * 31 + this.half_width) * 31 + this.clearance_class) * 31 + this.fixed_state.ordinal();
+        }
+    }
+
+    private static final class TraceRecord {
+
+        final TraceClass trace_class;
+        final double length;
+
+        TraceRecord(TraceClass p_trace_class, double p_length) {
+            this.trace_class = p_trace_class;
+            this.length = p_length;
+        }
+    }
+
+    /**
+     * The count and the exact sum of the lengths of some traces. The sum of
+     * BigDecimals created from doubles has no rounding errors and does not
+     * depend on the order of the additions and subtractions.
+     */
+    private static final class TraceSum {
+
+        int count = 0;
+        BigDecimal length = BigDecimal.ZERO;
+
+        void add(double p_length) {
+            ++count;
+            length = length.add(new BigDecimal(p_length));
+        }
+
+        /**
+         * Returns true, if no trace is left in this sum.
+         */
+        boolean subtract(double p_length) {
+            --count;
+            length = length.subtract(new BigDecimal(p_length));
+            return count <= 0;
+        }
+    }
+}
@@ -288,6 +288,7 @@ public class PolylineTrace extends Trace {
             other_trace.clear_search_tree_entries();
             this.lines = joined_polyline;
         }
+        this.update_board_aggregates();
         if (this.lines.arr.length < 3) {
             board.remove_item(this);
         }
@@ -383,6 +384,7 @@ public class PolylineTrace extends Trace {
             other_trace.clear_search_tree_entries();
             this.lines = joined_polyline;
         }
+        this.update_board_aggregates();
         if (this.lines.arr.length < 3) {
             board.remove_item(this);
         }
@@ -848,6 +850,7 @@ public class PolylineTrace extends Trace {
         int keep_at_end_count = Math.max(p_new_polyline.arr.length - index_of_last_different_line - 3, 0);
         board.search_tree_manager.change_entries(this, p_new_polyline, keep_at_start_count, keep_at_end_count);
         lines = p_new_polyline;
+        this.update_board_aggregates();
 
         // let the observers syncronize the changes
         board.communication.observers.notify_changed(this);
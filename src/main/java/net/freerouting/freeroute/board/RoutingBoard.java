@@ -39,6 +39,7 @@ import net.freerouting.freeroute.geometry.planar.PolylineShape;
 import net.freerouting.freeroute.geometry.planar.TileShape;
 import net.freerouting.freeroute.geometry.planar.TileShapeUtils;
 import net.freerouting.freeroute.geometry.planar.Vector;
+import net.freerouting.freeroute.library.BoardLibrary;
 import net.freerouting.freeroute.rules.BoardRules;
 import net.freerouting.freeroute.rules.ViaInfo;
 
@@ -77,6 +78,15 @@ public class RoutingBoard extends BasicBoard {
                 p_rules, p_board_communication, p_test_level);
     }
 
+    /**
+     * Creates a new routing board with the input library and components, but
+     * without any items.
+     */
+    RoutingBoard(IntBox p_bounding_box, LayerStructure p_layer_structure, BoardLibrary p_library,
+            Components p_components, BoardRules p_rules, Communication p_board_communication, TestLevel p_test_level) {
+        super(p_bounding_box, p_layer_structure, p_library, p_components, p_rules, p_board_communication, p_test_level);
+    }
+
     /**
      * Maintains the autorouter database after p_item is inserted, changed, or
      * deleted.
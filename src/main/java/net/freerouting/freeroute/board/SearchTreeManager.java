@@ -20,9 +20,13 @@
  */
 package net.freerouting.freeroute.board;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import net.freerouting.freeroute.datastructures.ShapeTree;
 import net.freerouting.freeroute.datastructures.UndoableObjects;
 import net.freerouting.freeroute.geometry.planar.FortyfiveDegreeBoundingDirections;
@@ -34,10 +38,27 @@ import net.freerouting.freeroute.geometry.planar.Polyline;
  */
 public class SearchTreeManager {
 
+    /**
+     * Below this number of items the tree shapes are calculated in the
+     * calling thread.
+     */
+    private static final int MIN_PARALLEL_ITEM_COUNT = 256;
+
     private final Collection<ShapeSearchTree> compensated_search_trees;
     private ShapeSearchTree default_tree;
     private final BasicBoard board;
     private boolean clearance_compensation_used;
+    /**
+     * True, if the shapes of each layer are stored in a separate partition of
+     * the search trees.
+     */
+    private boolean layer_partitioned = true;
+    /**
+     * True, if new items are collected in deferred_items instead of being
+     * inserted into the search trees.
+     */
+    private boolean insert_deferred = false;
+    private final List<Item> deferred_items = new ArrayList<>();
 
     /**
      * Creates a new instance of SearchTreeManager
@@ -45,7 +66,7 @@ public class SearchTreeManager {
     SearchTreeManager(BasicBoard p_board) {
         board = p_board;
         compensated_search_trees = new LinkedList<>();
-        default_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, p_board, 0);
+        default_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, p_board, 0, layer_partitioned);
         compensated_search_trees.add(default_tree);
         clearance_compensation_used = false;
     }
@@ -54,6 +75,12 @@ public class SearchTreeManager {
      * Inserts the tree shapes of p_item into all active search trees.
      */
     public void insert(Item p_item) {
+        this.board.item_changed(p_item);
+        if (this.insert_deferred) {
+            this.deferred_items.add(p_item);
+            p_item.set_on_the_board(true);
+            return;
+        }
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             curr_tree.insert(p_item);
         }
@@ -67,6 +94,7 @@ public class SearchTreeManager {
         if (!p_item.is_on_the_board()) {
             return;
         }
+        this.board.item_changed(p_item);
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             ShapeTree.Leaf[] curr_tree_entries = p_item.get_search_tree_entries(curr_tree);
             {
@@ -83,9 +111,48 @@ public class SearchTreeManager {
      * Returns the default tree used in interactive routing.
      */
     public ShapeSearchTree get_default_tree() {
+        if (!this.deferred_items.isEmpty()) {
+            insert_deferred_items();
+        }
         return default_tree;
     }
 
+    /**
+     * Collects the items inserted into the board from now on instead of
+     * inserting them one by one into the search trees. Used while a design
+     * file is read, where the trees are not needed until all items are
+     * known. The collected items are inserted, when a tree is accessed, at
+     * the latest in end_deferred_insert.
+     */
+    public void start_deferred_insert() {
+        this.insert_deferred = true;
+    }
+
+    /**
+     * Ends the deferred insertion started with start_deferred_insert and
+     * rebuilds the search trees from all board items. The tree shapes of the
+     * items are calculated in parallel and the trees are built in one go.
+     */
+    public void end_deferred_insert() {
+        if (!this.insert_deferred) {
+            return;
+        }
+        this.insert_deferred = false;
+        rebuild_trees();
+    }
+
+    private void insert_deferred_items() {
+        Collection<Item> item_list = new ArrayList<>(this.deferred_items.size());
+        for (Item curr_item : this.deferred_items) {
+            // skip the items removed again in the meantime
+            if (curr_item.is_on_the_board() && curr_item.board == this.board) {
+                item_list.add(curr_item);
+            }
+        }
+        this.deferred_items.clear();
+        insert_all(item_list);
+    }
+
     boolean validate_entries(Item p_item) {
         boolean result = true;
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
@@ -122,7 +189,35 @@ public class SearchTreeManager {
         } else {
             compensated_clearance_class_no = 0;
         }
-        default_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board, compensated_clearance_class_no);
+        default_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board, compensated_clearance_class_no,
+                this.layer_partitioned);
+        this.compensated_search_trees.add(default_tree);
+        insert_all_board_items();
+    }
+
+    /**
+     * Returns, if the shapes of each layer are stored in a separate partition
+     * of the search trees.
+     */
+    public boolean is_layer_partitioned() {
+        return this.layer_partitioned;
+    }
+
+    /**
+     * Sets, if the shapes of each layer are stored in a separate partition of
+     * the search trees, and rebuilds the trees, if the value changes. The
+     * queries on a single layer visit then only the nodes of that layer,
+     * which pays off on boards with many layers.
+     */
+    public void set_layer_partitioned(boolean p_value) {
+        if (this.layer_partitioned == p_value) {
+            return;
+        }
+        this.layer_partitioned = p_value;
+        remove_all_board_items();
+        this.compensated_search_trees.clear();
+        default_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board,
+                default_tree.compensated_clearance_class_no, p_value);
         this.compensated_search_trees.add(default_tree);
         insert_all_board_items();
     }
@@ -138,6 +233,7 @@ public class SearchTreeManager {
             remove_all_board_items();
             insert_all_board_items();
         }
+        this.board.clearance_rules_changed();
     }
 
     /**
@@ -162,24 +258,23 @@ public class SearchTreeManager {
             }
         }
         // tree is not yet initialized
+        if (!this.deferred_items.isEmpty()) {
+            insert_deferred_items();
+        }
         ShapeSearchTree curr_autoroute_tree;
         boolean fast_algorithm = !this.board.rules.get_slow_autoroute_algorithm();
         if (fast_algorithm && this.board.rules.get_trace_angle_restriction() == AngleRestriction.NINETY_DEGREE) {
-            curr_autoroute_tree = new ShapeSearchTree90Degree(this.board, p_clearance_class_no);
+            curr_autoroute_tree = new ShapeSearchTree90Degree(this.board, p_clearance_class_no, this.layer_partitioned);
         } else if (fast_algorithm && this.board.rules.get_trace_angle_restriction() == AngleRestriction.FORTYFIVE_DEGREE) {
-            curr_autoroute_tree = new ShapeSearchTree45Degree(this.board, p_clearance_class_no);
+            curr_autoroute_tree = new ShapeSearchTree45Degree(this.board, p_clearance_class_no, this.layer_partitioned);
         } else {
-            curr_autoroute_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board, p_clearance_class_no);
+            curr_autoroute_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board, p_clearance_class_no,
+                    this.layer_partitioned);
         }
         this.compensated_search_trees.add(curr_autoroute_tree);
-        Iterator<UndoableObjects.UndoableObjectNode> it = this.board.item_list.start_read_object();
-        for (;;) {
-            Item curr_item = (Item) this.board.item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
-            curr_autoroute_tree.insert(curr_item);
-        }
+        Collection<Item> board_items = this.board.get_items();
+        calculate_tree_shapes(board_items, curr_autoroute_tree);
+        curr_autoroute_tree.insert_all(board_items);
         return curr_autoroute_tree;
     }
 
@@ -191,6 +286,61 @@ public class SearchTreeManager {
         this.compensated_search_trees.removeIf(curr_tree -> curr_tree != default_tree);
     }
 
+    /**
+     * Inserts all items in p_items into the search trees. Faster than
+     * inserting the items one by one and results in better balanced trees, if
+     * the trees are empty.
+     */
+    void insert_all(Collection<Item> p_items) {
+        for (ShapeSearchTree curr_tree : compensated_search_trees) {
+            calculate_tree_shapes(p_items, curr_tree);
+            curr_tree.insert_all(p_items);
+        }
+        for (Item curr_item : p_items) {
+            curr_item.set_on_the_board(true);
+        }
+    }
+
+    /**
+     * Calculates the tree shapes of p_items for p_tree in parallel, so that
+     * inserting the items afterwards only has to take them from the cache of
+     * the items. Each item calculates only its own shapes, so the threads
+     * share only the board rules and the library, which are not changed
+     * here.
+     */
+    private static void calculate_tree_shapes(Collection<Item> p_items, ShapeSearchTree p_tree) {
+        if (p_items.size() < MIN_PARALLEL_ITEM_COUNT) {
+            return;
+        }
+        p_items.parallelStream().forEach(curr_item -> curr_item.tree_shape_count(p_tree));
+    }
+
+    /**
+     * Rebuilds the search trees from all board items. To be called after many
+     * items were inserted one by one, for example after reading a design
+     * file.
+     */
+    public void rebuild_trees() {
+        remove_all_board_items();
+        reset_compensated_trees();
+        insert_all_board_items();
+    }
+
+    /**
+     * Rebalances the search trees, whose depth has degraded by many inserts
+     * and removals. To be called for example between the passes of the batch
+     * autorouter.
+     */
+    public void rebalance_trees() {
+        for (ShapeSearchTree curr_tree : compensated_search_trees) {
+            if (curr_tree.rebalance_if_degraded() && this.board.get_test_level() != TestLevel.RELEASE_VERSION) {
+                Logger.getLogger(SearchTreeManager.class.getName()).log(Level.INFO,
+                        "Search tree for clearance class {0} rebalanced: {1}",
+                        new Object[]{curr_tree.compensated_clearance_class_no, curr_tree.statistics()});
+            }
+        }
+    }
+
     /**
      * Reinsert all items into the search trees
      */
@@ -219,15 +369,13 @@ public class SearchTreeManager {
             System.out.println("SearchtreeManager.insert_all_board_items: board is null");
             return;
         }
-        Iterator<UndoableObjects.UndoableObjectNode> it = this.board.item_list.start_read_object();
-        for (;;) {
-            Item curr_item = (Item) this.board.item_list.read_object(it);
-            if (curr_item == null) {
-                break;
-            }
+        Collection<Item> board_items = this.board.get_items();
+        for (Item curr_item : board_items) {
             curr_item.clear_derived_data();
-            this.insert(curr_item);
         }
+        // the deferred items are contained in the board items
+        this.deferred_items.clear();
+        insert_all(board_items);
     }
 
     //********************************************************************************
@@ -239,6 +387,8 @@ public class SearchTreeManager {
      */
     void merge_entries_in_front(PolylineTrace p_from_trace, PolylineTrace p_to_trace,
             Polyline p_joined_polyline, int p_from_entry_no, int p_to_entry_no) {
+        this.board.item_changed(p_from_trace);
+        this.board.item_changed(p_to_trace);
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             curr_tree.merge_entries_in_front(p_from_trace, p_to_trace, p_joined_polyline, p_from_entry_no, p_to_entry_no);
         }
@@ -250,6 +400,8 @@ public class SearchTreeManager {
      */
     void merge_entries_at_end(PolylineTrace p_from_trace, PolylineTrace p_to_trace,
             Polyline p_joined_polyline, int p_from_entry_no, int p_to_entry_no) {
+        this.board.item_changed(p_from_trace);
+        this.board.item_changed(p_to_trace);
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             curr_tree.merge_entries_at_end(p_from_trace, p_to_trace, p_joined_polyline, p_from_entry_no, p_to_entry_no);
         }
@@ -262,6 +414,7 @@ public class SearchTreeManager {
      */
     void change_entries(PolylineTrace p_obj, Polyline p_new_polyline,
             int p_keep_at_start_count, int p_keep_at_end_count) {
+        this.board.item_changed(p_obj);
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             curr_tree.change_entries(p_obj, p_new_polyline, p_keep_at_start_count, p_keep_at_end_count);
         }
@@ -273,6 +426,9 @@ public class SearchTreeManager {
      * ShapeTraceEntries.fast_cutout_trace for performance reasoms.
      */
     void reuse_entries_after_cutout(PolylineTrace p_from_trace, PolylineTrace p_start_piece, PolylineTrace p_end_piece) {
+        this.board.item_changed(p_from_trace);
+        this.board.item_changed(p_start_piece);
+        this.board.item_changed(p_end_piece);
         for (ShapeSearchTree curr_tree : compensated_search_trees) {
             curr_tree.reuse_entries_after_cutout(p_from_trace, p_start_piece, p_end_piece);
         }
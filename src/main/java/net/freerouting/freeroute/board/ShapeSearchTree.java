@@ -23,9 +23,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.freerouting.freeroute.autoroute.CompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.autoroute.IncompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.datastructures.Signum;
@@ -60,7 +60,7 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
     /**
      * used in objects of class EntrySortedByClearance
      */
-    private static int last_generated_id_no = 0;
+    private static final AtomicInteger last_generated_id_no = new AtomicInteger();
     /**
      * The clearance class number for which the shapes of this tree is
      * compensated. If compensated_clearance_class_no = 0, the shapes are not
@@ -73,13 +73,45 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
      * Creates a new ShapeSearchTree. p_compensated_clearance_class_no is the
      * clearance class number for which the shapes of this tree is compensated.
      * If p_compensated_clearance_class_no = 0, the shapes are not compensated.
+     * If p_layer_partitioned, the shapes of each layer are stored in a
+     * separate partition of the tree, so that the queries on a layer do not
+     * visit the shapes on the other layers.
      */
-    ShapeSearchTree(ShapeBoundingDirections p_directions, BasicBoard p_board, int p_compensated_clearance_class_no) {
-        super(p_directions);
+    ShapeSearchTree(ShapeBoundingDirections p_directions, BasicBoard p_board, int p_compensated_clearance_class_no,
+            boolean p_layer_partitioned) {
+        super(p_directions, p_layer_partitioned ? p_board.get_layer_count() : 1);
         this.compensated_clearance_class_no = p_compensated_clearance_class_no;
         board = p_board;
     }
 
+    /**
+     * Returns true, if the shapes of each layer are stored in a separate
+     * partition of this tree.
+     */
+    public boolean is_layer_partitioned() {
+        return this.partition_count() > 1;
+    }
+
+    /**
+     * Returns the number of the partition containing the shapes on layer
+     * p_layer, or -1, if p_layer {@literal <} 0 and all partitions have to be
+     * searched.
+     */
+    protected int partition_no_of_layer(int p_layer) {
+        if (p_layer < 0) {
+            return -1;
+        }
+        return Math.min(p_layer, this.partition_count() - 1);
+    }
+
+    @Override
+    protected int partition_no(Storable p_object, int p_index) {
+        if (!this.is_layer_partitioned()) {
+            return 0;
+        }
+        return ((SearchTreeObject) p_object).shape_layer(p_index);
+    }
+
     /**
      * Returns, if for the shapes stored in this tree clearance compensatiion is
      * used.
@@ -369,13 +401,9 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
             System.out.println("board.ShapeSearchTree.overlaps: p_shape not bounded");
             return;
         }
-        Collection<Leaf> tmp_list = this.overlaps(bounds);
-        Iterator<Leaf> it = tmp_list.iterator();
-
         boolean is_45_degree = p_shape instanceof IntOctagon;
 
-        while (it.hasNext()) {
-            Leaf curr_leaf = it.next();
+        this.visit_overlaps(bounds, partition_no_of_layer(p_layer), (Leaf curr_leaf) -> {
             SearchTreeObject curr_object = (SearchTreeObject) curr_leaf.object;
             int shape_index = curr_leaf.shape_index_in_object;
             boolean ignore_object
@@ -404,7 +432,7 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
                     p_tree_entries.add(new_entry);
                 }
             }
-        }
+        });
     }
 
     /**
@@ -438,13 +466,10 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
         // enlarging is not symmetric.
         RegularTileShape offset_bounds
                 = (RegularTileShape) bounds.offset(max_clearance);
-        Collection<Leaf> tmp_list = overlaps(offset_bounds);
-        Iterator<Leaf> it1 = tmp_list.iterator();
         // sort the found items by its clearances tp p_cl_type on layer p_layer
         Set<EntrySortedByClearance> sorted_items = new TreeSet<>();
 
-        while (it1.hasNext()) {
-            Leaf curr_leaf = it1.next();
+        this.visit_overlaps(offset_bounds, partition_no_of_layer(p_layer), (Leaf curr_leaf) -> {
             Item curr_item = (Item) curr_leaf.object;
             int shape_index = curr_leaf.shape_index_in_object;
             boolean ignore_item
@@ -463,7 +488,7 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
                         = new EntrySortedByClearance(curr_leaf, curr_clearance);
                 sorted_items.add(sorted_ob);
             }
-        }
+        });
         Iterator<EntrySortedByClearance> it = sorted_items.iterator();
         int curr_half_clearance = 0;
         ConvexShape curr_offset_shape = p_shape;
@@ -567,7 +592,7 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
             System.out.println("ShapeSearchTree.complete_shape: p_shape_to_be_contained != null expected");
             return new LinkedList<>();
         }
-        if (this.root == null) {
+        if (this.is_empty()) {
             return new LinkedList<>();
         }
         TileShape start_shape = board.get_bounding_box();
@@ -581,14 +606,13 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
                     p_room.get_layer(), p_room.get_contained_shape());
             result.add(new_room);
         }
-        this.node_stack.clear();
-        this.node_stack.add(this.root);
-        TreeNode curr_node;
         int room_layer = p_room.get_layer();
-
-        for (;;) {
-            try {
-                curr_node = this.node_stack.remove();
+        NodeStack curr_stack = query_stack();
+        int stack_base = curr_stack.size();
+        push_roots(curr_stack, partition_no_of_layer(room_layer));
+        try {
+            while (curr_stack.size() > stack_base) {
+                TreeNode curr_node = curr_stack.pop();
                 if (curr_node.bounding_shape.intersects(bounding_shape)) {
                     if (curr_node instanceof Leaf) {
                         Leaf curr_leaf = (Leaf) curr_node;
@@ -626,13 +650,13 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
                             bounding_shape = new_bounding_shape;
                         }
                     } else {
-                        this.node_stack.add(((InnerNode) curr_node).first_child);
-                        this.node_stack.add(((InnerNode) curr_node).second_child);
+                        curr_stack.push(((InnerNode) curr_node).first_child);
+                        curr_stack.push(((InnerNode) curr_node).second_child);
                     }
                 }
-            } catch (NoSuchElementException e) {
-                break;
             }
+        } finally {
+            curr_stack.truncate(stack_base);
         }
         result = divide_large_room(result, board.get_bounding_box());
         return result;
@@ -997,12 +1021,7 @@ public class ShapeSearchTree extends net.freerouting.freeroute.datastructures.Mi
         EntrySortedByClearance(Leaf p_leaf, int p_clearance) {
             leaf = p_leaf;
             clearance = p_clearance;
-            if (last_generated_id_no >= Integer.MAX_VALUE) {
-                last_generated_id_no = 0;
-            } else {
-                ++last_generated_id_no;
-            }
-            entry_id_no = last_generated_id_no;
+            entry_id_no = last_generated_id_no.updateAndGet(i -> i >= Integer.MAX_VALUE ? 0 : i + 1);
 
         }
 
@@ -22,7 +22,6 @@ package net.freerouting.freeroute.board;
 
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.NoSuchElementException;
 import net.freerouting.freeroute.autoroute.CompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.autoroute.IncompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.geometry.planar.FortyfiveDegreeBoundingDirections;
@@ -112,8 +111,8 @@ public class ShapeSearchTree45Degree extends ShapeSearchTree {
     /**
      * Creates a new instance of ShapeSearchTree45Degree
      */
-    ShapeSearchTree45Degree(BasicBoard p_board, int p_compensated_clearance_class_no) {
-        super(FortyfiveDegreeBoundingDirections.INSTANCE, p_board, p_compensated_clearance_class_no);
+    ShapeSearchTree45Degree(BasicBoard p_board, int p_compensated_clearance_class_no, boolean p_layer_partitioned) {
+        super(FortyfiveDegreeBoundingDirections.INSTANCE, p_board, p_compensated_clearance_class_no, p_layer_partitioned);
     }
 
     /**
@@ -133,7 +132,7 @@ public class ShapeSearchTree45Degree extends ShapeSearchTree {
             return new LinkedList<>();
         }
         IntOctagon shape_to_be_contained = p_room.get_contained_shape().bounding_octagon();
-        if (this.root == null) {
+        if (this.is_empty()) {
             return new LinkedList<>();
         }
         IntOctagon start_shape = board.get_bounding_box().bounding_octagon();
@@ -148,13 +147,12 @@ public class ShapeSearchTree45Degree extends ShapeSearchTree {
         int room_layer = p_room.get_layer();
         Collection<IncompleteFreeSpaceExpansionRoom> result = new LinkedList<>();
         result.add(new IncompleteFreeSpaceExpansionRoom(start_shape, room_layer, shape_to_be_contained));
-        this.node_stack.clear();
-        this.node_stack.add(this.root);
-        TreeNode curr_node;
-
-        for (;;) {
-            try {
-                curr_node = this.node_stack.remove();
+        NodeStack curr_stack = query_stack();
+        int stack_base = curr_stack.size();
+        push_roots(curr_stack, partition_no_of_layer(room_layer));
+        try {
+            while (curr_stack.size() > stack_base) {
+                TreeNode curr_node = curr_stack.pop();
                 if (curr_node.bounding_shape.intersects(bounding_shape)) {
                     if (curr_node instanceof Leaf) {
                         Leaf curr_leaf = (Leaf) curr_node;
@@ -198,13 +196,13 @@ public class ShapeSearchTree45Degree extends ShapeSearchTree {
                             bounding_shape = new_bounding_shape;
                         }
                     } else {
-                        this.node_stack.add(((InnerNode) curr_node).first_child);
-                        this.node_stack.add(((InnerNode) curr_node).second_child);
+                        curr_stack.push(((InnerNode) curr_node).first_child);
+                        curr_stack.push(((InnerNode) curr_node).second_child);
                     }
                 }
-            } catch (NoSuchElementException e) {
-                break;
             }
+        } finally {
+            curr_stack.truncate(stack_base);
         }
         result = divide_large_room(result, board.get_bounding_box());
         // remove rooms with shapes equal to the contained shape to prevent endless loop.
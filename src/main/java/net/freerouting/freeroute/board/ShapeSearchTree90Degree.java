@@ -22,7 +22,6 @@ package net.freerouting.freeroute.board;
 
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.NoSuchElementException;
 import net.freerouting.freeroute.autoroute.CompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.autoroute.IncompleteFreeSpaceExpansionRoom;
 import net.freerouting.freeroute.geometry.planar.IntBox;
@@ -42,8 +41,8 @@ public class ShapeSearchTree90Degree extends ShapeSearchTree {
     /**
      * Creates a new instance of ShapeSearchTree90Degree
      */
-    ShapeSearchTree90Degree(BasicBoard p_board, int p_compensated_clearance_class_no) {
-        super(OrthogonalBoundingDirections.INSTANCE, p_board, p_compensated_clearance_class_no);
+    ShapeSearchTree90Degree(BasicBoard p_board, int p_compensated_clearance_class_no, boolean p_layer_partitioned) {
+        super(OrthogonalBoundingDirections.INSTANCE, p_board, p_compensated_clearance_class_no, p_layer_partitioned);
     }
 
     /**
@@ -63,7 +62,7 @@ public class ShapeSearchTree90Degree extends ShapeSearchTree {
             return new LinkedList<>();
         }
         IntBox shape_to_be_contained = (IntBox) p_room.get_contained_shape();
-        if (this.root == null) {
+        if (this.is_empty()) {
             return new LinkedList<>();
         }
         IntBox start_shape = board.get_bounding_box();
@@ -78,13 +77,12 @@ public class ShapeSearchTree90Degree extends ShapeSearchTree {
         int room_layer = p_room.get_layer();
         Collection<IncompleteFreeSpaceExpansionRoom> result = new LinkedList<>();
         result.add(new IncompleteFreeSpaceExpansionRoom(start_shape, room_layer, shape_to_be_contained));
-        this.node_stack.clear();
-        this.node_stack.add(this.root);
-        TreeNode curr_node;
-
-        for (;;) {
-            try {
-                curr_node = this.node_stack.remove();
+        NodeStack curr_stack = query_stack();
+        int stack_base = curr_stack.size();
+        push_roots(curr_stack, partition_no_of_layer(room_layer));
+        try {
+            while (curr_stack.size() > stack_base) {
+                TreeNode curr_node = curr_stack.pop();
                 if (curr_node.bounding_shape.intersects(bounding_shape)) {
                     if (curr_node instanceof Leaf) {
                         Leaf curr_leaf = (Leaf) curr_node;
@@ -124,13 +122,13 @@ public class ShapeSearchTree90Degree extends ShapeSearchTree {
                             bounding_shape = new_bounding_shape;
                         }
                     } else {
-                        this.node_stack.add(((InnerNode) curr_node).first_child);
-                        this.node_stack.add(((InnerNode) curr_node).second_child);
+                        curr_stack.push(((InnerNode) curr_node).first_child);
+                        curr_stack.push(((InnerNode) curr_node).second_child);
                     }
                 }
-            } catch (NoSuchElementException e) {
-                break;
             }
+        } finally {
+            curr_stack.truncate(stack_base);
         }
         return result;
     }
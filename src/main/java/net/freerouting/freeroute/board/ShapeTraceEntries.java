@@ -80,12 +80,16 @@ public class ShapeTraceEntries {
                 p_trace.net_no_arr, p_trace.clearance_class_no(), 0, 0, FixedState.UNFIXED, board);
         start_piece.board = board;
         board.item_list.insert(start_piece);
+        board.connectable_item_index.insert(start_piece);
+        board.item_type_registry.insert(start_piece);
         start_piece.set_on_the_board(true);
 
         PolylineTrace end_piece = new PolylineTrace(p_end_piece, p_trace.get_layer(), p_trace.get_half_width(),
                 p_trace.net_no_arr, p_trace.clearance_class_no(), 0, 0, FixedState.UNFIXED, board);
         end_piece.board = board;
         board.item_list.insert(end_piece);
+        board.connectable_item_index.insert(end_piece);
+        board.item_type_registry.insert(end_piece);
         end_piece.set_on_the_board(true);
 
         board.search_tree_manager.reuse_entries_after_cutout(p_trace, start_piece, end_piece);
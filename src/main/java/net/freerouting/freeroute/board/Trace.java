@@ -75,6 +75,7 @@ public abstract class Trace extends Item implements Connectable {
 
     public void set_layer(int p_layer) {
         this.layer_no = p_layer;
+        this.update_board_aggregates();
     }
 
     public int get_half_width() {
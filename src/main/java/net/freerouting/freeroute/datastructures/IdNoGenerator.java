@@ -35,4 +35,10 @@ public interface IdNoGenerator {
      * Return the maximum generated id number so far.
      */
     int max_generated_no();
+
+    /**
+     * Continues creating numbers after p_max_generated_no, for example to
+     * reuse the numbers of objects removed again by undo.
+     */
+    void reset(int p_max_generated_no);
 }
@@ -19,14 +19,19 @@
  */
 package net.freerouting.freeroute.datastructures;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.NoSuchElementException;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import net.freerouting.freeroute.geometry.planar.IntBox;
 import net.freerouting.freeroute.geometry.planar.RegularTileShape;
 import net.freerouting.freeroute.geometry.planar.ShapeBoundingDirections;
+import net.freerouting.freeroute.geometry.planar.TileShape;
 
 /**
  * Binary search tree for shapes in the plane. The shapes are stored in the
@@ -42,7 +47,21 @@ import net.freerouting.freeroute.geometry.planar.ShapeBoundingDirections;
  */
 public class MinAreaTree extends ShapeTree {
 
-    protected Queue<TreeNode> node_stack = Collections.asLifoQueue(new LinkedList<>());
+    /**
+     * The traversal stack of the queries of each thread. Queries started from
+     * a visitor use the stack above the nodes of the calling query.
+     */
+    private static final ThreadLocal<NodeStack> QUERY_STACK = ThreadLocal.withInitial(NodeStack::new);
+
+    /**
+     * A tree is rebalanced in rebalance_if_degraded, if the average depth of
+     * its leafs is bigger than this factor times the depth of a balanced tree.
+     */
+    private static final double MAX_DEPTH_RATIO = 2.0;
+    /**
+     * Smaller trees are not rebalanced in rebalance_if_degraded.
+     */
+    private static final int MIN_LEAF_COUNT_FOR_REBALANCE = 64;
 
     /**
      * Constructor with a fixed set of directions defining the keys and and the
@@ -52,47 +71,283 @@ public class MinAreaTree extends ShapeTree {
         super(p_directions);
     }
 
+    /**
+     * Constructor for a tree with p_partition_count partitions, each of them
+     * with its own root.
+     */
+    public MinAreaTree(ShapeBoundingDirections p_directions, int p_partition_count) {
+        super(p_directions, p_partition_count);
+    }
+
     /**
      * Calculates the objects in this tree, which overlap with p_shape
      */
     public Set<Leaf> overlaps(RegularTileShape p_shape) {
         Set<Leaf> found_overlaps = new TreeSet<>();
-        if (this.root == null) {
-            return found_overlaps;
-        }
-        this.node_stack.clear();
-        this.node_stack.add(this.root);
-        TreeNode curr_node;
-        for (;;) {
-            try {
-                curr_node = this.node_stack.remove();
+        visit_overlaps(p_shape, found_overlaps::add);
+        return found_overlaps;
+    }
+
+    /**
+     * Calls p_visitor for each leaf of this tree, whose bounding shape
+     * intersects with p_shape. The tree is not changed, so that several threads
+     * may query it at the same time, as long as no thread modifies it.
+     * p_visitor may start further queries, but must not modify the tree.
+     */
+    public void visit_overlaps(RegularTileShape p_shape, Consumer<Leaf> p_visitor) {
+        visit_overlaps(p_shape, -1, p_visitor);
+    }
+
+    /**
+     * Calls p_visitor for each leaf in the partition p_partition_no of this
+     * tree, whose bounding shape intersects with p_shape. If p_partition_no
+     * {@literal <} 0, all partitions are searched.
+     */
+    public void visit_overlaps(RegularTileShape p_shape, int p_partition_no, Consumer<Leaf> p_visitor) {
+        NodeStack curr_stack = query_stack();
+        int stack_base = curr_stack.size();
+        push_roots(curr_stack, p_partition_no);
+        try {
+            while (curr_stack.size() > stack_base) {
+                TreeNode curr_node = curr_stack.pop();
                 if (curr_node.bounding_shape.intersects(p_shape)) {
                     if (curr_node instanceof Leaf) {
-                        found_overlaps.add((Leaf) curr_node);
+                        p_visitor.accept((Leaf) curr_node);
                     } else {
-                        this.node_stack.add(((InnerNode) curr_node).first_child);
-                        this.node_stack.add(((InnerNode) curr_node).second_child);
+                        curr_stack.push(((InnerNode) curr_node).first_child);
+                        curr_stack.push(((InnerNode) curr_node).second_child);
                     }
                 }
-            } catch (NoSuchElementException e) {
-                break;
             }
+        } finally {
+            curr_stack.truncate(stack_base);
+        }
+    }
+
+    /**
+     * Returns the number of nodes, which visit_overlaps visits for p_shape in
+     * the partition p_partition_no. Used for comparing the quality of trees.
+     */
+    public int visited_node_count(RegularTileShape p_shape, int p_partition_no) {
+        int result = 0;
+        NodeStack curr_stack = new NodeStack();
+        push_roots(curr_stack, p_partition_no);
+        while (curr_stack.size() > 0) {
+            TreeNode curr_node = curr_stack.pop();
+            ++result;
+            if (curr_node.bounding_shape.intersects(p_shape) && curr_node instanceof InnerNode) {
+                curr_stack.push(((InnerNode) curr_node).first_child);
+                curr_stack.push(((InnerNode) curr_node).second_child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the traversal stack of the queries of the current thread. A
+     * query pushes its nodes above the current size of the stack and
+     * truncates the stack to that size, when it is finished, so that the
+     * queries allocate no memory once the stack has grown to the depth of the
+     * tree, and a query may be started while another query is running.
+     */
+    protected static NodeStack query_stack() {
+        return QUERY_STACK.get();
+    }
+
+    /**
+     * Pushes the root of the partition p_partition_no, or the roots of all
+     * partitions, if p_partition_no {@literal <} 0, onto p_stack.
+     */
+    protected void push_roots(NodeStack p_stack, int p_partition_no) {
+        if (p_partition_no >= 0) {
+            if (p_partition_no < this.roots.length && this.roots[p_partition_no] != null) {
+                p_stack.push(this.roots[p_partition_no]);
+            }
+            return;
+        }
+        for (TreeNode curr_root : this.roots) {
+            if (curr_root != null) {
+                p_stack.push(curr_root);
+            }
+        }
+    }
+
+    /**
+     * Inserts all shapes of the objects in p_objects into the tree. If the tree
+     * is empty, each partition is built bottom up by recursively splitting the shapes at
+     * the median of their centres along the wider extent, which results in a
+     * balanced tree with less overlap between the nodes than inserting the
+     * shapes one by one.
+     */
+    public void insert_all(Collection<? extends ShapeTree.Storable> p_objects) {
+        if (!this.is_empty()) {
+            for (ShapeTree.Storable curr_object : p_objects) {
+                insert(curr_object);
+            }
+            return;
+        }
+        List<List<BulkEntry>> partition_entry_lists = new ArrayList<>(this.roots.length);
+        for (int i = 0; i < this.roots.length; ++i) {
+            partition_entry_lists.add(new ArrayList<>());
+        }
+        for (ShapeTree.Storable curr_object : p_objects) {
+            int shape_count = curr_object.tree_shape_count(this);
+            if (shape_count <= 0) {
+                continue;
+            }
+            Leaf[] leaf_arr = new Leaf[shape_count];
+            for (int i = 0; i < shape_count; ++i) {
+                leaf_arr[i] = create_leaf(curr_object, i);
+                if (leaf_arr[i] != null) {
+                    partition_entry_lists.get(leaf_arr[i].partition_no).add(new BulkEntry(leaf_arr[i]));
+                }
+            }
+            curr_object.set_search_tree_entries(leaf_arr, this);
+        }
+        for (int i = 0; i < this.roots.length; ++i) {
+            List<BulkEntry> entry_list = partition_entry_lists.get(i);
+            if (entry_list.isEmpty()) {
+                continue;
+            }
+            BulkEntry[] entry_arr = entry_list.toArray(new BulkEntry[0]);
+            this.leaf_count += entry_arr.length;
+            this.roots[i] = build_subtree(entry_arr, 0, entry_arr.length, null);
         }
-        return found_overlaps;
+    }
+
+    /**
+     * Returns the depth and overlap statistics of this tree. The depth of a
+     * leaf is counted from the root of its partition.
+     */
+    public Statistics statistics() {
+        int max_depth = 0;
+        long depth_sum = 0;
+        double node_area_sum = 0;
+        double overlap_area_sum = 0;
+        ArrayDeque<TreeNode> curr_node_stack = new ArrayDeque<>();
+        ArrayDeque<Integer> depth_stack = new ArrayDeque<>();
+        for (TreeNode curr_root : this.roots) {
+            if (curr_root == null) {
+                continue;
+            }
+            curr_node_stack.push(curr_root);
+            depth_stack.push(0);
+            while (!curr_node_stack.isEmpty()) {
+                TreeNode curr_node = curr_node_stack.pop();
+                int curr_depth = depth_stack.pop();
+                if (curr_node instanceof Leaf) {
+                    max_depth = Math.max(max_depth, curr_depth);
+                    depth_sum += curr_depth;
+                } else {
+                    InnerNode curr_inner_node = (InnerNode) curr_node;
+                    node_area_sum += curr_inner_node.bounding_shape.area();
+                    TileShape children_overlap
+                            = curr_inner_node.first_child.bounding_shape.intersection(curr_inner_node.second_child.bounding_shape);
+                    if (!children_overlap.is_empty()) {
+                        overlap_area_sum += children_overlap.area();
+                    }
+                    curr_node_stack.push(curr_inner_node.first_child);
+                    depth_stack.push(curr_depth + 1);
+                    curr_node_stack.push(curr_inner_node.second_child);
+                    depth_stack.push(curr_depth + 1);
+                }
+            }
+        }
+        double average_depth = this.leaf_count > 0 ? (double) depth_sum / this.leaf_count : 0;
+        double overlap_ratio = node_area_sum > 0 ? overlap_area_sum / node_area_sum : 0;
+        return new Statistics(this.leaf_count, max_depth, average_depth, overlap_ratio);
+    }
+
+    /**
+     * Rebuilds the tree from its leafs by the same algorithm as insert_all.
+     * The leafs stay the same, so that the tree entries of the stored objects
+     * remain valid.
+     */
+    public void rebalance() {
+        NodeStack curr_stack = new NodeStack();
+        for (int i = 0; i < this.roots.length; ++i) {
+            if (this.roots[i] == null) {
+                continue;
+            }
+            List<BulkEntry> entry_list = new ArrayList<>();
+            curr_stack.push(this.roots[i]);
+            while (curr_stack.size() > 0) {
+                TreeNode curr_node = curr_stack.pop();
+                if (curr_node instanceof Leaf) {
+                    entry_list.add(new BulkEntry((Leaf) curr_node));
+                } else {
+                    curr_stack.push(((InnerNode) curr_node).first_child);
+                    curr_stack.push(((InnerNode) curr_node).second_child);
+                }
+            }
+            BulkEntry[] entry_arr = entry_list.toArray(new BulkEntry[0]);
+            this.roots[i] = build_subtree(entry_arr, 0, entry_arr.length, null);
+        }
+    }
+
+    /**
+     * Rebalances the tree, if the average depth of its leafs has grown to more
+     * than MAX_DEPTH_RATIO times the depth of a balanced tree because of many
+     * inserts and removals. Returns true, if the tree was rebalanced.
+     */
+    public boolean rebalance_if_degraded() {
+        if (this.leaf_count < MIN_LEAF_COUNT_FOR_REBALANCE) {
+            return false;
+        }
+        double balanced_depth = Math.log(this.leaf_count) / Math.log(2);
+        if (statistics().average_depth <= MAX_DEPTH_RATIO * balanced_depth) {
+            return false;
+        }
+        rebalance();
+        return true;
+    }
+
+    /**
+     * Builds a subtree from the leafs in p_entries between p_from (inclusive)
+     * and p_to (exclusive).
+     */
+    private TreeNode build_subtree(BulkEntry[] p_entries, int p_from, int p_to, InnerNode p_parent) {
+        if (p_to - p_from == 1) {
+            Leaf curr_leaf = p_entries[p_from].leaf;
+            curr_leaf.parent = p_parent;
+            return curr_leaf;
+        }
+        double min_x = Double.MAX_VALUE;
+        double max_x = -Double.MAX_VALUE;
+        double min_y = Double.MAX_VALUE;
+        double max_y = -Double.MAX_VALUE;
+        for (int i = p_from; i < p_to; ++i) {
+            min_x = Math.min(min_x, p_entries[i].centre_x);
+            max_x = Math.max(max_x, p_entries[i].centre_x);
+            min_y = Math.min(min_y, p_entries[i].centre_y);
+            max_y = Math.max(max_y, p_entries[i].centre_y);
+        }
+        if (max_x - min_x >= max_y - min_y) {
+            Arrays.sort(p_entries, p_from, p_to, BY_CENTRE_X);
+        } else {
+            Arrays.sort(p_entries, p_from, p_to, BY_CENTRE_Y);
+        }
+        int middle = (p_from + p_to) / 2;
+        InnerNode new_node = new InnerNode(null, p_parent);
+        new_node.first_child = build_subtree(p_entries, p_from, middle, new_node);
+        new_node.second_child = build_subtree(p_entries, middle, p_to, new_node);
+        new_node.bounding_shape = new_node.first_child.bounding_shape.union(new_node.second_child.bounding_shape);
+        return new_node;
     }
 
     @Override
     void insert(Leaf p_leaf) {
         ++this.leaf_count;
+        int partition_no = p_leaf.partition_no;
 
-        // Tree is empty - just insert the new leaf
-        if (root == null) {
-            root = p_leaf;
+        // Partition is empty - just insert the new leaf
+        if (roots[partition_no] == null) {
+            roots[partition_no] = p_leaf;
             return;
         }
 
-        // Non-empty tree - do a recursive location for leaf replacement
-        Leaf leaf_to_replace = position_locate(root, p_leaf);
+        // Non-empty partition - do a recursive location for leaf replacement
+        Leaf leaf_to_replace = position_locate(roots[partition_no], p_leaf);
 
         // Construct a new node - whenever a leaf is added so is a new node
         RegularTileShape new_bounds = p_leaf.bounding_shape.union(leaf_to_replace.bounding_shape);
@@ -115,28 +370,85 @@ public class MinAreaTree extends ShapeTree {
         new_node.first_child = leaf_to_replace;
         new_node.second_child = p_leaf;
 
-        if (root == leaf_to_replace) {
-            root = new_node;
+        if (roots[partition_no] == leaf_to_replace) {
+            roots[partition_no] = new_node;
         }
     }
 
+    /**
+     * Describes the quality of a tree.
+     */
+    public static final class Statistics {
+
+        public final int leaf_count;
+        /**
+         * The maximal number of inner nodes between the root and a leaf.
+         */
+        public final int max_depth;
+        public final double average_depth;
+        /**
+         * The sum of the overlap areas of the two children of each inner node
+         * divided by the sum of the areas of the inner nodes.
+         */
+        public final double overlap_ratio;
+
+        Statistics(int p_leaf_count, int p_max_depth, double p_average_depth, double p_overlap_ratio) {
+            this.leaf_count = p_leaf_count;
+            this.max_depth = p_max_depth;
+            this.average_depth = p_average_depth;
+            this.overlap_ratio = p_overlap_ratio;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("leafs %d, max depth %d, average depth %.1f, overlap %.3f",
+                    leaf_count, max_depth, average_depth, overlap_ratio);
+        }
+    }
+
+    private static final Comparator<BulkEntry> BY_CENTRE_X = Comparator.comparingDouble(p_entry -> p_entry.centre_x);
+    private static final Comparator<BulkEntry> BY_CENTRE_Y = Comparator.comparingDouble(p_entry -> p_entry.centre_y);
+
+    /**
+     * A leaf together with the centre of its bounding box used for sorting in
+     * insert_all.
+     */
+    private static final class BulkEntry {
+
+        final Leaf leaf;
+        final double centre_x;
+        final double centre_y;
+
+        BulkEntry(Leaf p_leaf) {
+            this.leaf = p_leaf;
+            IntBox curr_box = p_leaf.bounding_shape.bounding_box();
+            this.centre_x = 0.5 * ((double) curr_box.ll.x + curr_box.ur.x);
+            this.centre_y = 0.5 * ((double) curr_box.ll.y + curr_box.ur.y);
+        }
+    }
+
+    /**
+     * Returns the leaf, which is replaced by a new inner node containing it
+     * and p_leaf_to_insert. The bounding shapes of the inner nodes on the way
+     * are enlarged, if they do not yet contain the shape of p_leaf_to_insert.
+     * The area increases of the children are calculated without allocating
+     * the unions.
+     */
     private Leaf position_locate(TreeNode p_curr_node, Leaf p_leaf_to_insert) {
         TreeNode curr_node = p_curr_node;
+        RegularTileShape shape_to_insert = p_leaf_to_insert.bounding_shape;
 
         while (!(curr_node instanceof Leaf)) {
             if (curr_node instanceof InnerNode) {
                 InnerNode curr_inner_node = (InnerNode) curr_node;
-                curr_inner_node.bounding_shape = p_leaf_to_insert.bounding_shape.union(curr_inner_node.bounding_shape);
+                if (!curr_inner_node.bounding_shape.contains(shape_to_insert)) {
+                    curr_inner_node.bounding_shape = shape_to_insert.union(curr_inner_node.bounding_shape);
+                }
 
                 // Choose the the child, so that the area increase of that child after taking the union
                 // with the shape of p_leaf_to_insert is minimal.
-                RegularTileShape first_child_shape = curr_inner_node.first_child.bounding_shape;
-                RegularTileShape union_with_first_child_shape = p_leaf_to_insert.bounding_shape.union(first_child_shape);
-                double first_area_increase = union_with_first_child_shape.area() - first_child_shape.area();
-
-                RegularTileShape second_child_shape = curr_inner_node.second_child.bounding_shape;
-                RegularTileShape union_with_second_child_shape = p_leaf_to_insert.bounding_shape.union(second_child_shape);
-                double second_area_increase = union_with_second_child_shape.area() - second_child_shape.area();
+                double first_area_increase = curr_inner_node.first_child.bounding_shape.area_increase(shape_to_insert);
+                double second_area_increase = curr_inner_node.second_child.bounding_shape.area_increase(shape_to_insert);
 
                 if (first_area_increase <= second_area_increase) {
                     curr_node = curr_inner_node.first_child;
@@ -163,8 +475,8 @@ public class MinAreaTree extends ShapeTree {
         p_leaf.object = null;
         --this.leaf_count;
         if (parent == null) {
-            // tree gets empty
-            root = null;
+            // partition gets empty
+            roots[p_leaf.partition_no] = null;
             return;
         }
         // find the other leaf of the parent
@@ -181,8 +493,8 @@ public class MinAreaTree extends ShapeTree {
         InnerNode grand_parent = parent.parent;
         other_leaf.parent = grand_parent;
         if (grand_parent == null) {
-            // only one leaf left in the tree
-            root = other_leaf;
+            // only one leaf left in the partition
+            roots[p_leaf.partition_no] = other_leaf;
         } else if (grand_parent.second_child == parent) {
             grand_parent.second_child = other_leaf;
         } else if (grand_parent.first_child == parent) {
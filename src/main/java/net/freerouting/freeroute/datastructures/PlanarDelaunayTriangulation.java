@@ -1,5 +1,5 @@
 /*
- *  Copyright (C) 2014  Alfons Wirtz  
+ *  Copyright (C) 2014  Alfons Wirtz
  *   website www.freerouting.net
  *
  *   This program is free software: you can redistribute it and/or modify
@@ -10,7 +10,7 @@
  *   This program is distributed in the hope that it will be useful,
  *   but WITHOUT ANY WARRANTY; without even the implied warranty of
  *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- *   GNU General Public License at <http://www.gnu.org/licenses/> 
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
  *   for more details.
  *
  * PlanarDelaunayTriangulation.java
@@ -19,12 +19,12 @@
  */
 package net.freerouting.freeroute.datastructures;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
+import net.freerouting.freeroute.geometry.planar.FloatPoint;
 import net.freerouting.freeroute.geometry.planar.IntPoint;
 import net.freerouting.freeroute.geometry.planar.Limits;
 import net.freerouting.freeroute.geometry.planar.Point;
@@ -35,72 +35,112 @@ import net.freerouting.freeroute.geometry.planar.Side;
  * objects in the input list must implement the interface
  * PlanarDelaunayTriangulation.Storable, which consists of the the method
  * get_triangulation_corners(). The result can be read by the funktion
- * get_edge_lines(). The algorithm is from Chapter 9.3. of the book
- * Computational Geometry, Algorithms and Applications from M. de Berg, M. van
- * Kreveld, M Overmars and O Schwarzkopf.
+ * get_edge_lines(). The algorithm is the incremental algorithm from Chapter
+ * 9.3. of the book Computational Geometry, Algorithms and Applications from M.
+ * de Berg, M. van Kreveld, M Overmars and O Schwarzkopf.
+ * <p>
+ * Instead of inserting the corners in random order and locating them in the
+ * history graph of the triangles, the corners are inserted along a Hilbert
+ * curve, and the triangle containing the next corner is found by walking from
+ * the last created triangle. Because consecutive corners are near to each
+ * other, the walk is short. The triangles are stored in arrays with 3 corner
+ * numbers and 3 neighbour numbers each.
  *
  * @author Alfons Wirtz
  */
 public class PlanarDelaunayTriangulation {
 
     /**
-     * The structure for seaching the triangle containing a given input corner.
+     * The number of cells in each dimension of the grid, in which the corners
+     * are sorted along the Hilbert curve.
      */
-    private final TriangleGraph search_graph;
+    private static final int HILBERT_GRID_SIZE = 1 << 16;
     /**
-     * This list contain the edges of the trinangulation, where the start corner
-     * and end corner are equal.
+     * The corners with the numbers below are the corners of the big bounding
+     * triangle.
      */
-    private final Collection<Edge> degenerate_edges;
+    private static final int BOUNDING_CORNER_COUNT = 3;
     /**
-     * id numbers are for implementing an ordering on the Edges so that they can
-     * be used in a set for example
+     * Bound of the rounding error of the circle test in double arithmetic
+     * relative to the sum of the absolute values of its terms. The rounding
+     * errors of the squares, products and sums are less than 10 times the
+     * unit roundoff 2^-53, the rest is a safety margin.
      */
-    private int last_edge_id_no = 0;
+    private static final double CIRCLE_TEST_ERROR_BOUND = 16 * 0x1p-53;
+
+    private final Point[] corner_coors;
+    private final FloatPoint[] float_corner_coors;
+    /**
+     * The objects of the corners, null for the bounding corners.
+     */
+    private final PlanarDelaunayTriangulation.Storable[] corner_objects;
+    /**
+     * The corner numbers of the triangles in counterclock sense, 3 for each
+     * triangle.
+     */
+    private int[] triangle_corners;
+    /**
+     * The neighbour triangles, 3 for each triangle. The neighbour at position
+     * 3 * i + j lies opposite to the corner at the same position, -1 at the
+     * border of the bounding triangle.
+     */
+    private int[] triangle_neighbours;
+    private int triangle_count = 0;
+    /**
+     * The last created triangle, where the search for the triangle containing
+     * the next corner starts.
+     */
+    private int last_triangle = 0;
+    /**
+     * Pairs of corner numbers, where the start corner and end corner are
+     * equal.
+     */
+    private final IntList degenerate_edges = new IntList();
+    /**
+     * Pairs of triangle and corner position of the edges still to be
+     * legalized.
+     */
+    private final IntList legalize_stack = new IntList();
 
     /**
      * Creates a new instance of PlanarDelaunayTriangulation from p_object_list.
      */
     public PlanarDelaunayTriangulation(final Collection<PlanarDelaunayTriangulation.Storable> p_object_list) {
-        List<Corner> corner_list = new LinkedList<>();
+        List<Point> coor_list = new ArrayList<>();
+        List<PlanarDelaunayTriangulation.Storable> object_list = new ArrayList<>();
         for (PlanarDelaunayTriangulation.Storable curr_object : p_object_list) {
             Point[] curr_corners = curr_object.get_triangulation_corners();
             for (Point curr_corner : curr_corners) {
-                corner_list.add(new Corner(curr_object, curr_corner));
+                coor_list.add(curr_corner);
+                object_list.add(curr_object);
             }
         }
-
-        // create a random permutation of the corners.
-        Collections.shuffle(corner_list);
+        int corner_count = BOUNDING_CORNER_COUNT + coor_list.size();
+        this.corner_coors = new Point[corner_count];
+        this.float_corner_coors = new FloatPoint[corner_count];
+        this.corner_objects = new PlanarDelaunayTriangulation.Storable[corner_count];
 
         // create a big triangle contaning all corners in the list to start with.
         int bounding_coor = Limits.CRIT_INT;
-        Corner[] bounding_corners = new Corner[3];
-        bounding_corners[0] = new Corner(null, new IntPoint(bounding_coor, 0));
-        bounding_corners[1] = new Corner(null, new IntPoint(0, bounding_coor));
-        bounding_corners[2] = new Corner(null, new IntPoint(-bounding_coor, -bounding_coor));
-
-        Edge[] edge_lines = new Edge[3];
-        edge_lines[0] = new Edge(bounding_corners[0], bounding_corners[1]);
-        edge_lines[1] = new Edge(bounding_corners[1], bounding_corners[2]);
-        edge_lines[2] = new Edge(bounding_corners[2], bounding_corners[0]);
-
-        Triangle start_triangle = new Triangle(edge_lines, null);
-
-        // Set the left triangle of the edge lines to start_triangle.
-        // The right triangles remains null.
-        for (Edge curr_edge : edge_lines) {
-            curr_edge.set_left_triangle(start_triangle);
+        this.corner_coors[0] = new IntPoint(bounding_coor, 0);
+        this.corner_coors[1] = new IntPoint(0, bounding_coor);
+        this.corner_coors[2] = new IntPoint(-bounding_coor, -bounding_coor);
+        for (int i = 0; i < coor_list.size(); ++i) {
+            this.corner_coors[BOUNDING_CORNER_COUNT + i] = coor_list.get(i);
+            this.corner_objects[BOUNDING_CORNER_COUNT + i] = object_list.get(i);
+        }
+        for (int i = 0; i < corner_count; ++i) {
+            this.float_corner_coors[i] = this.corner_coors[i].to_float();
         }
 
-        // Initialize the search graph.
-        this.search_graph = new TriangleGraph(start_triangle);
-        this.degenerate_edges = new LinkedList<>();
+        // Each inserted corner adds at most 2 triangles.
+        int max_triangle_count = 1 + 2 * coor_list.size();
+        this.triangle_corners = new int[3 * max_triangle_count];
+        this.triangle_neighbours = new int[3 * max_triangle_count];
+        new_triangle(0, 1, 2, -1, -1, -1);
 
-        // Insert the corners in the corner list into the search graph.
-        for (Corner curr_corner : corner_list) {
-            Triangle triangle_to_split = this.search_graph.position_locate(curr_corner);
-            this.split(triangle_to_split, curr_corner);
+        for (int curr_corner : hilbert_order()) {
+            insert(curr_corner);
         }
     }
 
@@ -108,171 +148,474 @@ public class PlanarDelaunayTriangulation {
      * Returns all edge lines of the result of the Delaunay Triangulation.
      */
     public Collection<ResultEdge> get_edge_lines() {
-        Collection<ResultEdge> result = new LinkedList<>();
-        for (Edge curr_edge : this.degenerate_edges) {
-            result.add(new ResultEdge(curr_edge.start_corner.coor, curr_edge.start_corner.object,
-                    curr_edge.end_corner.coor, curr_edge.end_corner.object));
+        Collection<ResultEdge> result = new ArrayList<>(this.degenerate_edges.size() / 2 + 3 * this.triangle_count / 2);
+        for (int i = 0; i < this.degenerate_edges.size(); i += 2) {
+            result.add(new_result_edge(this.degenerate_edges.get(i), this.degenerate_edges.get(i + 1)));
         }
-        if (this.search_graph.anchor != null) {
-            Set<Edge> result_edges = new TreeSet<>();
-            this.search_graph.anchor.get_leaf_edges(result_edges);
-            for (Edge curr_edge : result_edges) {
-                result.add(new ResultEdge(curr_edge.start_corner.coor, curr_edge.start_corner.object,
-                        curr_edge.end_corner.coor, curr_edge.end_corner.object));
+        for (int curr_triangle = 0; curr_triangle < this.triangle_count; ++curr_triangle) {
+            for (int i = 0; i < 3; ++i) {
+                int curr_neighbour = this.triangle_neighbours[3 * curr_triangle + i];
+                if (curr_neighbour >= 0 && curr_neighbour < curr_triangle) {
+                    // the edge was already added from the neighbour triangle
+                    continue;
+                }
+                int start_corner = corner(curr_triangle, i + 1);
+                int end_corner = corner(curr_triangle, i + 2);
+                if (start_corner >= BOUNDING_CORNER_COUNT && end_corner >= BOUNDING_CORNER_COUNT) {
+                    result.add(new_result_edge(start_corner, end_corner));
+                }
             }
         }
         return result;
     }
 
     /**
-     * Splits p_triangle into 3 new triangles at p_corner, if p_corner lies in
-     * the interiour. If p_corner lies on the border, p_triangle and the
-     * corresponding neighbour are split into 2 new triangles each at p_corner.
-     * If p_corner lies outside this triangle or on a corner, nothing is split.
-     * In this case the function returns false.
+     * Checks the consistency of the neighbour relations and the orientation
+     * of the triangles, and if each edge fulfils the Delaunay condition.
      */
-    private boolean split(Triangle p_triangle, Corner p_corner) {
-
-        // check, if p_corner is in the interiour of this triangle or
-        // if p_corner is contained in an edge line.
-        Edge containing_edge = null;
-        for (int i = 0; i < 3; ++i) {
-            Edge curr_edge = p_triangle.edge_lines[i];
-            Side curr_side;
-            if (curr_edge.left_triangle == p_triangle) {
-                curr_side = p_corner.side_of(curr_edge.start_corner, curr_edge.end_corner);
-            } else {
-                curr_side = p_corner.side_of(curr_edge.end_corner, curr_edge.start_corner);
+    public boolean validate() {
+        boolean result = true;
+        for (int curr_triangle = 0; curr_triangle < this.triangle_count; ++curr_triangle) {
+            if (side_of(corner(curr_triangle, 0), corner(curr_triangle, 1), corner(curr_triangle, 2)) != Side.ON_THE_LEFT) {
+                System.out.println("PlanarDelaunayTriangulation.validate: triangle not counterclock");
+                result = false;
             }
-            if (curr_side == Side.ON_THE_RIGHT) {
-                // p_corner is outside this triangle
-                System.out.println("PlanarDelaunayTriangulation.split: p_corner is outside");
-                return false;
-            } else if (curr_side == Side.COLLINEAR) {
-                if (containing_edge != null) {
-                    // p_corner is equal to a corner of this triangle
-
-                    Corner common_corner = curr_edge.common_corner(containing_edge);
-                    if (common_corner == null) {
-                        System.out.println("PlanarDelaunayTriangulation.split: common corner expected");
-                        return false;
-                    }
-                    if (p_corner.object == common_corner.object) {
-                        return false;
+            for (int i = 0; i < 3; ++i) {
+                int curr_neighbour = this.triangle_neighbours[3 * curr_triangle + i];
+                if (curr_neighbour < 0) {
+                    if (corner(curr_triangle, i + 1) >= BOUNDING_CORNER_COUNT
+                            || corner(curr_triangle, i + 2) >= BOUNDING_CORNER_COUNT) {
+                        System.out.println("PlanarDelaunayTriangulation.validate: neighbour may be missing only at bounding edges");
+                        result = false;
                     }
-                    this.degenerate_edges.add(new Edge(p_corner, common_corner));
-                    return true;
+                    continue;
+                }
+                int opposite_index = neighbour_index(curr_neighbour, curr_triangle);
+                if (opposite_index < 0) {
+                    System.out.println("PlanarDelaunayTriangulation.validate: neighbour inconsistent");
+                    result = false;
+                    continue;
+                }
+                if (corner(curr_neighbour, opposite_index + 1) != corner(curr_triangle, i + 2)
+                        || corner(curr_neighbour, opposite_index + 2) != corner(curr_triangle, i + 1)) {
+                    System.out.println("PlanarDelaunayTriangulation.validate: edge inconsistent");
+                    result = false;
+                } else if (!is_legal(curr_triangle, i)) {
+                    System.out.println("PlanarDelaunayTriangulation.validate: edge not legal");
+                    result = false;
                 }
-                containing_edge = curr_edge;
             }
         }
+        if (result == true) {
+            System.out.println("Delauny triangulation check passed ok");
+        } else {
+            System.out.println("Delauny triangulation check has detected problems");
+        }
+        return result;
+    }
 
-        if (containing_edge == null) {
-            // split p_triangle into 3 new triangles by adding edges from
-            // the corners of  p_triangle to p_corner.
-
-            Triangle[] new_triangles = p_triangle.split_at_inner_point(p_corner);
+    /**
+     * Returns the numbers of the input corners sorted by their position on a
+     * Hilbert curve through the bounding box of the input corners.
+     */
+    private int[] hilbert_order() {
+        int corner_count = this.corner_coors.length - BOUNDING_CORNER_COUNT;
+        double min_x = Double.MAX_VALUE;
+        double min_y = Double.MAX_VALUE;
+        double max_x = -Double.MAX_VALUE;
+        double max_y = -Double.MAX_VALUE;
+        for (int i = BOUNDING_CORNER_COUNT; i < this.float_corner_coors.length; ++i) {
+            FloatPoint curr_coor = this.float_corner_coors[i];
+            min_x = Math.min(min_x, curr_coor.x);
+            min_y = Math.min(min_y, curr_coor.y);
+            max_x = Math.max(max_x, curr_coor.x);
+            max_y = Math.max(max_y, curr_coor.y);
+        }
+        double scale = (HILBERT_GRID_SIZE - 1) / Math.max(Math.max(max_x - min_x, max_y - min_y), 1);
+
+        // The Hilbert index in the upper bits and the corner number in the
+        // lower 31 bits, so that corners in the same cell keep their input order.
+        long[] keys = new long[corner_count];
+        for (int i = 0; i < corner_count; ++i) {
+            FloatPoint curr_coor = this.float_corner_coors[BOUNDING_CORNER_COUNT + i];
+            int x = (int) ((curr_coor.x - min_x) * scale);
+            int y = (int) ((curr_coor.y - min_y) * scale);
+            keys[i] = (hilbert_index(x, y) << 31) | (BOUNDING_CORNER_COUNT + i);
+        }
+        Arrays.sort(keys);
+        int[] result = new int[corner_count];
+        for (int i = 0; i < corner_count; ++i) {
+            result[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return result;
+    }
 
-            for (Triangle curr_triangle : new_triangles) {
-                this.search_graph.insert(curr_triangle, p_triangle);
+    /**
+     * Returns the position of the cell (p_x, p_y) on the Hilbert curve
+     * through the grid with HILBERT_GRID_SIZE cells in each dimension.
+     */
+    private static long hilbert_index(int p_x, int p_y) {
+        int x = p_x;
+        int y = p_y;
+        long result = 0;
+        for (int s = HILBERT_GRID_SIZE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            result += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int tmp = x;
+                x = y;
+                y = tmp;
             }
+        }
+        return result;
+    }
 
-            for (int i = 0; i < 3; ++i) {
-                legalize_edge(p_corner, p_triangle.edge_lines[i]);
+    /**
+     * Inserts p_corner into the triangulation and restores the Delaunay
+     * condition.
+     */
+    private void insert(int p_corner) {
+        int triangle = locate(p_corner);
+        if (triangle < 0) {
+            System.out.println("PlanarDelaunayTriangulation.insert: containing triangle not found");
+            return;
+        }
+        // check, if p_corner is in the interiour of the triangle or
+        // if p_corner is contained in an edge line.
+        int containing_edge = -1;
+        for (int i = 0; i < 3; ++i) {
+            if (side_of(p_corner, corner(triangle, i + 1), corner(triangle, i + 2)) != Side.COLLINEAR) {
+                continue;
+            }
+            if (containing_edge >= 0) {
+                // p_corner is equal to the corner of the triangle between the two collinear edges
+                int common_corner = corner(triangle, 3 - i - containing_edge);
+                if (this.corner_objects[p_corner] != this.corner_objects[common_corner]) {
+                    this.degenerate_edges.add(common_corner);
+                    this.degenerate_edges.add(p_corner);
+                }
+                return;
             }
-
+            containing_edge = i;
+        }
+        if (containing_edge < 0) {
+            split_inner(triangle, p_corner);
+        } else if (this.triangle_neighbours[3 * triangle + containing_edge] < 0) {
+            System.out.println("PlanarDelaunayTriangulation.insert: corner on the bounding triangle");
+            return;
         } else {
-            // split this triangle and the neighbour triangle into 4 new triangles by adding edges from
-            // the corners of the triangles to p_corner.
-
-            Triangle neighbour_to_split = containing_edge.other_neighbour(p_triangle);
-
-            Triangle[] new_triangles = p_triangle.split_at_border_point(p_corner, neighbour_to_split);
-            if (new_triangles == null) {
-                return false;
-            }
-
-            // There are exact four new triangles with the first 2 dividing p_triangle and
-            // the last 2 dividing neighbour_to_split.
-            this.search_graph.insert(new_triangles[0], p_triangle);
-            this.search_graph.insert(new_triangles[1], p_triangle);
-            this.search_graph.insert(new_triangles[2], neighbour_to_split);
-            this.search_graph.insert(new_triangles[3], neighbour_to_split);
+            split_at_edge(triangle, containing_edge, p_corner);
+        }
+        legalize();
+    }
 
-            for (int i = 0; i < 3; ++i) {
-                Edge curr_edge = p_triangle.edge_lines[i];
-                if (curr_edge != containing_edge) {
-                    legalize_edge(p_corner, curr_edge);
+    /**
+     * Returns the triangle containing p_corner in its interiour or on its
+     * border by walking from the last created triangle towards p_corner.
+     * Returns -1, if p_corner is outside the bounding triangle.
+     */
+    private int locate(int p_corner) {
+        int curr_triangle = this.last_triangle;
+        // Varying the first tested edge prevents cycling in degenerate situations.
+        int start_index = 0;
+        int max_step_count = 4 * this.triangle_count + 3;
+        for (int step = 0; step < max_step_count; ++step) {
+            int next_triangle = curr_triangle;
+            for (int j = 0; j < 3; ++j) {
+                int i = (start_index + j) % 3;
+                if (side_of(p_corner, corner(curr_triangle, i + 1), corner(curr_triangle, i + 2)) == Side.ON_THE_RIGHT) {
+                    next_triangle = this.triangle_neighbours[3 * curr_triangle + i];
+                    break;
                 }
             }
-            for (int i = 0; i < 3; ++i) {
-                Edge curr_edge = neighbour_to_split.edge_lines[i];
-                if (curr_edge != containing_edge) {
-                    legalize_edge(p_corner, curr_edge);
-                }
+            if (next_triangle == curr_triangle) {
+                return curr_triangle;
+            }
+            if (next_triangle < 0) {
+                return -1;
+            }
+            curr_triangle = next_triangle;
+            start_index = (start_index + 1) % 3;
+        }
+        // The walk did not terminate, search all triangles.
+        for (int i = 0; i < this.triangle_count; ++i) {
+            if (side_of(p_corner, corner(i, 0), corner(i, 1)) != Side.ON_THE_RIGHT
+                    && side_of(p_corner, corner(i, 1), corner(i, 2)) != Side.ON_THE_RIGHT
+                    && side_of(p_corner, corner(i, 2), corner(i, 0)) != Side.ON_THE_RIGHT) {
+                return i;
             }
         }
-        return true;
+        return -1;
     }
 
     /**
-     * Flips p_edge, if it is no legal edge of the Delaunay Triangulation.
-     * p_corner is the last inserted corner of the triangulation Return true, if
-     * the triangulation was changed.
+     * Splits p_triangle into 3 new triangles at p_corner, which lies in its
+     * interiour.
      */
-    private boolean legalize_edge(Corner p_corner, Edge p_edge) {
-        if (p_edge.is_legal()) {
-            return false;
+    private void split_inner(int p_triangle, int p_corner) {
+        int a = corner(p_triangle, 0);
+        int b = corner(p_triangle, 1);
+        int c = corner(p_triangle, 2);
+        int neighbour_a = this.triangle_neighbours[3 * p_triangle];
+        int neighbour_b = this.triangle_neighbours[3 * p_triangle + 1];
+        int neighbour_c = this.triangle_neighbours[3 * p_triangle + 2];
+        int triangle_1 = p_triangle;
+        int triangle_2 = this.triangle_count;
+        int triangle_3 = this.triangle_count + 1;
+        set_triangle(triangle_1, a, b, p_corner, triangle_2, triangle_3, neighbour_c);
+        new_triangle(b, c, p_corner, triangle_3, triangle_1, neighbour_a);
+        new_triangle(c, a, p_corner, triangle_1, triangle_2, neighbour_b);
+        replace_neighbour(neighbour_a, p_triangle, triangle_2);
+        replace_neighbour(neighbour_b, p_triangle, triangle_3);
+        push_edge(triangle_1, 2);
+        push_edge(triangle_2, 2);
+        push_edge(triangle_3, 2);
+    }
+
+    /**
+     * Splits p_triangle and its neighbour at the edge opposite to the corner
+     * at p_edge_index into 2 new triangles each at p_corner, which lies on
+     * this edge.
+     */
+    private void split_at_edge(int p_triangle, int p_edge_index, int p_corner) {
+        int neighbour = this.triangle_neighbours[3 * p_triangle + p_edge_index];
+        int neighbour_edge_index = neighbour_index(neighbour, p_triangle);
+        int x = corner(p_triangle, p_edge_index);
+        int y = corner(p_triangle, p_edge_index + 1);
+        int z = corner(p_triangle, p_edge_index + 2);
+        int w = corner(neighbour, neighbour_edge_index);
+        int neighbour_y = this.triangle_neighbours[3 * p_triangle + (p_edge_index + 1) % 3];
+        int neighbour_z = this.triangle_neighbours[3 * p_triangle + (p_edge_index + 2) % 3];
+        // The corners of the neighbour in counterclock sense are w, z, y.
+        int other_neighbour_z = this.triangle_neighbours[3 * neighbour + (neighbour_edge_index + 1) % 3];
+        int other_neighbour_y = this.triangle_neighbours[3 * neighbour + (neighbour_edge_index + 2) % 3];
+        int triangle_1 = p_triangle;
+        int triangle_2 = this.triangle_count;
+        int triangle_3 = neighbour;
+        int triangle_4 = this.triangle_count + 1;
+        set_triangle(triangle_1, x, y, p_corner, triangle_4, triangle_2, neighbour_z);
+        new_triangle(x, p_corner, z, triangle_3, neighbour_y, triangle_1);
+        set_triangle(triangle_3, w, z, p_corner, triangle_2, triangle_4, other_neighbour_y);
+        new_triangle(w, p_corner, y, triangle_1, other_neighbour_z, triangle_3);
+        replace_neighbour(neighbour_y, p_triangle, triangle_2);
+        replace_neighbour(other_neighbour_z, neighbour, triangle_4);
+        push_edge(triangle_1, 2);
+        push_edge(triangle_2, 1);
+        push_edge(triangle_3, 2);
+        push_edge(triangle_4, 1);
+    }
+
+    /**
+     * Flips the edges on the legalize stack, which do not fulfil the Delaunay
+     * condition, and pushes the edges, which may become illegal by a flip.
+     */
+    private void legalize() {
+        while (!this.legalize_stack.is_empty()) {
+            int corner_index = this.legalize_stack.pop();
+            int triangle = this.legalize_stack.pop();
+            if (is_legal(triangle, corner_index)) {
+                continue;
+            }
+            // The triangle consists of the new corner p and the edge from a to b,
+            // the neighbour of the corner d opposite to p and the edge from b to a.
+            int neighbour = this.triangle_neighbours[3 * triangle + corner_index];
+            int neighbour_corner_index = neighbour_index(neighbour, triangle);
+            int p = corner(triangle, corner_index);
+            int a = corner(triangle, corner_index + 1);
+            int b = corner(triangle, corner_index + 2);
+            int d = corner(neighbour, neighbour_corner_index);
+            int neighbour_a = this.triangle_neighbours[3 * triangle + (corner_index + 1) % 3];
+            int neighbour_b = this.triangle_neighbours[3 * triangle + (corner_index + 2) % 3];
+            int other_neighbour_b = this.triangle_neighbours[3 * neighbour + (neighbour_corner_index + 1) % 3];
+            int other_neighbour_a = this.triangle_neighbours[3 * neighbour + (neighbour_corner_index + 2) % 3];
+            set_triangle(triangle, p, a, d, other_neighbour_b, neighbour, neighbour_b);
+            set_triangle(neighbour, p, d, b, other_neighbour_a, neighbour_a, triangle);
+            replace_neighbour(other_neighbour_b, neighbour, triangle);
+            replace_neighbour(neighbour_a, triangle, neighbour);
+            push_edge(triangle, 0);
+            push_edge(neighbour, 0);
         }
-        Triangle triangle_to_change;
-        if (p_edge.left_triangle.opposite_corner(p_edge) == p_corner) {
-            triangle_to_change = p_edge.right_triangle;
-        } else if (p_edge.right_triangle.opposite_corner(p_edge) == p_corner) {
-            triangle_to_change = p_edge.left_triangle;
-        } else {
-            System.out.println("PlanarDelaunayTriangulation.legalize_edge: edge lines inconsistant");
+    }
+
+    /**
+     * Returns true, if the edge opposite to the corner at p_corner_index of
+     * p_triangle fulfils the Delaunay condition, that means the opposite
+     * corner of the neighbour triangle is not inside the circumcircle of
+     * p_triangle.
+     */
+    private boolean is_legal(int p_triangle, int p_corner_index) {
+        int neighbour = this.triangle_neighbours[3 * p_triangle + p_corner_index];
+        if (neighbour < 0) {
+            return true;
+        }
+        int opposite_corner = corner(neighbour, neighbour_index(neighbour, p_triangle));
+        return !inside_circle(opposite_corner, corner(p_triangle, 0), corner(p_triangle, 1), corner(p_triangle, 2));
+    }
+
+    /**
+     * Returns true, if p_corner is inside the circle through the corners p_1,
+     * p_2 and p_3 in counterclock sense. The circles through a bounding corner
+     * are huge compared to the distances of the input corners, so that
+     * rounding errors would flip edges between neighbour input corners. For
+     * integer corners the sign of the determinant of the circle test is
+     * therefore first evaluated in double arithmetic together with a bound of
+     * its rounding error, and exactly, if this bound is exceeded.
+     */
+    private boolean inside_circle(int p_corner, int p_1, int p_2, int p_3) {
+        Point corner = this.corner_coors[p_corner];
+        Point point_1 = this.corner_coors[p_1];
+        Point point_2 = this.corner_coors[p_2];
+        Point point_3 = this.corner_coors[p_3];
+        if (!(corner instanceof IntPoint && point_1 instanceof IntPoint
+                && point_2 instanceof IntPoint && point_3 instanceof IntPoint)) {
+            return this.float_corner_coors[p_corner].inside_circle(this.float_corner_coors[p_1],
+                    this.float_corner_coors[p_2], this.float_corner_coors[p_3]);
+        }
+        IntPoint int_corner = (IntPoint) corner;
+        IntPoint int_point_1 = (IntPoint) point_1;
+        IntPoint int_point_2 = (IntPoint) point_2;
+        IntPoint int_point_3 = (IntPoint) point_3;
+        // The coordinate differences are exact as double, their squares not.
+        double dx_1 = (double) int_point_1.x - int_corner.x;
+        double dy_1 = (double) int_point_1.y - int_corner.y;
+        double dx_2 = (double) int_point_2.x - int_corner.x;
+        double dy_2 = (double) int_point_2.y - int_corner.y;
+        double dx_3 = (double) int_point_3.x - int_corner.x;
+        double dy_3 = (double) int_point_3.y - int_corner.y;
+        double lift_1 = dx_1 * dx_1 + dy_1 * dy_1;
+        double lift_2 = dx_2 * dx_2 + dy_2 * dy_2;
+        double lift_3 = dx_3 * dx_3 + dy_3 * dy_3;
+        double determinant = lift_1 * (dx_2 * dy_3 - dx_3 * dy_2)
+                + lift_2 * (dx_3 * dy_1 - dx_1 * dy_3)
+                + lift_3 * (dx_1 * dy_2 - dx_2 * dy_1);
+        double magnitude = lift_1 * (Math.abs(dx_2 * dy_3) + Math.abs(dx_3 * dy_2))
+                + lift_2 * (Math.abs(dx_3 * dy_1) + Math.abs(dx_1 * dy_3))
+                + lift_3 * (Math.abs(dx_1 * dy_2) + Math.abs(dx_2 * dy_1));
+        double error_bound = CIRCLE_TEST_ERROR_BOUND * magnitude;
+        if (determinant > error_bound) {
+            return true;
+        }
+        if (determinant < -error_bound || magnitude == 0) {
             return false;
         }
-        Edge flipped_edge = p_edge.flip();
+        BigInteger big_dx_1 = BigInteger.valueOf((long) int_point_1.x - int_corner.x);
+        BigInteger big_dy_1 = BigInteger.valueOf((long) int_point_1.y - int_corner.y);
+        BigInteger big_dx_2 = BigInteger.valueOf((long) int_point_2.x - int_corner.x);
+        BigInteger big_dy_2 = BigInteger.valueOf((long) int_point_2.y - int_corner.y);
+        BigInteger big_dx_3 = BigInteger.valueOf((long) int_point_3.x - int_corner.x);
+        BigInteger big_dy_3 = BigInteger.valueOf((long) int_point_3.y - int_corner.y);
+        BigInteger big_lift_1 = big_dx_1.multiply(big_dx_1).add(big_dy_1.multiply(big_dy_1));
+        BigInteger big_lift_2 = big_dx_2.multiply(big_dx_2).add(big_dy_2.multiply(big_dy_2));
+        BigInteger big_lift_3 = big_dx_3.multiply(big_dx_3).add(big_dy_3.multiply(big_dy_3));
+        BigInteger exact_determinant
+                = big_lift_1.multiply(big_dx_2.multiply(big_dy_3).subtract(big_dx_3.multiply(big_dy_2)))
+                .add(big_lift_2.multiply(big_dx_3.multiply(big_dy_1).subtract(big_dx_1.multiply(big_dy_3))))
+                .add(big_lift_3.multiply(big_dx_1.multiply(big_dy_2).subtract(big_dx_2.multiply(big_dy_1))));
+        return exact_determinant.signum() > 0;
+    }
+
+    /**
+     * The function returns Side.ON_THE_LEFT, if p_corner is on the left of the
+     * line from p_1 to p_2; Side.ON_THE_RIGHT, if p_corner is on the right of
+     * the line from p_1 to p_2; and Side.COLLINEAR, if p_corner is collinear
+     * with p_1 and p_2.
+     */
+    private Side side_of(int p_corner, int p_1, int p_2) {
+        Point corner = this.corner_coors[p_corner];
+        Point point_1 = this.corner_coors[p_1];
+        Point point_2 = this.corner_coors[p_2];
+        if (corner instanceof IntPoint && point_1 instanceof IntPoint && point_2 instanceof IntPoint) {
+            // The coordinates are smaller than Limits.CRIT_INT, so that the
+            // determinant is calculated exactly as double.
+            IntPoint int_corner = (IntPoint) corner;
+            IntPoint int_point_1 = (IntPoint) point_1;
+            IntPoint int_point_2 = (IntPoint) point_2;
+            double determinant = ((double) int_point_2.x - int_point_1.x) * ((double) int_corner.y - int_point_1.y)
+                    - ((double) int_point_2.y - int_point_1.y) * ((double) int_corner.x - int_point_1.x);
+            if (determinant > 0) {
+                return Side.ON_THE_LEFT;
+            } else if (determinant < 0) {
+                return Side.ON_THE_RIGHT;
+            }
+            return Side.COLLINEAR;
+        }
+        return corner.side_of(point_1, point_2);
+    }
 
-        // Update the search graph.
-        this.search_graph.insert(flipped_edge.left_triangle, p_edge.left_triangle);
-        this.search_graph.insert(flipped_edge.right_triangle, p_edge.left_triangle);
-        this.search_graph.insert(flipped_edge.left_triangle, p_edge.right_triangle);
-        this.search_graph.insert(flipped_edge.right_triangle, p_edge.right_triangle);
+    /**
+     * Returns the corner at position p_index modulo 3 of p_triangle.
+     */
+    private int corner(int p_triangle, int p_index) {
+        return this.triangle_corners[3 * p_triangle + p_index % 3];
+    }
 
-        // Call this function recursively for the other edge lines of triangle_to_change.
+    /**
+     * Returns the position of p_neighbour in the neighbours of p_triangle, or
+     * -1, if p_neighbour is no neighbour of p_triangle.
+     */
+    private int neighbour_index(int p_triangle, int p_neighbour) {
         for (int i = 0; i < 3; ++i) {
-            Edge curr_edge = triangle_to_change.edge_lines[i];
-            if (curr_edge != p_edge) {
-                legalize_edge(p_corner, curr_edge);
+            if (this.triangle_neighbours[3 * p_triangle + i] == p_neighbour) {
+                return i;
             }
         }
-        return true;
+        return -1;
     }
 
     /**
-     * Checks the consistancy of the triangles in this triagulation. Used for
-     * debugging purposes.
+     * Replaces p_old_neighbour by p_new_neighbour in the neighbours of
+     * p_triangle, if p_triangle is not -1.
      */
-    public boolean validate() {
-        boolean result = this.search_graph.anchor.validate();
-        if (result == true) {
-            System.out.println("Delauny triangulation check passed ok");
-        } else {
-            System.out.println("Delauny triangulation check has detected problems");
+    private void replace_neighbour(int p_triangle, int p_old_neighbour, int p_new_neighbour) {
+        if (p_triangle >= 0) {
+            this.triangle_neighbours[3 * p_triangle + neighbour_index(p_triangle, p_old_neighbour)] = p_new_neighbour;
         }
-        return result;
     }
 
     /**
-     * Creates a new unique edge id number.
+     * Sets the corners of p_triangle to p_a, p_b, p_c in counterclock sense and
+     * its neighbours opposite to these corners.
+     */
+    private void set_triangle(int p_triangle, int p_a, int p_b, int p_c,
+            int p_neighbour_a, int p_neighbour_b, int p_neighbour_c) {
+        int offset = 3 * p_triangle;
+        this.triangle_corners[offset] = p_a;
+        this.triangle_corners[offset + 1] = p_b;
+        this.triangle_corners[offset + 2] = p_c;
+        this.triangle_neighbours[offset] = p_neighbour_a;
+        this.triangle_neighbours[offset + 1] = p_neighbour_b;
+        this.triangle_neighbours[offset + 2] = p_neighbour_c;
+        this.last_triangle = p_triangle;
+    }
+
+    private void new_triangle(int p_a, int p_b, int p_c, int p_neighbour_a, int p_neighbour_b, int p_neighbour_c) {
+        set_triangle(this.triangle_count, p_a, p_b, p_c, p_neighbour_a, p_neighbour_b, p_neighbour_c);
+        ++this.triangle_count;
+    }
+
+    /**
+     * Pushes the edge opposite to the corner at p_corner_index of p_triangle
+     * on the legalize stack.
      */
-    private int new_edge_id_no() {
-        ++this.last_edge_id_no;
-        return this.last_edge_id_no;
+    private void push_edge(int p_triangle, int p_corner_index) {
+        this.legalize_stack.add(p_triangle);
+        this.legalize_stack.add(p_corner_index);
+    }
+
+    private ResultEdge new_result_edge(int p_start_corner, int p_end_corner) {
+        return new ResultEdge(this.corner_coors[p_start_corner], this.corner_objects[p_start_corner],
+                this.corner_coors[p_end_corner], this.corner_objects[p_end_corner]);
     }
 
+    /**
+     * Describes a line segment in the result of the Delaunay Triangulation.
+     */
     public static class ResultEdge {
 
         /**
@@ -301,91 +644,6 @@ public class PlanarDelaunayTriangulation {
         }
     }
 
-    private static class Corner {
-
-        public final PlanarDelaunayTriangulation.Storable object;
-        public final Point coor;
-
-        Corner(PlanarDelaunayTriangulation.Storable p_object, Point p_coor) {
-            object = p_object;
-            coor = p_coor;
-        }
-
-        /**
-         * The function returns Side.ON_THE_LEFT, if this corner is on the left
-         * of the line from p_1 to p_2; Side.ON_THE_RIGHT, if this corner is on
-         * the right of the line from p_1 to p_2; and Side.COLLINEAR, if this
-         * corner is collinear with p_1 and p_2.
-         */
-        public Side side_of(Corner p_1, Corner p_2) {
-            return this.coor.side_of(p_1.coor, p_2.coor);
-        }
-    }
-
-    private static class TriangleGraph {
-
-        private Triangle anchor = null;
-
-        TriangleGraph(Triangle p_triangle) {
-            if (p_triangle != null) {
-                insert(p_triangle, null);
-            } else {
-                this.anchor = null;
-            }
-        }
-
-        private void insert(Triangle p_triangle, Triangle p_parent) {
-            p_triangle.initialize_is_on_the_left_of_edge_line_array();
-            if (p_parent == null) {
-                anchor = p_triangle;
-            } else {
-                p_parent.children.add(p_triangle);
-            }
-        }
-
-        /**
-         * Search for the leaf triangle containing p_corner. It will not be
-         * unique, if p_corner lies on a triangle edge.
-         */
-        public Triangle position_locate(Corner p_corner) {
-            if (this.anchor == null) {
-                return null;
-            }
-            if (this.anchor.children.isEmpty()) {
-                return this.anchor;
-            }
-            for (Triangle curr_child : this.anchor.children) {
-                Triangle result = position_locate_reku(p_corner, curr_child);
-                if (result != null) {
-                    return result;
-                }
-            }
-            System.out.println("TriangleGraph.position_locate: containing triangle not found");
-            return null;
-        }
-
-        /**
-         * Recursive part of position_locate.
-         */
-        private Triangle position_locate_reku(Corner p_corner, Triangle p_triangle) {
-            if (!p_triangle.contains(p_corner)) {
-                return null;
-            }
-
-            if (p_triangle.is_leaf()) {
-                return p_triangle;
-            }
-            for (Triangle curr_child : p_triangle.children) {
-                Triangle result = position_locate_reku(p_corner, curr_child);
-                if (result != null) {
-                    return result;
-                }
-            }
-            System.out.println("TriangleGraph.position_locate_reku: containing triangle not found");
-            return null;
-        }
-    }
-
     /**
      * Interface with funktionality required for objects to be used in a planar
      * triangulation.
@@ -399,596 +657,35 @@ public class PlanarDelaunayTriangulation {
         net.freerouting.freeroute.geometry.planar.Point[] get_triangulation_corners();
     }
 
-    private class Edge implements Comparable<Edge> {
-
-        public final Corner start_corner;
-        public final Corner end_corner;
-        /**
-         * The triangle on the left side of this edge.
-         */
-        private Triangle left_triangle = null;
-        /**
-         * The triangle on the right side of this edge.
-         */
-        private Triangle right_triangle = null;
-        /**
-         * The unique id number of this triangle.
-         */
-        private final int id_no;
-
-        Edge(Corner p_start_corner, Corner p_end_corner) {
-            start_corner = p_start_corner;
-            end_corner = p_end_corner;
-            id_no = new_edge_id_no();
-        }
-
-        @Override
-        public int compareTo(Edge p_other) {
-            return (this.id_no - p_other.id_no);
-        }
-
-        public void set_left_triangle(Triangle p_triangle) {
-            left_triangle = p_triangle;
-        }
-
-        public Triangle get_left_triangle() {
-            return left_triangle;
-        }
-
-        public void set_right_triangle(Triangle p_triangle) {
-            right_triangle = p_triangle;
-        }
-
-        public Triangle get_right_triangle() {
-            return right_triangle;
-        }
-
-        /**
-         * Returns the common corner of this edge and p_other, or null, if no
-         * commen corner exists.
-         */
-        public Corner common_corner(Edge p_other) {
-            Corner result = null;
-            if (p_other.start_corner.equals(this.start_corner) || p_other.end_corner.equals(this.start_corner)) {
-                result = this.start_corner;
-            } else if (p_other.start_corner.equals(this.end_corner) || p_other.end_corner.equals(this.end_corner)) {
-                result = this.end_corner;
-            }
-            return result;
-        }
-
-        /**
-         * Returns the neighbour triangle of this edge, which is different from
-         * p_triangle. If p_triangle is not a neighbour of this edge, null is
-         * returned.
-         */
-        public Triangle other_neighbour(Triangle p_triangle) {
-            Triangle result;
-            if (p_triangle == this.left_triangle) {
-                result = this.right_triangle;
-            } else if (p_triangle == this.right_triangle) {
-                result = this.left_triangle;
-            } else {
-                System.out.println("Edge.other_neighbour: inconsistant neigbour triangle");
-                result = null;
-            }
-            return result;
-        }
-
-        /**
-         * Returns true, if this is a legal edge of the Delaunay Triangulation.
-         */
-        public boolean is_legal() {
-            if (this.left_triangle == null || this.right_triangle == null) {
-                return true;
-            }
-            Corner left_opposite_corner = this.left_triangle.opposite_corner(this);
-            Corner right_opposite_corner = this.right_triangle.opposite_corner(this);
-
-            boolean inside_circle = right_opposite_corner.coor.to_float().inside_circle(
-                    this.start_corner.coor.to_float(), left_opposite_corner.coor.to_float(),
-                    this.end_corner.coor.to_float());
-            return !inside_circle;
-        }
-
-        /**
-         * Flips this edge line to the edge line between the opposite corners of
-         * the adjacent triangles. Returns the new constructed Edge.
-         */
-        public Edge flip() {
-            // Create the flipped edge, so that the start corner of this edge is on the left
-            // and the end corner of this edge on the right.
-            Edge flipped_edge
-                    = new Edge(this.right_triangle.opposite_corner(this), this.left_triangle.opposite_corner(this));
-
-            Triangle first_parent = this.left_triangle;
-
-            // Calculate the index of this edge line in the left and right adjacent triangles.
-            int left_index = -1;
-            int right_index = -1;
-            for (int i = 0; i < 3; ++i) {
-                if (this.left_triangle.edge_lines[i] == this) {
-                    left_index = i;
-                }
-                if (this.right_triangle.edge_lines[i] == this) {
-                    right_index = i;
-                }
-            }
-            if (left_index < 0 || right_index < 0) {
-                System.out.println("Edge.flip: edge line inconsistant");
-                return null;
-            }
-            Edge left_prev_edge = this.left_triangle.edge_lines[(left_index + 2) % 3];
-            Edge left_next_edge = this.left_triangle.edge_lines[(left_index + 1) % 3];
-            Edge right_prev_edge = this.right_triangle.edge_lines[(right_index + 2) % 3];
-            Edge right_next_edge = this.right_triangle.edge_lines[(right_index + 1) % 3];
-
-            // Create the left triangle of the flipped edge.
-            Edge[] curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = flipped_edge;
-            curr_edge_lines[1] = left_prev_edge;
-            curr_edge_lines[2] = right_next_edge;
-            Triangle new_left_triangle = new Triangle(curr_edge_lines, first_parent);
-            flipped_edge.left_triangle = new_left_triangle;
-            if (left_prev_edge.left_triangle == this.left_triangle) {
-                left_prev_edge.left_triangle = new_left_triangle;
-            } else {
-                left_prev_edge.right_triangle = new_left_triangle;
-            }
-            if (right_next_edge.left_triangle == this.right_triangle) {
-                right_next_edge.left_triangle = new_left_triangle;
-            } else {
-                right_next_edge.right_triangle = new_left_triangle;
-            }
-
-            // Create the right triangle of the flipped edge.
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = flipped_edge;
-            curr_edge_lines[1] = right_prev_edge;
-            curr_edge_lines[2] = left_next_edge;
-            Triangle new_right_triangle = new Triangle(curr_edge_lines, first_parent);
-            flipped_edge.right_triangle = new_right_triangle;
-            if (right_prev_edge.left_triangle == this.right_triangle) {
-                right_prev_edge.left_triangle = new_right_triangle;
-            } else {
-                right_prev_edge.right_triangle = new_right_triangle;
-            }
-            if (left_next_edge.left_triangle == this.left_triangle) {
-                left_next_edge.left_triangle = new_right_triangle;
-            } else {
-                left_next_edge.right_triangle = new_right_triangle;
-            }
-
-            return flipped_edge;
-        }
-
-        /**
-         * Checks the consistancy of this edge in its database. Used for
-         * debugging purposes.
-         */
-        public boolean validate() {
-            boolean result = true;
-            if (this.left_triangle == null) {
-                if (this.start_corner.object != null || this.end_corner.object != null) {
-                    System.out.println("Edge.validate: left triangle may be null only for bounding edges");
-                    result = false;
-                }
-            } else {
-                // check if the left triangle contains this edge
-                boolean found = false;
-                for (int i = 0; i < 3; ++i) {
-                    if (left_triangle.edge_lines[i] == this) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    System.out.println("Edge.validate: left triangle does not contain this edge");
-                    result = false;
-                }
-            }
-            if (this.right_triangle == null) {
-                if (this.start_corner.object != null || this.end_corner.object != null) {
-                    System.out.println("Edge.validate: right triangle may be null only for bounding edges");
-                    result = false;
-                }
-            } else {
-                // check if the left triangle contains this edge
-                boolean found = false;
-                for (int i = 0; i < 3; ++i) {
-                    if (right_triangle.edge_lines[i] == this) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    System.out.println("Edge.validate: right triangle does not contain this edge");
-                    result = false;
-                }
-            }
-
-            return result;
-        }
-    }
-
-    private class Triangle {
-
-        /**
-         * The 3 edge lines of this triangle sorted in counter clock sense
-         * around the border.
-         */
-        private final Edge[] edge_lines;
-        /**
-         * Indicates, if this triangle is on the left of the i-th edge line for
-         * i = 0 to 2. Must be set, if this triagngle is an inner node because
-         * left_triangle and right_triangle of edge lines point only to leaf
-         * nodes.
-         */
-        private boolean[] is_on_the_left_of_edge_line = null;
-        /**
-         * The children of this triangle when used as a node in the triangle
-         * search graph.
-         */
-        private Collection<Triangle> children;
-        /**
-         * Triangles resulting from an edge flip have 2 parents, all other
-         * triangles have 1 parent. first parent is used when traversing the
-         * graph sequentially to avoid visiting children nodes more than once.
-         */
-        private final Triangle first_parent;
-
-        Triangle(Edge[] p_edge_lines, Triangle p_first_parent) {
-            this.edge_lines = p_edge_lines;
-            // create an empty list for the children.
-            this.children = new LinkedList<>();
-            this.first_parent = p_first_parent;
-        }
-
-        /**
-         * Returns true, if this triangle node is a leaf, and false, if it is an
-         * inner node.
-         */
-        public boolean is_leaf() {
-            return this.children.isEmpty();
-        }
-
-        /**
-         * Gets the corner with index p_no.
-         */
-        public Corner get_corner(int p_no) {
-            if (p_no < 0 || p_no >= 3) {
-                System.out.println("Triangle.get_corner: p_no out of range");
-                return null;
-            }
-            Edge curr_edge = edge_lines[p_no];
-            Corner result;
-            if (curr_edge.left_triangle == this) {
-                result = curr_edge.start_corner;
-            } else if (curr_edge.right_triangle == this) {
-                result = curr_edge.end_corner;
-            } else {
-                System.out.println("Triangle.get_corner: inconsistant edge lines");
-                result = null;
-            }
-            return result;
-        }
+    /**
+     * Growing array of int values used as list and as stack.
+     */
+    private static class IntList {
 
-        /**
-         * Calculates the opposite corner of this triangle to p_edge_line.
-         * Returns null, if p_edge_line is nor an edge line of this triangle.
-         */
-        public Corner opposite_corner(Edge p_edge_line) {
-            int edge_line_no = -1;
-            for (int i = 0; i < 3; ++i) {
-                if (this.edge_lines[i] == p_edge_line) {
-                    edge_line_no = i;
-                    break;
-                }
-            }
-            if (edge_line_no < 0) {
-                System.out.println("Triangle.opposite_corner: p_edge_line not found");
-                return null;
-            }
-            Edge next_edge = this.edge_lines[(edge_line_no + 1) % 3];
-            Corner result;
-            if (next_edge.left_triangle == this) {
-                result = next_edge.end_corner;
-            } else {
-                result = next_edge.start_corner;
-            }
-            return result;
-        }
+        private int[] values = new int[16];
+        private int size = 0;
 
-        /**
-         * Checks if p_point is inside or on the border of this triangle.
-         */
-        public boolean contains(Corner p_corner) {
-            if (this.is_on_the_left_of_edge_line == null) {
-                System.out.println("Triangle.contains: array is_on_the_left_of_edge_line not initialized");
-                return false;
+        void add(int p_value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
             }
-            for (int i = 0; i < 3; ++i) {
-                Edge curr_edge = this.edge_lines[i];
-                Side curr_side = p_corner.side_of(curr_edge.start_corner, curr_edge.end_corner);
-                if (this.is_on_the_left_of_edge_line[i]) // checking curr_edge.left_triangle == this instead will not work, if this triangle is an inner node.
-                {
-                    if (curr_side == Side.ON_THE_RIGHT) {
-                        return false;
-                    }
-                } else if (curr_side == Side.ON_THE_LEFT) {
-                    return false;
-                }
-            }
-            return true;
+            this.values[this.size++] = p_value;
         }
 
-        /**
-         * Puts the edges of all leafs below this node into the list
-         * p_result_edges
-         */
-        public void get_leaf_edges(Set<Edge> p_result_edges) {
-            if (this.is_leaf()) {
-                for (int i = 0; i < 3; ++i) {
-                    Edge curr_edge = this.edge_lines[i];
-                    if (curr_edge.start_corner.object != null && curr_edge.end_corner.object != null) {
-                        // Skip edges containing a bounding corner.
-                        p_result_edges.add(curr_edge);
-                    }
-                }
-
-            } else {
-                for (Triangle curr_child : this.children) {
-                    if (curr_child.first_parent == this) // to prevent traversing nodes more than once
-                    {
-                        curr_child.get_leaf_edges(p_result_edges);
-                    }
-                }
-            }
+        int get(int p_index) {
+            return this.values[p_index];
         }
 
-        /**
-         * Split this triangle into 3 new triangles by adding edges from the
-         * corners of this triangle to p_corner, p_corner has to be located in
-         * the interiour of this triangle.
-         */
-        public Triangle[] split_at_inner_point(Corner p_corner) {
-            Triangle[] new_triangles = new Triangle[3];
-
-            // construct the 3 new triangles.
-            Edge[] curr_edge_lines = new Edge[3];
-
-            curr_edge_lines[0] = this.edge_lines[0];
-            curr_edge_lines[1] = new Edge(this.get_corner(1), p_corner);
-            curr_edge_lines[2] = new Edge(p_corner, this.get_corner(0));
-            new_triangles[0] = new Triangle(curr_edge_lines, this);
-
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = this.edge_lines[1];
-            curr_edge_lines[1] = new Edge(this.get_corner(2), p_corner);
-            curr_edge_lines[2] = new_triangles[0].edge_lines[1];
-            new_triangles[1] = new Triangle(curr_edge_lines, this);
-
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = this.edge_lines[2];
-            curr_edge_lines[1] = new_triangles[0].edge_lines[2];
-            curr_edge_lines[2] = new_triangles[1].edge_lines[1];
-            new_triangles[2] = new Triangle(curr_edge_lines, this);
-
-            // Set the new neigbour triangles of the edge lines.
-            for (int i = 0; i < 3; ++i) {
-                Edge curr_edge = new_triangles[i].edge_lines[0];
-                if (curr_edge.get_left_triangle() == this) {
-                    curr_edge.set_left_triangle(new_triangles[i]);
-                } else {
-                    curr_edge.set_right_triangle(new_triangles[i]);
-                }
-                // The other neighbour triangle remains valid.
-            }
-
-            Edge curr_edge = new_triangles[0].edge_lines[1];
-            curr_edge.set_left_triangle(new_triangles[0]);
-            curr_edge.set_right_triangle(new_triangles[1]);
-
-            curr_edge = new_triangles[1].edge_lines[1];
-            curr_edge.set_left_triangle(new_triangles[1]);
-            curr_edge.set_right_triangle(new_triangles[2]);
-
-            curr_edge = new_triangles[2].edge_lines[1];
-            curr_edge.set_left_triangle(new_triangles[0]);
-            curr_edge.set_right_triangle(new_triangles[2]);
-            return new_triangles;
+        int pop() {
+            return this.values[--this.size];
         }
 
-        /**
-         * Split this triangle and p_neighbour_to_split into 4 new triangles by
-         * adding edges from the corners of the triangles to p_corner. p_corner
-         * is assumed to be loacated on the common edge line of this triangle
-         * and p_neigbour_to_split. If that is not true, the function returns
-         * null. The first 2 result triangles are from splitting this triangle,
-         * and the last 2 result triangles are from splitting
-         * p_neighbour_to_split.
-         */
-        public Triangle[] split_at_border_point(Corner p_corner, Triangle p_neighbour_to_split) {
-            Triangle[] new_triangles = new Triangle[4];
-            // look for the triangle edge of this and the neighbour triangle containing p_point;
-            int this_touching_edge_no = -1;
-            int neigbbour_touching_edge_no = -1;
-            Edge touching_edge = null;
-            Edge other_touching_edge = null;
-            for (int i = 0; i < 3; ++i) {
-                Edge curr_edge = this.edge_lines[i];
-                if (p_corner.side_of(curr_edge.start_corner, curr_edge.end_corner) == Side.COLLINEAR) {
-                    this_touching_edge_no = i;
-                    touching_edge = curr_edge;
-                }
-                curr_edge = p_neighbour_to_split.edge_lines[i];
-                if (p_corner.side_of(curr_edge.start_corner, curr_edge.end_corner) == Side.COLLINEAR) {
-                    neigbbour_touching_edge_no = i;
-                    other_touching_edge = curr_edge;
-                }
-            }
-            if (this_touching_edge_no < 0 || neigbbour_touching_edge_no < 0) {
-                System.out.println("Triangle.split_at_border_point: touching edge not found");
-                return null;
-            }
-            if (touching_edge != other_touching_edge) {
-                System.out.println("Triangle.split_at_border_point: edges inconsistent");
-                return null;
-            }
-
-            Edge first_common_new_edge;
-            Edge second_common_new_edge;
-            // Construct the new edge lines that 2 split triangles of this triangle
-            // will be on the left side of the new common touching edges.
-            if (this == touching_edge.left_triangle) {
-                first_common_new_edge = new Edge(touching_edge.start_corner, p_corner);
-                second_common_new_edge = new Edge(p_corner, touching_edge.end_corner);
-            } else {
-                first_common_new_edge = new Edge(touching_edge.end_corner, p_corner);
-                second_common_new_edge = new Edge(p_corner, touching_edge.start_corner);
-            }
-
-            // Construct the first split triangle of this triangle.
-            Edge prev_edge = this.edge_lines[(this_touching_edge_no + 2) % 3];
-            Edge this_splitting_edge;
-            // construct the splitting edge line of this triangle, so that the first split
-            // triangle lies on the left side, and the second split triangle on the right side.
-            if (this == prev_edge.left_triangle) {
-                this_splitting_edge = new Edge(p_corner, prev_edge.start_corner);
-            } else {
-                this_splitting_edge = new Edge(p_corner, prev_edge.end_corner);
-            }
-            Edge[] curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = prev_edge;
-            curr_edge_lines[1] = first_common_new_edge;
-            curr_edge_lines[2] = this_splitting_edge;
-            new_triangles[0] = new Triangle(curr_edge_lines, this);
-            if (this == prev_edge.left_triangle) {
-                prev_edge.set_left_triangle(new_triangles[0]);
-            } else {
-                prev_edge.set_right_triangle(new_triangles[0]);
-            }
-            first_common_new_edge.set_left_triangle(new_triangles[0]);
-            this_splitting_edge.set_left_triangle(new_triangles[0]);
-
-            // Construct the second split triangle of this triangle.
-            Edge next_edge = this.edge_lines[(this_touching_edge_no + 1) % 3];
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = this_splitting_edge;
-            curr_edge_lines[1] = second_common_new_edge;
-            curr_edge_lines[2] = next_edge;
-            new_triangles[1] = new Triangle(curr_edge_lines, this);
-            this_splitting_edge.set_right_triangle(new_triangles[1]);
-            second_common_new_edge.set_left_triangle(new_triangles[1]);
-            if (this == next_edge.left_triangle) {
-                next_edge.set_left_triangle(new_triangles[1]);
-            } else {
-                next_edge.set_right_triangle(new_triangles[1]);
-            }
-
-            // construct the first split triangle of p_neighbour_to_split
-            next_edge = p_neighbour_to_split.edge_lines[(neigbbour_touching_edge_no + 1) % 3];
-            Edge neighbour_splitting_edge;
-            // construct the splitting edge line of p_neighbour_to_split, so that the first split
-            // triangle lies on the left side, and the second split triangle on the right side.
-            if (p_neighbour_to_split == next_edge.left_triangle) {
-                neighbour_splitting_edge = new Edge(next_edge.end_corner, p_corner);
-            } else {
-                neighbour_splitting_edge = new Edge(next_edge.start_corner, p_corner);
-            }
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = neighbour_splitting_edge;
-            curr_edge_lines[1] = first_common_new_edge;
-            curr_edge_lines[2] = next_edge;
-            new_triangles[2] = new Triangle(curr_edge_lines, p_neighbour_to_split);
-            neighbour_splitting_edge.set_left_triangle(new_triangles[2]);
-            first_common_new_edge.set_right_triangle(new_triangles[2]);
-            if (p_neighbour_to_split == next_edge.left_triangle) {
-                next_edge.set_left_triangle(new_triangles[2]);
-            } else {
-                next_edge.set_right_triangle(new_triangles[2]);
-
-            }
-
-            // construct the second split triangle of p_neighbour_to_split
-            prev_edge = p_neighbour_to_split.edge_lines[(neigbbour_touching_edge_no + 2) % 3];
-            curr_edge_lines = new Edge[3];
-            curr_edge_lines[0] = prev_edge;
-            curr_edge_lines[1] = second_common_new_edge;
-            curr_edge_lines[2] = neighbour_splitting_edge;
-            new_triangles[3] = new Triangle(curr_edge_lines, p_neighbour_to_split);
-            if (p_neighbour_to_split == prev_edge.left_triangle) {
-                prev_edge.set_left_triangle(new_triangles[3]);
-            } else {
-                prev_edge.set_right_triangle(new_triangles[3]);
-
-            }
-            second_common_new_edge.set_right_triangle(new_triangles[3]);
-            neighbour_splitting_edge.set_right_triangle(new_triangles[3]);
-
-            return new_triangles;
+        int size() {
+            return this.size;
         }
 
-        /**
-         * Checks the consistancy of this triangle and its children. Used for
-         * debugging purposes.
-         */
-        public boolean validate() {
-            boolean result = true;
-            if (this.is_leaf()) {
-                Edge prev_edge = this.edge_lines[2];
-                for (int i = 0; i < 3; ++i) {
-                    Edge curr_edge = this.edge_lines[i];
-                    if (!curr_edge.validate()) {
-                        result = false;
-                    }
-                    // Check, if the ens corner of the previous line equals to the start corner of this line.
-                    Corner prev_end_corner;
-                    if (prev_edge.left_triangle == this) {
-                        prev_end_corner = prev_edge.end_corner;
-                    } else {
-                        prev_end_corner = prev_edge.start_corner;
-                    }
-                    Corner curr_start_corner;
-                    if (curr_edge.left_triangle == this) {
-                        curr_start_corner = curr_edge.start_corner;
-                    } else if (curr_edge.right_triangle == this) {
-                        curr_start_corner = curr_edge.end_corner;
-                    } else {
-                        System.out.println("Triangle.validate: edge inconsistent");
-                        return false;
-                    }
-                    if (curr_start_corner != prev_end_corner) {
-                        System.out.println("Triangle.validate: corner inconsistent");
-                        result = false;
-                    }
-                    prev_edge = curr_edge;
-                }
-            } else {
-                for (Triangle curr_child : this.children) {
-                    if (curr_child.first_parent == this) // to avoid traversing nodes more than once.
-                    {
-                        curr_child.validate();
-                    }
-                }
-            }
-            return result;
-        }
-
-        /**
-         * Must be done as long as this triangle node is a leaf and after for
-         * all its edge lines the left_triangle or the right_triangle reference
-         * is set to this triangle.
-         */
-        private void initialize_is_on_the_left_of_edge_line_array() {
-            if (this.is_on_the_left_of_edge_line != null) {
-                return; // already initialized
-            }
-            this.is_on_the_left_of_edge_line = new boolean[3];
-            for (int i = 0; i < 3; ++i) {
-                this.is_on_the_left_of_edge_line[i] = (this.edge_lines[i].left_triangle == this);
-            }
+        boolean is_empty() {
+            return this.size == 0;
         }
     }
-
 }
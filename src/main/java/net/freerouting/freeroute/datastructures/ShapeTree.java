@@ -19,6 +19,7 @@
  */
 package net.freerouting.freeroute.datastructures;
 
+import java.util.Arrays;
 import net.freerouting.freeroute.geometry.planar.RegularTileShape;
 import net.freerouting.freeroute.geometry.planar.Shape;
 import net.freerouting.freeroute.geometry.planar.ShapeBoundingDirections;
@@ -39,9 +40,12 @@ public abstract class ShapeTree {
      */
     final protected ShapeBoundingDirections bounding_directions;
     /**
-     * Root node - initially null
+     * The root nodes of the partitions of the tree - initially null. Each leaf
+     * is stored in the partition returned by partition_no, so that queries
+     * restricted to a partition do not visit the nodes of the other
+     * partitions.
      */
-    protected TreeNode root;
+    protected final TreeNode[] roots;
     /**
      * The number of entries stored in the tree
      */
@@ -51,11 +55,40 @@ public abstract class ShapeTree {
      * Creates a new instance of ShapeTree
      */
     ShapeTree(ShapeBoundingDirections p_directions) {
+        this(p_directions, 1);
+    }
+
+    /**
+     * Creates a new instance of ShapeTree with p_partition_count partitions.
+     */
+    ShapeTree(ShapeBoundingDirections p_directions, int p_partition_count) {
         bounding_directions = p_directions;
-        root = null;
+        roots = new TreeNode[Math.max(p_partition_count, 1)];
         leaf_count = 0;
     }
 
+    /**
+     * Returns the number of partitions of this tree.
+     */
+    public int partition_count() {
+        return roots.length;
+    }
+
+    /**
+     * Returns true, if no shapes are stored in this tree.
+     */
+    public boolean is_empty() {
+        return leaf_count == 0;
+    }
+
+    /**
+     * Returns the number of the partition, in which the p_index-th shape of
+     * p_object is stored. Overwritten in trees with more than 1 partition.
+     */
+    protected int partition_no(ShapeTree.Storable p_object, int p_index) {
+        return 0;
+    }
+
     /**
      * Inserts all shapes of p_obj into the tree
      */
@@ -75,6 +108,18 @@ public abstract class ShapeTree {
      * Insert a shape - creates a new node with a bounding shape
      */
     protected Leaf insert(ShapeTree.Storable p_object, int p_index) {
+        Leaf new_leaf = create_leaf(p_object, p_index);
+        if (new_leaf != null) {
+            this.insert(new_leaf);
+        }
+        return new_leaf;
+    }
+
+    /**
+     * Creates a leaf for the p_index-th shape of p_object without inserting it
+     * into the tree.
+     */
+    protected Leaf create_leaf(ShapeTree.Storable p_object, int p_index) {
         Shape object_shape = p_object.get_tree_shape(this, p_index);
         if (object_shape == null) {
             return null;
@@ -85,10 +130,8 @@ public abstract class ShapeTree {
             System.out.println("ShapeTree.insert: bounding shape of TreeObject is null");
             return null;
         }
-        // Construct a new KdLeaf and set it up
-        Leaf new_leaf = new Leaf(p_object, p_index, null, bounding_shape);
-        this.insert(new_leaf);
-        return new_leaf;
+        int partition_no = Math.max(Math.min(partition_no(p_object, p_index), roots.length - 1), 0);
+        return new Leaf(p_object, p_index, null, bounding_shape, partition_no);
     }
 
     abstract void insert(Leaf p_leaf);
@@ -141,6 +184,45 @@ public abstract class ShapeTree {
         }
     }
 
+    /**
+     * Array based stack of tree nodes for traversing the tree without
+     * allocating memory once the stack has grown to the depth of the tree.
+     */
+    protected static final class NodeStack {
+
+        private TreeNode[] node_arr = new TreeNode[64];
+        private int size = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public void push(TreeNode p_node) {
+            if (size == node_arr.length) {
+                node_arr = Arrays.copyOf(node_arr, 2 * size);
+            }
+            node_arr[size++] = p_node;
+        }
+
+        /**
+         * Removes and returns the top node. The stack must not be empty.
+         */
+        public TreeNode pop() {
+            TreeNode result = node_arr[--size];
+            node_arr[size] = null;
+            return result;
+        }
+
+        /**
+         * Removes all nodes above the first p_size nodes.
+         */
+        public void truncate(int p_size) {
+            while (size > p_size) {
+                node_arr[--size] = null;
+            }
+        }
+    }
+
     public static class Leaf extends TreeNode implements Comparable<Leaf> {
 
         /**
@@ -151,12 +233,18 @@ public abstract class ShapeTree {
          * index of the shape in the object
          */
         public int shape_index_in_object;
+        /**
+         * The partition of the tree containing this leaf
+         */
+        final int partition_no;
 
-        private Leaf(ShapeTree.Storable p_object, int p_index, InnerNode p_parent, RegularTileShape p_bounding_shape) {
+        private Leaf(ShapeTree.Storable p_object, int p_index, InnerNode p_parent, RegularTileShape p_bounding_shape,
+                int p_partition_no) {
             bounding_shape = p_bounding_shape;
             parent = p_parent;
             object = p_object;
             shape_index_in_object = p_index;
+            partition_no = p_partition_no;
         }
 
         @Override
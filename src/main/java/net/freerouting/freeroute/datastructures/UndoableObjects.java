@@ -85,6 +85,19 @@ public class UndoableObjects implements java.io.Serializable {
         return null;
     }
 
+    /**
+     * Returns the object in this list, which is equal to p_object in the sense
+     * of compareTo, or null, if no such object exists. Can be used to find the
+     * object corresponding to a copy in another list.
+     */
+    public UndoableObjects.Storable find(UndoableObjects.Storable p_object) {
+        UndoableObjectNode curr_node = objects.get(p_object);
+        if (curr_node == null || curr_node.level > this.stack_level) {
+            return null;
+        }
+        return curr_node.object;
+    }
+
     /**
      * Adds p_object to the UndoableObjectsList.
      */
@@ -20,9 +20,8 @@
 package net.freerouting.freeroute.designformats.specctra;
 
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -38,6 +37,12 @@ class NetList {
      */
     private final Map<Net.Id, Net> nets = new TreeMap<>();
 
+    /**
+     * The nets containing each pin. Calculated on demand and reset, when a
+     * net or the pins of a net are changed.
+     */
+    private Map<Net.Pin, Collection<Net>> pin_nets = null;
+
     /**
      * Returns true, if the netlist contains a net with the input name.
      */
@@ -57,10 +62,19 @@ class NetList {
         } else {
             result = new Net(p_net_id);
             nets.put(p_net_id, result);
+            pin_nets = null;
         }
         return result;
     }
 
+    /**
+     * Sets the pins of p_net, which must be contained in this net list.
+     */
+    void set_pins(Net p_net, Collection<Net.Pin> p_pin_list) {
+        p_net.set_pins(p_pin_list);
+        pin_nets = null;
+    }
+
     /**
      * Returns the net with the input name, or null, if the netlist does not
      * contain a net with the input name.
@@ -74,17 +88,23 @@ class NetList {
      * Returns all nets in this net list containing the input pin.
      */
     Collection<Net> get_nets(String p_component_name, String p_pin_name) {
-        Collection<Net> result = new java.util.LinkedList<>();
-        Net.Pin search_pin = new Net.Pin(p_component_name, p_pin_name);
-        Collection<Net> net_list = nets.values();
-        Iterator<Net> it = net_list.iterator();
-        while (it.hasNext()) {
-            Net curr_net = it.next();
-            Set<Net.Pin> net_pins = curr_net.get_pins();
-            if (net_pins != null && net_pins.contains(search_pin)) {
-                result.add(curr_net);
+        if (pin_nets == null) {
+            // Called for each pin of each component, so the nets are not searched one by one.
+            pin_nets = new TreeMap<>();
+            for (Net curr_net : nets.values()) {
+                Collection<Net.Pin> net_pins = curr_net.get_pins();
+                if (net_pins == null) {
+                    continue;
+                }
+                for (Net.Pin curr_pin : net_pins) {
+                    pin_nets.computeIfAbsent(curr_pin, k -> new LinkedList<>()).add(curr_net);
+                }
             }
         }
-        return result;
+        Collection<Net> found_nets = pin_nets.get(new Net.Pin(p_component_name, p_pin_name));
+        if (found_nets == null) {
+            return new LinkedList<>();
+        }
+        return new LinkedList<>(found_nets);
     }
 }
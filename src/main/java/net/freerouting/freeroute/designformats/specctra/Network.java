@@ -1166,7 +1166,7 @@ class Network extends ScopeKeyword {
             if (curr_subnet == null) {
                 throw new ReadScopeException("Network.read_net_scope: net not found in netlist");
             }
-            curr_subnet.set_pins(curr_pin_list);
+            p_net_list.set_pins(curr_subnet, curr_pin_list);
             if (!net_rules.isEmpty()) {
                 // Evaluate the net rules.
                 net.freerouting.freeroute.rules.Net board_net = p_board.rules.nets.get(curr_subnet.id.name, curr_subnet.id.subnet_number);
@@ -0,0 +1,724 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.designformats.specctra;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scanner for Specctra dsn-files working directly on the UTF-8 encoded bytes
+ * of the file, which is read into memory at once. Returns the same tokens in
+ * the same states as the scanner generated by jflex from
+ * SpecctraFileDescription.flex, but does not decode the whole file into
+ * characters. Identifiers and strings are interned, so that a name occuring
+ * many times in the file is created only once, and numbers are converted
+ * without creating intermediate strings.
+ *
+ * @author agent
+ */
+class SpecctraByteScanner implements Scanner {
+
+    private static final int YYINITIAL = SpecctraFileScanner.YYINITIAL;
+    private static final int STRING1 = SpecctraFileScanner.STRING1;
+    private static final int STRING2 = SpecctraFileScanner.STRING2;
+    private static final int NAME = SpecctraFileScanner.NAME;
+    private static final int LAYER_NAME = SpecctraFileScanner.LAYER_NAME;
+    private static final int COMPONENT_NAME = SpecctraFileScanner.COMPONENT_NAME;
+    private static final int SPEC_CHAR = SpecctraFileScanner.SPEC_CHAR;
+    private static final int IGNORE_QUOTE = SpecctraFileScanner.IGNORE_QUOTE;
+
+    /* Character classes of the ascii characters as in SpecctraFileDescription.flex */
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SPEC_CHAR_1 = 4;
+    private static final byte MINUS = 8;
+    private static final byte PLUS = 16;
+    private static final byte QUOTE = 32;
+    private static final byte WHITE_SPACE = 64;
+
+    /* The characters allowed at the start and inside the identifiers of the different states */
+    private static final int IDENTIFIER_START = LETTER | SPEC_CHAR_1;
+    private static final int NAME_START = LETTER | DIGIT | SPEC_CHAR_1 | MINUS | PLUS;
+    private static final int COMPONENT_START = LETTER | DIGIT | SPEC_CHAR_1 | PLUS;
+    private static final int IDENTIFIER_PART = NAME_START | QUOTE;
+    private static final int COMPONENT_PART = COMPONENT_START | QUOTE;
+    private static final int SPEC_CHAR_2 = SPEC_CHAR_1 | MINUS | PLUS;
+
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+        for (int c = 'a'; c <= 'z'; ++c) {
+            CHAR_CLASS[c] = LETTER;
+            CHAR_CLASS[c - 'a' + 'A'] = LETTER;
+        }
+        for (int c = '0'; c <= '9'; ++c) {
+            CHAR_CLASS[c] = DIGIT;
+        }
+        for (char c : "_./\\:#$&><,;=@[]~*?!%^".toCharArray()) {
+            CHAR_CLASS[c] = SPEC_CHAR_1;
+        }
+        CHAR_CLASS['-'] = MINUS;
+        CHAR_CLASS['+'] = PLUS;
+        CHAR_CLASS['"'] = QUOTE;
+        CHAR_CLASS['\''] = QUOTE;
+        for (char c : " \t\f\r\n".toCharArray()) {
+            CHAR_CLASS[c] = WHITE_SPACE;
+        }
+    }
+
+    /**
+     * The keywords recognized in the state YYINITIAL together with the state
+     * following them. The keys are in lower case.
+     */
+    private static final Map<String, KeywordEntry> KEYWORDS = new HashMap<>();
+
+    static {
+        add_keyword("absolute", Keyword.ABSOLUTE, YYINITIAL);
+        add_keyword("active", Keyword.ACTIVE, YYINITIAL);
+        add_keyword("against_preferred_direction_trace_costs", Keyword.AGAINST_PREFERRED_DIRECTION_TRACE_COSTS, YYINITIAL);
+        add_keyword("against_prefered_direction_trace_costs", Keyword.AGAINST_PREFERRED_DIRECTION_TRACE_COSTS, YYINITIAL);
+        add_keyword("attach", Keyword.ATTACH, YYINITIAL);
+        add_keyword("autoroute", Keyword.AUTOROUTE, YYINITIAL);
+        add_keyword("autoroute_settings", Keyword.AUTOROUTE_SETTINGS, YYINITIAL);
+        add_keyword("back", Keyword.BACK, YYINITIAL);
+        add_keyword("boundary", Keyword.BOUNDARY, YYINITIAL);
+        add_keyword("circ", Keyword.CIRCLE, LAYER_NAME);
+        add_keyword("circle", Keyword.CIRCLE, LAYER_NAME);
+        add_keyword("circuit", Keyword.CIRCUIT, YYINITIAL);
+        add_keyword("class", Keyword.CLASS, NAME);
+        add_keyword("class_class", Keyword.CLASS_CLASS, YYINITIAL);
+        add_keyword("classes", Keyword.CLASSES, YYINITIAL);
+        add_keyword("clear", Keyword.CLEARANCE, YYINITIAL);
+        add_keyword("clearance", Keyword.CLEARANCE, YYINITIAL);
+        add_keyword("clearance_class", Keyword.CLEARANCE_CLASS, NAME);
+        add_keyword("comp", ScopeKeyword.COMPONENT_SCOPE, NAME);
+        add_keyword("component", ScopeKeyword.COMPONENT_SCOPE, NAME);
+        add_keyword("constant", Keyword.CONSTANT, YYINITIAL);
+        add_keyword("control", Keyword.CONTROL, YYINITIAL);
+        add_keyword("fanout", Keyword.FANOUT, YYINITIAL);
+        add_keyword("fix", Keyword.FIX, YYINITIAL);
+        add_keyword("fortyfive_degree", Keyword.FORTYFIVE_DEGREE, YYINITIAL);
+        add_keyword("flip_style", Keyword.FLIP_STYLE, YYINITIAL);
+        add_keyword("fromto", Keyword.FROMTO, YYINITIAL);
+        add_keyword("front", Keyword.FRONT, YYINITIAL);
+        add_keyword("generated_by_freeroute", Keyword.GENERATED_BY_FREEROUTE, YYINITIAL);
+        add_keyword("horizontal", Keyword.HORIZONTAL, YYINITIAL);
+        add_keyword("image", Keyword.IMAGE, NAME);
+        add_keyword("host_cad", Keyword.HOST_CAD, NAME);
+        add_keyword("host_version", Keyword.HOST_VERSION, NAME);
+        add_keyword("keepout", Keyword.KEEPOUT, NAME);
+        add_keyword("layer", Keyword.LAYER, NAME);
+        add_keyword("layer_rule", Keyword.LAYER_RULE, NAME);
+        add_keyword("length", Keyword.LENGTH, YYINITIAL);
+        add_keyword("library", ScopeKeyword.LIBRARY_SCOPE, YYINITIAL);
+        add_keyword("lock_type", Keyword.LOCK_TYPE, YYINITIAL);
+        add_keyword("logical_part", Keyword.LOGICAL_PART, NAME);
+        add_keyword("logical_part_mapping", Keyword.LOGICAL_PART_MAPPING, NAME);
+        add_keyword("net", Keyword.NET, NAME);
+        add_keyword("network", ScopeKeyword.NETWORK_SCOPE, YYINITIAL);
+        add_keyword("network_out", Keyword.NETWORK_OUT, YYINITIAL);
+        add_keyword("ninety_degree", Keyword.NINETY_DEGREE, YYINITIAL);
+        add_keyword("none", Keyword.NONE, YYINITIAL);
+        add_keyword("normal", Keyword.NORMAL, YYINITIAL);
+        add_keyword("off", Keyword.OFF, YYINITIAL);
+        add_keyword("on", Keyword.ON, YYINITIAL);
+        add_keyword("order", Keyword.ORDER, YYINITIAL);
+        add_keyword("outline", Keyword.OUTLINE, YYINITIAL);
+        add_keyword("padstack", Keyword.PADSTACK, NAME);
+        add_keyword("parser", ScopeKeyword.PARSER_SCOPE, YYINITIAL);
+        add_keyword("part_library", ScopeKeyword.PART_LIBRARY_SCOPE, YYINITIAL);
+        add_keyword("path", Keyword.POLYGON_PATH, LAYER_NAME);
+        add_keyword("pcb", ScopeKeyword.PCB_SCOPE, YYINITIAL);
+        add_keyword("pin", Keyword.PIN, YYINITIAL);
+        add_keyword("pins", Keyword.PINS, YYINITIAL);
+        add_keyword("place", Keyword.PLACE, NAME);
+        add_keyword("place_control", ScopeKeyword.PLACE_CONTROL, YYINITIAL);
+        add_keyword("place_keepout", Keyword.PLACE_KEEPOUT, NAME);
+        add_keyword("placement", ScopeKeyword.PLACEMENT_SCOPE, YYINITIAL);
+        add_keyword("plane", ScopeKeyword.PLANE_SCOPE, NAME);
+        add_keyword("plane_via_costs", Keyword.PLANE_VIA_COSTS, YYINITIAL);
+        add_keyword("poly", Keyword.POLYGON, LAYER_NAME);
+        add_keyword("polygon", Keyword.POLYGON, LAYER_NAME);
+        add_keyword("polyline_path", Keyword.POLYLINE_PATH, LAYER_NAME);
+        add_keyword("position", Keyword.POSITION, YYINITIAL);
+        add_keyword("postroute", Keyword.POSTROUTE, YYINITIAL);
+        add_keyword("power", Keyword.POWER, YYINITIAL);
+        add_keyword("preferred_direction", Keyword.PREFERRED_DIRECTION, YYINITIAL);
+        add_keyword("prefered_direction", Keyword.PREFERRED_DIRECTION, YYINITIAL);
+        add_keyword("preferred_direction_trace_costs", Keyword.PREFERRED_DIRECTION_TRACE_COSTS, YYINITIAL);
+        add_keyword("prefered_direction_trace_costs", Keyword.PREFERRED_DIRECTION_TRACE_COSTS, YYINITIAL);
+        add_keyword("pull_tight", Keyword.PULL_TIGHT, YYINITIAL);
+        add_keyword("rect", Keyword.RECTANGLE, LAYER_NAME);
+        add_keyword("rectangle", Keyword.RECTANGLE, LAYER_NAME);
+        add_keyword("resolution", ScopeKeyword.RESOLUTION_SCOPE, YYINITIAL);
+        add_keyword("rotate", Keyword.ROTATE, YYINITIAL);
+        add_keyword("rotate_first", Keyword.ROTATE_FIRST, YYINITIAL);
+        add_keyword("routes", Keyword.ROUTES, YYINITIAL);
+        add_keyword("rule", Keyword.RULE, YYINITIAL);
+        add_keyword("rules", Keyword.RULES, YYINITIAL);
+        add_keyword("session", Keyword.SESSION, YYINITIAL);
+        add_keyword("shape", Keyword.SHAPE, YYINITIAL);
+        add_keyword("shove_fixed", Keyword.SHOVE_FIXED, YYINITIAL);
+        add_keyword("side", Keyword.SIDE, YYINITIAL);
+        add_keyword("signal", Keyword.SIGNAL, YYINITIAL);
+        add_keyword("snap_angle", Keyword.SNAP_ANGLE, YYINITIAL);
+        add_keyword("spare", Keyword.SPARE, YYINITIAL);
+        add_keyword("start_pass_no", Keyword.START_PASS_NO, YYINITIAL);
+        add_keyword("start_ripup_costs", Keyword.START_RIPUP_COSTS, YYINITIAL);
+        add_keyword("string_quote", Keyword.STRING_QUOTE, IGNORE_QUOTE);
+        add_keyword("structure", ScopeKeyword.STRUCTURE_SCOPE, YYINITIAL);
+        add_keyword("type", Keyword.TYPE, YYINITIAL);
+        add_keyword("use_layer", Keyword.USE_LAYER, NAME);
+        add_keyword("use_net", Keyword.USE_NET, NAME);
+        add_keyword("use_via", Keyword.USE_VIA, NAME);
+        add_keyword("vertical", Keyword.VERTICAL, YYINITIAL);
+        add_keyword("via", Keyword.VIA, NAME);
+        add_keyword("vias", Keyword.VIAS, YYINITIAL);
+        add_keyword("via_at_smd", Keyword.VIA_AT_SMD, YYINITIAL);
+        add_keyword("via_costs", Keyword.VIA_COSTS, YYINITIAL);
+        add_keyword("via_keepout", Keyword.VIA_KEEPOUT, NAME);
+        add_keyword("via_rule", Keyword.VIA_RULE, YYINITIAL);
+        add_keyword("width", Keyword.WIDTH, YYINITIAL);
+        add_keyword("window", Keyword.WINDOW, YYINITIAL);
+        add_keyword("wire", Keyword.WIRE, NAME);
+        add_keyword("wire_keepout", Keyword.KEEPOUT, YYINITIAL);
+        add_keyword("wiring", ScopeKeyword.WIRING_SCOPE, YYINITIAL);
+        add_keyword("write_resolution", Keyword.WRITE_RESOLUTION, YYINITIAL);
+    }
+
+    private static void add_keyword(String p_name, Object p_keyword, int p_next_state) {
+        KEYWORDS.put(p_name, new KeywordEntry(p_keyword, p_next_state));
+    }
+
+    /* The powers of ten, which are exactly representable as double */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /* Mantissas with at most this number of digits are exactly representable as double */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final ByteBuffer buffer;
+    private final int end;
+    private int pos;
+    private int state = YYINITIAL;
+
+    /* Hash table of the identifiers and strings read so far, keyed by their bytes */
+    private Identifier[] identifier_table = new Identifier[1024];
+    private int identifier_count = 0;
+
+    /**
+     * Creates a scanner reading the remaining bytes of p_buffer.
+     */
+    SpecctraByteScanner(ByteBuffer p_buffer) {
+        this.buffer = p_buffer;
+        this.pos = p_buffer.position();
+        this.end = p_buffer.limit();
+    }
+
+    /**
+     * Creates a scanner for p_file, which is read completely into a heap
+     * buffer. The file is closed, when this function returns, so that it can
+     * be overwritten or deleted at once, which is not possible on Windows
+     * while a file is mapped into memory.
+     */
+    static SpecctraByteScanner open(File p_file) throws IOException {
+        return new SpecctraByteScanner(ByteBuffer.wrap(Files.readAllBytes(p_file.toPath())));
+    }
+
+    @Override
+    public void yybegin(int p_new_state) {
+        this.state = p_new_state;
+    }
+
+    @Override
+    public Object next_token() {
+        for (;;) {
+            if (state == STRING1 || state == STRING2) {
+                return read_string(state == STRING1 ? '"' : '\'');
+            }
+            if (pos >= end) {
+                return null;
+            }
+            int c = buffer.get(pos) & 0xff;
+            if (state == SPEC_CHAR) {
+                return read_spec_char(c);
+            }
+            if (c < 128 && CHAR_CLASS[c] == WHITE_SPACE) {
+                ++pos;
+                continue;
+            }
+            if (c == '(') {
+                ++pos;
+                state = YYINITIAL;
+                return Keyword.OPEN_BRACKET;
+            }
+            if (c == ')') {
+                ++pos;
+                state = YYINITIAL;
+                return Keyword.CLOSED_BRACKET;
+            }
+            if (c == '"' && state != IGNORE_QUOTE) {
+                ++pos;
+                state = STRING1;
+                continue;
+            }
+            if (c == '\'' && state != IGNORE_QUOTE) {
+                ++pos;
+                state = STRING2;
+                continue;
+            }
+            switch (state) {
+                case NAME:
+                    return read_name(NAME_START, IDENTIFIER_PART, false);
+                case LAYER_NAME:
+                    return read_name(NAME_START, IDENTIFIER_PART, true);
+                case COMPONENT_NAME:
+                    return read_name(COMPONENT_START, COMPONENT_PART, false);
+                case IGNORE_QUOTE:
+                    return read_name(IDENTIFIER_PART, IDENTIFIER_PART, false);
+                default:
+                    break;
+            }
+            // state YYINITIAL
+            if (c == '#' || c == '/') {
+                int identifier_end = scan_identifier(pos, IDENTIFIER_START, IDENTIFIER_PART);
+                int comment_end = c == '#' ? end_of_line_comment() : traditional_comment();
+                if (comment_end > identifier_end) {
+                    pos = comment_end;
+                    continue;
+                }
+            }
+            if (c < 128 && (CHAR_CLASS[c] & (DIGIT | MINUS | PLUS)) != 0) {
+                return read_number();
+            }
+            int identifier_end = scan_identifier(pos, IDENTIFIER_START, IDENTIFIER_PART);
+            if (identifier_end == pos) {
+                throw illegal_character();
+            }
+            Identifier identifier = get_identifier(pos, identifier_end);
+            pos = identifier_end;
+            if (identifier.keyword != null) {
+                state = identifier.keyword.next_state;
+                return identifier.keyword.keyword;
+            }
+            return identifier.text;
+        }
+    }
+
+    /**
+     * Reads an identifier in one of the states, which return to YYINITIAL
+     * after the identifier. If p_is_layer_name, the keywords pcb and signal
+     * are recognized.
+     */
+    private Object read_name(int p_start_class, int p_part_class, boolean p_is_layer_name) {
+        int identifier_end = scan_identifier(pos, p_start_class, p_part_class);
+        if (identifier_end == pos) {
+            throw illegal_character();
+        }
+        Identifier identifier = get_identifier(pos, identifier_end);
+        pos = identifier_end;
+        state = YYINITIAL;
+        if (p_is_layer_name && identifier.keyword != null
+                && (identifier.keyword.keyword == ScopeKeyword.PCB_SCOPE || identifier.keyword.keyword == Keyword.SIGNAL)) {
+            return identifier.keyword.keyword;
+        }
+        return identifier.text;
+    }
+
+    /**
+     * Reads a single special character. Because the non ascii special
+     * characters of the jflex specification consist of up to three
+     * replacement characters in the generated scanner, up to three
+     * consecutive replacement characters are returned as one token.
+     */
+    private Object read_spec_char(int p_first_byte) {
+        int char_end = char_end(pos);
+        if (!is_in_class(p_first_byte, pos, char_end, SPEC_CHAR_2)) {
+            throw illegal_character();
+        }
+        if (p_first_byte >= 128) {
+            for (int i = 1; i < 3 && char_end < end; ++i) {
+                int next_byte = buffer.get(char_end) & 0xff;
+                int next_end = char_end(char_end);
+                if (next_byte < 128 || !is_in_class(next_byte, char_end, next_end, SPEC_CHAR_2)) {
+                    break;
+                }
+                char_end = next_end;
+            }
+        }
+        Identifier identifier = get_identifier(pos, char_end);
+        pos = char_end;
+        return identifier.text;
+    }
+
+    /**
+     * Reads the rest of a quoted string. Returns null, if the file ends before
+     * the closing quote.
+     */
+    private Object read_string(char p_quote) {
+        int string_start = pos;
+        while (pos < end && buffer.get(pos) != p_quote) {
+            ++pos;
+        }
+        if (pos >= end) {
+            return null;
+        }
+        Identifier identifier = get_identifier(string_start, pos);
+        ++pos;
+        state = YYINITIAL;
+        return identifier.text;
+    }
+
+    /**
+     * Returns the end of the longest identifier starting at p_start, whose
+     * first character is in p_start_class and whose other characters are in
+     * p_part_class.
+     */
+    private int scan_identifier(int p_start, int p_start_class, int p_part_class) {
+        int curr_pos = p_start;
+        int char_class = p_start_class;
+        while (curr_pos < end) {
+            int c = buffer.get(curr_pos) & 0xff;
+            if (c < 128) {
+                if ((CHAR_CLASS[c] & char_class) == 0) {
+                    break;
+                }
+                ++curr_pos;
+            } else {
+                int next_pos = char_end(curr_pos);
+                if (!is_in_class(c, curr_pos, next_pos, char_class)) {
+                    break;
+                }
+                curr_pos = next_pos;
+            }
+            char_class = p_part_class;
+        }
+        return curr_pos;
+    }
+
+    /**
+     * Returns the end of the character starting at p_pos. A byte, which does
+     * not start a well formed UTF-8 sequence, is a character of its own.
+     */
+    private int char_end(int p_pos) {
+        int c = buffer.get(p_pos) & 0xff;
+        int length;
+        int min_code_point;
+        if (c < 0x80) {
+            return p_pos + 1;
+        } else if (c >= 0xc2 && c < 0xe0) {
+            length = 2;
+            min_code_point = 0x80;
+        } else if (c >= 0xe0 && c < 0xf0) {
+            length = 3;
+            min_code_point = 0x800;
+        } else if (c >= 0xf0 && c < 0xf5) {
+            length = 4;
+            min_code_point = 0x10000;
+        } else {
+            return p_pos + 1;
+        }
+        if (p_pos + length > end) {
+            return p_pos + 1;
+        }
+        int code_point = c & (0x3f >> (length - 1));
+        for (int i = 1; i < length; ++i) {
+            int curr_byte = buffer.get(p_pos + i) & 0xff;
+            if ((curr_byte & 0xc0) != 0x80) {
+                return p_pos + 1;
+            }
+            code_point = (code_point << 6) | (curr_byte & 0x3f);
+        }
+        if (code_point < min_code_point || code_point > Character.MAX_CODE_POINT
+                || code_point >= Character.MIN_SURROGATE && code_point <= Character.MAX_SURROGATE) {
+            return p_pos + 1;
+        }
+        return p_pos + length;
+    }
+
+    /**
+     * Tests, if the character from p_start to p_end is in p_char_class. Of the
+     * non ascii characters the jflex scanner accepts only the replacement
+     * character, which it gets for bytes not forming a valid UTF-8 sequence,
+     * as special character.
+     */
+    private boolean is_in_class(int p_first_byte, int p_start, int p_end, int p_char_class) {
+        if (p_first_byte < 128) {
+            return (CHAR_CLASS[p_first_byte] & p_char_class) != 0;
+        }
+        if ((p_char_class & SPEC_CHAR_1) == 0) {
+            return false;
+        }
+        return p_end == p_start + 1
+                || p_end == p_start + 3 && p_first_byte == 0xef
+                && (buffer.get(p_start + 1) & 0xff) == 0xbf && (buffer.get(p_start + 2) & 0xff) == 0xbd;
+    }
+
+    /**
+     * Returns the end of the comment from # to the end of the line starting
+     * at pos, or pos, if the line is not terminated.
+     */
+    private int end_of_line_comment() {
+        for (int curr_pos = pos + 1; curr_pos < end; ++curr_pos) {
+            byte curr_byte = buffer.get(curr_pos);
+            if (curr_byte == '\n') {
+                return curr_pos + 1;
+            }
+            if (curr_byte == '\r') {
+                return curr_pos + 1 < end && buffer.get(curr_pos + 1) == '\n' ? curr_pos + 2 : curr_pos + 1;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the end of the comment from slash star to star slash starting at
+     * pos, or pos, if there is no such comment. As in the jflex
+     * specification, a comment starting with two stars must end immediately
+     * after them.
+     */
+    private int traditional_comment() {
+        if (pos + 2 >= end || buffer.get(pos + 1) != '*') {
+            return pos;
+        }
+        int curr_pos = pos + 2;
+        if (buffer.get(curr_pos) == '*') {
+            while (curr_pos < end && buffer.get(curr_pos) == '*') {
+                ++curr_pos;
+            }
+            return curr_pos < end && buffer.get(curr_pos) == '/' ? curr_pos + 1 : pos;
+        }
+        for (++curr_pos; curr_pos + 1 < end; ++curr_pos) {
+            if (buffer.get(curr_pos) == '*' && buffer.get(curr_pos + 1) == '/') {
+                return curr_pos + 2;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Reads an integer or a floating point number at pos. As in the jflex
+     * specification, the longer of the two literals wins, and an integer
+     * literal must not have leading zeros.
+     */
+    private Object read_number() {
+        int curr_pos = pos;
+        boolean negative = false;
+        byte curr_byte = buffer.get(curr_pos);
+        if (curr_byte == '-' || curr_byte == '+') {
+            negative = curr_byte == '-';
+            ++curr_pos;
+        }
+        int digits_start = curr_pos;
+        long mantissa = 0;
+        int digit_count = 0;
+        while (curr_pos < end && is_digit(buffer.get(curr_pos))) {
+            if (digit_count > 0 || buffer.get(curr_pos) != '0') {
+                mantissa = 10 * mantissa + (buffer.get(curr_pos) - '0');
+                ++digit_count;
+            }
+            ++curr_pos;
+        }
+        if (curr_pos == digits_start) {
+            throw illegal_character();
+        }
+        int integer_end = buffer.get(digits_start) == '0' ? digits_start + 1 : curr_pos;
+        int fraction_digit_count = 0;
+        if (curr_pos + 1 < end && buffer.get(curr_pos) == '.' && is_digit(buffer.get(curr_pos + 1))) {
+            ++curr_pos;
+            while (curr_pos < end && is_digit(buffer.get(curr_pos))) {
+                if (digit_count > 0 || buffer.get(curr_pos) != '0') {
+                    mantissa = 10 * mantissa + (buffer.get(curr_pos) - '0');
+                    ++digit_count;
+                }
+                ++fraction_digit_count;
+                ++curr_pos;
+            }
+        }
+        int exponent = 0;
+        boolean exponent_ok = true;
+        if (curr_pos < end && (buffer.get(curr_pos) == 'e' || buffer.get(curr_pos) == 'E')) {
+            int exponent_pos = curr_pos + 1;
+            boolean negative_exponent = false;
+            if (exponent_pos < end && (buffer.get(exponent_pos) == '-' || buffer.get(exponent_pos) == '+')) {
+                negative_exponent = buffer.get(exponent_pos) == '-';
+                ++exponent_pos;
+            }
+            if (exponent_pos < end && is_digit(buffer.get(exponent_pos))) {
+                if (buffer.get(exponent_pos) == '0') {
+                    ++exponent_pos;
+                } else {
+                    int exponent_digit_count = 0;
+                    while (exponent_pos < end && is_digit(buffer.get(exponent_pos))) {
+                        exponent = 10 * exponent + (buffer.get(exponent_pos) - '0');
+                        ++exponent_digit_count;
+                        ++exponent_pos;
+                    }
+                    exponent_ok = exponent_digit_count <= 3;
+                }
+                if (negative_exponent) {
+                    exponent = -exponent;
+                }
+                curr_pos = exponent_pos;
+            }
+        }
+        int number_start = pos;
+        if (integer_end >= curr_pos) {
+            pos = integer_end;
+            if (digit_count <= 9) {
+                return (int) (negative ? -mantissa : mantissa);
+            }
+            return Integer.valueOf(ascii_string(number_start, integer_end));
+        }
+        pos = curr_pos;
+        int decimal_exponent = exponent - fraction_digit_count;
+        if (digit_count <= MAX_EXACT_DIGITS && exponent_ok && Math.abs(decimal_exponent) < POWERS_OF_TEN.length) {
+            double result = mantissa;
+            if (decimal_exponent >= 0) {
+                result *= POWERS_OF_TEN[decimal_exponent];
+            } else {
+                result /= POWERS_OF_TEN[-decimal_exponent];
+            }
+            return negative ? -result : result;
+        }
+        return Double.valueOf(ascii_string(number_start, curr_pos));
+    }
+
+    private static boolean is_digit(byte p_byte) {
+        return p_byte >= '0' && p_byte <= '9';
+    }
+
+    private String ascii_string(int p_start, int p_end) {
+        byte[] bytes = new byte[p_end - p_start];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buffer.get(p_start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private Error illegal_character() {
+        int char_end = Math.min(char_end(pos), end);
+        byte[] bytes = new byte[char_end - pos];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buffer.get(pos + i);
+        }
+        return new Error("Illegal character <" + new String(bytes, StandardCharsets.UTF_8) + ">");
+    }
+
+    /**
+     * Returns the interned identifier with the bytes from p_start to p_end.
+     */
+    private Identifier get_identifier(int p_start, int p_end) {
+        int hash = 0;
+        for (int i = p_start; i < p_end; ++i) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        int mask = identifier_table.length - 1;
+        int index = hash & mask;
+        for (;;) {
+            Identifier curr_identifier = identifier_table[index];
+            if (curr_identifier == null) {
+                break;
+            }
+            if (curr_identifier.hash == hash && equals_bytes(curr_identifier.bytes, p_start, p_end)) {
+                return curr_identifier;
+            }
+            index = (index + 1) & mask;
+        }
+        byte[] bytes = new byte[p_end - p_start];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buffer.get(p_start + i);
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        Identifier new_identifier = new Identifier(bytes, hash, text, KEYWORDS.get(text.toLowerCase(Locale.ROOT)));
+        identifier_table[index] = new_identifier;
+        ++identifier_count;
+        if (2 * identifier_count > identifier_table.length) {
+            resize_identifier_table();
+        }
+        return new_identifier;
+    }
+
+    private boolean equals_bytes(byte[] p_bytes, int p_start, int p_end) {
+        if (p_bytes.length != p_end - p_start) {
+            return false;
+        }
+        for (int i = 0; i < p_bytes.length; ++i) {
+            if (p_bytes[i] != buffer.get(p_start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize_identifier_table() {
+        Identifier[] old_table = identifier_table;
+        identifier_table = new Identifier[2 * old_table.length];
+        int mask = identifier_table.length - 1;
+        for (Identifier curr_identifier : old_table) {
+            if (curr_identifier == null) {
+                continue;
+            }
+            int index = curr_identifier.hash & mask;
+            while (identifier_table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            identifier_table[index] = curr_identifier;
+        }
+    }
+
+    private static class KeywordEntry {
+
+        /**
+         * A Keyword or a ScopeKeyword.
+         */
+        final Object keyword;
+        final int next_state;
+
+        KeywordEntry(Object p_keyword, int p_next_state) {
+            keyword = p_keyword;
+            next_state = p_next_state;
+        }
+    }
+
+    private static class Identifier {
+
+        final byte[] bytes;
+        final int hash;
+        final String text;
+        /**
+         * The keyword with this spelling, or null, if the identifier is no
+         * keyword.
+         */
+        final KeywordEntry keyword;
+
+        Identifier(byte[] p_bytes, int p_hash, String p_text, KeywordEntry p_keyword) {
+            bytes = p_bytes;
+            hash = p_hash;
+            text = p_text;
+            keyword = p_keyword;
+        }
+    }
+}
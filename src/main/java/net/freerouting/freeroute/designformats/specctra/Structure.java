@@ -1084,6 +1084,8 @@ class Structure extends ScopeKeyword {
                 board_communication, p_par.test_level);
 
         net.freerouting.freeroute.board.BasicBoard board = p_par.board_handling.get_routing_board();
+        // The search trees are built at the end of DsnFile.read from all items.
+        board.search_tree_manager.start_deferred_insert();
 
         // Insert the holes in the board outline as keepouts.
         for (PolylineShape curr_outline_hole : hole_shapes) {
@@ -120,9 +120,6 @@ public class BigIntDirection implements Direction {
 
         // now this direction and p_other are located in the same
         // open horizontal half plane
-        BigInteger tmp_1 = y.multiply(p_other.x);
-        BigInteger tmp_2 = x.multiply(p_other.y);
-        BigInteger determinant = tmp_1.subtract(tmp_2);
-        return determinant.signum();
+        return ExactPredicates.signum_of_determinant(y, p_other.y, x, p_other.x);
     }
 }
@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.geometry.planar;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.LongAdder;
+import net.freerouting.freeroute.datastructures.BigIntAux;
+
+/**
+ *
+ * Exact predicates and line intersections on big integer and rational
+ * coordinates, which are evaluated adaptively. A predicate is first
+ * evaluated in double arithmetic together with a bound of its rounding
+ * error, and the sign of the result is taken, if the result is farther away
+ * from 0 than the error bound. Only if this filter fails, the predicate is
+ * evaluated exactly, in long arithmetic with 128 bit products, if the
+ * operands fit into longs, and with BigIntegers otherwise. The counters of
+ * the three stages show, how often the slow BigInteger arithmetic is still
+ * needed.
+ *
+ * @author agent
+ */
+public final class ExactPredicates {
+
+    /**
+     * The unit roundoff 2^-53 of double arithmetic.
+     */
+    private static final double EPSILON = 0x1p-53;
+
+    /**
+     * Bound of the rounding error of the predicates evaluated in double
+     * arithmetic relative to the sum of the absolute values of their terms.
+     * The conversions of the operands, the products and the sums contribute
+     * at most 5 + O(EPSILON) times EPSILON, the rest is a safety margin for
+     * rounding the bound itself.
+     */
+    private static final double ERROR_BOUND = 8 * EPSILON;
+
+    /**
+     * Returned by filtered_signum, if the sign of the value is not certain.
+     */
+    private static final int UNCERTAIN = 2;
+
+    /**
+     * Operands with at most this number of bits can be multiplied and
+     * negated in 128 bit long arithmetic without overflow.
+     */
+    private static final int MAX_LONG_BIT_LENGTH = 62;
+
+    /**
+     * The number of evaluations decided by the double filter.
+     */
+    private static final LongAdder FILTER_COUNTER = new LongAdder();
+    /**
+     * The number of evaluations done exactly in long arithmetic.
+     */
+    private static final LongAdder LONG_COUNTER = new LongAdder();
+    /**
+     * The number of evaluations done exactly with BigIntegers.
+     */
+    private static final LongAdder BIG_INTEGER_COUNTER = new LongAdder();
+
+    private ExactPredicates() {
+        // disallow instantiation
+    }
+
+    /**
+     * Returns the number of evaluations so far, whose result was decided by
+     * the double filter.
+     */
+    public static long get_filter_count() {
+        return FILTER_COUNTER.sum();
+    }
+
+    /**
+     * Returns the number of evaluations so far, which were done exactly in
+     * long arithmetic.
+     */
+    public static long get_long_count() {
+        return LONG_COUNTER.sum();
+    }
+
+    /**
+     * Returns the number of evaluations so far, which needed BigInteger
+     * arithmetic.
+     */
+    public static long get_big_integer_count() {
+        return BIG_INTEGER_COUNTER.sum();
+    }
+
+    /**
+     * Returns the signum of the determinant p_x_1 * p_y_2 - p_x_2 * p_y_1,
+     * which is the signum of BigIntAux.determinant(p_x_1, p_y_1, p_x_2,
+     * p_y_2).
+     */
+    static int signum_of_determinant(BigInteger p_x_1, BigInteger p_y_1, BigInteger p_x_2, BigInteger p_y_2) {
+        double product_1 = p_x_1.doubleValue() * p_y_2.doubleValue();
+        double product_2 = p_x_2.doubleValue() * p_y_1.doubleValue();
+        int result = filtered_signum(product_1 - product_2, Math.abs(product_1) + Math.abs(product_2));
+        if (result != UNCERTAIN) {
+            FILTER_COUNTER.increment();
+            return result;
+        }
+        if (fits_in_long(p_x_1) && fits_in_long(p_y_1) && fits_in_long(p_x_2) && fits_in_long(p_y_2)) {
+            LONG_COUNTER.increment();
+            return compare_products(p_x_1.longValue(), p_y_2.longValue(), p_x_2.longValue(), p_y_1.longValue());
+        }
+        BIG_INTEGER_COUNTER.increment();
+        return BigIntAux.determinant(p_x_1, p_y_1, p_x_2, p_y_2).signum();
+    }
+
+    /**
+     * Returns the signum of the scalar product p_x_1 * p_x_2 + p_y_1 * p_y_2.
+     */
+    static int signum_of_scalar_product(BigInteger p_x_1, BigInteger p_y_1, BigInteger p_x_2, BigInteger p_y_2) {
+        double product_1 = p_x_1.doubleValue() * p_x_2.doubleValue();
+        double product_2 = p_y_1.doubleValue() * p_y_2.doubleValue();
+        int result = filtered_signum(product_1 + product_2, Math.abs(product_1) + Math.abs(product_2));
+        if (result != UNCERTAIN) {
+            FILTER_COUNTER.increment();
+            return result;
+        }
+        if (fits_in_long(p_x_1) && fits_in_long(p_y_1) && fits_in_long(p_x_2) && fits_in_long(p_y_2)) {
+            LONG_COUNTER.increment();
+            return compare_products(p_x_1.longValue(), p_x_2.longValue(), -p_y_1.longValue(), p_y_2.longValue());
+        }
+        BIG_INTEGER_COUNTER.increment();
+        return p_x_1.multiply(p_x_2).add(p_y_1.multiply(p_y_2)).signum();
+    }
+
+    /**
+     * Returns the signum of p_value - p_factor * p_coor, which compares the
+     * rational coordinate p_value / p_factor with the integer p_coor, if
+     * p_factor {@literal >} 0.
+     */
+    static int signum_of_difference(BigInteger p_value, BigInteger p_factor, int p_coor) {
+        double value = p_value.doubleValue();
+        double product = p_factor.doubleValue() * p_coor;
+        int result = filtered_signum(value - product, Math.abs(value) + Math.abs(product));
+        if (result != UNCERTAIN) {
+            FILTER_COUNTER.increment();
+            return result;
+        }
+        if (fits_in_long(p_value) && fits_in_long(p_factor)) {
+            LONG_COUNTER.increment();
+            return compare_products(p_value.longValue(), 1, p_factor.longValue(), p_coor);
+        }
+        BIG_INTEGER_COUNTER.increment();
+        return p_value.subtract(p_factor.multiply(BigInteger.valueOf(p_coor))).signum();
+    }
+
+    /**
+     * Returns the side of the line from p_line_a to p_line_b, on which
+     * p_point is located, like p_point.side_of(new Line(p_line_a, p_line_b)).
+     * The products of the coordinates differences are exact in double
+     * arithmetic for coordinates up to Limits.CRIT_INT, otherwise they are
+     * compared in 128 bit long arithmetic, so that no BigIntegers are needed.
+     */
+    static Side side_of(IntPoint p_point, IntPoint p_line_a, IntPoint p_line_b) {
+        long line_dx = (long) p_line_b.x - p_line_a.x;
+        long line_dy = (long) p_line_b.y - p_line_a.y;
+        long point_dx = (long) p_point.x - p_line_a.x;
+        long point_dy = (long) p_point.y - p_line_a.y;
+        double product_1 = (double) line_dx * point_dy;
+        double product_2 = (double) line_dy * point_dx;
+        if (Math.abs(product_1) + Math.abs(product_2) < Limits.CRIT_DOUBLE) {
+            // the products and their difference are exact
+            return Side.of(product_1 - product_2);
+        }
+        return Side.of(compare_products(line_dx, point_dy, line_dy, point_dx));
+    }
+
+    /**
+     * Returns the side of the line from p_line_a to p_line_b, on which the
+     * rational point p_point is located, like p_point.side_of(new
+     * Line(p_line_a, p_line_b)), but without creating the difference vectors
+     * of the points.
+     */
+    static Side side_of(RationalPoint p_point, IntPoint p_line_a, IntPoint p_line_b) {
+        long line_dx = (long) p_line_b.x - p_line_a.x;
+        long line_dy = (long) p_line_b.y - p_line_a.y;
+        double x = p_point.x.doubleValue();
+        double y = p_point.y.doubleValue();
+        double z = p_point.z.doubleValue();
+        double z_a_x = z * p_line_a.x;
+        double z_a_y = z * p_line_a.y;
+        double product_1 = (y - z_a_y) * line_dx;
+        double product_2 = (x - z_a_x) * line_dy;
+        double magnitude = (Math.abs(y) + Math.abs(z_a_y)) * Math.abs(line_dx)
+                + (Math.abs(x) + Math.abs(z_a_x)) * Math.abs(line_dy);
+        int signum = filtered_signum(product_1 - product_2, magnitude);
+        if (signum != UNCERTAIN) {
+            FILTER_COUNTER.increment();
+        } else if (fits_in_long(p_point.x) && fits_in_long(p_point.y) && fits_in_long(p_point.z)
+                && Math.abs(line_dx) <= Integer.MAX_VALUE && Math.abs(line_dy) <= Integer.MAX_VALUE) {
+            // The determinant is y * dx - x * dy + z * (a.x * dy - a.y * dx), whose
+            // absolute value is less than 2^127.
+            LONG_COUNTER.increment();
+            long line_determinant = p_line_a.x * line_dy - p_line_a.y * line_dx;
+            signum = signum_of_sum_of_products(p_point.y.longValue(), line_dx, -p_point.x.longValue(), line_dy,
+                    p_point.z.longValue(), line_determinant);
+        } else {
+            BIG_INTEGER_COUNTER.increment();
+            BigInteger point_dx = p_point.x.subtract(p_point.z.multiply(BigInteger.valueOf(p_line_a.x)));
+            BigInteger point_dy = p_point.y.subtract(p_point.z.multiply(BigInteger.valueOf(p_line_a.y)));
+            BigInteger determinant = point_dy.multiply(BigInteger.valueOf(line_dx))
+                    .subtract(point_dx.multiply(BigInteger.valueOf(line_dy)));
+            signum = determinant.signum();
+        }
+        return Side.of(signum);
+    }
+
+    /**
+     * Returns the intersection of the line through p_a_1 and p_b_1 with the
+     * line through p_a_2 and p_b_2, whose direction vectors are p_delta_1 and
+     * p_delta_2. The result is an IntPoint, if the coordinates of the
+     * intersection are integers with absolute value at most Limits.CRIT_INT,
+     * otherwise a RationalPoint, which is infinite, if the lines are
+     * parallel. The calculation is done in long arithmetic, as long as no
+     * intermediate result overflows.
+     */
+    static Point intersection(IntPoint p_a_1, IntPoint p_b_1, IntPoint p_a_2, IntPoint p_b_2,
+            IntVector p_delta_1, IntVector p_delta_2) {
+        long det_1 = p_a_1.determinant(p_b_1);
+        long det_2 = p_a_2.determinant(p_b_2);
+        long det = p_delta_2.determinant(p_delta_1);
+        long product_1 = det_1 * p_delta_2.x;
+        long product_2 = det_2 * p_delta_1.x;
+        long product_3 = det_1 * p_delta_2.y;
+        long product_4 = det_2 * p_delta_1.y;
+        long is_x = product_1 - product_2;
+        long is_y = product_3 - product_4;
+        boolean no_overflow = Math.multiplyHigh(det_1, p_delta_2.x) == product_1 >> 63
+                && Math.multiplyHigh(det_2, p_delta_1.x) == product_2 >> 63
+                && Math.multiplyHigh(det_1, p_delta_2.y) == product_3 >> 63
+                && Math.multiplyHigh(det_2, p_delta_1.y) == product_4 >> 63
+                && ((product_1 ^ product_2) & (product_1 ^ is_x)) >= 0
+                && ((product_3 ^ product_4) & (product_3 ^ is_y)) >= 0
+                && is_x != Long.MIN_VALUE && is_y != Long.MIN_VALUE && det != Long.MIN_VALUE;
+        if (!no_overflow) {
+            BIG_INTEGER_COUNTER.increment();
+            return big_integer_intersection(det_1, det_2, det, p_delta_1, p_delta_2);
+        }
+        LONG_COUNTER.increment();
+        if (det != 0) {
+            if (det < 0) {
+                det = -det;
+                is_x = -is_x;
+                is_y = -is_y;
+            }
+            if (is_x % det == 0 && is_y % det == 0) {
+                is_x /= det;
+                is_y /= det;
+                if (Math.abs(is_x) <= Limits.CRIT_INT && Math.abs(is_y) <= Limits.CRIT_INT) {
+                    return new IntPoint((int) is_x, (int) is_y);
+                }
+                det = 1;
+            }
+        }
+        return new RationalPoint(BigInteger.valueOf(is_x), BigInteger.valueOf(is_y), BigInteger.valueOf(det));
+    }
+
+    private static Point big_integer_intersection(long p_det_1, long p_det_2, long p_det,
+            IntVector p_delta_1, IntVector p_delta_2) {
+        BigInteger det_1 = BigInteger.valueOf(p_det_1);
+        BigInteger det_2 = BigInteger.valueOf(p_det_2);
+        BigInteger det = BigInteger.valueOf(p_det);
+        BigInteger tmp_1 = det_1.multiply(BigInteger.valueOf(p_delta_2.x));
+        BigInteger tmp_2 = det_2.multiply(BigInteger.valueOf(p_delta_1.x));
+        BigInteger is_x = tmp_1.subtract(tmp_2);
+        tmp_1 = det_1.multiply(BigInteger.valueOf(p_delta_2.y));
+        tmp_2 = det_2.multiply(BigInteger.valueOf(p_delta_1.y));
+        BigInteger is_y = tmp_1.subtract(tmp_2);
+        int signum = det.signum();
+        if (signum != 0) {
+            if (signum < 0) {
+                det = det.negate();
+                is_x = is_x.negate();
+                is_y = is_y.negate();
+            }
+            if ((is_x.mod(det)).signum() == 0 && (is_y.mod(det)).signum() == 0) {
+                is_x = is_x.divide(det);
+                is_y = is_y.divide(det);
+                if (Math.abs(is_x.doubleValue()) <= Limits.CRIT_INT
+                        && Math.abs(is_y.doubleValue()) <= Limits.CRIT_INT) {
+                    return new IntPoint(is_x.intValue(), is_y.intValue());
+                }
+                det = BigInteger.ONE;
+            }
+        }
+        return new RationalPoint(is_x, is_y, det);
+    }
+
+    /**
+     * Returns the signum of p_value, if its absolute value is bigger than the
+     * rounding error ERROR_BOUND * p_magnitude, and UNCERTAIN otherwise. If
+     * p_magnitude is 0, all terms of p_value were 0 and p_value is exact.
+     * Overflows to infinity or NaN make the result UNCERTAIN.
+     */
+    private static int filtered_signum(double p_value, double p_magnitude) {
+        double error_bound = ERROR_BOUND * p_magnitude;
+        if (p_value > error_bound) {
+            return 1;
+        }
+        if (p_value < -error_bound) {
+            return -1;
+        }
+        if (p_magnitude == 0) {
+            return 0;
+        }
+        return UNCERTAIN;
+    }
+
+    /**
+     * Returns the signum of p_a * p_b - p_c * p_d calculated exactly with 128
+     * bit products.
+     */
+    private static int compare_products(long p_a, long p_b, long p_c, long p_d) {
+        long high_1 = Math.multiplyHigh(p_a, p_b);
+        long high_2 = Math.multiplyHigh(p_c, p_d);
+        if (high_1 != high_2) {
+            return high_1 < high_2 ? -1 : 1;
+        }
+        return Integer.signum(Long.compareUnsigned(p_a * p_b, p_c * p_d));
+    }
+
+    /**
+     * Returns the signum of p_a * p_b + p_c * p_d + p_e * p_f calculated
+     * exactly with 128 bit products, if the absolute value of the sum is less
+     * than 2^127.
+     */
+    private static int signum_of_sum_of_products(long p_a, long p_b, long p_c, long p_d, long p_e, long p_f) {
+        long low_1 = p_a * p_b;
+        long low = low_1 + p_c * p_d;
+        long high = Math.multiplyHigh(p_a, p_b) + Math.multiplyHigh(p_c, p_d)
+                + (Long.compareUnsigned(low, low_1) < 0 ? 1 : 0);
+        long low_2 = low;
+        low += p_e * p_f;
+        high += Math.multiplyHigh(p_e, p_f) + (Long.compareUnsigned(low, low_2) < 0 ? 1 : 0);
+        if (high != 0) {
+            return high < 0 ? -1 : 1;
+        }
+        return low == 0 ? 0 : 1;
+    }
+
+    private static boolean fits_in_long(BigInteger p_value) {
+        return p_value.bitLength() <= MAX_LONG_BIT_LENGTH;
+    }
+}
@@ -43,6 +43,12 @@ public class IntBox extends RegularTileShape {
      * coordinates of the upper right corner
      */
     public final IntPoint ur;
+    /**
+     * Results of to_IntOctagon() and to_Simplex() memorized for performance
+     * reasons.
+     */
+    transient private IntOctagon precalculated_to_octagon = null;
+    transient private Simplex precalculated_to_simplex = null;
 
     /**
      * Creates an IntBox from its lower left and upper right corners.
@@ -315,6 +321,27 @@ public class IntBox extends RegularTileShape {
         return new IntBox(llx, lly, urx, ury);
     }
 
+    @Override
+    public double union_area(RegularTileShape p_other) {
+        return p_other.union_area(this);
+    }
+
+    /**
+     * Calculates the area of the union of this box with p_other without
+     * allocating the union.
+     */
+    @Override
+    double union_area(IntBox p_other) {
+        double width = Math.max(ur.x, p_other.ur.x) - (double) Math.min(ll.x, p_other.ll.x);
+        double height = Math.max(ur.y, p_other.ur.y) - (double) Math.min(ll.y, p_other.ll.y);
+        return width * height;
+    }
+
+    @Override
+    double union_area(IntOctagon p_other) {
+        return p_other.union_area(this);
+    }
+
     /**
      * Returns the intersection of this box with an IntBox.
      */
@@ -590,8 +617,11 @@ public class IntBox extends RegularTileShape {
      * Returns an object of class IntOctagon defining the same shape
      */
     public IntOctagon to_IntOctagon() {
-        return new IntOctagon(ll.x, ll.y, ur.x, ur.y, ll.x - ur.y,
-                ur.x - ll.y, ll.x + ll.y, ur.x + ur.y);
+        if (precalculated_to_octagon == null) {
+            precalculated_to_octagon = new IntOctagon(ll.x, ll.y, ur.x, ur.y, ll.x - ur.y,
+                    ur.x - ll.y, ll.x + ll.y, ur.x + ur.y);
+        }
+        return precalculated_to_octagon;
     }
 
     /**
@@ -599,6 +629,9 @@ public class IntBox extends RegularTileShape {
      */
     @Override
     public Simplex to_Simplex() {
+        if (precalculated_to_simplex != null) {
+            return precalculated_to_simplex;
+        }
         Line[] line_arr;
         if (is_empty()) {
             line_arr = new Line[0];
@@ -609,7 +642,8 @@ public class IntBox extends RegularTileShape {
             line_arr[2] = Line.get_instance(ur, FortyfiveDegreeDirection.LEFT.get_direction());
             line_arr[3] = Line.get_instance(ll, FortyfiveDegreeDirection.DOWN.get_direction());
         }
-        return new Simplex(line_arr);
+        precalculated_to_simplex = new Simplex(line_arr);
+        return precalculated_to_simplex;
     }
 
     @Override
@@ -623,12 +657,15 @@ public class IntBox extends RegularTileShape {
 
     @Override
     public boolean is_contained_in(IntOctagon p_other) {
-        return p_other.contains(to_IntOctagon());
+        return ll.x >= p_other.lx && ll.y >= p_other.ly
+                && ur.x <= p_other.rx && ur.y <= p_other.uy
+                && ll.x + ll.y >= p_other.llx && ll.x - ur.y >= p_other.ulx
+                && ur.x - ll.y <= p_other.lrx && ur.x + ur.y <= p_other.urx;
     }
 
     @Override
     public boolean intersects(IntOctagon p_other) {
-        return p_other.intersects(to_IntOctagon());
+        return p_other.intersects(this);
     }
 
     @Override
@@ -643,7 +680,7 @@ public class IntBox extends RegularTileShape {
 
     @Override
     public IntOctagon union(IntOctagon p_other) {
-        return p_other.union(to_IntOctagon());
+        return p_other.union(this);
     }
 
     @Override
@@ -70,6 +70,10 @@ public class IntOctagon extends RegularTileShape {
      * Result of to_simplex() memorized for performance reasons.
      */
     private Simplex precalculated_to_simplex = null;
+    /**
+     * Result of bounding_box() memorized for performance reasons.
+     */
+    transient private IntBox precalculated_bounding_box = null;
 
     /**
      * Creates an IntOctagon from 8 integer values. p_lx is the smallest x value
@@ -115,7 +119,10 @@ public class IntOctagon extends RegularTileShape {
 
     @Override
     public IntBox bounding_box() {
-        return new IntBox(lx, ly, rx, uy);
+        if (precalculated_bounding_box == null) {
+            precalculated_bounding_box = new IntBox(lx, ly, rx, uy);
+        }
+        return precalculated_bounding_box;
     }
 
     @Override
@@ -266,18 +273,28 @@ public class IntOctagon extends RegularTileShape {
 
     @Override
     public double area() {
+        return area(lx, ly, rx, uy, ulx, lrx, llx, urx);
+    }
+
+    /**
+     * Calculates the area of the octagon with the border line values p_lx,
+     * ..., p_urx as described in the constructor without creating the
+     * octagon.
+     */
+    private static double area(int p_lx, int p_ly, int p_rx, int p_uy,
+            int p_ulx, int p_lrx, int p_llx, int p_urx) {
 
         // calculate half of the absolute value of
         // x0 (y1 - y7) + x1 (y2 - y0) + x2 (y3 - y1) + ...+ x7( y0 - y6)
         // where xi, yi are the coordinates of the i-th corner of this Octagon.
         // Overwrites the same implementation in TileShape for performence
         // reasons to avoid Point allocation.
-        double result = (llx - ly) * (double) (ly - llx + lx);
-        result += (lrx + ly) * (double) (rx - lrx - ly);
-        result += rx * (double) (urx - 2 * rx - ly + uy + lrx);
-        result += (urx - uy) * (double) (uy - urx + rx);
-        result += (ulx + uy) * (double) (lx - ulx - uy);
-        result += lx * (double) (llx - 2 * lx - uy + ly + ulx);
+        double result = (p_llx - p_ly) * (double) (p_ly - p_llx + p_lx);
+        result += (p_lrx + p_ly) * (double) (p_rx - p_lrx - p_ly);
+        result += p_rx * (double) (p_urx - 2 * p_rx - p_ly + p_uy + p_lrx);
+        result += (p_urx - p_uy) * (double) (p_uy - p_urx + p_rx);
+        result += (p_ulx + p_uy) * (double) (p_lx - p_ulx - p_uy);
+        result += p_lx * (double) (p_llx - 2 * p_lx - p_uy + p_ly + p_ulx);
 
         return 0.5 * Math.abs(result);
     }
@@ -419,6 +436,11 @@ public class IntOctagon extends RegularTileShape {
         return p_other.union(this);
     }
 
+    @Override
+    public double union_area(RegularTileShape p_other) {
+        return p_other.union_area(this);
+    }
+
     @Override
     public TileShape intersection(TileShape p_other) {
         return p_other.intersection(this);
@@ -707,9 +729,35 @@ public class IntOctagon extends RegularTileShape {
         return result;
     }
 
+    /**
+     * Calculates the area of the union of this octagon with p_other without
+     * allocating the union.
+     */
+    @Override
+    double union_area(IntOctagon p_other) {
+        return area(Math.min(lx, p_other.lx), Math.min(ly, p_other.ly),
+                Math.max(rx, p_other.rx), Math.max(uy, p_other.uy),
+                Math.min(ulx, p_other.ulx), Math.max(lrx, p_other.lrx),
+                Math.min(llx, p_other.llx), Math.max(urx, p_other.urx));
+    }
+
+    /**
+     * Calculates the area of the union of this octagon with p_box without
+     * converting p_box to an octagon.
+     */
+    @Override
+    double union_area(IntBox p_box) {
+        return area(Math.min(lx, p_box.ll.x), Math.min(ly, p_box.ll.y),
+                Math.max(rx, p_box.ur.x), Math.max(uy, p_box.ur.y),
+                Math.min(ulx, p_box.ll.x - p_box.ur.y), Math.max(lrx, p_box.ur.x - p_box.ll.y),
+                Math.min(llx, p_box.ll.x + p_box.ll.y), Math.max(urx, p_box.ur.x + p_box.ur.y));
+    }
+
     @Override
     public boolean intersects(IntBox p_other) {
-        return intersects(p_other.to_IntOctagon());
+        return intersects(p_other.ll.x, p_other.ll.y, p_other.ur.x, p_other.ur.y,
+                p_other.ll.x - p_other.ur.y, p_other.ur.x - p_other.ll.y,
+                p_other.ll.x + p_other.ll.y, p_other.ur.x + p_other.ur.y);
     }
 
     /**
@@ -717,67 +765,20 @@ public class IntOctagon extends RegularTileShape {
      */
     @Override
     public boolean intersects(IntOctagon p_other) {
-        int is_lx;
-        int is_rx;
-        if (p_other.lx > this.lx) {
-            is_lx = p_other.lx;
-        } else {
-            is_lx = this.lx;
-        }
-        if (p_other.rx < this.rx) {
-            is_rx = p_other.rx;
-        } else {
-            is_rx = this.rx;
-        }
-        if (is_lx > is_rx) {
-            return false;
-        }
-
-        int is_ly;
-        int is_uy;
-        if (p_other.ly > this.ly) {
-            is_ly = p_other.ly;
-        } else {
-            is_ly = this.ly;
-        }
-        if (p_other.uy < this.uy) {
-            is_uy = p_other.uy;
-        } else {
-            is_uy = this.uy;
-        }
-        if (is_ly > is_uy) {
-            return false;
-        }
-
-        int is_llx;
-        int is_urx;
-        if (p_other.llx > this.llx) {
-            is_llx = p_other.llx;
-        } else {
-            is_llx = this.llx;
-        }
-        if (p_other.urx < this.urx) {
-            is_urx = p_other.urx;
-        } else {
-            is_urx = this.urx;
-        }
-        if (is_llx > is_urx) {
-            return false;
-        }
+        return intersects(p_other.lx, p_other.ly, p_other.rx, p_other.uy,
+                p_other.ulx, p_other.lrx, p_other.llx, p_other.urx);
+    }
 
-        int is_ulx;
-        int is_lrx;
-        if (p_other.ulx > this.ulx) {
-            is_ulx = p_other.ulx;
-        } else {
-            is_ulx = this.ulx;
-        }
-        if (p_other.lrx < this.lrx) {
-            is_lrx = p_other.lrx;
-        } else {
-            is_lrx = this.lrx;
-        }
-        return is_ulx <= is_lrx;
+    /**
+     * Checks, if this octagon intersects with the normalized octagon with the
+     * border line values p_lx, ..., p_urx as described in the constructor.
+     */
+    private boolean intersects(int p_lx, int p_ly, int p_rx, int p_uy,
+            int p_ulx, int p_lrx, int p_llx, int p_urx) {
+        return Math.max(lx, p_lx) <= Math.min(rx, p_rx)
+                && Math.max(ly, p_ly) <= Math.min(uy, p_uy)
+                && Math.max(llx, p_llx) <= Math.min(urx, p_urx)
+                && Math.max(ulx, p_ulx) <= Math.min(lrx, p_lrx);
     }
 
     /**
@@ -860,7 +861,10 @@ public class IntOctagon extends RegularTileShape {
 
     @Override
     public IntOctagon union(IntBox p_other) {
-        return union(p_other.to_IntOctagon());
+        return new IntOctagon(Math.min(lx, p_other.ll.x), Math.min(ly, p_other.ll.y),
+                Math.max(rx, p_other.ur.x), Math.max(uy, p_other.ur.y),
+                Math.min(ulx, p_other.ll.x - p_other.ur.y), Math.max(lrx, p_other.ur.x - p_other.ll.y),
+                Math.min(llx, p_other.ll.x + p_other.ll.y), Math.max(urx, p_other.ur.x + p_other.ur.y));
     }
 
     /**
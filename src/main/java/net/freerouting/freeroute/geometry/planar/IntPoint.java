@@ -143,6 +143,9 @@ public class IntPoint extends Point {
 
     @Override
     public Side side_of(Line p_line) {
+        if (p_line.a instanceof IntPoint && p_line.b instanceof IntPoint) {
+            return ExactPredicates.side_of(this, (IntPoint) p_line.a, (IntPoint) p_line.b);
+        }
         Vector v1 = difference_by(p_line.a);
         Vector v2 = p_line.b.difference_by(p_line.a);
         return v1.side_of(v2);
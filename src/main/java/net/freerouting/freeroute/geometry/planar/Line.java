@@ -15,7 +15,6 @@
  */
 package net.freerouting.freeroute.geometry.planar;
 
-import java.math.BigInteger;
 import java.util.Objects;
 import net.freerouting.freeroute.datastructures.Signum;
 
@@ -308,35 +307,8 @@ public class Line implements Comparable<Line>, java.io.Serializable {
             }
         }
 
-        BigInteger det_1
-                = BigInteger.valueOf(((IntPoint) a).determinant((IntPoint) b));
-        BigInteger det_2
-                = BigInteger.valueOf(((IntPoint) p_other.a).determinant((IntPoint) p_other.b));
-        BigInteger det = BigInteger.valueOf(delta_2.determinant(delta_1));
-        BigInteger tmp_1 = det_1.multiply(BigInteger.valueOf(delta_2.x));
-        BigInteger tmp_2 = det_2.multiply(BigInteger.valueOf(delta_1.x));
-        BigInteger is_x = tmp_1.subtract(tmp_2);
-        tmp_1 = det_1.multiply(BigInteger.valueOf(delta_2.y));
-        tmp_2 = det_2.multiply(BigInteger.valueOf(delta_1.y));
-        BigInteger is_y = tmp_1.subtract(tmp_2);
-        int signum = det.signum();
-        if (signum != 0) {
-            if (signum < 0) {
-                det = det.negate();
-                is_x = is_x.negate();
-                is_y = is_y.negate();
-            }
-            if ((is_x.mod(det)).signum() == 0 && (is_y.mod(det)).signum() == 0) {
-                is_x = is_x.divide(det);
-                is_y = is_y.divide(det);
-                if (Math.abs(is_x.doubleValue()) <= Limits.CRIT_INT
-                        && Math.abs(is_y.doubleValue()) <= Limits.CRIT_INT) {
-                    return new IntPoint(is_x.intValue(), is_y.intValue());
-                }
-                det = BigInteger.ONE;
-            }
-        }
-        return new RationalPoint(is_x, is_y, det);
+        return ExactPredicates.intersection((IntPoint) a, (IntPoint) b, (IntPoint) p_other.a, (IntPoint) p_other.b,
+                delta_1, delta_2);
     }
 
     /**
@@ -500,12 +500,16 @@ public class PolygonShape extends PolylineShape {
                 // split failed, maybe the polygon has selfontersections
                 return null;
             }
-            precalculated_convex_pieces = new TileShape[convex_pieces.size()];
+            TileShape[] piece_arr = new TileShape[convex_pieces.size()];
             Iterator<PolygonShape> it = convex_pieces.iterator();
-            for (int i = 0; i < precalculated_convex_pieces.length; ++i) {
+            for (int i = 0; i < piece_arr.length; ++i) {
                 PolygonShape curr_piece = it.next();
-                precalculated_convex_pieces[i] = TileShapeUtils.get_instance(curr_piece.corners);
+                piece_arr[i] = TileShapeUtils.get_instance(curr_piece.corners);
             }
+            // assigned only when complete, because threads calculating the shapes
+            // of different board items may share this polygon
+            precalculated_convex_pieces = piece_arr;
+            return piece_arr.clone();
         }
         return precalculated_convex_pieces.clone();
     }
@@ -102,13 +102,10 @@ public class RationalPoint extends Point {
             return false;
         }
         RationalPoint other = (RationalPoint) p_ob;
-        BigInteger det = BigIntAux.determinant(x, other.x, z, other.z);
-        if (det.signum() != 0) {
+        if (ExactPredicates.signum_of_determinant(x, other.x, z, other.z) != 0) {
             return false;
         }
-        det = BigIntAux.determinant(y, other.y, z, other.z);
-
-        return (det.signum() == 0);
+        return ExactPredicates.signum_of_determinant(y, other.y, z, other.z) == 0;
     }
 
     @Override
@@ -155,20 +152,16 @@ public class RationalPoint extends Point {
 
     @Override
     public boolean is_contained_in(IntBox p_box) {
-        BigInteger tmp = BigInteger.valueOf(p_box.ll.x).multiply(z);
-        if (x.compareTo(tmp) < 0) {
+        if (ExactPredicates.signum_of_difference(x, z, p_box.ll.x) < 0) {
             return false;
         }
-        tmp = BigInteger.valueOf(p_box.ll.y).multiply(z);
-        if (y.compareTo(tmp) < 0) {
+        if (ExactPredicates.signum_of_difference(y, z, p_box.ll.y) < 0) {
             return false;
         }
-        tmp = BigInteger.valueOf(p_box.ur.x).multiply(z);
-        if (x.compareTo(tmp) > 0) {
+        if (ExactPredicates.signum_of_difference(x, z, p_box.ur.x) > 0) {
             return false;
         }
-        tmp = BigInteger.valueOf(p_box.ur.y).multiply(z);
-        return y.compareTo(tmp) <= 0;
+        return ExactPredicates.signum_of_difference(y, z, p_box.ur.y) <= 0;
     }
 
     /**
@@ -248,6 +241,9 @@ public class RationalPoint extends Point {
 
     @Override
     public Side side_of(Line p_line) {
+        if (p_line.a instanceof IntPoint && p_line.b instanceof IntPoint) {
+            return ExactPredicates.side_of(this, (IntPoint) p_line.a, (IntPoint) p_line.b);
+        }
         return side_of(p_line.a, p_line.b);
     }
 
@@ -311,28 +307,22 @@ public class RationalPoint extends Point {
 
     @Override
     int compare_x(RationalPoint p_other) {
-        BigInteger tmp1 = this.x.multiply(p_other.z);
-        BigInteger tmp2 = p_other.x.multiply(this.z);
-        return tmp1.compareTo(tmp2);
+        return ExactPredicates.signum_of_determinant(this.x, this.z, p_other.x, p_other.z);
     }
 
     @Override
     int compare_y(RationalPoint p_other) {
-        BigInteger tmp1 = this.y.multiply(p_other.z);
-        BigInteger tmp2 = p_other.y.multiply(this.z);
-        return tmp1.compareTo(tmp2);
+        return ExactPredicates.signum_of_determinant(this.y, this.z, p_other.y, p_other.z);
     }
 
     @Override
     int compare_x(IntPoint p_other) {
-        BigInteger tmp1 = this.z.multiply(BigInteger.valueOf(p_other.x));
-        return this.x.compareTo(tmp1);
+        return ExactPredicates.signum_of_difference(this.x, this.z, p_other.x);
     }
 
     @Override
     int compare_y(IntPoint p_other) {
-        BigInteger tmp1 = this.z.multiply(BigInteger.valueOf(p_other.y));
-        return this.y.compareTo(tmp1);
+        return ExactPredicates.signum_of_difference(this.y, this.z, p_other.y);
 
     }
 
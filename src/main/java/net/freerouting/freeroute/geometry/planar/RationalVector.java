@@ -87,14 +87,11 @@ public final class RationalVector implements Vector {
         if (getClass() != p_ob.getClass()) {
             return false;
         }
-        RationalPoint other = (RationalPoint) p_ob;
-        BigInteger det = BigIntAux.determinant(x, other.x, z, other.z);
-        if (det.signum() != 0) {
+        RationalVector other = (RationalVector) p_ob;
+        if (ExactPredicates.signum_of_determinant(x, other.x, z, other.z) != 0) {
             return false;
         }
-        det = BigIntAux.determinant(y, other.y, z, other.z);
-
-        return (det.signum() == 0);
+        return ExactPredicates.signum_of_determinant(y, other.y, z, other.z) == 0;
     }
 
     @Override
@@ -230,11 +227,7 @@ public final class RationalVector implements Vector {
      */
     @Override
     public Signum projection(RationalVector p_other) {
-        BigInteger tmp1 = x.multiply(p_other.x);
-        BigInteger tmp2 = y.multiply(p_other.y);
-        BigInteger tmp3 = tmp1.add(tmp2);
-        int result = tmp3.signum();
-        return Signum.of(result);
+        return Signum.of(ExactPredicates.signum_of_scalar_product(x, y, p_other.x, p_other.y));
     }
 
     /**
@@ -309,10 +302,6 @@ public final class RationalVector implements Vector {
      */
     @Override
     public Side side_of(RationalVector p_other) {
-        BigInteger tmp_1 = y.multiply(p_other.x);
-        BigInteger tmp_2 = x.multiply(p_other.y);
-        BigInteger determinant = tmp_1.subtract(tmp_2);
-        int signum = determinant.signum();
-        return Side.of(signum);
+        return Side.of(ExactPredicates.signum_of_determinant(y, p_other.y, x, p_other.x));
     }
 }
@@ -48,6 +48,20 @@ public abstract class RegularTileShape extends TileShape {
      */
     public abstract boolean contains(RegularTileShape p_other);
 
+    /**
+     * Calculates the area of union(p_other) without allocating the union.
+     */
+    public abstract double union_area(RegularTileShape p_other);
+
+    /**
+     * Returns the increase of the area of this shape, if it is replaced by
+     * its union with p_other. Used for choosing the node of a search tree,
+     * into which a new shape is inserted, without allocating the unions.
+     */
+    public double area_increase(RegularTileShape p_other) {
+        return union_area(p_other) - area();
+    }
+
     /**
      * Auxiliary function to implement the same function with parameter type
      * RegularTileShape.
@@ -72,6 +86,18 @@ public abstract class RegularTileShape extends TileShape {
      */
     abstract RegularTileShape union(IntOctagon p_other);
 
+    /**
+     * Auxiliary function to implement the same function with parameter type
+     * RegularTileShape.
+     */
+    abstract double union_area(IntBox p_other);
+
+    /**
+     * Auxiliary function to implement the same function with parameter type
+     * RegularTileShape.
+     */
+    abstract double union_area(IntOctagon p_other);
+
     /**
      * Auxiliary function to implement the same function with parameter type
      * RegularTileShape.
@@ -147,11 +147,16 @@ public class Simplex extends TileShape {
         } else {
             no = p_no;
         }
-        if (precalculated_corners == null) // corner array is not yet allocated
+        // The cache is read into a local variable, so that threads calculating
+        // the shapes of different board items may share this simplex.
+        Point[] corners = precalculated_corners;
+        if (corners == null) // corner array is not yet allocated
         {
-            precalculated_corners = new Point[arr.length];
+            corners = new Point[arr.length];
+            precalculated_corners = corners;
         }
-        if (precalculated_corners[no] == null) // corner is not yet calculated
+        Point result = corners[no];
+        if (result == null) // corner is not yet calculated
         {
             Line prev;
             if (no == 0) {
@@ -159,9 +164,10 @@ public class Simplex extends TileShape {
             } else {
                 prev = arr[no - 1];
             }
-            precalculated_corners[no] = arr[no].intersection(prev);
+            result = arr[no].intersection(prev);
+            corners[no] = result;
         }
-        return precalculated_corners[no];
+        return result;
     }
 
     /**
@@ -185,11 +191,14 @@ public class Simplex extends TileShape {
         } else {
             no = p_no;
         }
-        if (precalculated_float_corners == null) // corner array is not yet allocated
+        FloatPoint[] float_corners = precalculated_float_corners;
+        if (float_corners == null) // corner array is not yet allocated
         {
-            precalculated_float_corners = new FloatPoint[arr.length];
+            float_corners = new FloatPoint[arr.length];
+            precalculated_float_corners = float_corners;
         }
-        if (precalculated_float_corners[no] == null) // corner is not yet calculated
+        FloatPoint result = float_corners[no];
+        if (result == null) // corner is not yet calculated
         {
             Line prev;
             if (no == 0) {
@@ -197,19 +206,24 @@ public class Simplex extends TileShape {
             } else {
                 prev = arr[no - 1];
             }
-            precalculated_float_corners[no] = arr[no].intersection_approx(prev);
+            result = arr[no].intersection_approx(prev);
+            float_corners[no] = result;
         }
-        return precalculated_float_corners[no];
+        return result;
     }
 
     @Override
     public FloatPoint[] corner_approx_arr() {
-        if (precalculated_float_corners == null) // corner array is not yet allocated
+        FloatPoint[] float_corners = precalculated_float_corners;
+        if (float_corners == null) // corner array is not yet allocated
         {
-            precalculated_float_corners = new FloatPoint[arr.length];
+            float_corners = new FloatPoint[arr.length];
+            precalculated_float_corners = float_corners;
         }
-        for (int i = 0; i < precalculated_float_corners.length; ++i) {
-            if (precalculated_float_corners[i] == null) // corner is not yet calculated
+        FloatPoint[] result = new FloatPoint[float_corners.length];
+        for (int i = 0; i < float_corners.length; ++i) {
+            result[i] = float_corners[i];
+            if (result[i] == null) // corner is not yet calculated
             {
                 Line prev;
                 if (i == 0) {
@@ -217,10 +231,11 @@ public class Simplex extends TileShape {
                 } else {
                     prev = arr[i - 1];
                 }
-                precalculated_float_corners[i] = arr[i].intersection_approx(prev);
+                result[i] = arr[i].intersection_approx(prev);
+                float_corners[i] = result[i];
             }
         }
-        return precalculated_float_corners.clone();
+        return result;
     }
 
     /**
@@ -114,6 +114,10 @@ public class AutorouteSettings implements java.io.Serializable {
     AutorouteSettings(AutorouteSettings p_settings) {
         start_ripup_costs = p_settings.start_ripup_costs;
         start_pass_no = p_settings.start_pass_no;
+        with_fanout = p_settings.with_fanout;
+        with_autoroute = p_settings.with_autoroute;
+        with_postroute = p_settings.with_postroute;
+        vias_allowed = p_settings.vias_allowed;
         via_costs = p_settings.via_costs;
         plane_via_costs = p_settings.plane_via_costs;
         layer_active_arr = new boolean[p_settings.layer_active_arr.length];
@@ -21,9 +21,8 @@
 package net.freerouting.freeroute.interactive;
 
 import java.util.Locale;
-import net.freerouting.freeroute.autoroute.BatchAutorouter;
-import net.freerouting.freeroute.autoroute.BatchFanout;
-import net.freerouting.freeroute.autoroute.BatchOptRoute;
+import net.freerouting.freeroute.autoroute.BatchProgressListener;
+import net.freerouting.freeroute.autoroute.BatchRouter;
 import net.freerouting.freeroute.board.Unit;
 import net.freerouting.freeroute.geometry.planar.FloatLine;
 import net.freerouting.freeroute.geometry.planar.FloatPoint;
@@ -35,18 +34,15 @@ import net.freerouting.freeroute.geometry.planar.FloatPoint;
  */
 public class BatchAutorouterThread extends InteractiveActionThread {
 
-    private final BatchAutorouter batch_autorouter;
-    private final BatchOptRoute batch_opt_route;
+    private final BatchRouter batch_router;
 
     /**
      * Creates a new instance of BatchAutorouterThread
      */
     protected BatchAutorouterThread(BoardHandling p_board_handling) {
         super(p_board_handling);
-        AutorouteSettings autoroute_settings = p_board_handling.settings.autoroute_settings;
-        this.batch_autorouter = new BatchAutorouter(this, !autoroute_settings.get_with_fanout(), true, autoroute_settings.get_start_ripup_costs());
-        this.batch_opt_route = new BatchOptRoute(this);
-
+        this.batch_router = new BatchRouter(p_board_handling.get_routing_board(), p_board_handling.settings, this,
+                new ScreenProgressListener());
     }
 
     @Override
@@ -61,38 +57,19 @@ public class BatchAutorouterThread extends InteractiveActionThread {
         }
         String start_message = resources.getString("batch_autorouter") + " " + resources.getString("stop_message");
         hdlg.screen_messages.set_status_message(start_message);
-        boolean fanout_first
-                = hdlg.settings.autoroute_settings.get_with_fanout()
-                && hdlg.settings.autoroute_settings.get_pass_no() <= 1;
-        if (fanout_first) {
-            BatchFanout.fanout_board(this);
-        }
-        if (hdlg.settings.autoroute_settings.get_with_autoroute() && !this.is_stop_requested()) {
-            batch_autorouter.autoroute_passes();
+        BatchRouter.Result result = batch_router.route();
+        String curr_message;
+        if (this.is_stop_requested()) {
+            curr_message = resources.getString("interrupted");
+        } else {
+            curr_message = resources.getString("completed");
         }
-        hdlg.get_routing_board().finish_autoroute();
-        if (hdlg.settings.autoroute_settings.get_with_postroute() && !this.is_stop_requested()) {
-            String opt_message = resources.getString("batch_optimizer") + " " + resources.getString("stop_message");
-            hdlg.screen_messages.set_status_message(opt_message);
-            this.batch_opt_route.optimize_board();
-            String curr_message;
-            if (this.is_stop_requested()) {
-                curr_message = resources.getString("interrupted");
-            } else {
-                curr_message = resources.getString("completed");
-            }
+        if (hdlg.settings.autoroute_settings.get_with_postroute() && !result.interrupted) {
             String end_message = resources.getString("postroute") + " " + curr_message;
             hdlg.screen_messages.set_status_message(end_message);
         } else {
             hdlg.screen_messages.clear();
-            String curr_message;
-            if (this.is_stop_requested()) {
-                curr_message = resources.getString("interrupted");
-            } else {
-                curr_message = resources.getString("completed");
-            }
-            Integer incomplete_count = hdlg.get_ratsnest().incomplete_count();
-            String end_message = resources.getString("autoroute") + " " + curr_message + ", " + incomplete_count.toString()
+            String end_message = resources.getString("autoroute") + " " + curr_message + ", " + Integer.toString(result.incomplete_count)
                     + " " + resources.getString("connections_not_found");
             hdlg.screen_messages.set_status_message(end_message);
         }
@@ -111,7 +88,7 @@ public class BatchAutorouterThread extends InteractiveActionThread {
 
     @Override
     public void draw(java.awt.Graphics p_graphics) {
-        FloatLine curr_air_line = batch_autorouter.get_air_line();
+        FloatLine curr_air_line = batch_router.get_air_line();
         if (curr_air_line != null) {
             FloatPoint[] draw_line = new FloatPoint[2];
             draw_line[0] = curr_air_line.a;
@@ -121,7 +98,7 @@ public class BatchAutorouterThread extends InteractiveActionThread {
             double draw_width = Math.min(this.hdlg.get_routing_board().communication.get_resolution(Unit.MIL) * 3, 300);  // problem with low resolution on Kicad300;
             this.hdlg.graphics_context.draw(draw_line, draw_width, draw_color, p_graphics, 1);
         }
-        FloatPoint current_opt_position = batch_opt_route.get_current_position();
+        FloatPoint current_opt_position = batch_router.get_current_opt_position();
         int radius = 10 * this.hdlg.get_routing_board().rules.get_default_trace_half_width(0);
         if (current_opt_position != null) {
             final int draw_width = 1;
@@ -136,4 +113,47 @@ public class BatchAutorouterThread extends InteractiveActionThread {
             this.hdlg.graphics_context.draw_circle(current_opt_position, radius, draw_width, draw_color, p_graphics, 1);
         }
     }
+
+    /**
+     * Displays the progress of the batch router on the screen.
+     */
+    private class ScreenProgressListener implements BatchProgressListener {
+
+        private final java.util.ResourceBundle resources
+                = java.util.ResourceBundle.getBundle("net.freerouting.freeroute.interactive.resources.InteractiveState", Locale.getDefault());
+
+        @Override
+        public void fanout_progress(int p_pass_no, int p_components_to_go) {
+            hdlg.screen_messages.set_batch_fanout_info(p_pass_no, p_components_to_go);
+        }
+
+        @Override
+        public void autoroute_pass_started(int p_pass_no) {
+            String start_message = resources.getString("batch_autorouter") + " " + resources.getString("stop_message")
+                    + "        " + resources.getString("pass") + " " + Integer.toString(p_pass_no) + ": ";
+            hdlg.screen_messages.set_status_message(start_message);
+        }
+
+        @Override
+        public void autoroute_progress(int p_items_to_go, int p_routed, int p_ripped, int p_not_found) {
+            hdlg.screen_messages.set_batch_autoroute_info(p_items_to_go, p_routed, p_ripped, p_not_found);
+        }
+
+        @Override
+        public void optimize_pass_started(int p_pass_no) {
+            String start_message = resources.getString("batch_optimizer") + " " + resources.getString("stop_message")
+                    + "        " + resources.getString("pass") + " " + Integer.toString(p_pass_no) + ": ";
+            hdlg.screen_messages.set_status_message(start_message);
+        }
+
+        @Override
+        public void optimize_progress(int p_via_count, double p_trace_length) {
+            hdlg.screen_messages.set_post_route_info(p_via_count, hdlg.coordinate_transform.board_to_user(p_trace_length));
+        }
+
+        @Override
+        public void board_changed() {
+            hdlg.repaint();
+        }
+    }
 }
@@ -24,8 +24,10 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Reader;
@@ -36,6 +38,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import static net.freerouting.freeroute.SignalLayerWithIndexBuilder.ALL_LAYER_INDEX;
 import static net.freerouting.freeroute.SignalLayerWithIndexBuilder.INNER_LAYER_INDEX;
+import net.freerouting.freeroute.board.BinaryBoardFile;
 import net.freerouting.freeroute.board.BoardObservers;
 import net.freerouting.freeroute.board.CoordinateTransform;
 import net.freerouting.freeroute.board.FixedState;
@@ -67,6 +70,12 @@ import net.freerouting.freeroute.rules.ItemClass;
  */
 public final class BoardHandling {
 
+    /**
+     * The panel size used for the graphics context of a headless board
+     * handling.
+     */
+    private static final Dimension HEADLESS_PANEL_SIZE = new Dimension(1_000, 1_000);
+
     /**
      * The graphical context for drawing the board.
      */
@@ -105,7 +114,8 @@ public final class BoardHandling {
      */
     private RoutingBoard board = null;
     /**
-     * The graphical panel used for displaying the board.
+     * The graphical panel used for displaying the board, or null in a headless
+     * board handling.
      */
     private final net.freerouting.freeroute.BoardPanel panel;
     /**
@@ -131,9 +141,9 @@ public final class BoardHandling {
     /**
      * Creates a new BoardHandling
      */
-    private BoardHandling(net.freerouting.freeroute.BoardPanel p_panel) {
+    private BoardHandling(net.freerouting.freeroute.BoardPanel p_panel, ScreenMessages p_screen_messages) {
         this.panel = p_panel;
-        this.screen_messages = p_panel.screen_messages;
+        this.screen_messages = p_screen_messages;
         this.logfile = new Logfile();
         this.resources = java.util.ResourceBundle.getBundle("net.freerouting.freeroute.interactive.resources.BoardHandling", Locale.getDefault());
     }
@@ -142,11 +152,22 @@ public final class BoardHandling {
      * Creates a new BoardHandling instance
      */
     public static BoardHandling getInstance(net.freerouting.freeroute.BoardPanel p_panel) {
-        BoardHandling board_handling = new BoardHandling(p_panel);
+        BoardHandling board_handling = new BoardHandling(p_panel, p_panel.screen_messages);
         board_handling.set_interactive_state(SelectMenuState.get_instance(board_handling, board_handling.logfile));
         return board_handling;
     }
 
+    /**
+     * Creates a new BoardHandling instance without graphical panel. It can be
+     * used for reading and writing design files and for batch routing, but not
+     * for interactive actions.
+     */
+    public static BoardHandling get_headless_instance() {
+        ScreenMessages screen_messages = new ScreenMessages(new javax.swing.JLabel(), new javax.swing.JLabel(),
+                new javax.swing.JLabel(), new javax.swing.JLabel());
+        return new BoardHandling(null, screen_messages);
+    }
+
     /**
      * Sets the board to read only for example when running a seperate action
      * thread to avoid unsynchronized change of the board.
@@ -438,8 +459,8 @@ public final class BoardHandling {
 
     public void toggle_clearance_violations() {
         if (clearance_violations == null) {
-            clearance_violations = new ClearanceViolations(this.board.get_items());
-            Integer violation_count = (clearance_violations.size() + 1) / 2;
+            clearance_violations = new ClearanceViolations(this.board);
+            Integer violation_count = clearance_violations.size();
             String curr_message = violation_count.toString() + " " + resources.getString("clearance_violations_found");
             screen_messages.set_status_message(curr_message);
         } else {
@@ -449,6 +470,19 @@ public final class BoardHandling {
         repaint();
     }
 
+    /**
+     * Recalculates the displayed clearance violations, if they are active.
+     * Only the items changed since the last calculation are checked again.
+     * Must be called from the thread, which changes the board, and not while
+     * an interactive action thread is running, because the board and its
+     * search trees are read.
+     */
+    public void update_clearance_violations() {
+        if (clearance_violations != null) {
+            clearance_violations = new ClearanceViolations(this.board);
+        }
+    }
+
     /**
      * Displays all incomplete connections.
      */
@@ -502,7 +536,8 @@ public final class BoardHandling {
      */
     void update_ratsnest() {
         if (ratsnest != null) {
-            ratsnest = new RatsNest(this.board);
+            ratsnest.update();
+            ratsnest.show();
         }
     }
 
@@ -591,7 +626,7 @@ public final class BoardHandling {
         this.settings = new Settings(this.board, this.logfile);
 
         // create a graphics context for the board
-        Dimension panel_size = panel.getPreferredSize();
+        Dimension panel_size = panel == null ? HEADLESS_PANEL_SIZE : panel.getPreferredSize();
         graphics_context = new GraphicsContext(p_bounding_box, panel_size, p_layer_structure);
     }
 
@@ -629,6 +664,9 @@ public final class BoardHandling {
      * Repaints the board panel on the screen.
      */
     public void repaint() {
+        if (panel == null) {
+            return;
+        }
         if (this.paint_immediately) {
             final Rectangle2D MAX_RECTAMGLE = new Rectangle2D.Double(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
             panel.paintImmediately(MAX_RECTAMGLE.getBounds());
@@ -641,6 +679,9 @@ public final class BoardHandling {
      * Repaints a rectangle of board panel on the screen.
      */
     public void repaint(Rectangle2D p_rect) {
+        if (panel == null) {
+            return;
+        }
         if (this.paint_immediately) {
             panel.paintImmediately(p_rect.getBounds());
         } else {
@@ -716,6 +757,7 @@ public final class BoardHandling {
                 // a batch autorouter is undone.
                 this.settings.autoroute_settings.set_pass_no(1);
             }
+            this.update_clearance_violations();
             screen_messages.set_status_message(resources.getString("undo"));
         } else {
             screen_messages.set_status_message(resources.getString("no_more_undo_possible"));
@@ -734,6 +776,7 @@ public final class BoardHandling {
         java.util.Set<Integer> changed_nets = new java.util.TreeSet<>();
         if (board.redo(changed_nets)) {
             this.update_ratsnest(changed_nets.stream().mapToInt(i -> i).toArray());
+            this.update_clearance_violations();
             screen_messages.set_status_message(resources.getString("redo"));
         } else {
             screen_messages.set_status_message(resources.getString("no_more_redo_possible"));
@@ -937,10 +980,25 @@ public final class BoardHandling {
     }
 
     /**
-     * Reads an existing board design from the input stream. Returns false, if
-     * the input stream does not contains a legal board design.
+     * Reads an existing board design from a binary board file.
      */
-    public void read_design(java.io.ObjectInputStream p_design, TestLevel p_test_level) throws IOException, ClassNotFoundException {
+    public void read_design(BinaryBoardFile p_design, TestLevel p_test_level) throws IOException, ClassNotFoundException {
+        RoutingBoard new_board = p_design.read_board(p_test_level);
+        try (ObjectInputStream object_stream = p_design.open_object_section(BinaryBoardFile.SETTINGS_SECTION)) {
+            settings = (Settings) object_stream.readObject();
+            coordinate_transform = (CoordinateTransform) object_stream.readObject();
+            graphics_context = (GraphicsContext) object_stream.readObject();
+        }
+        board = new_board;
+        settings.set_logfile(this.logfile);
+        screen_messages.set_layer(board.layer_structure.get_name_layer(settings.layer_no));
+    }
+
+    /**
+     * Reads an existing board design saved by older versions as serialized
+     * objects from the input stream.
+     */
+    public void read_design(ObjectInputStream p_design, TestLevel p_test_level) throws IOException, ClassNotFoundException {
         board = (RoutingBoard) p_design.readObject();
         settings = (Settings) p_design.readObject();
         settings.set_logfile(this.logfile);
@@ -1011,15 +1069,20 @@ public final class BoardHandling {
     }
 
     /**
-     * Saves the currently edited board design to p_design_file.
+     * Adds the currently edited board design and the interactive settings to
+     * p_design_file.
      */
-    public boolean save_design_file(ObjectOutputStream p_object_stream) {
+    public boolean save_design_file(BinaryBoardFile.Writer p_design_file) {
         boolean result = true;
         try {
-            p_object_stream.writeObject(board);
-            p_object_stream.writeObject(settings);
-            p_object_stream.writeObject(coordinate_transform);
-            p_object_stream.writeObject(graphics_context);
+            p_design_file.add_board(board);
+            ByteArrayOutputStream settings_bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream object_stream = new ObjectOutputStream(settings_bytes)) {
+                object_stream.writeObject(settings);
+                object_stream.writeObject(coordinate_transform);
+                object_stream.writeObject(graphics_context);
+            }
+            p_design_file.add_section(BinaryBoardFile.SETTINGS_SECTION, settings_bytes.toByteArray());
         } catch (IOException e) {
             screen_messages.set_status_message(resources.getString("save_error"));
             result = false;
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import net.freerouting.freeroute.board.BasicBoard;
 import net.freerouting.freeroute.board.ClearanceViolation;
 import net.freerouting.freeroute.board.Item;
 import net.freerouting.freeroute.boardgraphics.GraphicsContext;
@@ -53,6 +54,15 @@ public class ClearanceViolations implements Iterable<ClearanceViolation>{
         immutable_list = ImmutableList.copyOf(list);
     }
 
+    /**
+     * Creates a new instance of ClearanceViolations containing the violations
+     * of all items on p_board, each violation between two items only once.
+     * Only the items changed since the last call are checked again.
+     */
+    public ClearanceViolations(BasicBoard p_board) {
+        immutable_list = ImmutableList.copyOf(p_board.get_clearance_violations());
+    }
+
     public void draw(Graphics p_graphics, GraphicsContext p_graphics_context) {
         java.awt.Color draw_color = p_graphics_context.get_violations_color();
         for (ClearanceViolation curr_violation : immutable_list) {
@@ -66,6 +66,8 @@ public abstract class InteractiveActionThread extends Thread implements net.free
     @Override
     public void run() {
         thread_action();
+        // the board is not changed any more by this thread
+        hdlg.update_clearance_violations();
         hdlg.repaint();
     }
 
@@ -25,7 +25,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 import net.freerouting.freeroute.board.BasicBoard;
 import net.freerouting.freeroute.board.Connectable;
 import net.freerouting.freeroute.board.Item;
@@ -35,20 +38,45 @@ import net.freerouting.freeroute.geometry.planar.FloatPoint;
 import net.freerouting.freeroute.rules.Net;
 
 /**
- * Creates all Incompletes (Ratsnest) to display them on the screen
+ * Creates all Incompletes (Ratsnest) to display them on the screen. After
+ * changes of the board only the incompletes of the changed nets have to be
+ * recalculated with update.
  *
  * @author Alfons Wirtz
  */
 public class RatsNest {
 
-    private final NetIncompletes[] net_incompletes;
-    private final boolean[] is_filtered;
+    /**
+     * If less nets have to be calculated, they are calculated in the calling
+     * thread.
+     */
+    static final int MIN_PARALLEL_NET_COUNT = 16;
+
+    private final BasicBoard board;
+    private NetIncompletes[] net_incompletes;
+    private boolean[] is_filtered;
+    /**
+     * The change count of each net, when its incompletes were calculated, or
+     * -1, if they were calculated from another item list than the items of the
+     * net on the board.
+     */
+    private long[] net_change_counts;
+    /**
+     * The change count of all nets at the last update.
+     */
+    private long change_count;
+    /**
+     * The sum of the incompletes of all nets.
+     */
+    private int incomplete_count = 0;
     public boolean hidden = false;
 
     /**
      * Creates a new instance of RatsNest
      */
-    RatsNest(BasicBoard p_board) {
+    public RatsNest(BasicBoard p_board) {
+        this.board = p_board;
+        this.change_count = p_board.get_net_change_count();
         int max_net_no = p_board.rules.nets.max_net_no();
         // Create the net item lists at once for performance reasons.
         ArrayList<Collection<Item>> net_item_lists = new ArrayList<>(max_net_no);
@@ -67,21 +95,78 @@ public class RatsNest {
                 }
             }
         }
-        this.net_incompletes = new NetIncompletes[max_net_no];
+        this.net_change_counts = new long[max_net_no];
         for (int i = 0; i < max_net_no; ++i) {
-            net_incompletes[i] = new NetIncompletes(i + 1, net_item_lists.get(i), p_board);
+            net_change_counts[i] = p_board.get_net_change_count(i + 1);
+        }
+        this.net_incompletes = calculate_net_incompletes(IntStream.rangeClosed(1, max_net_no).toArray(),
+                net_no -> net_item_lists.get(net_no - 1), p_board);
+        for (int i = 0; i < max_net_no; ++i) {
+            incomplete_count += net_incompletes[i].count();
         }
         this.is_filtered = new boolean[max_net_no];
         Arrays.fill(is_filtered, false);
     }
 
+    /**
+     * Recalculates the incomplete connections of the nets, whose items were
+     * inserted, removed or changed since the last update.
+     */
+    public void update() {
+        long curr_change_count = board.get_net_change_count();
+        int max_net_no = board.rules.nets.max_net_no();
+        if (curr_change_count == this.change_count && max_net_no <= net_incompletes.length) {
+            return;
+        }
+        this.change_count = curr_change_count;
+        if (max_net_no > net_incompletes.length) {
+            // nets were added to the board
+            int old_net_count = net_incompletes.length;
+            net_incompletes = Arrays.copyOf(net_incompletes, max_net_no);
+            net_change_counts = Arrays.copyOf(net_change_counts, max_net_no);
+            is_filtered = Arrays.copyOf(is_filtered, max_net_no);
+            Arrays.fill(net_change_counts, old_net_count, max_net_no, -1);
+        }
+        List<Integer> changed_nets = new ArrayList<>();
+        List<Long> changed_net_counts = new ArrayList<>();
+        for (int i = 0; i < net_incompletes.length; ++i) {
+            long curr_net_change_count = board.get_net_change_count(i + 1);
+            if (net_change_counts[i] != curr_net_change_count) {
+                changed_nets.add(i + 1);
+                changed_net_counts.add(curr_net_change_count);
+            }
+        }
+        NetIncompletes[] new_net_incompletes = calculate_net_incompletes(changed_nets.stream().mapToInt(i -> i).toArray(),
+                board::get_connectable_items, board);
+        for (int i = 0; i < new_net_incompletes.length; ++i) {
+            set_net_incompletes(changed_nets.get(i), new_net_incompletes[i], changed_net_counts.get(i));
+        }
+    }
+
+    /**
+     * Calculates the incompletes of the nets with the numbers in p_net_nos
+     * from the items returned by p_net_items. The nets are independent, so
+     * that they are calculated in parallel, while the board is only read.
+     */
+    private static NetIncompletes[] calculate_net_incompletes(int[] p_net_nos, IntFunction<Collection<Item>> p_net_items,
+            BasicBoard p_board) {
+        NetIncompletes[] result = new NetIncompletes[p_net_nos.length];
+        IntStream index_stream = IntStream.range(0, p_net_nos.length);
+        if (p_net_nos.length >= MIN_PARALLEL_NET_COUNT) {
+            index_stream = index_stream.parallel();
+        }
+        index_stream.forEach(i -> result[i] = new NetIncompletes(p_net_nos[i], p_net_items.apply(p_net_nos[i]), p_board));
+        return result;
+    }
+
     /**
      * Recalculates the incomplete connections for the input net
      */
     public void recalculate(final int p_net_no, BasicBoard p_board) {
         if (p_net_no >= 1 && p_net_no <= net_incompletes.length) {
+            long curr_change_count = p_board.get_net_change_count(p_net_no);
             Collection<Item> item_list = p_board.get_connectable_items(p_net_no);
-            net_incompletes[p_net_no - 1] = new NetIncompletes(p_net_no, item_list, p_board);
+            set_net_incompletes(p_net_no, new NetIncompletes(p_net_no, item_list, p_board), curr_change_count);
         }
     }
 
@@ -91,16 +176,28 @@ public class RatsNest {
      */
     public void recalculate(final int p_net_no, final Collection<Item> p_item_list, BasicBoard p_board) {
         if (p_net_no >= 1 && p_net_no <= net_incompletes.length) {
-            net_incompletes[p_net_no - 1] = new NetIncompletes(p_net_no, p_item_list, p_board);
+            // p_item_list may differ from the items of the net on the board, so the next update recalculates the net.
+            set_net_incompletes(p_net_no, new NetIncompletes(p_net_no, p_item_list, p_board), -1);
+            this.change_count = -1;
         }
     }
 
-    public int incomplete_count() {
-        int result = 0;
-        for (int i = 0; i < net_incompletes.length; ++i) {
-            result += net_incompletes[i].count();
+    private void set_net_incompletes(int p_net_no, NetIncompletes p_net_incompletes, long p_change_count) {
+        NetIncompletes old_net_incompletes = net_incompletes[p_net_no - 1];
+        if (old_net_incompletes != null) {
+            incomplete_count -= old_net_incompletes.count();
         }
-        return result;
+        net_incompletes[p_net_no - 1] = p_net_incompletes;
+        net_change_counts[p_net_no - 1] = p_change_count;
+        incomplete_count += p_net_incompletes.count();
+    }
+
+    /**
+     * Returns the number of incomplete connections of all nets as calculated
+     * in the last update.
+     */
+    public int incomplete_count() {
+        return incomplete_count;
     }
 
     public int length_violation_count() {
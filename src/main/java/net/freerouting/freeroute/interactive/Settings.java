@@ -156,10 +156,18 @@ public class Settings implements java.io.Serializable {
         snapshot_attributes = new SnapshotAttributes();
     }
 
+    /**
+     * Creates interactive settings with default values without logging, for
+     * use without a board handling, for example by the batch autorouter.
+     */
+    public Settings(RoutingBoard p_board) {
+        this(p_board, new Logfile());
+    }
+
     /**
      * Copy constructor
      */
-    Settings(Settings p_settings) {
+    public Settings(Settings p_settings) {
         this.logfile = p_settings.logfile;
         this.read_only = p_settings.read_only;
         this.layer_no = p_settings.layer_no;
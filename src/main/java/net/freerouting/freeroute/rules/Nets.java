@@ -19,10 +19,13 @@
  */
 package net.freerouting.freeroute.rules;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,13 +57,19 @@ public class Nets implements java.io.Serializable {
      * The list of electrical nets on the board
      */
     private final List<Net> list;
+    /**
+     * The nets with the same name ignoring case, in the order of their net
+     * numbers. Calculated on demand.
+     */
+    private transient Map<String, List<Net>> name_index = null;
     private net.freerouting.freeroute.board.BasicBoard board;
 
     /**
      * Creates a new empty net list
      */
     public Nets() {
-        list = new LinkedList<>();
+        // net numbers are looked up by index
+        list = new ArrayList<>();
     }
 
     /**
@@ -75,8 +84,8 @@ public class Nets implements java.io.Serializable {
      * such net exists.
      */
     public Net get(String p_name, int p_subnet_number) {
-        for (Net curr_net : list) {
-            if (curr_net.name.compareToIgnoreCase(p_name) == 0 && curr_net.subnet_number == p_subnet_number) {
+        for (Net curr_net : get_name_index().getOrDefault(p_name, List.of())) {
+            if (curr_net.subnet_number == p_subnet_number) {
                 return curr_net;
             }
         }
@@ -87,13 +96,7 @@ public class Nets implements java.io.Serializable {
      * Returns all subnets with the input name.
      */
     public Collection<Net> get(String p_name) {
-        Collection<Net> result = new java.util.LinkedList<>();
-        for (Net curr_net : list) {
-            if (curr_net != null && curr_net.name.compareToIgnoreCase(p_name) == 0) {
-                result.add(curr_net);
-            }
-        }
-        return result;
+        return new LinkedList<>(get_name_index().getOrDefault(p_name, List.of()));
     }
 
     /**
@@ -131,9 +134,28 @@ public class Nets implements java.io.Serializable {
         }
         Net new_net = new Net(p_name, p_subnet_number, new_net_no, this, p_contains_plane);
         list.add(new_net);
+        if (name_index != null) {
+            name_index.computeIfAbsent(p_name, k -> new LinkedList<>()).add(new_net);
+        }
         return new_net;
     }
 
+    /**
+     * Returns the index of the nets by name. The names are compared ignoring
+     * case.
+     */
+    private Map<String, List<Net>> get_name_index() {
+        if (name_index == null) {
+            name_index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Net curr_net : list) {
+                if (curr_net != null) {
+                    name_index.computeIfAbsent(curr_net.name, k -> new LinkedList<>()).add(curr_net);
+                }
+            }
+        }
+        return name_index;
+    }
+
     /**
      * Sets the Board of this net list. Used for example to get access to the
      * Items of the net.
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import net.freerouting.freeroute.autoroute.BatchProgressListener;
+import net.freerouting.freeroute.autoroute.BatchRouter;
+import net.freerouting.freeroute.board.BasicBoard;
+import net.freerouting.freeroute.board.BoardObserverAdaptor;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.ItemIdNoGenerator;
+import net.freerouting.freeroute.board.TestLevel;
+import net.freerouting.freeroute.designformats.specctra.DsnFile;
+import net.freerouting.freeroute.designformats.specctra.DsnFileException;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+import net.freerouting.freeroute.interactive.BoardHandling;
+
+/**
+ * The designs bundled with the benchmarks in the resource folder designs.
+ * They are grids of dual inline packages with through hole pins, whose nets
+ * connect pins of neighbouring packages, and differ in the number of
+ * packages, nets and signal layers:
+ * <pre>
+ * SMALL   12 packages,  24 nets, 2 layers
+ * MEDIUM  48 packages, 144 nets, 4 layers
+ * DENSE  120 packages, 406 nets, 6 layers
+ * </pre>
+ * The packages are placed without clearance violations between their pins,
+ * like in a design exported from a layout program, which {@link #read}
+ * checks. All of them can be routed completely by the batch autorouter.
+ *
+ * @author agent
+ */
+public enum BenchmarkDesign {
+
+    SMALL("small.dsn"),
+    MEDIUM("medium.dsn"),
+    DENSE("dense.dsn");
+
+    private final String file_name;
+    private String text = null;
+
+    BenchmarkDesign(String p_file_name) {
+        this.file_name = p_file_name;
+    }
+
+    /**
+     * Returns the content of the dsn-file of this design.
+     */
+    public synchronized String get_text() throws IOException {
+        if (this.text == null) {
+            try (InputStream input_stream = BenchmarkDesign.class.getResourceAsStream("designs/" + this.file_name)) {
+                if (input_stream == null) {
+                    throw new IOException("BenchmarkDesign: resource designs/" + this.file_name + " not found");
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = input_stream.read(buffer)) > 0) {
+                    bytes.write(buffer, 0, length);
+                }
+                this.text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+        return this.text;
+    }
+
+    /**
+     * Reads this design into a new headless board handling. Throws an
+     * IllegalStateException, if the unrouted design has clearance violations.
+     */
+    public BoardHandling read() throws IOException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        try {
+            DsnFile.read(new StringReader(get_text()), result, new BoardObserverAdaptor(), new ItemIdNoGenerator(),
+                    TestLevel.RELEASE_VERSION);
+        } catch (DsnFileException e) {
+            throw new IOException(e);
+        }
+        int violation_count = result.get_routing_board().clearance_violation_count();
+        if (violation_count != 0) {
+            throw new IllegalStateException("BenchmarkDesign: " + this.file_name + " has " + violation_count
+                    + " clearance violations after reading");
+        }
+        result.get_routing_board().reduce_nets_of_route_items();
+        return result;
+    }
+
+    /**
+     * Reads this design and routes it with a single batch autoroute pass
+     * without fanout and post route optimization.
+     */
+    public BoardHandling read_routed() throws IOException {
+        BoardHandling result = read();
+        route(result);
+        return result;
+    }
+
+    /**
+     * Routes the board of p_board_handling with a single batch autoroute pass
+     * without fanout and post route optimization.
+     */
+    public static BatchRouter.Result route(BoardHandling p_board_handling) {
+        BatchRouter batch_router = new BatchRouter(p_board_handling.get_routing_board(), p_board_handling.settings, null,
+                BatchProgressListener.NONE);
+        batch_router.set_max_pass_counts(0, 1, 0);
+        return batch_router.route();
+    }
+
+    /**
+     * Returns the item with id number p_id_no on p_board. The benchmarks
+     * restoring the board by undo must look up their items again, because undo
+     * puts copies of the changed items back onto the board.
+     */
+    public static Item find_item(BasicBoard p_board, int p_id_no) {
+        for (Item curr_item : p_board.get_items()) {
+            if (curr_item.get_id_no() == p_id_no) {
+                return curr_item;
+            }
+        }
+        throw new IllegalStateException("BenchmarkDesign: item " + p_id_no + " not found");
+    }
+
+    /**
+     * Returns the class, id number, nets, layers and bounding box of the items
+     * of p_board in the order of the item list.
+     */
+    public static List<String> item_descriptions(BasicBoard p_board) {
+        List<String> result = new ArrayList<>();
+        for (Item curr_item : p_board.get_items()) {
+            StringBuilder description = new StringBuilder(curr_item.getClass().getSimpleName());
+            description.append(' ').append(curr_item.get_id_no());
+            for (int i = 0; i < curr_item.net_count(); ++i) {
+                description.append(" net ").append(curr_item.get_net_no(i));
+            }
+            description.append(" layers ").append(curr_item.first_layer()).append('-').append(curr_item.last_layer());
+            IntBox curr_box = curr_item.bounding_box();
+            description.append(" box ").append(curr_box.ll.x).append(' ').append(curr_box.ll.y)
+                    .append(' ').append(curr_box.ur.x).append(' ').append(curr_box.ur.y);
+            result.add(description.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.Pin;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import net.freerouting.freeroute.interactive.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the autorouting of single connections on the unrouted benchmark
+ * designs. Each invocation routes one pin of another net to the rest of its
+ * net including the pull tight of the new trace, and the board is restored
+ * by undo afterwards, so that every invocation starts from the unrouted
+ * design. The pins are remembered by their id numbers. Not a unit test, run
+ * it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=AutorouteBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutorouteBenchmark {
+
+    @Param
+    public BenchmarkDesign design;
+
+    private RoutingBoard routing_board;
+    private Settings settings;
+    private List<Integer> route_pin_id_nos;
+    private int pin_no = 0;
+    private Item curr_pin;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(AutorouteBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void read_design() throws Exception {
+        BoardHandling board_handling = design.read();
+        this.routing_board = board_handling.get_routing_board();
+        this.settings = board_handling.settings;
+        this.route_pin_id_nos = new ArrayList<>();
+        for (int i = 1; i <= routing_board.rules.nets.max_net_no(); ++i) {
+            for (Item curr_item : routing_board.get_connectable_items(i)) {
+                if (curr_item instanceof Pin && curr_item.net_count() == 1) {
+                    route_pin_id_nos.add(curr_item.get_id_no());
+                    break;
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void generate_snapshot() {
+        pin_no = (pin_no + 1) % route_pin_id_nos.size();
+        curr_pin = BenchmarkDesign.find_item(routing_board, route_pin_id_nos.get(pin_no));
+        routing_board.generate_snapshot();
+    }
+
+    @TearDown(Level.Invocation)
+    public void undo() {
+        routing_board.undo(null);
+    }
+
+    @Benchmark
+    public AutorouteEngine.AutorouteResult autoroute_connection() {
+        routing_board.start_marking_changed_area();
+        return routing_board.autoroute(curr_pin, settings, settings.autoroute_settings.get_via_costs(), null, null);
+    }
+}
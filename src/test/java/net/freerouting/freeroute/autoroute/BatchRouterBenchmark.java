@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures a full batch autoroute pass over the benchmark designs without
+ * fanout and post route optimization. Each invocation routes a freshly read
+ * design, the reading is not measured. Not a unit test, run it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=BatchRouterBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchRouterBenchmark {
+
+    @Param
+    public BenchmarkDesign design;
+
+    @Param({"1"})
+    public int thread_count;
+
+    private BoardHandling board_handling;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(BatchRouterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Invocation)
+    public void read_design() throws Exception {
+        this.board_handling = design.read();
+    }
+
+    @Benchmark
+    public BatchRouter.Result batch_pass() {
+        BatchRouter batch_router = new BatchRouter(board_handling.get_routing_board(), board_handling.settings, null,
+                BatchProgressListener.NONE);
+        batch_router.set_max_pass_counts(0, 1, 0);
+        batch_router.set_thread_count(thread_count);
+        return batch_router.route();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares MazeExpansionList with the TreeSet, which was the queue of the maze
+ * search before. The maze search is deterministic, so it expands the same
+ * elements and finds the same routes, if both queues return the elements in
+ * the same order.
+ *
+ * @author agent
+ */
+public class MazeExpansionListTest {
+
+    private static final int TEST_COUNT = 200;
+    private static final int OPERATION_COUNT = 2_000;
+
+    /**
+     * The comparator of the former MazeListElement.compareTo. It never returns
+     * 0, so that elements with equal sorting value are all kept in the set.
+     */
+    private static final Comparator<MazeListElement> TREE_SET_ORDER = (p_1, p_2) -> {
+        double compare_value = p_1.sorting_value - p_2.sorting_value;
+        return compare_value >= 0 ? 1 : -1;
+    };
+
+    /**
+     * Test of add and poll methods, of class MazeExpansionList, against a
+     * TreeSet. The sorting values are taken from a small range, so that many
+     * elements have equal values, and several elements are queued for the
+     * same door section, as in a search where the expansion of an element
+     * leaves its section unoccupied.
+     */
+    @Test
+    public void testPoll_order() {
+        Random random = new Random(4717);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            MazeExpansionList expansion_list = new MazeExpansionList();
+            TreeSet<MazeListElement> tree_set = new TreeSet<>(TREE_SET_ORDER);
+            int value_range = 1 + random.nextInt(50);
+            for (int j = 0; j < OPERATION_COUNT; ++j) {
+                if (random.nextInt(3) == 0 && !tree_set.isEmpty()) {
+                    assert_next_equal(tree_set, expansion_list);
+                } else {
+                    MazeListElement new_element = new_element(random.nextInt(value_range), random.nextInt(8));
+                    expansion_list.add(new_element);
+                    tree_set.add(new_element);
+                }
+                assertEquals(tree_set.size(), expansion_list.size());
+            }
+            while (!tree_set.isEmpty()) {
+                assert_next_equal(tree_set, expansion_list);
+            }
+            assertTrue(expansion_list.isEmpty());
+            assertNull(expansion_list.poll());
+        }
+    }
+
+    /**
+     * Test of add method, of class MazeExpansionList, with a more expensive
+     * element for the same door section and next room, which must not be
+     * dropped.
+     */
+    @Test
+    public void testAdd_same_door_section() {
+        MazeExpansionList expansion_list = new MazeExpansionList();
+        MazeListElement cheap_element = new_element(1, 0);
+        MazeListElement expensive_element = new_element(2, 0);
+        MazeListElement equal_element = new_element(1, 0);
+        expansion_list.add(cheap_element);
+        expansion_list.add(expensive_element);
+        expansion_list.add(equal_element);
+        assertEquals(3, expansion_list.size());
+        assertSame(cheap_element, expansion_list.poll());
+        assertSame(equal_element, expansion_list.poll());
+        assertSame(expensive_element, expansion_list.poll());
+    }
+
+    private static void assert_next_equal(TreeSet<MazeListElement> p_tree_set, MazeExpansionList p_expansion_list) {
+        Iterator<MazeListElement> it = p_tree_set.iterator();
+        MazeListElement expected = it.next();
+        it.remove();
+        assertSame(expected, p_expansion_list.poll());
+    }
+
+    /**
+     * Creates an element for the section p_section_no of the same door without
+     * next room.
+     */
+    private static MazeListElement new_element(double p_sorting_value, int p_section_no) {
+        return new MazeListElement(null, p_section_no, null, 0, p_sorting_value, p_sorting_value,
+                null, null, false, MazeSearchElement.Adjustment.NONE, false);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.io.File;
+import java.io.IOException;
+import net.freerouting.freeroute.board.BoardObserverAdaptor;
+import net.freerouting.freeroute.board.ItemIdNoGenerator;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.board.TestLevel;
+import net.freerouting.freeroute.designformats.specctra.DsnFile;
+import net.freerouting.freeroute.designformats.specctra.DsnFileException;
+import net.freerouting.freeroute.interactive.BoardHandling;
+
+/**
+ * Measures the maze search expansions per search and per second of the first
+ * autoroute pass on a design. Not a unit test, run it with the design file as
+ * argument and optionally the number of repetitions:
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.autoroute.MazeSearchBenchmark dense.dsn 5
+ * </pre>
+ * The first repetition warms up the virtual machine and is not counted.
+ *
+ * @author agent
+ */
+public class MazeSearchBenchmark {
+
+    public static void main(String[] p_args) throws Exception {
+        if (p_args.length < 1) {
+            System.out.println("usage: MazeSearchBenchmark DSN_FILE [REPETITIONS]");
+            return;
+        }
+        int repetitions = p_args.length > 1 ? Integer.parseInt(p_args[1]) : 3;
+        long total_expansions = 0;
+        long total_searches = 0;
+        long total_nanos = 0;
+        for (int i = 0; i <= repetitions; ++i) {
+            BoardHandling board_handling = read_design(p_args[0]);
+            RoutingBoard routing_board = board_handling.get_routing_board();
+            BatchRouter batch_router = new BatchRouter(routing_board, board_handling.settings, null, BatchProgressListener.NONE);
+            batch_router.set_max_pass_counts(0, 1, 0);
+            long expansions_before = MazeSearchAlgo.get_expansion_count();
+            long searches_before = MazeSearchAlgo.get_search_count();
+            long start_time = System.nanoTime();
+            batch_router.route();
+            long nanos = System.nanoTime() - start_time;
+            long expansions = MazeSearchAlgo.get_expansion_count() - expansions_before;
+            long searches = MazeSearchAlgo.get_search_count() - searches_before;
+            System.out.printf("run %d: %d expansions in %d searches, %.1f expansions/search, %d ms, %.0f expansions/s%n",
+                    i, expansions, searches, (double) expansions / Math.max(searches, 1), nanos / 1_000_000, expansions * 1e9 / nanos);
+            if (i > 0) {
+                total_expansions += expansions;
+                total_searches += searches;
+                total_nanos += nanos;
+            }
+        }
+        if (total_nanos > 0) {
+            System.out.printf("average: %.1f expansions/search, %.0f expansions/s%n",
+                    (double) total_expansions / Math.max(total_searches, 1), total_expansions * 1e9 / total_nanos);
+        }
+    }
+
+    private static BoardHandling read_design(String p_file_name) throws IOException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        try {
+            DsnFile.read(new File(p_file_name), result, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        } catch (DsnFileException e) {
+            throw new IOException(e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.io.IOException;
+import java.util.List;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the batch autorouter running on several threads with the
+ * sequential autorouter on the small and medium benchmark designs.
+ *
+ * The connections of a round are routed on the same board state, so the
+ * routes depend on the thread count, but all thread counts must route the
+ * designs completely without clearance violations.
+ *
+ * @author agent
+ */
+public class ParallelBatchAutorouterTest {
+
+    /**
+     * The thread counts of the autorouter runs. The first run is sequential,
+     * the last thread count is repeated to check, that the result does not
+     * depend on the timing of the threads.
+     */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 4};
+    /**
+     * The relative amount, by which the trace length routed on several
+     * threads may exceed the trace length of the sequential autorouter.
+     */
+    private static final double MAX_TRACE_LENGTH_EXCESS = 0.01;
+
+    /**
+     * Test of autoroute_items method, of class ParallelBatchAutorouter, on the
+     * small design.
+     */
+    @Test
+    public void testAutoroute_items_small() throws IOException {
+        assert_routed_like_sequential(route(BenchmarkDesign.SMALL));
+    }
+
+    /**
+     * Test of autoroute_items method, of class ParallelBatchAutorouter, on the
+     * medium design.
+     */
+    @Test
+    public void testAutoroute_items_medium() throws IOException {
+        assert_routed_like_sequential(route(BenchmarkDesign.MEDIUM));
+    }
+
+    /**
+     * Checks, that all boards in p_routed_boards are routed completely without
+     * clearance violations, that the trace length of the parallel runs is
+     * close to the sequential run, and that the runs with the same thread
+     * count have the same result.
+     */
+    private static void assert_routed_like_sequential(RoutedBoard[] p_routed_boards) {
+        RoutedBoard sequential = p_routed_boards[0];
+        for (RoutedBoard curr_routed : p_routed_boards) {
+            assertFalse(curr_routed.result.interrupted);
+            assertEquals(0, curr_routed.result.incomplete_count);
+            assertEquals(0, curr_routed.board.clearance_violation_count());
+            assertTrue(curr_routed.result.trace_length
+                    <= (1 + MAX_TRACE_LENGTH_EXCESS) * sequential.result.trace_length);
+        }
+        RoutedBoard last = p_routed_boards[p_routed_boards.length - 1];
+        RoutedBoard repeated = p_routed_boards[p_routed_boards.length - 2];
+        assertEquals(repeated.result.via_count, last.result.via_count);
+        assertEquals(repeated.result.trace_length, last.result.trace_length, 0);
+        assertEquals(repeated.item_descriptions, last.item_descriptions);
+    }
+
+    /**
+     * Reads p_design and routes it completely without fanout and post route
+     * optimization for each thread count in THREAD_COUNTS.
+     */
+    private static RoutedBoard[] route(BenchmarkDesign p_design) throws IOException {
+        RoutedBoard[] result = new RoutedBoard[THREAD_COUNTS.length];
+        for (int i = 0; i < result.length; ++i) {
+            BoardHandling board_handling = p_design.read();
+            RoutingBoard board = board_handling.get_routing_board();
+            board_handling.settings.autoroute_settings.set_with_postroute(false);
+            BatchRouter batch_router = new BatchRouter(board, board_handling.settings, null, BatchProgressListener.NONE);
+            batch_router.set_max_pass_counts(0, Integer.MAX_VALUE, 0);
+            batch_router.set_thread_count(THREAD_COUNTS[i]);
+            result[i] = new RoutedBoard(board, batch_router.route());
+        }
+        return result;
+    }
+
+    /**
+     * A board routed with a thread count together with the result of the
+     * autorouter.
+     */
+    private static class RoutedBoard {
+
+        final RoutingBoard board;
+        final BatchRouter.Result result;
+        final List<String> item_descriptions;
+
+        RoutedBoard(RoutingBoard p_board, BatchRouter.Result p_result) {
+            this.board = p_board;
+            this.result = p_result;
+            this.item_descriptions = BenchmarkDesign.item_descriptions(p_board);
+        }
+    }
+}
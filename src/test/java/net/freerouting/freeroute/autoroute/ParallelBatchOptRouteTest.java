@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.autoroute;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.FixedState;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.board.Via;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import net.freerouting.freeroute.interactive.Settings;
+import net.freerouting.freeroute.rules.ViaInfo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the post route optimizer running on several threads with the
+ * sequential optimizer on the completely routed small and medium benchmark
+ * designs, and checks the transfer of changes between board copies.
+ *
+ * @author agent
+ */
+public class ParallelBatchOptRouteTest {
+
+    /**
+     * The thread counts of the optimizer runs. The first run is sequential,
+     * the last thread count is repeated to check, that the result does not
+     * depend on the timing of the threads.
+     */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 4};
+    /**
+     * The relative amount, by which the trace length optimized on several
+     * threads may exceed the trace length of the sequential optimizer, because
+     * the autorouter may find other routes of the same cost on the board
+     * copies.
+     */
+    private static final double MAX_TRACE_LENGTH_EXCESS = 1e-4;
+
+    /**
+     * Test of opt_route_items method, of class ParallelBatchOptRoute, on the
+     * small design, where the result equals the result of the sequential
+     * optimizer.
+     */
+    @Test
+    public void testOpt_route_items_small() throws IOException {
+        OptimizedBoard[] optimized_boards = optimize(BenchmarkDesign.SMALL);
+        OptimizedBoard sequential = optimized_boards[0];
+        for (OptimizedBoard curr_optimized : optimized_boards) {
+            assert_complete(curr_optimized);
+            assertEquals(sequential.result.via_count, curr_optimized.result.via_count);
+            assertEquals(sequential.result.trace_length, curr_optimized.result.trace_length, 0);
+            assertEquals(sequential.item_descriptions, curr_optimized.item_descriptions);
+        }
+    }
+
+    /**
+     * Test of opt_route_items method, of class ParallelBatchOptRoute, on the
+     * medium design. The result may differ slightly from the result of the
+     * sequential optimizer, but not between runs with the same thread count.
+     */
+    @Test
+    public void testOpt_route_items_medium() throws IOException {
+        OptimizedBoard[] optimized_boards = optimize(BenchmarkDesign.MEDIUM);
+        OptimizedBoard sequential = optimized_boards[0];
+        for (OptimizedBoard curr_optimized : optimized_boards) {
+            assert_complete(curr_optimized);
+            assertTrue(curr_optimized.result.via_count <= sequential.result.via_count);
+            assertTrue(curr_optimized.result.trace_length
+                    <= (1 + MAX_TRACE_LENGTH_EXCESS) * sequential.result.trace_length);
+        }
+        OptimizedBoard last = optimized_boards[optimized_boards.length - 1];
+        OptimizedBoard repeated = optimized_boards[optimized_boards.length - 2];
+        assertEquals(repeated.result.trace_length, last.result.trace_length, 0);
+        assertEquals(repeated.item_descriptions, last.item_descriptions);
+    }
+
+    /**
+     * Test of commit and replay methods, of class BoardChange. A change made
+     * on a board copy is committed to the board and replayed to another copy.
+     */
+    @Test
+    public void testCommit_replay() throws IOException {
+        RoutingBoard board = BenchmarkDesign.SMALL.read_routed().get_routing_board();
+        RoutingBoard[] board_copies = BoardChange.copy_board(board, 2);
+        assertNotNull(board_copies);
+        assertEquals(BenchmarkDesign.item_descriptions(board), BenchmarkDesign.item_descriptions(board_copies[0]));
+
+        // remove a trace and insert a via on the first copy and undo it to get the change
+        RoutingBoard changed_copy = board_copies[0];
+        changed_copy.generate_snapshot();
+        Item removed_trace = changed_copy.get_traces().iterator().next();
+        changed_copy.remove_item(removed_trace);
+        ViaInfo via_info = changed_copy.rules.via_infos.get(0);
+        IntPoint via_center = new IntPoint(changed_copy.bounding_box.ll.x + changed_copy.bounding_box.width() / 10,
+                changed_copy.bounding_box.ll.y + changed_copy.bounding_box.height() / 10);
+        Via inserted_via = changed_copy.insert_via(via_info.get_padstack(), via_center, new int[]{1},
+                via_info.get_clearance_class(), FixedState.UNFIXED, false);
+        assertNotNull(inserted_via);
+        List<String> changed_descriptions = BenchmarkDesign.item_descriptions(changed_copy);
+        Collection<Item> removed_items = new LinkedList<>();
+        Collection<Item> inserted_items = new LinkedList<>();
+        assertTrue(changed_copy.undo(null, inserted_items, removed_items));
+        BoardChange change = new BoardChange(removed_items, inserted_items);
+        assertTrue(change.changes_route_items_only());
+
+        BoardChange committed_change = change.commit(board, true);
+        assertEquals(changed_descriptions, BenchmarkDesign.item_descriptions(board));
+        committed_change.replay(board_copies[1]);
+        assertEquals(changed_descriptions, BenchmarkDesign.item_descriptions(board_copies[1]));
+        assertEquals(1, board_copies[1].via_count());
+
+        // without keeping the id numbers the via gets the next id number of the board
+        RoutingBoard other_board = BenchmarkDesign.SMALL.read_routed().get_routing_board();
+        int max_id_no = inserted_via.get_id_no() + 100;
+        other_board.communication.id_no_generator.reset(max_id_no);
+        BoardChange other_committed_change = change.commit(other_board, false);
+        assertEquals(1, other_committed_change.inserted_items.size());
+        assertEquals(max_id_no + 1, other_committed_change.inserted_items.iterator().next().get_id_no());
+        assertEquals(1, other_board.via_count());
+    }
+
+    /**
+     * Routes p_design completely and optimizes copies of the routed board with
+     * a single optimizer pass for each thread count in THREAD_COUNTS.
+     */
+    private static OptimizedBoard[] optimize(BenchmarkDesign p_design) throws IOException {
+        BoardHandling board_handling = p_design.read();
+        RoutingBoard board = board_handling.get_routing_board();
+        Settings route_settings = new Settings(board_handling.settings);
+        route_settings.autoroute_settings.set_with_postroute(false);
+        BatchRouter batch_router = new BatchRouter(board, route_settings, null, BatchProgressListener.NONE);
+        batch_router.set_max_pass_counts(0, Integer.MAX_VALUE, 0);
+        BatchRouter.Result routed = batch_router.route();
+        assertEquals(0, routed.incomplete_count);
+        RoutingBoard[] board_copies = BoardChange.copy_board(board, THREAD_COUNTS.length);
+        assertNotNull(board_copies);
+        OptimizedBoard[] result = new OptimizedBoard[THREAD_COUNTS.length];
+        for (int i = 0; i < result.length; ++i) {
+            Settings optimize_settings = new Settings(board_handling.settings);
+            optimize_settings.autoroute_settings.set_with_autoroute(false);
+            optimize_settings.autoroute_settings.set_with_postroute(true);
+            BatchRouter optimizer = new BatchRouter(board_copies[i], optimize_settings, null, BatchProgressListener.NONE);
+            optimizer.set_max_pass_counts(0, 0, 1);
+            optimizer.set_thread_count(THREAD_COUNTS[i]);
+            result[i] = new OptimizedBoard(board_copies[i], optimizer.route());
+            assertTrue(result[i].result.trace_length < routed.trace_length);
+        }
+        return result;
+    }
+
+    private static void assert_complete(OptimizedBoard p_optimized) {
+        assertFalse(p_optimized.result.interrupted);
+        assertEquals(0, p_optimized.result.incomplete_count);
+        assertEquals(0, p_optimized.board.clearance_violation_count());
+    }
+
+    /**
+     * A board optimized with a thread count together with the result of the
+     * optimizer.
+     */
+    private static class OptimizedBoard {
+
+        final RoutingBoard board;
+        final BatchRouter.Result result;
+        final List<String> item_descriptions;
+
+        OptimizedBoard(RoutingBoard p_board, BatchRouter.Result p_result) {
+            this.board = p_board;
+            this.result = p_result;
+            this.item_descriptions = BenchmarkDesign.item_descriptions(p_board);
+        }
+    }
+}
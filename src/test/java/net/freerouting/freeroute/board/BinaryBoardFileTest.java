@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.interactive.RatsNest;
+import net.freerouting.freeroute.rules.ViaInfo;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Saves the routed small benchmark design in the binary board format and
+ * compares the board read back with the saved board.
+ *
+ * @author agent
+ */
+public class BinaryBoardFileTest {
+
+    private static RoutingBoard saved_board;
+    private static byte[] saved_bytes;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        saved_board = BenchmarkDesign.SMALL.read_routed().get_routing_board();
+        // the design is routed without vias
+        ViaInfo via_info = saved_board.rules.via_infos.get(0);
+        IntPoint via_center = new IntPoint(saved_board.bounding_box.ll.x + saved_board.bounding_box.width() / 10,
+                saved_board.bounding_box.ll.y + saved_board.bounding_box.height() / 10);
+        saved_board.insert_via(via_info.get_padstack(), via_center, new int[]{1},
+                via_info.get_clearance_class(), FixedState.UNFIXED, false);
+        assertEquals(1, saved_board.via_count());
+        ByteArrayOutputStream output_stream = new ByteArrayOutputStream();
+        write(saved_board, output_stream);
+        saved_bytes = output_stream.toByteArray();
+    }
+
+    /**
+     * Test of read_board method, of class BinaryBoardFile.
+     */
+    @Test
+    public void testRead_board() throws IOException {
+        RoutingBoard read_board = BinaryBoardFile.read(ByteBuffer.wrap(saved_bytes)).read_board(TestLevel.RELEASE_VERSION);
+        assert_boards_equal(saved_board, read_board);
+    }
+
+    /**
+     * Test of open method, of class BinaryBoardFile. The file must be closed,
+     * when open returns.
+     */
+    @Test
+    public void testOpen() throws IOException {
+        File file = File.createTempFile("board", ".bin");
+        try {
+            try (OutputStream output_stream = new FileOutputStream(file)) {
+                output_stream.write(saved_bytes);
+            }
+            assertTrue(BinaryBoardFile.is_binary_board_file(file));
+            BinaryBoardFile binary_file = BinaryBoardFile.open(file);
+            assertEquals(BinaryBoardFile.FORMAT_VERSION, binary_file.get_format_version());
+            assertTrue(file.delete());
+            assert_boards_equal(saved_board, binary_file.read_board(TestLevel.RELEASE_VERSION));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Test of read method, of class BinaryBoardFile, with a wrong magic
+     * number or format version.
+     */
+    @Test
+    public void testRead_rejected() {
+        byte[] wrong_magic = saved_bytes.clone();
+        ByteBuffer.wrap(wrong_magic).putInt(0, BinaryBoardFile.MAGIC + 1);
+        assert_rejected(wrong_magic);
+        for (int curr_version : new int[]{0, BinaryBoardFile.FORMAT_VERSION + 1}) {
+            byte[] wrong_version = saved_bytes.clone();
+            ByteBuffer.wrap(wrong_version).putInt(4, curr_version);
+            assert_rejected(wrong_version);
+        }
+    }
+
+    /**
+     * Checks, that undo restores the read board after items were removed.
+     */
+    @Test
+    public void testUndo_after_read() throws IOException {
+        RoutingBoard read_board = BinaryBoardFile.read(ByteBuffer.wrap(saved_bytes)).read_board(TestLevel.RELEASE_VERSION);
+        int incomplete_count = new RatsNest(read_board).incomplete_count();
+        read_board.generate_snapshot();
+        assertTrue(read_board.remove_items(new ArrayList<>(read_board.get_traces()), false));
+        assertTrue(read_board.get_traces().isEmpty());
+        assertTrue(new RatsNest(read_board).incomplete_count() > incomplete_count);
+        assertTrue(read_board.undo(null));
+        assert_boards_equal(saved_board, read_board);
+    }
+
+    private static void write(BasicBoard p_board, OutputStream p_output_stream) throws IOException {
+        BinaryBoardFile.Writer writer = new BinaryBoardFile.Writer();
+        writer.add_board(p_board);
+        writer.write(p_output_stream);
+    }
+
+    private static void assert_rejected(byte[] p_bytes) {
+        try {
+            BinaryBoardFile.read(ByteBuffer.wrap(p_bytes));
+            fail("BinaryBoardFile.read accepted a file with a wrong header");
+        } catch (IOException e) {
+            assertTrue(e instanceof StreamCorruptedException);
+        }
+    }
+
+    /**
+     * Compares the items, trace lengths, vias, incompletes and clearance
+     * violations of both boards.
+     */
+    private static void assert_boards_equal(RoutingBoard p_expected, RoutingBoard p_board) {
+        assertEquals(BenchmarkDesign.item_descriptions(p_expected), BenchmarkDesign.item_descriptions(p_board));
+        assertEquals(p_expected.get_traces().size(), p_board.get_traces().size());
+        assertEquals(p_expected.cumulative_trace_length(), p_board.cumulative_trace_length(), 0);
+        for (int i = 0; i < p_expected.get_layer_count(); ++i) {
+            assertEquals(p_expected.cumulative_trace_length(i), p_board.cumulative_trace_length(i), 0);
+        }
+        assertEquals(p_expected.via_count(), p_board.via_count());
+        assertEquals(new RatsNest(p_expected).incomplete_count(), new RatsNest(p_board).incomplete_count());
+        assertEquals(p_expected.clearance_violation_count(), p_board.clearance_violation_count());
+    }
+}
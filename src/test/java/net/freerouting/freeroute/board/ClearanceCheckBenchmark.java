@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.File;
+import java.io.IOException;
+import net.freerouting.freeroute.designformats.specctra.DsnFile;
+import net.freerouting.freeroute.designformats.specctra.DsnFileException;
+import net.freerouting.freeroute.interactive.BoardHandling;
+
+/**
+ * Measures the throughput of the clearance check of all items of a design,
+ * once sequentially item by item and once with the parallel check of the
+ * board. Not a unit test, run it with the design file as argument and
+ * optionally the number of repetitions:
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.board.ClearanceCheckBenchmark big.dsn 5
+ * </pre>
+ * The first repetition warms up the virtual machine and is not counted.
+ *
+ * @author agent
+ */
+public class ClearanceCheckBenchmark {
+
+    public static void main(String[] p_args) throws Exception {
+        if (p_args.length < 1) {
+            System.out.println("usage: ClearanceCheckBenchmark DSN_FILE [REPETITIONS]");
+            return;
+        }
+        int repetitions = p_args.length > 1 ? Integer.parseInt(p_args[1]) : 3;
+        BasicBoard board = read_design(p_args[0]).get_routing_board();
+        int item_count = board.get_items().size();
+        long sequential_nanos = 0;
+        long parallel_nanos = 0;
+        for (int i = 0; i <= repetitions; ++i) {
+            long start_time = System.nanoTime();
+            int reported_count = 0;
+            for (Item curr_item : board.get_items()) {
+                reported_count += curr_item.clearance_violations().size();
+            }
+            long curr_sequential_nanos = System.nanoTime() - start_time;
+
+            board.clearance_rules_changed();
+            start_time = System.nanoTime();
+            int violation_count = board.clearance_violation_count();
+            long curr_parallel_nanos = System.nanoTime() - start_time;
+            System.out.printf("run %d: %d items, %d reported and %d distinct violations, sequential %d ms, %.0f items/s, parallel %d ms, %.0f items/s%n",
+                    i, item_count, reported_count, violation_count, curr_sequential_nanos / 1_000_000, item_count * 1e9 / curr_sequential_nanos,
+                    curr_parallel_nanos / 1_000_000, item_count * 1e9 / curr_parallel_nanos);
+            if (i > 0) {
+                sequential_nanos += curr_sequential_nanos;
+                parallel_nanos += curr_parallel_nanos;
+            }
+        }
+        if (parallel_nanos > 0) {
+            System.out.printf("average: sequential %.0f items/s, parallel %.0f items/s on %d processors%n",
+                    item_count * repetitions * 1e9 / sequential_nanos, item_count * repetitions * 1e9 / parallel_nanos,
+                    Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static BoardHandling read_design(String p_file_name) throws IOException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        try {
+            DsnFile.read(new File(p_file_name), result, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        } catch (DsnFileException e) {
+            throw new IOException(e);
+        }
+        return result;
+    }
+}
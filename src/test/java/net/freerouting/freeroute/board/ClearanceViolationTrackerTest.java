@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.geometry.planar.IntVector;
+import net.freerouting.freeroute.rules.ViaInfo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the clearance violations kept up to date by the
+ * ClearanceViolationTracker of the board with the violations calculated
+ * from Item.clearance_violations of all board items, after inserting,
+ * moving and removing items and after undo and redo.
+ *
+ * @author agent
+ */
+public class ClearanceViolationTrackerTest {
+
+    /**
+     * Test of get_clearance_violations method, of class BasicBoard, which
+     * updates the violations only for the changed items.
+     */
+    @Test
+    public void testIncremental_update() throws IOException {
+        RoutingBoard board = BenchmarkDesign.SMALL.read_routed().get_routing_board();
+        assert_violations_equal(board);
+
+        board.generate_snapshot();
+        insert_vias_on_pins(board, 4);
+        assertTrue(board.clearance_violation_count() > 0);
+        assert_violations_equal(board);
+
+        // move a via away from its pin and a trace onto other items
+        board.generate_snapshot();
+        Via via = board.get_vias().iterator().next();
+        via.move_by(new IntVector(board.bounding_box.width() / 50, 0));
+        assert_violations_equal(board);
+        board.generate_snapshot();
+        Trace trace = board.get_traces().iterator().next();
+        trace.move_by(new IntVector(0, board.bounding_box.height() / 20));
+        assert_violations_equal(board);
+
+        // remove a via and the traces of a net
+        board.generate_snapshot();
+        Collection<Item> removed_items = new ArrayList<>();
+        removed_items.add(board.get_vias().iterator().next());
+        int net_no = board.get_traces().iterator().next().get_net_no(0);
+        removed_items.addAll(board.get_connectable_items(net_no));
+        removed_items.removeIf(p_item -> p_item instanceof Pin);
+        assertTrue(board.remove_items(removed_items, false));
+        assert_violations_equal(board);
+
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(board.undo(null));
+            assert_violations_equal(board);
+        }
+        assertEquals(0, board.clearance_violation_count());
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(board.redo(null));
+            assert_violations_equal(board);
+        }
+    }
+
+    /**
+     * Test of get_violations method, of class ClearanceViolationTracker. A
+     * violation reported by both items is contained once, from the item
+     * with the smaller id number.
+     */
+    @Test
+    public void testGet_violations_once_per_pair() throws IOException {
+        RoutingBoard board = BenchmarkDesign.SMALL.read().get_routing_board();
+        insert_vias_on_pins(board, 4);
+        Collection<ClearanceViolation> violations = board.get_clearance_violations();
+        assertFalse(violations.isEmpty());
+        Set<String> pairs = new HashSet<>();
+        for (ClearanceViolation curr_violation : violations) {
+            assertTrue(reports_violation_with(curr_violation.second_item, curr_violation.first_item));
+            assertTrue(curr_violation.first_item.get_id_no() < curr_violation.second_item.get_id_no());
+            pairs.add(curr_violation.first_item.get_id_no() + " " + curr_violation.second_item.get_id_no());
+        }
+        // each via overlaps one pin on both layers
+        assertEquals(4, pairs.size());
+        assert_violations_equal(board);
+    }
+
+    /**
+     * Test of get_violations method, of class ClearanceViolationTracker, on
+     * a board, whose items are checked in parallel.
+     */
+    @Test
+    public void testGet_violations_parallel() throws IOException {
+        RoutingBoard board = BenchmarkDesign.MEDIUM.read().get_routing_board();
+        insert_vias_on_pins(board, 20);
+        assertTrue(board.get_items().size() >= ClearanceViolationTracker.MIN_PARALLEL_ITEM_COUNT);
+        assertEquals(descriptions(expected_violations(board)),
+                descriptions(new ClearanceViolationTracker(board).get_violations()));
+        assert_violations_equal(board);
+    }
+
+    /**
+     * Inserts p_count vias onto pins of p_board, each with a net different
+     * from the net of the pin.
+     */
+    private static void insert_vias_on_pins(BasicBoard p_board, int p_count) {
+        ViaInfo via_info = p_board.rules.via_infos.get(0);
+        int max_net_no = p_board.rules.nets.max_net_no();
+        List<Pin> pins = new ArrayList<>();
+        for (Pin curr_pin : p_board.get_pins()) {
+            if (curr_pin.net_count() > 0) {
+                pins.add(curr_pin);
+            }
+        }
+        int step = pins.size() / p_count;
+        for (int i = 0; i < p_count; ++i) {
+            Pin curr_pin = pins.get(i * step);
+            int net_no = curr_pin.get_net_no(0) % max_net_no + 1;
+            p_board.insert_via(via_info.get_padstack(), curr_pin.get_center(), new int[]{net_no},
+                    via_info.get_clearance_class(), FixedState.UNFIXED, false);
+        }
+    }
+
+    /**
+     * Compares the violations of p_board with the violations calculated from
+     * all board items.
+     */
+    private static void assert_violations_equal(BasicBoard p_board) {
+        assertEquals(descriptions(expected_violations(p_board)), descriptions(p_board.get_clearance_violations()));
+    }
+
+    /**
+     * Calculates the violations of all items of p_board one after the other,
+     * where a violation reported by both items is taken from the item with the
+     * smaller id number.
+     */
+    private static Collection<ClearanceViolation> expected_violations(BasicBoard p_board) {
+        Collection<ClearanceViolation> result = new ArrayList<>();
+        for (Item curr_item : p_board.get_items()) {
+            for (ClearanceViolation curr_violation : curr_item.clearance_violations()) {
+                Item other_item = curr_violation.second_item;
+                if (curr_item.get_id_no() < other_item.get_id_no() || !reports_violation_with(other_item, curr_item)) {
+                    result.add(curr_violation);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean reports_violation_with(Item p_item, Item p_other_item) {
+        for (ClearanceViolation curr_violation : p_item.clearance_violations()) {
+            if (curr_violation.second_item == p_other_item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sorted id numbers and layers of p_violations, which do not
+     * depend on the order, in which the violations were calculated.
+     */
+    private static List<String> descriptions(Collection<ClearanceViolation> p_violations) {
+        List<String> result = new ArrayList<>();
+        for (ClearanceViolation curr_violation : p_violations) {
+            result.add(curr_violation.first_item.get_id_no() + " " + curr_violation.second_item.get_id_no()
+                    + " " + curr_violation.layer_no);
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
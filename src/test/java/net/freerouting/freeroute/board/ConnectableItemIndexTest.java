@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import net.freerouting.freeroute.rules.ViaInfo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks, that the connectable items of each net returned by the index of the
+ * board are the connectable items of the item list containing the net in the
+ * same order, after items were inserted, removed or their nets were changed,
+ * and after undo and redo of these changes.
+ *
+ * @author agent
+ */
+public class ConnectableItemIndexTest {
+
+    /**
+     * Test of get_connectable_items method, of class BasicBoard.
+     */
+    @Test
+    public void testGet_connectable_items() throws IOException {
+        BoardHandling board_handling = BenchmarkDesign.SMALL.read();
+        RoutingBoard board = board_handling.get_routing_board();
+        assert_index_equals_item_list(board);
+
+        // insert the traces of the first autoroute pass
+        board.generate_snapshot();
+        BenchmarkDesign.route(board_handling);
+        assertFalse(board.get_traces().isEmpty());
+        assert_index_equals_item_list(board);
+
+        // remove the traces of a net
+        board.generate_snapshot();
+        Trace first_trace = board.get_traces().iterator().next();
+        int net_no = first_trace.get_net_no(0);
+        Collection<Item> net_traces = new ArrayList<>();
+        for (Trace curr_trace : board.get_traces()) {
+            if (curr_trace.contains_net(net_no)) {
+                net_traces.add(curr_trace);
+            }
+        }
+        assertTrue(board.remove_items(net_traces, false));
+        assert_index_equals_item_list(board);
+
+        // move a trace to the net and remove another one from its net
+        board.generate_snapshot();
+        List<Trace> traces = new ArrayList<>(board.get_traces());
+        traces.get(0).assign_net_no(net_no);
+        Trace last_trace = traces.get(traces.size() - 1);
+        assertTrue(last_trace.remove_from_net(last_trace.get_net_no(0)));
+        assert_index_equals_item_list(board);
+
+        // insert a via of the net
+        board.generate_snapshot();
+        ViaInfo via_info = board.rules.via_infos.get(0);
+        IntPoint via_center = new IntPoint(board.bounding_box.ll.x + board.bounding_box.width() / 10,
+                board.bounding_box.ll.y + board.bounding_box.height() / 10);
+        assertNotNull(board.insert_via(via_info.get_padstack(), via_center, new int[]{net_no},
+                via_info.get_clearance_class(), FixedState.UNFIXED, false));
+        assert_index_equals_item_list(board);
+
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(board.undo(null));
+            assert_index_equals_item_list(board);
+        }
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(board.redo(null));
+            assert_index_equals_item_list(board);
+        }
+    }
+
+    /**
+     * Compares the items returned by the index with the items found by
+     * scanning the item list for all nets of p_board.
+     */
+    private static void assert_index_equals_item_list(BasicBoard p_board) {
+        Collection<Item> board_items = p_board.get_items();
+        for (int net_no = 1; net_no <= p_board.rules.nets.max_net_no(); ++net_no) {
+            List<Item> expected = new ArrayList<>();
+            for (Item curr_item : board_items) {
+                if (curr_item instanceof Connectable && curr_item.contains_net(net_no)) {
+                    expected.add(curr_item);
+                }
+            }
+            assertEquals("net " + net_no, expected, new ArrayList<>(p_board.get_connectable_items(net_no)));
+            assertEquals("net " + net_no, expected.size(), p_board.connectable_item_count(net_no));
+        }
+    }
+}
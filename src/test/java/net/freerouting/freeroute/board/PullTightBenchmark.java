@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import net.freerouting.freeroute.interactive.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the pull tight of the traces around a changed area on the routed
+ * benchmark designs. Each invocation removes a trace like the delete command
+ * of the interactive router does and pulls the nearby traces tight, the
+ * board is restored by undo afterwards. Because undo puts copies of the
+ * changed items back onto the board, the traces are remembered by their id
+ * numbers. Not a unit test, run it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=PullTightBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PullTightBenchmark {
+
+    private static final int MAX_TRACE_COUNT = 256;
+
+    @Param
+    public BenchmarkDesign design;
+
+    private RoutingBoard routing_board;
+    private Settings settings;
+    private int[] trace_id_nos;
+    private int trace_no = 0;
+    private Item curr_trace;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(PullTightBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void read_design() throws Exception {
+        BoardHandling board_handling = design.read_routed();
+        this.routing_board = board_handling.get_routing_board();
+        this.settings = board_handling.settings;
+        List<Trace> traces = new ArrayList<>(routing_board.get_traces());
+        Collections.shuffle(traces, new Random(4711));
+        this.trace_id_nos = new int[Math.min(traces.size(), MAX_TRACE_COUNT)];
+        for (int i = 0; i < trace_id_nos.length; ++i) {
+            trace_id_nos[i] = traces.get(i).get_id_no();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void generate_snapshot() {
+        trace_no = (trace_no + 1) % trace_id_nos.length;
+        curr_trace = BenchmarkDesign.find_item(routing_board, trace_id_nos[trace_no]);
+        routing_board.generate_snapshot();
+    }
+
+    @TearDown(Level.Invocation)
+    public void undo() {
+        routing_board.undo(null);
+    }
+
+    @Benchmark
+    public boolean remove_and_pull_tight() {
+        return routing_board.remove_items_and_pull_tight(Collections.singleton(curr_trace),
+                settings.get_trace_pull_tight_region_width(), settings.get_trace_pull_tight_accuracy(), false);
+    }
+}
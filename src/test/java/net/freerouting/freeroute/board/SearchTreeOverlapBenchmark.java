@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.datastructures.ShapeTree.TreeEntry;
+import net.freerouting.freeroute.geometry.planar.TileShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the overlap queries of the default search tree on the routed
+ * benchmark designs. The queries are the tree shapes of the items on the
+ * board on their layer, once without and once with the clearance of the
+ * item, like the clearance checks of the router do them. Not a unit test,
+ * run it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=SearchTreeOverlapBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchTreeOverlapBenchmark {
+
+    @Param
+    public BenchmarkDesign design;
+
+    @Param({"true", "false"})
+    public boolean layer_partitioned;
+
+    private ShapeSearchTree search_tree;
+    private List<Query> queries;
+    private int query_no = 0;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(SearchTreeOverlapBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void read_design() throws Exception {
+        BasicBoard board = design.read_routed().get_routing_board();
+        board.search_tree_manager.set_layer_partitioned(layer_partitioned);
+        this.search_tree = board.search_tree_manager.get_default_tree();
+        this.queries = new ArrayList<>();
+        for (Item curr_item : board.get_items()) {
+            for (int i = 0; i < curr_item.tree_shape_count(search_tree); ++i) {
+                TileShape curr_shape = curr_item.get_tree_shape(search_tree, i);
+                if (curr_shape != null) {
+                    queries.add(new Query(curr_shape, curr_item.shape_layer(i), curr_item.clearance_class_no()));
+                }
+            }
+        }
+        Collections.shuffle(queries, new Random(4711));
+    }
+
+    @Benchmark
+    public Collection<TreeEntry> overlapping_tree_entries() {
+        Query curr_query = next_query();
+        Collection<TreeEntry> result = new ArrayList<>();
+        search_tree.overlapping_tree_entries(curr_query.shape, curr_query.layer, result);
+        return result;
+    }
+
+    @Benchmark
+    public Collection<TreeEntry> overlapping_tree_entries_with_clearance() {
+        Query curr_query = next_query();
+        Collection<TreeEntry> result = new ArrayList<>();
+        search_tree.overlapping_tree_entries_with_clearance(curr_query.shape, curr_query.layer, new int[0],
+                curr_query.clearance_class, result);
+        return result;
+    }
+
+    private Query next_query() {
+        query_no = (query_no + 1) % queries.size();
+        return queries.get(query_no);
+    }
+
+    private static class Query {
+
+        final TileShape shape;
+        final int layer;
+        final int clearance_class;
+
+        Query(TileShape p_shape, int p_layer, int p_clearance_class) {
+            this.shape = p_shape;
+            this.layer = p_layer;
+            this.clearance_class = p_clearance_class;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.board;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import net.freerouting.freeroute.datastructures.ShapeTree.TreeEntry;
+import net.freerouting.freeroute.designformats.specctra.DsnFile;
+import net.freerouting.freeroute.designformats.specctra.DsnFileException;
+import net.freerouting.freeroute.geometry.planar.FortyfiveDegreeBoundingDirections;
+import net.freerouting.freeroute.geometry.planar.RegularTileShape;
+import net.freerouting.freeroute.geometry.planar.TileShape;
+import net.freerouting.freeroute.interactive.BoardHandling;
+
+/**
+ * Compares the search trees with one partition per layer to the trees
+ * storing the shapes of all layers together. Each tree shape of the items of
+ * a design is queried on its layer, and the visited tree nodes and the time
+ * of the queries are reported for both organizations. Not a unit test, run
+ * it with the design file as argument and optionally the number of
+ * repetitions:
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.board.ShapeSearchTreeBenchmark big.dsn 5
+ * </pre>
+ * The first repetition warms up the virtual machine and is not counted.
+ *
+ * @author agent
+ */
+public class ShapeSearchTreeBenchmark {
+
+    public static void main(String[] p_args) throws Exception {
+        if (p_args.length < 1) {
+            System.out.println("usage: ShapeSearchTreeBenchmark DSN_FILE [REPETITIONS]");
+            return;
+        }
+        int repetitions = p_args.length > 1 ? Integer.parseInt(p_args[1]) : 3;
+        BasicBoard board = read_design(p_args[0]).get_routing_board();
+        for (boolean layer_partitioned : new boolean[]{false, true}) {
+            board.search_tree_manager.set_layer_partitioned(layer_partitioned);
+            ShapeSearchTree tree = board.search_tree_manager.get_default_tree();
+            List<Query> queries = create_queries(board, tree);
+            long visited_node_count = 0;
+            for (Query curr_query : queries) {
+                visited_node_count += tree.visited_node_count(curr_query.bounds, tree.partition_no_of_layer(curr_query.layer));
+            }
+            long nanos = 0;
+            for (int i = 0; i <= repetitions; ++i) {
+                long start_time = System.nanoTime();
+                int found_count = 0;
+                for (Query curr_query : queries) {
+                    Collection<TreeEntry> found_entries = new LinkedList<>();
+                    tree.overlapping_tree_entries(curr_query.shape, curr_query.layer, found_entries);
+                    found_count += found_entries.size();
+                }
+                long curr_nanos = System.nanoTime() - start_time;
+                if (i > 0) {
+                    nanos += curr_nanos;
+                }
+                System.out.printf("%s run %d: %d queries, %d entries found, %d ms%n",
+                        layer_partitioned ? "partitioned" : "unpartitioned", i, queries.size(), found_count, curr_nanos / 1_000_000);
+            }
+            System.out.printf("%s: %d layers, %d partitions, %.1f visited nodes per query, %.0f queries/s, tree %s%n",
+                    layer_partitioned ? "partitioned" : "unpartitioned", board.get_layer_count(), tree.partition_count(),
+                    (double) visited_node_count / Math.max(queries.size(), 1),
+                    nanos > 0 ? queries.size() * repetitions * 1e9 / nanos : 0, tree.statistics());
+        }
+    }
+
+    /**
+     * Creates a query for each tree shape of the items on the board.
+     */
+    private static List<Query> create_queries(BasicBoard p_board, ShapeSearchTree p_tree) {
+        List<Query> result = new ArrayList<>();
+        for (Item curr_item : p_board.get_items()) {
+            for (int i = 0; i < curr_item.tree_shape_count(p_tree); ++i) {
+                TileShape curr_shape = curr_item.get_tree_shape(p_tree, i);
+                if (curr_shape != null) {
+                    result.add(new Query(curr_shape, curr_shape.bounding_shape(FortyfiveDegreeBoundingDirections.INSTANCE),
+                            curr_item.shape_layer(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static BoardHandling read_design(String p_file_name) throws IOException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        try {
+            DsnFile.read(new File(p_file_name), result, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        } catch (DsnFileException e) {
+            throw new IOException(e);
+        }
+        return result;
+    }
+
+    private static class Query {
+
+        final TileShape shape;
+        final RegularTileShape bounds;
+        final int layer;
+
+        Query(TileShape p_shape, RegularTileShape p_bounds, int p_layer) {
+            this.shape = p_shape;
+            this.bounds = p_bounds;
+            this.layer = p_layer;
+        }
+    }
+}
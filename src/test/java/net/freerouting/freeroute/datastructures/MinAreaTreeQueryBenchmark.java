@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.geometry.planar.FortyfiveDegreeBoundingDirections;
+import net.freerouting.freeroute.geometry.planar.IntBox;
+import net.freerouting.freeroute.geometry.planar.RegularTileShape;
+import net.freerouting.freeroute.geometry.planar.TileShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the overlap query of MinAreaTree on its array stack with the
+ * former traversal on a linked list, which ended by catching the
+ * NoSuchElementException of the empty list. The trees contain random boxes
+ * of trace and pin size, the queries are boxes of the size of a typical
+ * expansion room. Not a unit test, run it with
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.datastructures.MinAreaTreeQueryBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinAreaTreeQueryBenchmark {
+
+    private static final int BOARD_WIDTH = 10_000_000;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"1000", "100000"})
+    public int shape_count;
+
+    private MinAreaTree tree;
+    private RegularTileShape[] queries;
+    private int query_no = 0;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(MinAreaTreeQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(4711);
+        List<BoxObject> objects = new ArrayList<>(shape_count);
+        for (int i = 0; i < shape_count; ++i) {
+            objects.add(new BoxObject(i, random_box(random, 50_000)));
+        }
+        tree = new MinAreaTree(FortyfiveDegreeBoundingDirections.INSTANCE);
+        tree.insert_all(objects);
+        queries = new RegularTileShape[QUERY_COUNT];
+        for (int i = 0; i < queries.length; ++i) {
+            queries[i] = random_box(random, 500_000).bounding_shape(FortyfiveDegreeBoundingDirections.INSTANCE);
+        }
+    }
+
+    @Benchmark
+    public void array_stack(Blackhole p_blackhole) {
+        tree.visit_overlaps(next_query(), p_blackhole::consume);
+    }
+
+    @Benchmark
+    public void linked_list_with_exception(Blackhole p_blackhole) {
+        RegularTileShape query = next_query();
+        Queue<ShapeTree.TreeNode> node_stack = Collections.asLifoQueue(new LinkedList<>());
+        for (ShapeTree.TreeNode curr_root : tree.roots) {
+            if (curr_root != null) {
+                node_stack.add(curr_root);
+            }
+        }
+        for (;;) {
+            try {
+                ShapeTree.TreeNode curr_node = node_stack.remove();
+                if (curr_node.bounding_shape.intersects(query)) {
+                    if (curr_node instanceof ShapeTree.Leaf) {
+                        p_blackhole.consume(curr_node);
+                    } else {
+                        node_stack.add(((ShapeTree.InnerNode) curr_node).first_child);
+                        node_stack.add(((ShapeTree.InnerNode) curr_node).second_child);
+                    }
+                }
+            } catch (NoSuchElementException e) {
+                break;
+            }
+        }
+    }
+
+    private RegularTileShape next_query() {
+        query_no = (query_no + 1) % queries.length;
+        return queries[query_no];
+    }
+
+    private static IntBox random_box(Random p_random, int p_max_size) {
+        int x = p_random.nextInt(BOARD_WIDTH);
+        int y = p_random.nextInt(BOARD_WIDTH);
+        return new IntBox(x, y, x + 1 + p_random.nextInt(p_max_size), y + 1 + p_random.nextInt(p_max_size));
+    }
+
+    private static class BoxObject implements ShapeTree.Storable {
+
+        private final int id_no;
+        private final IntBox box;
+
+        BoxObject(int p_id_no, IntBox p_box) {
+            this.id_no = p_id_no;
+            this.box = p_box;
+        }
+
+        @Override
+        public int tree_shape_count(ShapeTree p_shape_tree) {
+            return 1;
+        }
+
+        @Override
+        public TileShape get_tree_shape(ShapeTree p_tree, int p_index) {
+            return this.box;
+        }
+
+        @Override
+        public void set_search_tree_entries(ShapeTree.Leaf[] p_entries, ShapeTree p_tree) {
+        }
+
+        @Override
+        public int compareTo(Object p_other) {
+            return Integer.compare(this.id_no, ((BoxObject) p_other).id_no);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.geometry.planar.Point;
+
+/**
+ * Measures the throughput of the Delaunay triangulation for random corners and
+ * for corners on a grid like the pins of a big power net, which contains many
+ * collinear and cocircular corners. Not a unit test, run it optionally with
+ * the number of corners and the number of repetitions:
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.datastructures.PlanarDelaunayBenchmark 100000 5
+ * </pre>
+ * The first repetition warms up the virtual machine and is not counted. Each
+ * triangulation of the first repetition is checked with validate().
+ *
+ * @author agent
+ */
+public class PlanarDelaunayBenchmark {
+
+    public static void main(String[] p_args) {
+        int corner_count = p_args.length > 0 ? Integer.parseInt(p_args[0]) : 100_000;
+        int repetitions = p_args.length > 1 ? Integer.parseInt(p_args[1]) : 3;
+        run("random", random_objects(corner_count), repetitions);
+        run("grid", grid_objects(corner_count), repetitions);
+    }
+
+    private static void run(String p_name, Collection<PlanarDelaunayTriangulation.Storable> p_objects, int p_repetitions) {
+        long nanos = 0;
+        for (int i = 0; i <= p_repetitions; ++i) {
+            long start_time = System.nanoTime();
+            PlanarDelaunayTriangulation triangulation = new PlanarDelaunayTriangulation(p_objects);
+            int edge_count = triangulation.get_edge_lines().size();
+            long curr_nanos = System.nanoTime() - start_time;
+            System.out.printf("%s run %d: %d corners, %d edges, %d ms, %.0f corners/s%n",
+                    p_name, i, p_objects.size(), edge_count, curr_nanos / 1_000_000, p_objects.size() * 1e9 / curr_nanos);
+            if (i == 0) {
+                triangulation.validate();
+            } else {
+                nanos += curr_nanos;
+            }
+        }
+        if (nanos > 0) {
+            System.out.printf("%s average: %.0f corners/s%n", p_name, p_objects.size() * p_repetitions * 1e9 / nanos);
+        }
+    }
+
+    private static Collection<PlanarDelaunayTriangulation.Storable> random_objects(int p_count) {
+        Random random = new Random(4711);
+        Collection<PlanarDelaunayTriangulation.Storable> result = new ArrayList<>(p_count);
+        for (int i = 0; i < p_count; ++i) {
+            result.add(new Corner(new IntPoint(random.nextInt(10_000_000), random.nextInt(10_000_000))));
+        }
+        return result;
+    }
+
+    private static Collection<PlanarDelaunayTriangulation.Storable> grid_objects(int p_count) {
+        int row_length = (int) Math.ceil(Math.sqrt(p_count));
+        Collection<PlanarDelaunayTriangulation.Storable> result = new ArrayList<>(p_count);
+        for (int i = 0; i < p_count; ++i) {
+            result.add(new Corner(new IntPoint(i % row_length * 1_000, i / row_length * 1_000)));
+        }
+        return result;
+    }
+
+    private static class Corner implements PlanarDelaunayTriangulation.Storable {
+
+        private final Point[] corners;
+
+        Corner(Point p_corner) {
+            this.corners = new Point[]{p_corner};
+        }
+
+        @Override
+        public Point[] get_triangulation_corners() {
+            return this.corners;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import net.freerouting.freeroute.geometry.planar.IntPoint;
+import net.freerouting.freeroute.geometry.planar.Point;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares PlanarDelaunayTriangulation with the former implementation in
+ * HistoryGraphDelaunayTriangulation and with a minimum spanning tree calculated
+ * from all pairs of corners. The ratsnest is the minimum spanning tree of the
+ * objects calculated from the edges of the triangulation like in
+ * NetIncompletes, where edges between corners of the same object are skipped.
+ * <p>
+ * The minimum spanning tree may not be unique, but the sorted lengths of its
+ * edges are, so they are compared. The edges of both triangulations are equal
+ * for corners in general position and for collinear corners. They differ at
+ * duplicate points: a corner equal to an already inserted corner of another
+ * object is only connected to that corner by an edge of length 0, so the
+ * triangle edges start at the corner inserted first. The former
+ * implementation inserts the corners in random order, the new one along a
+ * Hilbert curve, so they may connect the triangle edges to different objects
+ * at a duplicate point, but the lengths of the spanning tree are equal.
+ * <p>
+ * The former implementation calculates the circle test of the huge triangles
+ * at the bounding corners with rounding errors, which flip away edges between
+ * neighbour corners. On a grid of corners it may therefore miss edges of the
+ * minimum spanning tree, and the spanning tree from its edges is longer. The
+ * new implementation evaluates the circle test exactly.
+ *
+ * @author agent
+ */
+public class PlanarDelaunayTriangulationTest {
+
+    private static final int TEST_COUNT = 20;
+    private static final int CORNER_COUNT = 300;
+
+    /**
+     * Test of get_edge_lines method, of class PlanarDelaunayTriangulation, for
+     * random corners.
+     */
+    @Test
+    public void testGet_edge_lines_random() {
+        Random random = new Random(4711);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            List<TestObject> objects = new ArrayList<>();
+            for (int j = 0; j < CORNER_COUNT; ++j) {
+                objects.add(new TestObject(j, random_point(random, 10_000_000)));
+            }
+            TriangulationResults results = new TriangulationResults(objects, random);
+            assertEquals(results.old_edges, results.new_edges);
+            results.assert_spanning_trees_equal();
+        }
+    }
+
+    /**
+     * Test of get_edge_lines method, of class PlanarDelaunayTriangulation, for
+     * objects with up to 4 random corners near to each other like the corners
+     * of traces and pins.
+     */
+    @Test
+    public void testGet_edge_lines_random_objects() {
+        Random random = new Random(4715);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            List<TestObject> objects = new ArrayList<>();
+            for (int j = 0; j < CORNER_COUNT / 2; ++j) {
+                IntPoint first_corner = random_point(random, 10_000_000);
+                Point[] corners = new Point[1 + random.nextInt(4)];
+                for (int k = 0; k < corners.length; ++k) {
+                    corners[k] = new IntPoint(first_corner.x + random.nextInt(200_000), first_corner.y + random.nextInt(200_000));
+                }
+                objects.add(new TestObject(j, corners));
+            }
+            new TriangulationResults(objects, random).assert_spanning_trees_equal();
+        }
+    }
+
+    /**
+     * Test of get_edge_lines method, of class PlanarDelaunayTriangulation, for
+     * corners on a grid like the pins of a connector.
+     */
+    @Test
+    public void testGet_edge_lines_grid() {
+        Random random = new Random(4712);
+        for (int row_length = 1; row_length <= 20; ++row_length) {
+            List<TestObject> objects = new ArrayList<>();
+            for (int i = 0; i < 10 * row_length; ++i) {
+                objects.add(new TestObject(i, new IntPoint(i % row_length * 2_540, i / row_length * 1_270)));
+            }
+            Collections.shuffle(objects, random);
+            TriangulationResults results = new TriangulationResults(objects, random);
+            List<Double> expected = spanning_tree_lengths(results.all_edges, results.object_count);
+            assertEquals(expected, spanning_tree_lengths(results.new_edges, results.object_count));
+            assertTrue(sum(spanning_tree_lengths(results.old_edges, results.object_count)) >= sum(expected));
+        }
+    }
+
+    /**
+     * Test of get_edge_lines method, of class PlanarDelaunayTriangulation, for
+     * collinear corners, where the result consists only of the edges between
+     * neighbour corners on the line.
+     */
+    @Test
+    public void testGet_edge_lines_collinear() {
+        Random random = new Random(4713);
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {3, -7}};
+        for (int[] curr_direction : directions) {
+            List<TestObject> objects = new ArrayList<>();
+            for (int i = 0; i < CORNER_COUNT; ++i) {
+                int position = random.nextInt(1_000_000);
+                objects.add(new TestObject(i, new IntPoint(1_000 + position * curr_direction[0],
+                        -2_000 + position * curr_direction[1])));
+            }
+            TriangulationResults results = new TriangulationResults(objects, random);
+            assertEquals(results.old_edges, results.new_edges);
+            results.assert_spanning_trees_equal();
+        }
+    }
+
+    /**
+     * Test of get_edge_lines method, of class PlanarDelaunayTriangulation, for
+     * corners in general position, where up to 3 objects have a corner at the
+     * same point. The edges between the points are equal, but the objects
+     * connected at a duplicate point may differ.
+     */
+    @Test
+    public void testGet_edge_lines_duplicate_points() {
+        Random random = new Random(4714);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            List<TestObject> objects = new ArrayList<>();
+            while (objects.size() < CORNER_COUNT) {
+                IntPoint curr_point = random_point(random, 10_000_000);
+                int duplicate_count = 1 + random.nextInt(3);
+                for (int j = 0; j < duplicate_count; ++j) {
+                    objects.add(new TestObject(objects.size(), curr_point));
+                }
+            }
+            // an object with 2 equal corners does not get an edge to itself
+            objects.add(new TestObject(objects.size(), new IntPoint(-5, -5), new IntPoint(-5, -5)));
+            Collections.shuffle(objects, random);
+            TriangulationResults results = new TriangulationResults(objects, random);
+            assertEquals(point_pairs(results.old_edges), point_pairs(results.new_edges));
+            results.assert_spanning_trees_equal();
+        }
+    }
+
+    private static IntPoint random_point(Random p_random, int p_range) {
+        return new IntPoint(p_random.nextInt(p_range) - p_range / 2, p_random.nextInt(p_range) - p_range / 2);
+    }
+
+    /**
+     * Returns the sorted point pairs of the edges in p_edges with length
+     * greater than 0.
+     */
+    private static List<String> point_pairs(List<TestEdge> p_edges) {
+        List<String> result = new ArrayList<>();
+        for (TestEdge curr_edge : p_edges) {
+            if (curr_edge.length > 0) {
+                result.add(curr_edge.point_pair);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the sorted edge lengths of the minimum spanning tree of the
+     * objects connected by p_edges, calculated with the algorithm of Kruskal
+     * like in NetIncompletes.
+     */
+    private static List<Double> spanning_tree_lengths(List<TestEdge> p_edges, int p_object_count) {
+        List<TestEdge> sorted_edges = new ArrayList<>(p_edges);
+        sorted_edges.sort((p_1, p_2) -> Double.compare(p_1.length, p_2.length));
+        int[] connected_set = new int[p_object_count];
+        for (int i = 0; i < p_object_count; ++i) {
+            connected_set[i] = i;
+        }
+        List<Double> result = new ArrayList<>();
+        for (TestEdge curr_edge : sorted_edges) {
+            int from_set = connected_set[curr_edge.from_object.no];
+            int to_set = connected_set[curr_edge.to_object.no];
+            if (from_set == to_set) {
+                continue;
+            }
+            result.add(curr_edge.length);
+            for (int i = 0; i < p_object_count; ++i) {
+                if (connected_set[i] == to_set) {
+                    connected_set[i] = from_set;
+                }
+            }
+        }
+        assertEquals("the objects are not connected", p_object_count - 1, result.size());
+        return result;
+    }
+
+    private static double sum(List<Double> p_lengths) {
+        double result = 0;
+        for (double curr_length : p_lengths) {
+            result += curr_length;
+        }
+        return result;
+    }
+
+    /**
+     * Triangulates the objects with both implementations and creates the
+     * edges between all pairs of corners of different objects.
+     */
+    private static class TriangulationResults {
+
+        final int object_count;
+        final List<TestEdge> new_edges = new ArrayList<>();
+        final List<TestEdge> old_edges = new ArrayList<>();
+        final List<TestEdge> all_edges = new ArrayList<>();
+
+        TriangulationResults(List<TestObject> p_objects, Random p_random) {
+            this.object_count = p_objects.size();
+            Collection<PlanarDelaunayTriangulation.Storable> storables = new ArrayList<>(p_objects);
+            PlanarDelaunayTriangulation new_triangulation = new PlanarDelaunayTriangulation(storables);
+            assertTrue(new_triangulation.validate());
+            for (PlanarDelaunayTriangulation.ResultEdge curr_edge : new_triangulation.get_edge_lines()) {
+                this.new_edges.add(new TestEdge(curr_edge.start_object, curr_edge.start_point,
+                        curr_edge.end_object, curr_edge.end_point));
+            }
+            HistoryGraphDelaunayTriangulation old_triangulation = new HistoryGraphDelaunayTriangulation(storables, p_random);
+            for (HistoryGraphDelaunayTriangulation.ResultEdge curr_edge : old_triangulation.get_edge_lines()) {
+                this.old_edges.add(new TestEdge(curr_edge.start_object, curr_edge.start_point,
+                        curr_edge.end_object, curr_edge.end_point));
+            }
+            Collections.sort(this.new_edges);
+            Collections.sort(this.old_edges);
+            for (int i = 0; i < p_objects.size(); ++i) {
+                TestObject first_object = p_objects.get(i);
+                for (int j = i + 1; j < p_objects.size(); ++j) {
+                    TestObject second_object = p_objects.get(j);
+                    for (Point first_corner : first_object.corners) {
+                        for (Point second_corner : second_object.corners) {
+                            this.all_edges.add(new TestEdge(first_object, first_corner, second_object, second_corner));
+                        }
+                    }
+                }
+            }
+        }
+
+        void assert_spanning_trees_equal() {
+            List<Double> expected = spanning_tree_lengths(this.all_edges, this.object_count);
+            assertEquals(expected, spanning_tree_lengths(this.new_edges, this.object_count));
+            assertEquals(expected, spanning_tree_lengths(this.old_edges, this.object_count));
+        }
+    }
+
+    private static class TestEdge implements Comparable<TestEdge> {
+
+        final TestObject from_object;
+        final TestObject to_object;
+        final double length;
+        /**
+         * The points of the edge ordered by their coordinates.
+         */
+        final String point_pair;
+        /**
+         * The objects and points of the edge independent of its direction.
+         */
+        final String description;
+
+        TestEdge(PlanarDelaunayTriangulation.Storable p_from_object, Point p_from_point,
+                PlanarDelaunayTriangulation.Storable p_to_object, Point p_to_point) {
+            this.from_object = (TestObject) p_from_object;
+            this.to_object = (TestObject) p_to_object;
+            IntPoint from_point = (IntPoint) p_from_point;
+            IntPoint to_point = (IntPoint) p_to_point;
+            this.length = from_point.to_float().distance(to_point.to_float());
+            String from_string = from_point.x + " " + from_point.y;
+            String to_string = to_point.x + " " + to_point.y;
+            String from_description = this.from_object.no + " " + from_string;
+            String to_description = this.to_object.no + " " + to_string;
+            this.point_pair = from_string.compareTo(to_string) <= 0
+                    ? from_string + " " + to_string : to_string + " " + from_string;
+            this.description = from_description.compareTo(to_description) <= 0
+                    ? from_description + " " + to_description : to_description + " " + from_description;
+        }
+
+        @Override
+        public int compareTo(TestEdge p_other) {
+            return this.description.compareTo(p_other.description);
+        }
+
+        @Override
+        public boolean equals(Object p_other) {
+            return p_other instanceof TestEdge && this.description.equals(((TestEdge) p_other).description);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.description.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.description;
+        }
+    }
+
+    private static class TestObject implements PlanarDelaunayTriangulation.Storable {
+
+        final int no;
+        final Point[] corners;
+
+        TestObject(int p_no, Point... p_corners) {
+            this.no = p_no;
+            this.corners = p_corners;
+        }
+
+        @Override
+        public Point[] get_triangulation_corners() {
+            return this.corners;
+        }
+    }
+}
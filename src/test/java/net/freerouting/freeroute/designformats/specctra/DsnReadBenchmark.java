@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.designformats.specctra;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.BoardObserverAdaptor;
+import net.freerouting.freeroute.board.ItemIdNoGenerator;
+import net.freerouting.freeroute.board.TestLevel;
+import net.freerouting.freeroute.interactive.BoardHandling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of reading the benchmark designs into a board,
+ * once from a Reader on the text of the design and once from the dsn-file
+ * read into memory at once. Not a unit test, run it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=DsnReadBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DsnReadBenchmark {
+
+    @Param
+    public BenchmarkDesign design;
+
+    private String text;
+    private File file;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(DsnReadBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void write_file() throws Exception {
+        this.text = design.get_text();
+        this.file = File.createTempFile("freeroute_benchmark_", ".dsn");
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void delete_file() {
+        file.delete();
+    }
+
+    @Benchmark
+    public BoardHandling read_from_reader() throws DsnFileException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        DsnFile.read(new StringReader(text), result, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        return result;
+    }
+
+    @Benchmark
+    public BoardHandling read_from_file() throws DsnFileException {
+        BoardHandling result = BoardHandling.get_headless_instance();
+        DsnFile.read(file, result, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.designformats.specctra;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares the token streams of the jflex scanner and the byte
+ * scanner on dsn-files and measures the time both need to scan them. Not a
+ * unit test, run it with the design files as arguments:
+ * <pre>
+ * java -cp ... net.freerouting.freeroute.designformats.specctra.DsnScannerBenchmark a.dsn b.dsn
+ * </pre>
+ * The token stream is scanned like the dsn reader does it for the first
+ * three tokens and in the state YYINITIAL afterwards, which covers the
+ * keywords, identifiers and numbers of the file.
+ *
+ * @author agent
+ */
+public class DsnScannerBenchmark {
+
+    private static final int REPETITIONS = 20;
+
+    public static void main(String[] p_args) throws IOException {
+        for (String curr_file_name : p_args) {
+            File curr_file = new File(curr_file_name);
+            int token_count = compare(curr_file);
+            long reader_nanos = Long.MAX_VALUE;
+            long byte_nanos = Long.MAX_VALUE;
+            for (int i = 0; i < REPETITIONS; ++i) {
+                long start_time = System.nanoTime();
+                try (Reader reader = new InputStreamReader(new FileInputStream(curr_file), StandardCharsets.UTF_8)) {
+                    scan(new SpecctraFileScanner(reader));
+                }
+                reader_nanos = Math.min(reader_nanos, System.nanoTime() - start_time);
+                start_time = System.nanoTime();
+                scan(SpecctraByteScanner.open(curr_file));
+                byte_nanos = Math.min(byte_nanos, System.nanoTime() - start_time);
+            }
+            System.out.printf("%s: %d tokens, reader scanner %.2f ms, byte scanner %.2f ms%n",
+                    curr_file_name, token_count, reader_nanos / 1e6, byte_nanos / 1e6);
+        }
+    }
+
+    /**
+     * Returns the number of tokens, after checking that both scanners return
+     * the same tokens.
+     */
+    private static int compare(File p_file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(p_file), StandardCharsets.UTF_8)) {
+            Scanner reader_scanner = new SpecctraFileScanner(reader);
+            Scanner byte_scanner = SpecctraByteScanner.open(p_file);
+            int token_count = 0;
+            for (;;) {
+                Object reader_token = reader_scanner.next_token();
+                Object byte_token = byte_scanner.next_token();
+                boolean equal = reader_token == null ? byte_token == null
+                        : reader_token instanceof String || reader_token instanceof Number
+                        ? reader_token.equals(byte_token) : reader_token == byte_token;
+                if (!equal) {
+                    throw new IllegalStateException(p_file + ": token " + token_count + " differs: "
+                            + reader_token + " != " + byte_token);
+                }
+                if (reader_token == null) {
+                    return token_count;
+                }
+                ++token_count;
+                if (reader_token == ScopeKeyword.PCB_SCOPE && token_count == 2) {
+                    reader_scanner.yybegin(SpecctraFileScanner.NAME);
+                    byte_scanner.yybegin(SpecctraFileScanner.NAME);
+                }
+            }
+        }
+    }
+
+    private static void scan(Scanner p_scanner) throws IOException {
+        while (p_scanner.next_token() != null) {
+        }
+    }
+}
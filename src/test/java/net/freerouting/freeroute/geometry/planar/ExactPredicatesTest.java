@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.geometry.planar;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the adaptive predicates of ExactPredicates with their evaluation
+ * in BigInteger arithmetic. Besides random operands of different sizes the
+ * operands are chosen, so that the results are 0 or close to 0, where the
+ * double filter must fail.
+ *
+ * @author agent
+ */
+public class ExactPredicatesTest {
+
+    private static final int TEST_COUNT = 20_000;
+    private static final int[] BIT_LENGTHS = {4, 20, 31, 52, 62, 63, 80, 200};
+
+    /**
+     * Test of signum_of_determinant method, of class ExactPredicates.
+     */
+    @Test
+    public void testSignum_of_determinant() {
+        Random random = new Random(4711);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int bit_length = BIT_LENGTHS[i % BIT_LENGTHS.length];
+            BigInteger x_1 = random_big_integer(random, bit_length);
+            BigInteger y_1 = random_big_integer(random, bit_length);
+            BigInteger factor = random_big_integer(random, 8);
+            // (x_2, y_2) is a multiple of (x_1, y_1) disturbed by at most 1
+            BigInteger x_2 = x_1.multiply(factor).add(BigInteger.valueOf(random.nextInt(3) - 1));
+            BigInteger y_2 = y_1.multiply(factor).add(BigInteger.valueOf(random.nextInt(3) - 1));
+            BigInteger expected = x_1.multiply(y_2).subtract(x_2.multiply(y_1));
+            assertEquals(expected.signum(), ExactPredicates.signum_of_determinant(x_1, y_1, x_2, y_2));
+            BigInteger x_3 = random_big_integer(random, bit_length);
+            BigInteger y_3 = random_big_integer(random, bit_length);
+            expected = x_1.multiply(y_3).subtract(x_3.multiply(y_1));
+            assertEquals(expected.signum(), ExactPredicates.signum_of_determinant(x_1, y_1, x_3, y_3));
+        }
+    }
+
+    /**
+     * Test of signum_of_scalar_product method, of class ExactPredicates.
+     */
+    @Test
+    public void testSignum_of_scalar_product() {
+        Random random = new Random(4712);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int bit_length = BIT_LENGTHS[i % BIT_LENGTHS.length];
+            BigInteger x_1 = random_big_integer(random, bit_length);
+            BigInteger y_1 = random_big_integer(random, bit_length);
+            // (x_2, y_2) is nearly orthogonal to (x_1, y_1)
+            BigInteger x_2 = y_1.negate().add(BigInteger.valueOf(random.nextInt(3) - 1));
+            BigInteger y_2 = x_1.add(BigInteger.valueOf(random.nextInt(3) - 1));
+            BigInteger expected = x_1.multiply(x_2).add(y_1.multiply(y_2));
+            assertEquals(expected.signum(), ExactPredicates.signum_of_scalar_product(x_1, y_1, x_2, y_2));
+        }
+    }
+
+    /**
+     * Test of signum_of_difference method, of class ExactPredicates.
+     */
+    @Test
+    public void testSignum_of_difference() {
+        Random random = new Random(4713);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int bit_length = BIT_LENGTHS[i % BIT_LENGTHS.length];
+            BigInteger factor = random_big_integer(random, bit_length).abs();
+            int coor = random.nextInt();
+            BigInteger value = factor.multiply(BigInteger.valueOf(coor)).add(BigInteger.valueOf(random.nextInt(3) - 1));
+            BigInteger expected = value.subtract(factor.multiply(BigInteger.valueOf(coor)));
+            assertEquals(expected.signum(), ExactPredicates.signum_of_difference(value, factor, coor));
+        }
+    }
+
+    /**
+     * Test of side_of method for IntPoints, of class ExactPredicates.
+     */
+    @Test
+    public void testSide_of_int_point() {
+        Random random = new Random(4714);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int range = i % 2 == 0 ? 1_000_000 : Limits.CRIT_INT;
+            IntPoint line_a = random_int_point(random, range / 2);
+            IntPoint delta = random_int_point(random, range / 2);
+            IntPoint line_b = new IntPoint(line_a.x + delta.x, line_a.y + delta.y);
+            IntPoint point;
+            if (i % 3 == 0) {
+                // a point on the line through line_a and line_b
+                point = new IntPoint(line_a.x - delta.x, line_a.y - delta.y);
+            } else {
+                point = random_int_point(random, range);
+            }
+            assertEquals(side_of(big(point.x), big(point.y), BigInteger.ONE, line_a, line_b),
+                    ExactPredicates.side_of(point, line_a, line_b));
+        }
+    }
+
+    /**
+     * Test of side_of method for RationalPoints, of class ExactPredicates.
+     */
+    @Test
+    public void testSide_of_rational_point() {
+        Random random = new Random(4715);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int range = i % 2 == 0 ? 10_000 : Limits.CRIT_INT;
+            IntPoint line_a = random_int_point(random, range);
+            IntPoint line_b = random_int_point(random, range);
+            IntPoint other_a = random_int_point(random, range);
+            IntPoint other_b = random_int_point(random, range);
+            Point intersection = new Line(line_a, line_b).intersection(new Line(other_a, other_b));
+            if (!(intersection instanceof RationalPoint)) {
+                continue;
+            }
+            RationalPoint point = (RationalPoint) intersection;
+            // the intersection is on the first line and usually not on the second
+            assertEquals(Side.COLLINEAR, ExactPredicates.side_of(point, line_a, line_b));
+            assertEquals(side_of(point.x, point.y, point.z, other_a, line_b),
+                    ExactPredicates.side_of(point, other_a, line_b));
+        }
+    }
+
+    /**
+     * Test of intersection method, of class ExactPredicates.
+     */
+    @Test
+    public void testIntersection() {
+        Random random = new Random(4716);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            int range = i % 2 == 0 ? 1_000_000 : Limits.CRIT_INT / 3;
+            IntPoint a_1 = random_int_point(random, range);
+            IntPoint b_1 = random_int_point(random, range);
+            IntPoint a_2 = random_int_point(random, range);
+            IntPoint b_2;
+            if (i % 5 == 0) {
+                // parallel lines
+                b_2 = new IntPoint(a_2.x + b_1.x - a_1.x, a_2.y + b_1.y - a_1.y);
+            } else {
+                b_2 = random_int_point(random, range);
+            }
+            IntVector delta_1 = new IntVector(b_1.x - a_1.x, b_1.y - a_1.y);
+            IntVector delta_2 = new IntVector(b_2.x - a_2.x, b_2.y - a_2.y);
+            Point result = ExactPredicates.intersection(a_1, b_1, a_2, b_2, delta_1, delta_2);
+            BigInteger det_1 = big(a_1.determinant(b_1));
+            BigInteger det_2 = big(a_2.determinant(b_2));
+            BigInteger det = big(delta_2.determinant(delta_1));
+            BigInteger is_x = det_1.multiply(big(delta_2.x)).subtract(det_2.multiply(big(delta_1.x)));
+            BigInteger is_y = det_1.multiply(big(delta_2.y)).subtract(det_2.multiply(big(delta_1.y)));
+            if (det.signum() == 0) {
+                assertTrue(result.is_infinite());
+                continue;
+            }
+            BigInteger result_x;
+            BigInteger result_y;
+            BigInteger result_z;
+            if (result instanceof IntPoint) {
+                result_x = big(((IntPoint) result).x);
+                result_y = big(((IntPoint) result).y);
+                result_z = BigInteger.ONE;
+            } else {
+                result_x = ((RationalPoint) result).x;
+                result_y = ((RationalPoint) result).y;
+                result_z = ((RationalPoint) result).z;
+            }
+            assertEquals(is_x.multiply(result_z), result_x.multiply(det));
+            assertEquals(is_y.multiply(result_z), result_y.multiply(det));
+        }
+    }
+
+    /**
+     * The side of the line from p_line_a to p_line_b, on which the point (p_x
+     * / p_z, p_y / p_z) is located, calculated with BigIntegers.
+     */
+    private static Side side_of(BigInteger p_x, BigInteger p_y, BigInteger p_z, IntPoint p_line_a, IntPoint p_line_b) {
+        BigInteger point_dx = p_x.subtract(p_z.multiply(big(p_line_a.x)));
+        BigInteger point_dy = p_y.subtract(p_z.multiply(big(p_line_a.y)));
+        BigInteger line_dx = big((long) p_line_b.x - p_line_a.x);
+        BigInteger line_dy = big((long) p_line_b.y - p_line_a.y);
+        return Side.of(point_dy.multiply(line_dx).subtract(point_dx.multiply(line_dy)).signum());
+    }
+
+    private static BigInteger big(long p_value) {
+        return BigInteger.valueOf(p_value);
+    }
+
+    private static BigInteger random_big_integer(Random p_random, int p_bit_length) {
+        BigInteger result = new BigInteger(p_bit_length, p_random);
+        return p_random.nextBoolean() ? result : result.negate();
+    }
+
+    private static IntPoint random_int_point(Random p_random, int p_range) {
+        return new IntPoint(p_random.nextInt(2 * p_range) - p_range, p_random.nextInt(2 * p_range) - p_range);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.geometry.planar;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the allocation free union_area, intersects and contains
+ * functions of IntBox and IntOctagon with their evaluation on the
+ * allocated unions and octagons.
+ *
+ * @author agent
+ */
+public class RegularTileShapeTest {
+
+    private static final int TEST_COUNT = 20_000;
+    private static final int RANGE = 10_000;
+
+    @Test
+    public void testUnion_area() {
+        Random random = new Random(4711);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            RegularTileShape shape_1 = random_shape(random);
+            RegularTileShape shape_2 = random_shape(random);
+            assertEquals(shape_1.union(shape_2).area(), shape_1.union_area(shape_2), 0);
+            assertEquals(shape_1.union(shape_2).area() - shape_1.area(), shape_1.area_increase(shape_2), 0);
+        }
+    }
+
+    @Test
+    public void testIntersects_and_contains() {
+        Random random = new Random(4712);
+        for (int i = 0; i < TEST_COUNT; ++i) {
+            RegularTileShape shape_1 = random_shape(random);
+            RegularTileShape shape_2 = random_shape(random);
+            IntOctagon octagon_1 = shape_1.bounding_octagon();
+            IntOctagon octagon_2 = shape_2.bounding_octagon();
+            assertEquals(octagon_1.intersects(octagon_2), shape_1.intersects(shape_2));
+            assertEquals(octagon_1.is_contained_in(octagon_2), shape_2.contains(shape_1));
+            assertTrue(shape_1.union(shape_2).contains(shape_1));
+        }
+    }
+
+    /**
+     * Returns a random IntBox or a random normalized IntOctagon, which is not
+     * empty.
+     */
+    private static RegularTileShape random_shape(Random p_random) {
+        int x = p_random.nextInt(2 * RANGE) - RANGE;
+        int y = p_random.nextInt(2 * RANGE) - RANGE;
+        IntBox box = new IntBox(x, y, x + p_random.nextInt(RANGE / 4), y + p_random.nextInt(RANGE / 4));
+        if (p_random.nextBoolean()) {
+            return box;
+        }
+        IntOctagon octagon = box.to_IntOctagon();
+        int cut = p_random.nextInt(RANGE / 8);
+        return new IntOctagon(octagon.lx, octagon.ly, octagon.rx, octagon.uy, octagon.ulx + cut,
+                octagon.lrx - cut, octagon.llx + cut, octagon.urx - cut).normalize();
+    }
+}
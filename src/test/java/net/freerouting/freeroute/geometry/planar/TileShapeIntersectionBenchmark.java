@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.geometry.planar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.BasicBoard;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.ShapeSearchTree;
+import net.freerouting.freeroute.datastructures.ShapeTree.TreeEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the intersection of IntOctagons and of Simplexes. The pairs of
+ * shapes are the tree shapes of overlapping items of the routed benchmark
+ * designs, converted to octagons and simplexes, so that most of the
+ * intersections are not empty like in the clearance checks and the room
+ * calculations of the autorouter. Not a unit test, run it with
+ * <pre>
+ * mvn -P benchmarks verify -Djmh.include=TileShapeIntersectionBenchmark
+ * </pre>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileShapeIntersectionBenchmark {
+
+    private static final int MAX_PAIR_COUNT = 4096;
+
+    @Param({"MEDIUM"})
+    public BenchmarkDesign design;
+
+    private IntOctagon[] first_octagons;
+    private IntOctagon[] second_octagons;
+    private Simplex[] first_simplexes;
+    private Simplex[] second_simplexes;
+    private int pair_no = 0;
+
+    public static void main(String[] p_args) throws Exception {
+        new Runner(new OptionsBuilder().include(TileShapeIntersectionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void read_design() throws Exception {
+        BasicBoard board = design.read_routed().get_routing_board();
+        ShapeSearchTree search_tree = board.search_tree_manager.get_default_tree();
+        List<TileShape[]> pairs = new ArrayList<>();
+        for (Item curr_item : board.get_items()) {
+            for (int i = 0; i < curr_item.tree_shape_count(search_tree); ++i) {
+                TileShape curr_shape = curr_item.get_tree_shape(search_tree, i);
+                if (curr_shape == null) {
+                    continue;
+                }
+                Collection<TreeEntry> overlaps = new LinkedList<>();
+                search_tree.overlapping_tree_entries(curr_shape, curr_item.shape_layer(i), overlaps);
+                for (TreeEntry curr_entry : overlaps) {
+                    if (curr_entry.object != curr_item) {
+                        TileShape other_shape = curr_entry.object.get_tree_shape(search_tree, curr_entry.shape_index_in_object);
+                        pairs.add(new TileShape[]{curr_shape, other_shape});
+                    }
+                }
+            }
+        }
+        Collections.shuffle(pairs, new Random(4711));
+        int pair_count = Math.min(pairs.size(), MAX_PAIR_COUNT);
+        first_octagons = new IntOctagon[pair_count];
+        second_octagons = new IntOctagon[pair_count];
+        first_simplexes = new Simplex[pair_count];
+        second_simplexes = new Simplex[pair_count];
+        for (int i = 0; i < pair_count; ++i) {
+            TileShape[] curr_pair = pairs.get(i);
+            first_octagons[i] = curr_pair[0].bounding_octagon();
+            second_octagons[i] = curr_pair[1].bounding_octagon();
+            first_simplexes[i] = curr_pair[0].to_Simplex();
+            second_simplexes[i] = curr_pair[1].to_Simplex();
+        }
+    }
+
+    @Benchmark
+    public IntOctagon octagon_intersection() {
+        pair_no = (pair_no + 1) % first_octagons.length;
+        return first_octagons[pair_no].intersection(second_octagons[pair_no]);
+    }
+
+    @Benchmark
+    public Simplex simplex_intersection() {
+        pair_no = (pair_no + 1) % first_simplexes.length;
+        return first_simplexes[pair_no].intersection(second_simplexes[pair_no]);
+    }
+}
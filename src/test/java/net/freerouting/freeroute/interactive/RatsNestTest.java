@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 agent {@literal <}agent{@literal @}local{@literal >}
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.freerouting.freeroute.interactive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import net.freerouting.freeroute.BenchmarkDesign;
+import net.freerouting.freeroute.board.Item;
+import net.freerouting.freeroute.board.RoutingBoard;
+import net.freerouting.freeroute.board.Trace;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares a ratsnest updated after changes of the board with a ratsnest
+ * created new from the board.
+ *
+ * @author agent
+ */
+public class RatsNestTest {
+
+    /**
+     * Test of update method, of class RatsNest, after routing, removing traces
+     * and undo and redo.
+     */
+    @Test
+    public void testUpdate() throws IOException {
+        BoardHandling board_handling = BenchmarkDesign.SMALL.read();
+        RoutingBoard board = board_handling.get_routing_board();
+        RatsNest rats_nest = new RatsNest(board);
+        int unrouted_incomplete_count = rats_nest.incomplete_count();
+        assertTrue(unrouted_incomplete_count > 0);
+
+        board.generate_snapshot();
+        BenchmarkDesign.route(board_handling);
+        assert_updated_equals_new(rats_nest, board);
+        int routed_incomplete_count = rats_nest.incomplete_count();
+        assertTrue(routed_incomplete_count < unrouted_incomplete_count);
+
+        // remove the traces of every second net
+        board.generate_snapshot();
+        Collection<Item> removed_traces = new ArrayList<>();
+        for (Trace curr_trace : board.get_traces()) {
+            if (curr_trace.get_net_no(0) % 2 == 0) {
+                removed_traces.add(curr_trace);
+            }
+        }
+        assertTrue(board.remove_items(removed_traces, false));
+        assert_updated_equals_new(rats_nest, board);
+        assertTrue(rats_nest.incomplete_count() > routed_incomplete_count);
+
+        // an incomplete calculated from another item list is recalculated in the next update
+        rats_nest.recalculate(2, new ArrayList<>(), board);
+        assert_updated_equals_new(rats_nest, board);
+
+        assertTrue(board.undo(null));
+        assert_updated_equals_new(rats_nest, board);
+        assertEquals(routed_incomplete_count, rats_nest.incomplete_count());
+        assertTrue(board.undo(null));
+        assert_updated_equals_new(rats_nest, board);
+        assertEquals(unrouted_incomplete_count, rats_nest.incomplete_count());
+        assertTrue(board.redo(null));
+        assert_updated_equals_new(rats_nest, board);
+        assertTrue(board.redo(null));
+        assert_updated_equals_new(rats_nest, board);
+    }
+
+    /**
+     * Test of the RatsNest constructor, which calculates the incompletes of
+     * the nets in parallel, against the nets recalculated one after the other.
+     */
+    @Test
+    public void testRatsNest_parallel() throws IOException {
+        RoutingBoard board = BenchmarkDesign.SMALL.read_routed().get_routing_board();
+        board.generate_snapshot();
+        List<Trace> traces = new ArrayList<>(board.get_traces());
+        Collection<Item> removed_traces = new ArrayList<>();
+        for (int i = 0; i < traces.size(); i += 3) {
+            removed_traces.add(traces.get(i));
+        }
+        assertTrue(board.remove_items(removed_traces, false));
+        assertTrue(board.rules.nets.max_net_no() >= RatsNest.MIN_PARALLEL_NET_COUNT);
+        RatsNest rats_nest = new RatsNest(board);
+        assertTrue(rats_nest.incomplete_count() > 0);
+        List<String> parallel_airlines = descriptions(rats_nest);
+        int parallel_incomplete_count = rats_nest.incomplete_count();
+        for (int net_no = 1; net_no <= board.rules.nets.max_net_no(); ++net_no) {
+            rats_nest.recalculate(net_no, board);
+        }
+        assertEquals(descriptions(rats_nest), parallel_airlines);
+        assertEquals(rats_nest.incomplete_count(), parallel_incomplete_count);
+    }
+
+    private static void assert_updated_equals_new(RatsNest p_rats_nest, RoutingBoard p_board) {
+        p_rats_nest.update();
+        RatsNest new_rats_nest = new RatsNest(p_board);
+        assertEquals(new_rats_nest.incomplete_count(), p_rats_nest.incomplete_count());
+        assertEquals(descriptions(new_rats_nest), descriptions(p_rats_nest));
+    }
+
+    /**
+     * Returns the sorted nets, items and corners of the airlines of
+     * p_rats_nest.
+     */
+    private static List<String> descriptions(RatsNest p_rats_nest) {
+        List<String> result = new ArrayList<>();
+        for (RatsNest.AirLine curr_airline : p_rats_nest.get_airlines()) {
+            result.add(curr_airline.net.net_number + " " + curr_airline.from_item.get_id_no() + " "
+                    + curr_airline.from_corner + " " + curr_airline.to_item.get_id_no() + " " + curr_airline.to_corner);
+        }
+        Collections.sort(result);
+        return result;
+    }
+}